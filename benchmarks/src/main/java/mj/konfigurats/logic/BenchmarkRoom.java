@@ -0,0 +1,257 @@
+package mj.konfigurats.logic;
+
+import java.util.List;
+
+import mj.konfigurats.logic.Game.GameMode;
+import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.maps.Maps;
+import mj.konfigurats.logic.maps.Maps.MapInfo;
+import mj.konfigurats.network.GamePackets.CltCreateCharacter;
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+import mj.konfigurats.network.WorldUpdateSerializer;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.minlog.Log;
+
+/**
+ * Creates game rooms for the benchmarks. Rooms are not updated by the game scheduler -
+ * the benchmarks run their world steps and send their packets directly, using fake
+ * connections of scripted players that keep on moving and casting spells.
+ * @author MJ
+ */
+public class BenchmarkRoom {
+	private static boolean isInitiated;
+
+	private final Game game;
+	private final BenchmarkConnection[] players;
+	private final RandomXS128 random;
+	private final Vector2 position;
+
+	/**
+	 * Creates a new room with the selected amount of players. Their characters are
+	 * created immediately.
+	 * @param map the room's map.
+	 * @param playersAmount amount of scripted players.
+	 * @param seed seed of the players' input.
+	 */
+	public BenchmarkRoom(MapInfo map,int playersAmount,long seed) {
+		this(map,seed,createCharacters(playersAmount));
+	}
+
+	/**
+	 * Creates a new room with a scripted player for each character. Characters are created
+	 * immediately, in the order of the passed data.
+	 * @param map the room's map.
+	 * @param seed seed of the players' input.
+	 * @param characters classes and spells of the players' characters.
+	 */
+	public BenchmarkRoom(MapInfo map,long seed,CltCreateCharacter... characters) {
+		initiate();
+		// The benchmarks update the room themselves:
+		game = new Game("benchmark",null,map,GameMode.STARNDARD,-1,0,false);
+		random = new RandomXS128(seed);
+		position = new Vector2();
+
+		players = new BenchmarkConnection[characters.length];
+		for(int i=0; i<characters.length; i++) {
+			players[i] = new BenchmarkConnection(game,"bot"+i,characters[i]);
+			game.addPlayer(players[i]);
+		}
+		game.runTasks();
+		respawnCharacters();
+		game.handleCommands();
+	}
+
+	/**
+	 * Loads the natives and the maps. Should be run once.
+	 */
+	public static synchronized void initiate() {
+		if(!isInitiated) {
+			Log.set(Log.LEVEL_WARN);
+			GdxNativesLoader.load();
+			Box2D.init();
+			Maps.createMaps();
+			isInitiated = true;
+		}
+	}
+
+	/**
+	 * @param classIndex index of the character's class.
+	 * @return data of a non-elite character with the default spells of the scripted players.
+	 */
+	public static CltCreateCharacter createCharacter(byte classIndex) {
+		CltCreateCharacter characterData = new CltCreateCharacter();
+		characterData.isElite = false;
+		characterData.classIndex = classIndex;
+		characterData.fireSpell = 0;
+		characterData.waterSpell = 1;
+		characterData.earthSpell = 1;
+		characterData.airSpell = 2;
+		return characterData;
+	}
+
+	/**
+	 * @return the benchmarked room.
+	 */
+	public Game getGame() {
+		return game;
+	}
+
+	/**
+	 * Queues input of all scripted players and recreates characters of the players that
+	 * died. Commands are handled with the next world step.
+	 */
+	public void queueCommands() {
+		respawnCharacters();
+		List<Player> characters = game.getCharacters();
+		for(int i=0, size=characters.size(); i<size; i++) {
+			Player character = characters.get(i);
+			if(character.getOwner() == null) {
+				// Summons are not controlled by the players:
+				continue;
+			}
+			game.getWorldState().getPosition(character, position);
+			float x = position.x+random.nextFloat()*16f-8f,
+				y = position.y+random.nextFloat()*16f-8f;
+			// Players keep on moving and try to cast a spell every few steps:
+			switch(random.nextInt(12)) {
+			case 0:
+				game.handleFireCast(character.getOwner(), x, y);
+				break;
+			case 1:
+				game.handleWaterCast(character.getOwner(), x, y);
+				break;
+			case 2:
+				game.handleEarthCast(character.getOwner(), x, y);
+				break;
+			case 3:
+				game.handleAirCast(character.getOwner(), x, y);
+				break;
+			default:
+				game.handleClick(character.getOwner(), x, y);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Does a single world step with the scripted input.
+	 */
+	public void updateWorld() {
+		queueCommands();
+		game.updateWorld();
+	}
+
+	/**
+	 * Handles the queued input without a world step - for example, immediate spell casts.
+	 */
+	public void handleCommands() {
+		game.handleCommands();
+	}
+
+	/**
+	 * Sends a world update to all players. Acknowledgements of the earlier updates that
+	 * already "arrived" are registered first, so the updates are encoded against a baseline.
+	 */
+	public void sendUpdatePackets() {
+		game.handleCommands();
+		game.sendUpdatePackets();
+	}
+
+	/**
+	 * @return average size (in bytes) of the sent world updates.
+	 */
+	public double getAverageUpdateSize() {
+		long bytes = 0, updates = 0;
+		for(BenchmarkConnection player : players) {
+			bytes += player.sentBytes;
+			updates += player.sentUpdates;
+		}
+		return updates == 0 ? 0d : (double)bytes/updates;
+	}
+
+	/**
+	 * Destroys the room.
+	 */
+	public void dispose() {
+		game.dispose();
+		game.runTasks();
+	}
+
+	private static CltCreateCharacter[] createCharacters(int playersAmount) {
+		CltCreateCharacter[] characters = new CltCreateCharacter[playersAmount];
+		for(int i=0; i<playersAmount; i++) {
+			characters[i] = createCharacter((byte)(i%4));
+		}
+		return characters;
+	}
+
+	private void respawnCharacters() {
+		List<Player> characters = game.getCharacters();
+		for(BenchmarkConnection player : players) {
+			player.isAlive = false;
+		}
+		for(int i=0, size=characters.size(); i<size; i++) {
+			if(characters.get(i).getOwner() instanceof BenchmarkConnection) {
+				((BenchmarkConnection)characters.get(i).getOwner()).isAlive = true;
+			}
+		}
+		for(BenchmarkConnection player : players) {
+			if(!player.isAlive) {
+				game.createCharacter(player, player.characterData);
+			}
+		}
+	}
+
+	/**
+	 * Connection of a scripted player. Drops all packets, but measures world updates and
+	 * acknowledges them with a delay of a few updates, like a player with a usual ping.
+	 * @author MJ
+	 */
+	private static class BenchmarkConnection extends Connection {
+		// Amount of updates sent before an update is acknowledged - about 150ms of round trip:
+		private final static int ACK_DELAY=3;
+		private final Game game;
+		private final CltCreateCharacter characterData;
+		// Indexes of the sent updates that were not acknowledged yet:
+		private final long[] sentIndexes;
+		private long sentBytes,sentUpdates;
+		private boolean isAlive;
+
+		public BenchmarkConnection(Game game,String name,CltCreateCharacter characterData) {
+			this.game = game;
+			setName(name);
+			this.characterData = characterData;
+			sentIndexes = new long[ACK_DELAY];
+		}
+
+		@Override
+		public int sendUDP(Object packet) {
+			if(packet instanceof SrvUpdateWorld) {
+				SrvUpdateWorld update = (SrvUpdateWorld)packet;
+				int length = WorldUpdateSerializer.getEncodedLength(update);
+				if(length > 0) {
+					sentBytes += length;
+					sentUpdates++;
+				}
+				// Acknowledging the update sent ACK_DELAY updates ago:
+				int slot = (int)(update.updateIndex % ACK_DELAY);
+				if(sentIndexes[slot] > 0L) {
+					game.acknowledgeWorld(this, sentIndexes[slot]);
+				}
+				sentIndexes[slot] = update.updateIndex;
+				return length;
+			}
+			return 0;
+		}
+
+		@Override
+		public int sendTCP(Object packet) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package mj.konfigurats.logic;
+
+import java.util.concurrent.TimeUnit;
+
+import mj.konfigurats.logic.maps.Maps.MapInfo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single world step and sending of the world updates in a room full of
+ * scripted players, which keep on moving and casting spells. The world is stepped before
+ * each measured send, so every update carries an actual delta. Average size of the world
+ * updates is printed after each trial.
+ * @author MJ
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(1)
+public class GameBenchmark {
+	@Benchmark
+	public void updateWorld(Room room) {
+		room.room.updateWorld();
+	}
+
+	@Benchmark
+	public void sendUpdatePackets(SteppedRoom room) {
+		room.room.sendUpdatePackets();
+	}
+
+	/**
+	 * A whole room tick, as run by the game scheduler.
+	 */
+	@Benchmark
+	public void tick(Room room) {
+		room.room.updateWorld();
+		room.room.sendUpdatePackets();
+	}
+
+	/**
+	 * The benchmarked room.
+	 * @author MJ
+	 */
+	@State(Scope.Thread)
+	public static class Room {
+		@Param({"2","6","12"})
+		private int players;
+		protected BenchmarkRoom room;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			room = new BenchmarkRoom(MapInfo.THE_EYE, players, 42L);
+			// Letting the players spread out and cast a few spells before measuring:
+			for(int i=0; i<100; i++) {
+				room.updateWorld();
+				room.sendUpdatePackets();
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			System.out.println("Average world update size with "+players+" players: "
+				+String.format("%.1f", room.getAverageUpdateSize())+" bytes.");
+			room.dispose();
+			GameScheduler.SCHEDULER.shutdown();
+		}
+	}
+
+	/**
+	 * The benchmarked room, which steps its world before each invocation of the benchmark,
+	 * outside of the measured time.
+	 * @author MJ
+	 */
+	@State(Scope.Thread)
+	public static class SteppedRoom extends Room {
+		@Setup(Level.Invocation)
+		public void step() {
+			room.updateWorld();
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package mj.konfigurats.logic.maps;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+/**
+ * Measures loading of a single TMX map, done for each new game room.
+ * @author MJ
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(1)
+public class MapLoaderBenchmark {
+	@Param({"the_eye","separation","caves_of_despair"})
+	private String map;
+	private MapLoader mapLoader;
+
+	@Setup
+	public void setUp() {
+		mapLoader = new MapLoader();
+	}
+
+	@Benchmark
+	public TiledMap load() {
+		return mapLoader.load(map);
+	}
+}
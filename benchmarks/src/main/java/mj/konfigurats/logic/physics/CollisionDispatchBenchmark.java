@@ -0,0 +1,153 @@
+package mj.konfigurats.logic.physics;
+
+import java.util.concurrent.TimeUnit;
+
+import mj.konfigurats.logic.BenchmarkRoom;
+import mj.konfigurats.logic.Game;
+import mj.konfigurats.logic.GameScheduler;
+import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.entities.Teleport;
+import mj.konfigurats.logic.maps.Maps.MapInfo;
+import mj.konfigurats.logic.physics.BodyInformation.BodyBehavior;
+import mj.konfigurats.network.GamePackets.CltCreateCharacter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Measures the contact listener's callbacks: a beginning and an ending contact of common
+ * pairs of fixtures, taken from actual game rooms. The table-based dispatcher is compared
+ * with the if/else chain it replaced. Pairs are chosen so that each invocation does the
+ * same work: the projectile hits a shielded player, the summon touches its own caster
+ * and the player has just arrived at the teleport.
+ * @author MJ
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(1)
+public class CollisionDispatchBenchmark {
+	private BenchmarkRoom room,teleportRoom;
+	private CollisionDispatcher dispatcher;
+	private IfElseContactListener listener;
+	private Fixture[] fixturesA,fixturesB;
+	private Player teleportedPlayer;
+	private int teleportIndex;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// Curse and summon beast:
+		CltCreateCharacter casterData = BenchmarkRoom.createCharacter((byte)0);
+		casterData.fireSpell = 3;
+		casterData.earthSpell = 5;
+		// Fireball:
+		CltCreateCharacter targetData = BenchmarkRoom.createCharacter((byte)1);
+		room = new BenchmarkRoom(MapInfo.THE_EYE, 42L, casterData, targetData);
+		// The map has no teleports:
+		teleportRoom = new BenchmarkRoom(MapInfo.DESERT_MAYHEM, 1, 42L);
+		dispatcher = new CollisionDispatcher();
+		listener = new IfElseContactListener();
+
+		Game game = room.getGame();
+		Player caster = game.getCharacters().get(0), target = game.getCharacters().get(1);
+		// Curses do not affect shielded players:
+		target.setShielded(true);
+		Vector2 casterPosition = caster.getPlayerBody().getPosition(),
+			targetPosition = target.getPlayerBody().getPosition();
+		game.handleFireCast(caster.getOwner(), targetPosition.x, targetPosition.y);
+		game.handleEarthCast(caster.getOwner(), targetPosition.x, targetPosition.y);
+		game.handleFireCast(target.getOwner(), casterPosition.x, casterPosition.y);
+		room.handleCommands();
+		if(caster.getSummon() == null) {
+			throw new IllegalStateException("Summon was not created.");
+		}
+
+		Fixture casterFixture = getFixture(caster.getPlayerBody()),
+			bounds = getFixture(game, BodyBehavior.BOUNDS);
+		teleportedPlayer = teleportRoom.getGame().getCharacters().get(0);
+		Fixture teleport = getFixture(teleportRoom.getGame(), BodyBehavior.TELEPORT);
+		teleportIndex = ((Teleport)teleport.getBody().getUserData()).getEntityIndex();
+		fixturesA = new Fixture[] { casterFixture, casterFixture, casterFixture,
+			getFixture(game, BodyBehavior.PROJECTILE),
+			getFixture(game, BodyBehavior.EXPLODING_PROJECTILE),
+			getFixture(caster.getSummon().getPlayerBody()), teleport };
+		fixturesB = new Fixture[] { getFixture(target.getPlayerBody()), bounds,
+			getFixture(game, BodyBehavior.LAVA), getFixture(target.getPlayerBody()), bounds,
+			casterFixture, getFixture(teleportedPlayer.getPlayerBody()) };
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		room.dispose();
+		teleportRoom.dispose();
+		GameScheduler.SCHEDULER.shutdown();
+	}
+
+	@Benchmark
+	public void dispatchContacts() {
+		// The player has just arrived, so it is not teleported again:
+		teleportedPlayer.setLastUsedTeleport(teleportIndex);
+		for(int i=0; i<fixturesA.length; i++) {
+			dispatcher.beginContact(fixturesA[i], fixturesB[i]);
+			dispatcher.endContact(fixturesA[i], fixturesB[i]);
+		}
+	}
+
+	@Benchmark
+	public void checkContacts() {
+		// The player has just arrived, so it is not teleported again:
+		teleportedPlayer.setLastUsedTeleport(teleportIndex);
+		for(int i=0; i<fixturesA.length; i++) {
+			listener.beginContact(fixturesA[i], fixturesB[i]);
+			listener.endContact(fixturesA[i], fixturesB[i]);
+		}
+	}
+
+	/**
+	 * @param body a character's body.
+	 * @return fixture of the body with a known behavior.
+	 */
+	private static Fixture getFixture(Body body) {
+		for(Fixture fixture : body.getFixtureList()) {
+			if(fixture.getUserData() instanceof BodyBehavior) {
+				return fixture;
+			}
+		}
+		throw new IllegalStateException("No fixture with behavior in body: "+body.getUserData());
+	}
+
+	/**
+	 * @param game contains the fixture.
+	 * @param behavior behavior of the fixture.
+	 * @return first fixture with the behavior in the room's world.
+	 */
+	private static Fixture getFixture(Game game,BodyBehavior behavior) {
+		Array<Body> bodies = new Array<Body>();
+		game.getBox2DWorld().getBodies(bodies);
+		for(Body body : bodies) {
+			for(Fixture fixture : body.getFixtureList()) {
+				if(fixture.getUserData() == behavior) {
+					return fixture;
+				}
+			}
+		}
+		throw new IllegalStateException("No fixture with behavior: "+behavior);
+	}
+}
@@ -0,0 +1,121 @@
+package mj.konfigurats.network;
+
+import java.util.concurrent.TimeUnit;
+
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Compares encoding of a single world update delta with WorldUpdateSerializer and with
+ * Kryo's default field serializer, which was used to send the updates before. Sizes of
+ * both encodings are printed after setting up the trial.
+ * @author MJ
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1)
+@Measurement(iterations=10,time=1)
+@Fork(1)
+public class WorldUpdateSerializerBenchmark {
+	@Param({"4","12"})
+	private int characters;
+	private SrvUpdateWorld packet,legacyPacket;
+	private Kryo legacyKryo;
+	private Output buffer,legacyBuffer;
+
+	@Setup
+	public void setUp() {
+		RandomXS128 random = new RandomXS128(42L);
+		int projectiles = characters*2;
+		packet = new SrvUpdateWorld();
+		packet.gameRoomIndex = "benchmark".hashCode();
+		packet.updateIndex = 1000L;
+		packet.baselineIndex = 997L;
+		packet.minX = packet.minY = -4f;
+		packet.maxX = packet.maxY = 44f;
+		packet.charactersAmount = characters;
+		packet.charactersIndexes = new int[characters];
+		packet.charactersPositions = new float[characters*2];
+		packet.charactereDisplayData = new byte[characters*2];
+		for(int i=0; i<characters; i++) {
+			packet.charactersIndexes[i] = i*3+1;
+			packet.charactersPositions[i*2] = random.nextFloat()*40f;
+			packet.charactersPositions[i*2+1] = random.nextFloat()*40f;
+			packet.charactereDisplayData[i*2] = (byte)random.nextInt(8);
+			packet.charactereDisplayData[i*2+1] = (byte)random.nextInt(4);
+		}
+		packet.projectilesAmount = projectiles;
+		packet.projectileIndexes = new int[projectiles];
+		packet.projectileAnimations = new byte[projectiles];
+		packet.projectileDisplayData = new float[projectiles*4];
+		for(int i=0; i<projectiles; i++) {
+			packet.projectileIndexes[i] = characters*3+i*2+1;
+			packet.projectileAnimations[i] = (byte)random.nextInt(20);
+			packet.projectileDisplayData[i*4] = random.nextFloat()*40f;
+			packet.projectileDisplayData[i*4+1] = random.nextFloat()*40f;
+			packet.projectileDisplayData[i*4+2] = random.nextFloat()*20f-10f;
+			packet.projectileDisplayData[i*4+3] = random.nextFloat()*20f-10f;
+		}
+		packet.removedAmount = 2;
+		packet.removedIndexes = new int[] {2,5};
+		packet.effectsAmount = 0;
+		packet.effectTypes = new byte[0];
+		packet.effectIndexes = new int[0];
+		packet.effectData = new float[0];
+		buffer = new Output(512,-1);
+
+		// The old format sent whole arrays:
+		legacyPacket = new SrvUpdateWorld();
+		legacyPacket.gameRoomIndex = packet.gameRoomIndex;
+		legacyPacket.updateIndex = packet.updateIndex;
+		legacyPacket.baselineIndex = packet.baselineIndex;
+		legacyPacket.charactersIndexes = packet.charactersIndexes;
+		legacyPacket.charactersPositions = packet.charactersPositions;
+		legacyPacket.charactereDisplayData = packet.charactereDisplayData;
+		legacyPacket.projectileIndexes = packet.projectileIndexes;
+		legacyPacket.projectileAnimations = packet.projectileAnimations;
+		legacyPacket.projectileDisplayData = packet.projectileDisplayData;
+		legacyPacket.removedIndexes = packet.removedIndexes;
+		legacyPacket.effectTypes = packet.effectTypes;
+		legacyPacket.effectIndexes = packet.effectIndexes;
+		legacyPacket.effectData = packet.effectData;
+		legacyKryo = new Kryo();
+		legacyKryo.register(byte[].class);
+		legacyKryo.register(float[].class);
+		legacyKryo.register(int[].class);
+		legacyKryo.register(SrvUpdateWorld.class);
+		legacyBuffer = new Output(512,-1);
+
+		System.out.println("Delta with "+characters+" characters and "+projectiles
+			+" projectiles: "+encode()+" bytes, "+encodeLegacy()+" bytes in the old format.");
+	}
+
+	@Benchmark
+	public int encode() {
+		WorldUpdateSerializer.encode(packet, buffer);
+		return WorldUpdateSerializer.getEncodedLength(packet);
+	}
+
+	@Benchmark
+	public int encodeLegacy() {
+		legacyBuffer.clear();
+		legacyKryo.writeObject(legacyBuffer, legacyPacket);
+		return legacyBuffer.position();
+	}
+}
@@ -0,0 +1,171 @@
+package mj.konfigurats.logic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.lang.management.ManagementFactory;
+
+import mj.konfigurats.logic.Game.GameMode;
+import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.maps.Maps.MapInfo;
+import mj.konfigurats.logic.physics.SpellUtils.SpellType;
+import mj.konfigurats.network.GamePackets.CltCreateCharacter;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Vector2;
+import com.esotericsoftware.kryonet.Connection;
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Makes sure that handling the players' input doesn't allocate once the room is warmed up:
+ * clicks and casts should reuse pooled commands, bodies, projectiles and events. Spells
+ * that create summons are not checked - summons are new characters.
+ * @author MJ
+ */
+public class CastAllocationTest {
+	// Casts before the measurement fill the pools and load the classes:
+	private final static int WARMUP_CASTS=3,MEASURED_CASTS=3;
+	// Longest cooldown of the checked spells, including the class modificator:
+	private final static float COOLDOWN=25f;
+	private final static ThreadMXBean THREADS=(ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+	private Game game;
+	private Connection player;
+	private Player character;
+
+	@BeforeClass
+	public static void initiate() {
+		BenchmarkRoom.initiate();
+	}
+
+	@After
+	public void dispose() {
+		game.dispose();
+		game.runTasks();
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		GameScheduler.SCHEDULER.shutdown();
+	}
+
+	@Test
+	public void testClick() {
+		createRoom(0, 0, 0, 0);
+		Vector2 position = character.getPlayerBody().getPosition();
+		float x = position.x, y = position.y;
+		for(int i=0; i<WARMUP_CASTS; i++) {
+			click(x, y);
+		}
+
+		long allocatedBytes = getAllocatedBytes();
+		for(int i=0; i<MEASURED_CASTS; i++) {
+			click(x, y);
+		}
+		// Measuring before the assertion - loading its message allocates:
+		allocatedBytes = getAllocatedBytes()-allocatedBytes;
+		assertEquals("Clicks should not allocate.", 0L, allocatedBytes);
+	}
+
+	@Test
+	public void testProjectileCasts() {
+		// Fireball, freeze, entangle and lightning bolt:
+		createRoom(0, 1, 2, 2);
+		assertCastsDoNotAllocate();
+	}
+
+	@Test
+	public void testDelayedCasts() {
+		// Meteor, ice block, cure and haste:
+		createRoom(1, 2, 3, 0);
+		assertCastsDoNotAllocate();
+	}
+
+	@Test
+	public void testBuffCasts() {
+		// Blazing feet, shield, poison and lightning bolt:
+		createRoom(2, 3, 1, 2);
+		assertCastsDoNotAllocate();
+	}
+
+	private void createRoom(int fireSpell,int waterSpell,int earthSpell,int airSpell) {
+		// The test updates the room itself:
+		game = new Game("allocation",null,MapInfo.THE_EYE,GameMode.STARNDARD,-1,0,false);
+		player = new Connection() {
+			@Override
+			public int sendTCP(Object packet) {
+				return 0;
+			}
+
+			@Override
+			public int sendUDP(Object packet) {
+				return 0;
+			}
+		};
+		game.addPlayer(player);
+		game.runTasks();
+
+		CltCreateCharacter characterData = new CltCreateCharacter();
+		// Fire mage - the class does not matter, as long as it's not elite:
+		characterData.classIndex = 0;
+		characterData.fireSpell = (byte)fireSpell;
+		characterData.waterSpell = (byte)waterSpell;
+		characterData.earthSpell = (byte)earthSpell;
+		characterData.airSpell = (byte)airSpell;
+		game.createCharacter(player, characterData);
+		game.handleCommands();
+		character = game.getCharacters().get(0);
+	}
+
+	private void assertCastsDoNotAllocate() {
+		Vector2 position = character.getPlayerBody().getPosition();
+		// Casting away from the character, so it doesn't get hurt by its own spells:
+		float x = position.x+6f, y = position.y;
+		for(int i=0; i<WARMUP_CASTS; i++) {
+			cast(x, y);
+			waitForCooldowns();
+		}
+
+		long allocatedBytes = 0L;
+		for(int i=0; i<MEASURED_CASTS; i++) {
+			long bytesBeforeCast = getAllocatedBytes();
+			cast(x, y);
+			allocatedBytes += getAllocatedBytes()-bytesBeforeCast;
+			// Making sure the spells were actually cast:
+			for(SpellType spellType : SpellType.values()) {
+				assertFalse(character.canCastSpell(spellType.getIndex()));
+			}
+			waitForCooldowns();
+		}
+		assertEquals("Casts should not allocate.", 0L, allocatedBytes);
+	}
+
+	private void click(float x,float y) {
+		game.handleClick(player, x, y);
+		game.handleCommands();
+	}
+
+	private void cast(float x,float y) {
+		game.handleFireCast(player, x, y);
+		game.handleWaterCast(player, x, y);
+		game.handleEarthCast(player, x, y);
+		game.handleAirCast(player, x, y);
+		game.handleCommands();
+	}
+
+	private void waitForCooldowns() {
+		for(float time=0f; time<COOLDOWN; time+=Game.UPDATE_TIME) {
+			game.updateWorld();
+			// Clearing the queued SFX:
+			game.sendUpdatePackets();
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,350 @@
+package mj.konfigurats.bots;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import mj.konfigurats.managers.NetworkManager;
+import mj.konfigurats.network.ConnectionPackets.*;
+import mj.konfigurats.network.GamePackets.*;
+import mj.konfigurats.network.LobbyPackets.*;
+import mj.konfigurats.network.Ports;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.esotericsoftware.kryonet.Client;
+import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.kryonet.Listener;
+import com.esotericsoftware.minlog.Log;
+
+/**
+ * A headless player. Registers and logs in, creates or joins a game room, creates
+ * a character and keeps on sending clicks and spell casts around its character, just
+ * like a human player would. Each received world update is acknowledged.
+ * Latency of a spell cast is measured from sending the input to receiving the first
+ * world update after the cast's cooldown packet - they are sent by the same world step.
+ * @author MJ
+ */
+public class Bot extends Listener {
+	private final static String PASSWORD="loadtesting";
+	// Casts that didn't receive a cooldown in this time (nanoseconds) were probably ignored:
+	private final static long CAST_TIMEOUT=2000000000L;
+	// Time (milliseconds) between a character's death and respawn:
+	private final static long RESPAWN_DELAY=1000;
+	private final String username,roomName,serverAddress;
+	private final boolean isRoomCreator;
+	private final BotStatistics statistics;
+	private final ScheduledExecutorService scheduler;
+	private final Client client;
+	private final CltCreateCharacter characterData;
+	private final long clickInterval,castInterval;
+	private ScheduledFuture<?> clicksTask,castsTask;
+
+	// Game state, modified by the client's thread:
+	private volatile int roomIndex,characterIndex;
+	private volatile boolean isPlaying,hasCharacter;
+	private volatile float x,y;
+	private long lastUpdateIndex;
+	// Cast timing: sent by the input thread, confirmed by the client's thread:
+	private volatile long castTime,confirmedCastTime;
+	private int nextSpell;
+
+	/**
+	 * @param index bot's index, used to create its username.
+	 * @param roomName name of the room that the bot joins.
+	 * @param isRoomCreator true if the bot should create the room.
+	 * @param serverAddress address of the tested server.
+	 * @param clicksPerSecond amount of clicks sent every second.
+	 * @param castsPerSecond amount of spell casts sent every second.
+	 * @param statistics will contain the bot's measurements.
+	 * @param scheduler sends the input of all bots.
+	 */
+	public Bot(int index,String roomName,boolean isRoomCreator,String serverAddress,
+		float clicksPerSecond,float castsPerSecond,BotStatistics statistics,
+		ScheduledExecutorService scheduler) {
+		this.username = "bot"+index;
+		this.roomName = roomName;
+		this.isRoomCreator = isRoomCreator;
+		this.serverAddress = serverAddress;
+		this.statistics = statistics;
+		this.scheduler = scheduler;
+		clickInterval = (long)(1000000L/Math.max(0.01f, clicksPerSecond));
+		castInterval = (long)(1000000L/Math.max(0.01f, castsPerSecond));
+		characterIndex = -1;
+
+		characterData = new CltCreateCharacter();
+		characterData.isElite = false;
+		characterData.classIndex = (byte)(index%4);
+		characterData.fireSpell = 0;
+		characterData.waterSpell = 1;
+		characterData.earthSpell = 1;
+		characterData.airSpell = 2;
+
+		client = new Client();
+		NetworkManager.registerPackets(client.getKryo());
+		client.addListener(this);
+	}
+
+	/**
+	 * Connects to the server. Registration and logging in are started once connected.
+	 * @throws IOException if unable to connect.
+	 */
+	public void connect() throws IOException {
+		client.start();
+		client.connect(5000,serverAddress,Ports.TCP.get(),Ports.UDP.get());
+	}
+
+	/**
+	 * Stops sending input and disconnects.
+	 */
+	public void dispose() {
+		stopInput();
+		client.stop();
+	}
+
+	@Override
+	public void connected(Connection connection) {
+		// Account might already exist - logging in either way:
+		CltRegister packet = new CltRegister();
+		packet.username = username;
+		packet.password = PASSWORD;
+		client.sendTCP(packet);
+	}
+
+	@Override
+	public void disconnected(Connection connection) {
+		stopInput();
+		Log.warn(username+": disconnected.");
+	}
+
+	@Override
+	public void received(Connection connection,Object packet) {
+		if(packet instanceof SrvUpdateWorld) {
+			handleUpdate((SrvUpdateWorld)packet);
+		}
+		else if(packet instanceof SrvSetSpellCooldown) {
+			// Cast was handled - waiting for the world update:
+			confirmedCastTime = castTime;
+			castTime = 0L;
+		}
+		else if(packet instanceof SrvUpdateHealth) {
+			if(hasCharacter && ((SrvUpdateHealth)packet).currentHealth <= 0f) {
+				// Character died:
+				hasCharacter = false;
+				characterIndex = -1;
+				scheduleRespawn();
+			}
+		}
+		else if(packet instanceof SrvCreateCharacter) {
+			SrvCreateCharacter character = (SrvCreateCharacter)packet;
+			if(username.equals(character.playerName)) {
+				characterIndex = character.characterIndex;
+				x = character.x;
+				y = character.y;
+				hasCharacter = true;
+			}
+		}
+		else if(packet instanceof SrvRegistered || packet instanceof SrvUsernameTaken) {
+			CltLogin login = new CltLogin();
+			login.username = username;
+			login.password = PASSWORD;
+			client.sendTCP(login);
+		}
+		else if(packet instanceof SrvLogged) {
+			enterRoom();
+		}
+		else if(packet instanceof SrvStartGame) {
+			startGame(((SrvStartGame)packet).roomIndex);
+		}
+		else if(packet instanceof SrvSwitchMap) {
+			startGame(((SrvSwitchMap)packet).roomIndex);
+		}
+		else if(packet instanceof SrvGameNotFound || packet instanceof SrvNoGamesOpen) {
+			// Room creator might not be logged yet:
+			scheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					enterRoom();
+				}
+			}, 1, TimeUnit.SECONDS);
+		}
+		else if(packet instanceof SrvLeaveGame) {
+			stopInput();
+		}
+		else if(packet instanceof SrvAlreadyLogged || packet instanceof SrvPasswordInvalid
+			|| packet instanceof SrvUsernameInvalid || packet instanceof SrvCorruptedData
+			|| packet instanceof SrvServerBusy || packet instanceof SrvGameFull
+			|| packet instanceof SrvGameAlreadyExists || packet instanceof SrvWrongMapIndex) {
+			Log.warn(username+": unable to play, received "+packet.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Creates or joins the bot's room.
+	 */
+	private void enterRoom() {
+		if(isRoomCreator) {
+			CltCreateGame packet = new CltCreateGame();
+			packet.name = roomName;
+			// The eye, standard mode:
+			packet.mapIndex = 0;
+			packet.gameMode = 0;
+			client.sendTCP(packet);
+		}
+		else {
+			CltJoinGame packet = new CltJoinGame();
+			packet.name = roomName;
+			client.sendTCP(packet);
+		}
+	}
+
+	/**
+	 * Starts playing in the room.
+	 * @param roomIndex index of the joined room.
+	 */
+	private void startGame(int roomIndex) {
+		this.roomIndex = roomIndex;
+		lastUpdateIndex = -1L;
+		hasCharacter = false;
+		characterIndex = -1;
+		client.sendTCP(new CltGameInitiated());
+		client.sendTCP(characterData);
+		if(!isPlaying) {
+			isPlaying = true;
+			statistics.setPlaying(true);
+			startInput();
+		}
+	}
+
+	/**
+	 * Registers and acknowledges the update. Updates character's position.
+	 * @param packet received world update.
+	 */
+	private void handleUpdate(SrvUpdateWorld packet) {
+		if(packet.gameRoomIndex != roomIndex) {
+			return;
+		}
+		long receiveTime = System.nanoTime();
+		// Updates are sent each world step - missing indexes were lost:
+		if(packet.updateIndex > lastUpdateIndex) {
+			statistics.registerUpdate(lastUpdateIndex < 0 ? 0
+				: packet.updateIndex-lastUpdateIndex-1);
+			lastUpdateIndex = packet.updateIndex;
+		}
+
+		CltAcknowledgeWorld acknowledgement = new CltAcknowledgeWorld();
+		acknowledgement.gameRoomIndex = roomIndex;
+		acknowledgement.updateIndex = packet.updateIndex;
+		client.sendUDP(acknowledgement);
+
+		// Characters that didn't move since the baseline are not included:
+		for(int i=0; i<packet.charactersAmount; i++) {
+			if(packet.charactersIndexes[i] == characterIndex) {
+				x = packet.charactersPositions[i*2];
+				y = packet.charactersPositions[i*2+1];
+				break;
+			}
+		}
+
+		long confirmed = confirmedCastTime;
+		if(confirmed != 0L) {
+			confirmedCastTime = 0L;
+			statistics.registerLatency(receiveTime-confirmed);
+		}
+	}
+
+	private void startInput() {
+		clicksTask = scheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				sendClick();
+			}
+		}, MathUtils.random(clickInterval), clickInterval, TimeUnit.MICROSECONDS);
+		castsTask = scheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				sendCast();
+			}
+		}, MathUtils.random(castInterval), castInterval, TimeUnit.MICROSECONDS);
+	}
+
+	private void stopInput() {
+		if(clicksTask != null) {
+			clicksTask.cancel(false);
+			castsTask.cancel(false);
+			clicksTask = castsTask = null;
+		}
+		if(isPlaying) {
+			isPlaying = false;
+			statistics.setPlaying(false);
+		}
+	}
+
+	private void scheduleRespawn() {
+		scheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				if(isPlaying && !hasCharacter) {
+					client.sendTCP(characterData);
+				}
+			}
+		}, RESPAWN_DELAY, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Moves the character to a random position nearby.
+	 */
+	private void sendClick() {
+		if(hasCharacter) {
+			CltHandleClick packet = new CltHandleClick();
+			packet.x = x+MathUtils.random(-6f, 6f);
+			packet.y = y+MathUtils.random(-6f, 6f);
+			client.sendUDP(packet);
+			statistics.registerInput();
+		}
+	}
+
+	/**
+	 * Casts the next spell at a random position nearby.
+	 */
+	private void sendCast() {
+		if(!hasCharacter) {
+			return;
+		}
+		float targetX = x+MathUtils.random(-8f, 8f), targetY = y+MathUtils.random(-8f, 8f);
+		Object packet;
+		switch(nextSpell++%4) {
+		case 0:
+			CltHandleFireCast fireCast = new CltHandleFireCast();
+			fireCast.x = targetX;
+			fireCast.y = targetY;
+			packet = fireCast;
+			break;
+		case 1:
+			CltHandleWaterCast waterCast = new CltHandleWaterCast();
+			waterCast.x = targetX;
+			waterCast.y = targetY;
+			packet = waterCast;
+			break;
+		case 2:
+			CltHandleEarthCast earthCast = new CltHandleEarthCast();
+			earthCast.x = targetX;
+			earthCast.y = targetY;
+			packet = earthCast;
+			break;
+		default:
+			CltHandleAirCast airCast = new CltHandleAirCast();
+			airCast.x = targetX;
+			airCast.y = targetY;
+			packet = airCast;
+			break;
+		}
+		// Measuring only one cast at a time - casts on cooldown get no response:
+		long currentTime = System.nanoTime(), previousCast = castTime;
+		if(previousCast == 0L || currentTime-previousCast > CAST_TIMEOUT) {
+			castTime = currentTime;
+		}
+		client.sendUDP(packet);
+		statistics.registerInput();
+	}
+}
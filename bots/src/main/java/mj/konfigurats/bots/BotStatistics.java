@@ -0,0 +1,131 @@
+package mj.konfigurats.bots;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measurements shared by all bots. Latencies are stored in a histogram with 1 millisecond
+ * buckets, so percentiles can be computed without keeping every sample. Thread-safe.
+ * @author MJ
+ */
+public class BotStatistics {
+	// Latencies longer than this (in milliseconds) are stored in the last bucket:
+	private final static int MAX_LATENCY=5000;
+	private final AtomicLongArray latencies;
+	private final AtomicLong receivedUpdates,lostUpdates,sentInputs,playingBots;
+
+	public BotStatistics() {
+		latencies = new AtomicLongArray(MAX_LATENCY+1);
+		receivedUpdates = new AtomicLong();
+		lostUpdates = new AtomicLong();
+		sentInputs = new AtomicLong();
+		playingBots = new AtomicLong();
+	}
+
+	/**
+	 * @param latency time between sending an input and receiving the world update
+	 *	that contains its effects, in nanoseconds.
+	 */
+	public void registerLatency(long latency) {
+		latencies.incrementAndGet((int)Math.min(MAX_LATENCY, latency/1000000L));
+	}
+
+	/**
+	 * @param lost amount of world updates that were skipped before the received one.
+	 */
+	public void registerUpdate(long lost) {
+		receivedUpdates.incrementAndGet();
+		if(lost > 0) {
+			lostUpdates.addAndGet(lost);
+		}
+	}
+
+	/**
+	 * Should be called after a bot sends a click or a spell cast.
+	 */
+	public void registerInput() {
+		sentInputs.incrementAndGet();
+	}
+
+	/**
+	 * @param playing true if a bot entered a game room, false if it left.
+	 */
+	public void setPlaying(boolean playing) {
+		if(playing) {
+			playingBots.incrementAndGet();
+		}
+		else {
+			playingBots.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @param percentile 0-1.
+	 * @return latency in milliseconds below which the selected part of samples are.
+	 *	-1 if there are no samples.
+	 */
+	public int getLatencyPercentile(double percentile) {
+		long samples = 0;
+		for(int i=0; i<latencies.length(); i++) {
+			samples += latencies.get(i);
+		}
+		if(samples == 0) {
+			return -1;
+		}
+		long rank = (long)Math.ceil(samples*percentile), current = 0;
+		for(int i=0; i<latencies.length(); i++) {
+			current += latencies.get(i);
+			if(current >= rank && current > 0) {
+				return i;
+			}
+		}
+		return MAX_LATENCY;
+	}
+
+	/**
+	 * @return percent of world updates that never reached the bots.
+	 */
+	public double getUpdatesLoss() {
+		long lost = lostUpdates.get(), all = lost+receivedUpdates.get();
+		return all == 0 ? 0d : lost*100d/all;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("bots in game: ").append(playingBots.get())
+			.append(", inputs sent: ").append(sentInputs.get())
+			.append(", updates received: ").append(receivedUpdates.get())
+			.append(", lost: ").append(lostUpdates.get())
+			.append(String.format(" (%.2f%%)", getUpdatesLoss()))
+			.append(", input latency p50/p90/p99/max: ")
+			.append(getLatencyPercentile(0.5d)).append('/')
+			.append(getLatencyPercentile(0.9d)).append('/')
+			.append(getLatencyPercentile(0.99d)).append('/')
+			.append(getLatencyPercentile(1d)).append(" ms");
+		appendCpuLoad(builder);
+		return builder.toString();
+	}
+
+	/**
+	 * Bots are expected to run on the server's host, so its CPU load is approximated
+	 * by the load of the whole system minus the bots' process.
+	 * @param builder will contain the CPU load, if available.
+	 */
+	private static void appendCpuLoad(StringBuilder builder) {
+		OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+		if(system instanceof com.sun.management.OperatingSystemMXBean) {
+			double systemLoad = ((com.sun.management.OperatingSystemMXBean)system).getSystemCpuLoad(),
+				botsLoad = ((com.sun.management.OperatingSystemMXBean)system).getProcessCpuLoad();
+			if(systemLoad >= 0d && botsLoad >= 0d) {
+				builder.append(String.format(", CPU: host %.1f%%, bots %.1f%%, server ~%.1f%%",
+					systemLoad*100d, botsLoad*100d, Math.max(0d, systemLoad-botsLoad)*100d));
+			}
+		}
+		else {
+			builder.append(", system load average: ").append(system.getSystemLoadAverage());
+		}
+	}
+}
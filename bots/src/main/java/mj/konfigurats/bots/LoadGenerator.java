@@ -0,0 +1,67 @@
+package mj.konfigurats.bots;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import mj.konfigurats.managers.NetworkManager;
+
+import com.esotericsoftware.minlog.Log;
+
+/**
+ * Runs headless bots against a game server and periodically reports their measurements.
+ * Settings are passed as system properties:
+ * SERVER_IP (localhost), BOTS (12), BOTS_PER_ROOM (6, at most 12), CLICKS_PER_SECOND (4),
+ * CASTS_PER_SECOND (1), DURATION (in seconds, 60) and REPORT_INTERVAL (in seconds, 10).
+ * Increase the amount of bots until the latency or the updates loss grow, to find
+ * the room and player capacity of the server's host.
+ * @author MJ
+ */
+public class LoadGenerator {
+	public static void main(String[] args) throws InterruptedException {
+		String serverAddress = System.getProperty("SERVER_IP", NetworkManager.LOCALHOST);
+		int botsAmount = Integer.parseInt(System.getProperty("BOTS", "12")),
+			botsPerRoom = Math.max(1, Math.min(12, Integer.parseInt(System.getProperty("BOTS_PER_ROOM", "6")))),
+			duration = Integer.parseInt(System.getProperty("DURATION", "60")),
+			reportInterval = Math.max(1, Integer.parseInt(System.getProperty("REPORT_INTERVAL", "10")));
+		float clicksPerSecond = Float.parseFloat(System.getProperty("CLICKS_PER_SECOND", "4")),
+			castsPerSecond = Float.parseFloat(System.getProperty("CASTS_PER_SECOND", "1"));
+		Log.INFO();
+
+		final BotStatistics statistics = new BotStatistics();
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+			Runtime.getRuntime().availableProcessors());
+		List<Bot> bots = new ArrayList<Bot>(botsAmount);
+		for(int i=0; i<botsAmount; i++) {
+			Bot bot = new Bot(i, "bots"+(i/botsPerRoom), i%botsPerRoom == 0, serverAddress,
+				clicksPerSecond, castsPerSecond, statistics, scheduler);
+			try {
+				bot.connect();
+				bots.add(bot);
+			}
+			catch(IOException exception) {
+				Log.error("Bot "+i+" is unable to connect to "+serverAddress+": "+exception.getMessage());
+				bot.dispose();
+			}
+		}
+		Log.info("Started "+bots.size()+" bots in "+(botsAmount+botsPerRoom-1)/botsPerRoom
+			+" rooms, running for "+duration+" seconds.");
+
+		scheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				Log.info(statistics.toString());
+			}
+		}, reportInterval, reportInterval, TimeUnit.SECONDS);
+		Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+
+		for(Bot bot : bots) {
+			bot.dispose();
+		}
+		scheduler.shutdownNow();
+		Log.info("Final results: "+statistics);
+	}
+}
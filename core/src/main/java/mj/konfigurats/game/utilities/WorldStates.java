@@ -0,0 +1,128 @@
+package mj.konfigurats.game.utilities;
+
+import com.badlogic.gdx.utils.IntSet;
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+
+/**
+ * Rebuilds full world states from delta-compressed server updates. Keeps the last
+ * states in a ring buffer, so they can serve as baselines for the next updates.
+ * Should hold as many states as the server's snapshot history. Special effects are not
+ * a part of the state - they are displayed only once, with the received update.
+ * @author MJ
+ */
+public class WorldStates {
+	// Has to be a power of 2:
+	private final static int SIZE=32,MASK=SIZE-1;
+	private final SrvUpdateWorld[] states;
+	// Entities that are not copied from the baseline:
+	private final IntSet skippedIndexes;
+
+	public WorldStates() {
+		states = new SrvUpdateWorld[SIZE];
+		skippedIndexes = new IntSet();
+	}
+
+	/**
+	 * @param packet world update received from the server.
+	 * @return full world state or null if the update's baseline is no longer available.
+	 */
+	public SrvUpdateWorld reconstruct(SrvUpdateWorld packet) {
+		SrvUpdateWorld state;
+		if(packet.isKeyframe) {
+			state = packet;
+		}
+		else {
+			SrvUpdateWorld baseline = get(packet.baselineIndex);
+			if(baseline == null) {
+				return null;
+			}
+			state = merge(baseline,packet);
+		}
+		states[(int)(state.updateIndex & MASK)] = state;
+		return state;
+	}
+
+	/**
+	 * @param updateIndex index of the update.
+	 * @return stored state or null if it was already replaced or never received.
+	 */
+	private SrvUpdateWorld get(long updateIndex) {
+		SrvUpdateWorld state = states[(int)(updateIndex & MASK)];
+		return state != null && state.updateIndex == updateIndex ? state : null;
+	}
+
+	/**
+	 * @param baseline full state that the delta was compared against.
+	 * @param delta contains changed and removed entities.
+	 * @return a new full state.
+	 */
+	private SrvUpdateWorld merge(SrvUpdateWorld baseline,SrvUpdateWorld delta) {
+		SrvUpdateWorld state = new SrvUpdateWorld();
+		state.gameRoomIndex = delta.gameRoomIndex;
+		state.updateIndex = delta.updateIndex;
+		state.isKeyframe = true;
+		state.baselineIndex = -1;
+
+		// Removed and changed entities are not copied:
+		skippedIndexes.clear();
+		for(int i=0; i<delta.removedAmount; i++) {
+			skippedIndexes.add(delta.removedIndexes[i]);
+		}
+		for(int i=0; i<delta.charactersAmount; i++) {
+			skippedIndexes.add(delta.charactersIndexes[i]);
+		}
+		for(int i=0; i<delta.projectilesAmount; i++) {
+			skippedIndexes.add(delta.projectileIndexes[i]);
+		}
+
+		// Merging characters:
+		int amount = delta.charactersAmount;
+		for(int i=0; i<baseline.charactersAmount; i++) {
+			if(!skippedIndexes.contains(baseline.charactersIndexes[i])) {
+				amount++;
+			}
+		}
+		state.charactersAmount = amount;
+		state.charactersIndexes = new int[amount];
+		state.charactersPositions = new float[amount*2];
+		state.charactereDisplayData = new byte[amount*2];
+		int i = 0;
+		for(int j=0; j<baseline.charactersAmount; j++) {
+			if(!skippedIndexes.contains(baseline.charactersIndexes[j])) {
+				state.charactersIndexes[i] = baseline.charactersIndexes[j];
+				System.arraycopy(baseline.charactersPositions, j*2, state.charactersPositions, i*2, 2);
+				System.arraycopy(baseline.charactereDisplayData, j*2, state.charactereDisplayData, i*2, 2);
+				i++;
+			}
+		}
+		System.arraycopy(delta.charactersIndexes, 0, state.charactersIndexes, i, delta.charactersAmount);
+		System.arraycopy(delta.charactersPositions, 0, state.charactersPositions, i*2, delta.charactersAmount*2);
+		System.arraycopy(delta.charactereDisplayData, 0, state.charactereDisplayData, i*2, delta.charactersAmount*2);
+
+		// Merging projectiles:
+		amount = delta.projectilesAmount;
+		for(int j=0; j<baseline.projectilesAmount; j++) {
+			if(!skippedIndexes.contains(baseline.projectileIndexes[j])) {
+				amount++;
+			}
+		}
+		state.projectilesAmount = amount;
+		state.projectileIndexes = new int[amount];
+		state.projectileAnimations = new byte[amount];
+		state.projectileDisplayData = new float[amount*4];
+		i = 0;
+		for(int j=0; j<baseline.projectilesAmount; j++) {
+			if(!skippedIndexes.contains(baseline.projectileIndexes[j])) {
+				state.projectileIndexes[i] = baseline.projectileIndexes[j];
+				state.projectileAnimations[i] = baseline.projectileAnimations[j];
+				System.arraycopy(baseline.projectileDisplayData, j*4, state.projectileDisplayData, i*4, 4);
+				i++;
+			}
+		}
+		System.arraycopy(delta.projectileIndexes, 0, state.projectileIndexes, i, delta.projectilesAmount);
+		System.arraycopy(delta.projectileAnimations, 0, state.projectileAnimations, i, delta.projectilesAmount);
+		System.arraycopy(delta.projectileDisplayData, 0, state.projectileDisplayData, i*4, delta.projectilesAmount*4);
+		state.removedIndexes = new int[0];
+		return state;
+	}
+}
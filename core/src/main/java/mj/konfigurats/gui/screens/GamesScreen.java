@@ -863,16 +863,18 @@ public class GamesScreen extends AbstractScreen {
 			// Updating game logic:
 			if(battleManager != null) {
 				battleManager.update((SrvUpdateWorld)packet);
-				// Updating the health bar:
-				if(Float.compare(healthBar.getCurrentHealth(),
-					((SrvUpdateWorld)packet).currentHealth) != 0) {
-					healthBar.setCurrentHealth(((SrvUpdateWorld)packet).currentHealth);
-				}
-				// Updating summon health bar:
-				if(Float.compare(summonHealthBar.getCurrentHealth(),
-					((SrvUpdateWorld)packet).summonHealth) != 0) {
-					summonHealthBar.setCurrentHealth(((SrvUpdateWorld)packet).summonHealth);
-				}
+			}
+		}
+		else if(packet instanceof SrvUpdateHealth) {
+			// Updating the health bar:
+			if(Float.compare(healthBar.getCurrentHealth(),
+				((SrvUpdateHealth)packet).currentHealth) != 0) {
+				healthBar.setCurrentHealth(((SrvUpdateHealth)packet).currentHealth);
+			}
+			// Updating summon health bar:
+			if(Float.compare(summonHealthBar.getCurrentHealth(),
+				((SrvUpdateHealth)packet).summonHealth) != 0) {
+				summonHealthBar.setCurrentHealth(((SrvUpdateHealth)packet).summonHealth);
 			}
 		}
 		else if(packet instanceof SrvPlayerNotElite) {
@@ -906,24 +908,6 @@ public class GamesScreen extends AbstractScreen {
 				(2, Actions.sequence(Actions.fadeOut(0.15f),
 				Actions.fadeIn(0.15f)))));
 		}
-		else if(packet instanceof SrvDisplaySFX) {
-			// Trying to display a SFX:
-			if(battleManager != null) {
-				battleManager.displaySFX((SrvDisplaySFX)packet);
-			}
-		}
-		else if(packet instanceof SrvAttachSFX) {
-			// Trying to attach SFX to a player:
-			if(battleManager != null) {
-				battleManager.displaySFX((SrvAttachSFX)packet);
-			}
-		}
-		else if(packet instanceof SrvSetEntityFalling) {
-			// Setting an entity falling:
-			if(battleManager != null) {
-				battleManager.setEntityFalling((SrvSetEntityFalling)packet);
-			}
-		}
 		else if(packet instanceof SrvSwitchMap) {
 			// Changing map - clearing chats:
 			interfaceChat.clearChat();
@@ -23,8 +23,11 @@ public class LobbyScreen extends AbstractInterfaceScreen {
 	private Skin userInterface;
 	private Table activeGames;
 	private Chat chat;
+	private RankingDialog rankingDialog;
 	// Control variables:
 	private Array<PctGameInfo> activeGamesList;
+	// Amount of ranking entries shown at once:
+	private final static int RANKING_PAGE=10;
 
 	@Override
 	public void create() {
@@ -134,9 +137,8 @@ public class LobbyScreen extends AbstractInterfaceScreen {
 							public void clicked(InputEvent event, float x, float y) {
 								((Core)Gdx.app.getApplicationListener()).getInterfaceManager()
 									.displayConnectingDialog(true);
-								// Requesting ranking data:
-								((Core)Gdx.app.getApplicationListener()).getNetworkManager()
-									.sendTCP(new CltShowRanking());
+								// Requesting the first page of ratio ranking:
+								requestRanking(CltShowRanking.RATIO, 0, false);
 							}
 						});
 					}
@@ -298,133 +300,185 @@ public class LobbyScreen extends AbstractInterfaceScreen {
 		else if(packet instanceof SrvRankingData) {
 			((Core)Gdx.app.getApplicationListener()).getInterfaceManager()
 				.displayConnectingDialog(false);
-			final SrvRankingData rankingData = (SrvRankingData)packet;
-			new Dialog("Ranking",userInterface,"dialog") {
-				private final Label[][] playerLabels;
-				private final Label title;
-				private RankingType rankingType;
+			// Reusing the ranking dialog if it's still displayed:
+			if(rankingDialog == null || rankingDialog.getStage() == null) {
+				rankingDialog = new RankingDialog();
+				rankingDialog.setRankingData((SrvRankingData)packet);
+				rankingDialog.show(stage);
+			}
+			else {
+				rankingDialog.setRankingData((SrvRankingData)packet);
+			}
+		}
+	}
+
+	/**
+	 * Requests a page of the ranking from the server.
+	 * @param rankingType type of the ranking.
+	 * @param from 0-based position of the first entry.
+	 * @param aroundUser true to get the entries around the user instead.
+	 */
+	private void requestRanking(byte rankingType,int from,boolean aroundUser) {
+		CltShowRanking request = new CltShowRanking();
+		request.rankingType = rankingType;
+		request.from = from;
+		request.amount = RANKING_PAGE;
+		request.aroundUser = aroundUser;
+		((Core)Gdx.app.getApplicationListener()).getNetworkManager().sendTCP(request);
+	}
+
+	/**
+	 * Displays a single page of a ranking. Changing the ranking type or the page
+	 * requests new data from the server.
+	 * @author MJ
+	 */
+	private class RankingDialog extends Dialog {
+		private final Label title,userScore;
+		private final Table entries;
+		private SrvRankingData rankingData;
+
+		public RankingDialog() {
+			super("Ranking",userInterface,"dialog");
+			padTop(InterfaceManager.DIALOG_PAD_TOP);
 
+			// Showing player's score:
+			getButtonTable().add(userScore = new Label("",userInterface,"dark")).row();
+
+			// Adding buttons capable of changing ranking type:
+			getButtonTable().add(new Table() {
 				{
-					padTop(InterfaceManager.DIALOG_PAD_TOP);
+					add(getRankingTypeButton("Best ratio", CltShowRanking.RATIO)).width(96).pad(2);
+					add(getRankingTypeButton("Most kills", CltShowRanking.KILLS)).width(96).pad(2);
+					add(getRankingTypeButton("Most deaths", CltShowRanking.DEATHS)).width(96).pad(2);
+				}
+			}).row();
+
+			getContentTable().add(title = new Label("",userInterface,"dark")).row();
 
-					// Showing player's score:
-					getButtonTable().add(new Label("Your score: "+ rankingData.userKills
-						+ "/" + rankingData.userDeaths,userInterface,"dark")).row();
+			// Creating a table for players' data:
+			getContentTable().add(new ScrollPane(entries = new Table(),userInterface) {
+				{
+					setOverscroll(false, false);
+				}
+			}).expand().fill().height(96).row();
 
-					// Adding buttons capable of changing ranking type:
-					getButtonTable().add(new Table() {
+			// Adding page controls:
+			getButtonTable().add(new Table() {
+				{
+					add(new TextButton("Previous", userInterface) {
 						{
-							add(new TextButton("Best ratio", userInterface) {
-								{
-									addListener(new ClickListener() {
-										@Override
-										public void clicked(InputEvent event, float x, float y) {
-											setRankingType(RankingType.RATIO);
-										}
-									});
+							addListener(new ClickListener() {
+								@Override
+								public void clicked(InputEvent event, float x, float y) {
+									if(rankingData.from > 0) {
+										requestRanking(rankingData.rankingType,
+											Math.max(0, rankingData.from-RANKING_PAGE), false);
+									}
 								}
-							}).width(96).pad(2);
-							add(new TextButton("Most kills", userInterface) {
-								{
-									addListener(new ClickListener() {
-										@Override
-										public void clicked(InputEvent event, float x, float y) {
-											setRankingType(RankingType.KILLS);
-										}
-									});
-								}
-							}).width(96).pad(2);
-							add(new TextButton("Most deaths", userInterface) {
-								{
-									addListener(new ClickListener() {
-										@Override
-										public void clicked(InputEvent event, float x, float y) {
-											setRankingType(RankingType.DEATHS);
-										}
-									});
-								}
-							}).width(96).pad(2);
+							});
 						}
-					}).row();
-
-					getContentTable().add(title = new Label("Best ratio:",
-						userInterface,"dark")).row();
-
-					// Creating labels with players' data:
-					playerLabels = new Label[2][rankingData.topRatio.length];
-					getContentTable().add(new ScrollPane(new Table() {
+					}).width(96).pad(2);
+					add(new TextButton("Around me", userInterface) {
 						{
-							int index = 0;
-							for(String player : rankingData.topRatio) {
-								String[] playerData = player.split(" ");
-								playerLabels[0][index] = new Label(playerData[0],userInterface);
-								playerLabels[1][index] = new Label(playerData[1],userInterface);
-								add(playerLabels[0][index]).pad(2).expandX().left();
-								add(playerLabels[1][index]).pad(2).right().row();
-								index++;
-							}
+							addListener(new ClickListener() {
+								@Override
+								public void clicked(InputEvent event, float x, float y) {
+									requestRanking(rankingData.rankingType, 0, true);
+								}
+							});
 						}
-					}, userInterface) {
+					}).width(96).pad(2);
+					add(new TextButton("Next", userInterface) {
 						{
-							setOverscroll(false, false);
+							addListener(new ClickListener() {
+								@Override
+								public void clicked(InputEvent event, float x, float y) {
+									if(rankingData.from+RANKING_PAGE < rankingData.rankedAmount) {
+										requestRanking(rankingData.rankingType,
+											rankingData.from+RANKING_PAGE, false);
+									}
+								}
+							});
 						}
-					}).expand().fill().height(96).row();
-
-					getButtonTable().add(new Label("Ranking is refreshed every hour.",
-						userInterface)).row();
-
-					button("Back");
+					}).width(96).pad(2);
 				}
+			}).row();
 
-				/**
-				 * Changes the currently displayed ranking.
-				 * @param rankingType type of the displayed ranking.
-				 */
-				private void setRankingType(final RankingType rankingType) {
-					if(this.rankingType != rankingType) {
-						this.rankingType = rankingType;
+			getButtonTable().add(new Label("Ranking is updated after each game.",
+				userInterface)).row();
 
-						getContentTable().addAction(Actions.sequence(Actions.fadeOut(0.2f),
-						Actions.run(new Runnable() {
-							@Override
-							public void run() {
-								String[] data;
-								switch(rankingType) {
-								case DEATHS:
-									data = rankingData.topDeaths;
-									title.setText("Most deaths:");
-									break;
-								case KILLS:
-									data = rankingData.topKills;
-									title.setText("Most kills:");
-									break;
-								case RATIO:
-									data = rankingData.topRatio;
-									title.setText("Best ratio:");
-									break;
-								default:
-									data = null;
-									break;
-								}
+			button("Back");
+		}
 
-								// Updating labels:
-								int index = 0;
-								for(String player : data) {
-									String[] playerData = player.split(" ");
-									playerLabels[0][index].setText(playerData[0]);
-									playerLabels[1][index].setText(playerData[1]);
-									index++;
-								}
-							}
-						}),Actions.fadeIn(0.2f)));
+		/**
+		 * @param text button's text.
+		 * @param rankingType type of the ranking displayed after clicking.
+		 * @return button requesting the first page of the ranking.
+		 */
+		private TextButton getRankingTypeButton(String text,final byte rankingType) {
+			TextButton button = new TextButton(text, userInterface);
+			button.addListener(new ClickListener() {
+				@Override
+				public void clicked(InputEvent event, float x, float y) {
+					if(rankingData.rankingType != rankingType) {
+						requestRanking(rankingType, 0, false);
 					}
 				}
-			}.show(stage);
+			});
+			return button;
 		}
-	}
 
-	private static enum RankingType {
-		RATIO,KILLS,DEATHS;
+		/**
+		 * Changes the currently displayed ranking page.
+		 * @param rankingData page of the ranking received from the server.
+		 */
+		public void setRankingData(final SrvRankingData rankingData) {
+			boolean firstPage = this.rankingData == null;
+			this.rankingData = rankingData;
+
+			int rank = rankingData.userRanks[rankingData.rankingType];
+			userScore.setText("Your score: "+rankingData.userKills+"/"+rankingData.userDeaths
+				+ (rank < 0 ? " (unranked)" : " (#"+(rank+1)+")"));
+
+			if(firstPage) {
+				refreshEntries();
+			}
+			else {
+				getContentTable().addAction(Actions.sequence(Actions.fadeOut(0.2f),
+					Actions.run(new Runnable() {
+						@Override
+						public void run() {
+							refreshEntries();
+						}
+					}),Actions.fadeIn(0.2f)));
+			}
+		}
+
+		private void refreshEntries() {
+			switch(rankingData.rankingType) {
+			case CltShowRanking.KILLS:
+				title.setText("Most kills:");
+				break;
+			case CltShowRanking.DEATHS:
+				title.setText("Most deaths:");
+				break;
+			default:
+				title.setText("Best ratio:");
+				break;
+			}
+
+			// Recreating labels with players' data:
+			entries.clear();
+			for(int index=0; index<rankingData.usernames.length; index++) {
+				entries.add(new Label((rankingData.from+index+1)+".",userInterface)).pad(2).right();
+				entries.add(new Label(rankingData.usernames[index],userInterface)).pad(2).expandX().left();
+				entries.add(new Label(rankingData.kills[index]+"/"+rankingData.deaths[index],
+					userInterface)).pad(2).right().row();
+			}
+			if(rankingData.usernames.length == 0) {
+				entries.add(new Label("No ranked players.",userInterface)).pad(2);
+			}
+		}
 	}
 
 	/**
@@ -218,6 +218,11 @@ public class MenuScreen extends AbstractInterfaceScreen {
 				((Core)Gdx.app.getApplicationListener()).getInterfaceManager()
 					.displayError("Data corrupted.","Please try to log in again.");
 			}
+			else if(packet instanceof SrvServerBusy) {
+				// Too many users logging in at once.
+				((Core)Gdx.app.getApplicationListener()).getInterfaceManager()
+					.displayError("Server is busy.","Please try again later.");
+			}
 		}
 	}
 
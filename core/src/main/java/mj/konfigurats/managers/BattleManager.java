@@ -26,6 +26,7 @@ import mj.konfigurats.game.entities.SFX.SFXType;
 import mj.konfigurats.game.utilities.Maps.MapInfo;
 import mj.konfigurats.game.utilities.SpellUtils;
 import mj.konfigurats.game.utilities.SpellUtils.SpellType;
+import mj.konfigurats.game.utilities.WorldStates;
 import mj.konfigurats.gui.screens.GamesScreen;
 import mj.konfigurats.network.GamePackets.*;
 
@@ -53,6 +54,7 @@ public class BattleManager {
 	private final float yOffset;
 	private float cameraShakeX,cameraShakeY;
 	private long updateIndex;
+	private final WorldStates worldStates;
 
 	// Temporary values:
 	private Vector2 tempVector2;
@@ -75,6 +77,7 @@ public class BattleManager {
 		tempVector2 = new Vector2();
 		tempVector3 = new Vector3();
 		updateIndex = Long.MIN_VALUE;
+		worldStates = new WorldStates();
 
 		// Calculating map offset:
 		yOffset = map.getProperties().get("tileheight",int.class)/2;
@@ -106,95 +109,133 @@ public class BattleManager {
 	}
 
 	/**
-	 * Updates sprites positions, schedules animations.
+	 * Rebuilds the world state from the server's update and acknowledges it.
+	 * Displays special effects of the update.
 	 * @param packet server's packet.
 	 */
 	public void update(SrvUpdateWorld packet) {
 		// Making sure the packet is from the right room:
 		if(packet.gameRoomIndex == roomIndex) {
-			// Making sure the packet is up-to-date:
-			if(packet.updateIndex > updateIndex) {
-				// Setting the new update index:
-				updateIndex = packet.updateIndex;
-
-				// Setting entities data:
-				for(int i=0; i<packet.charactersIndexes.length; i++) {
-					if(entities.containsKey(packet.charactersIndexes[i])) {
-						Player player = (Player)entities.get(packet.charactersIndexes[i]);
-						// Setting position:
-						player.updatePosition(box2DToMapCoords(packet.charactersPositions[i*2],
-							packet.charactersPositions[i*2+1]));
-						// Setting direction:
-						player.setDirection(packet.charactereDisplayData[i*2]);
-						// Setting animation state:
-						player.setAnimation(PlayerAnimationType.getAnimationType
-							(packet.charactereDisplayData[i*2+1]));
-						// Making sure the entity is checked:
-						player.setUpdated(true);
-					}
+			SrvUpdateWorld worldState = worldStates.reconstruct(packet);
+			// If the baseline was lost, waiting for a keyframe:
+			if(worldState != null) {
+				// Letting the server know that the update can be used as a baseline:
+				CltAcknowledgeWorld acknowledgement = new CltAcknowledgeWorld();
+				acknowledgement.gameRoomIndex = roomIndex;
+				acknowledgement.updateIndex = worldState.updateIndex;
+				((Core)Gdx.app.getApplicationListener()).getNetworkManager()
+					.sendUDP(acknowledgement);
+
+				applyWorldState(worldState);
+			}
+
+			// Displaying special effects:
+			for(int i=0; i<packet.effectsAmount; i++) {
+				switch(packet.effectTypes[i]) {
+				case SrvUpdateWorld.DISPLAY_SFX:
+					displaySFX(packet.effectIndexes[i*2],packet.effectData[i*2],
+						packet.effectData[i*2+1]);
+					break;
+				case SrvUpdateWorld.ATTACH_SFX:
+					attachSFX(packet.effectIndexes[i*2],packet.effectIndexes[i*2+1],
+						packet.effectData[i*2]);
+					break;
+				case SrvUpdateWorld.ENTITY_FALLING:
+					setEntityFalling(packet.effectIndexes[i*2+1],packet.effectData[i*2],
+						packet.effectData[i*2+1]);
+					break;
 				}
+			}
+		}
+	}
 
-				// Setting projectiles data:
-				for(int i=0; i<packet.projectileIndexes.length; i++) {
-					// Projectile exists:
-					if(entities.containsKey(packet.projectileIndexes[i])) {
-						Projectile projectile = (Projectile)
-							entities.get(packet.projectileIndexes[i]);
-						// Setting position:
-						projectile.updatePosition(box2DToMapCoords(packet.projectileDisplayData[i*4],
-							packet.projectileDisplayData[i*4+1]));
-						// Setting angle:
-						projectile.setAngle(SpellUtils.getAngle(packet.projectileDisplayData[i*4+2],
-							packet.projectileDisplayData[i*4+3]));
-						// Making sure the entity is checked:
-						projectile.setUpdated(true);
-					}
-					// Projectile doesn't exist:
-					else {
-						Projectile projectile = new Projectile(packet.projectileIndexes[i],
-							ProjectileType.getProjectileType(packet.projectileAnimations[i]),
-							box2DToMapCoords(packet.projectileDisplayData[i*4],
-							packet.projectileDisplayData[i*4+1]),SpellUtils.getAngle(packet.projectileDisplayData[i*4+2],
-							packet.projectileDisplayData[i*4+3]));
-						projectile.setUpdated(true);
-						entities.put(projectile.getEntityIndex(), projectile);
-						entityList.add(projectile);
-					}
+	/**
+	 * Updates sprites positions, schedules animations.
+	 * @param packet full world state.
+	 */
+	private void applyWorldState(SrvUpdateWorld packet) {
+		// Making sure the packet is up-to-date:
+		if(packet.updateIndex > updateIndex) {
+			// Setting the new update index:
+			updateIndex = packet.updateIndex;
+
+			// Setting entities data:
+			for(int i=0; i<packet.charactersAmount; i++) {
+				if(entities.containsKey(packet.charactersIndexes[i])) {
+					Player player = (Player)entities.get(packet.charactersIndexes[i]);
+					// Setting position:
+					player.updatePosition(box2DToMapCoords(packet.charactersPositions[i*2],
+						packet.charactersPositions[i*2+1]));
+					// Setting direction:
+					player.setDirection(packet.charactereDisplayData[i*2]);
+					// Setting animation state:
+					player.setAnimation(PlayerAnimationType.getAnimationType
+						(packet.charactereDisplayData[i*2+1]));
+					// Making sure the entity is checked:
+					player.setUpdated(true);
 				}
+			}
 
-				// Checking if all entities have been updated:
-				for(Entity entity : entityList) {
-					// Was updated - resetting status:
-					if(!entity.wasUpdated()) {
-						entitiesToRemove.add(entity);
-					}
-					entity.setUpdated(false);
+			// Setting projectiles data:
+			for(int i=0; i<packet.projectilesAmount; i++) {
+				// Projectile exists:
+				if(entities.containsKey(packet.projectileIndexes[i])) {
+					Projectile projectile = (Projectile)
+						entities.get(packet.projectileIndexes[i]);
+					// Setting position:
+					projectile.updatePosition(box2DToMapCoords(packet.projectileDisplayData[i*4],
+						packet.projectileDisplayData[i*4+1]));
+					// Setting angle:
+					projectile.setAngle(SpellUtils.getAngle(packet.projectileDisplayData[i*4+2],
+						packet.projectileDisplayData[i*4+3]));
+					// Making sure the entity is checked:
+					projectile.setUpdated(true);
+				}
+				// Projectile doesn't exist:
+				else {
+					Projectile projectile = new Projectile(packet.projectileIndexes[i],
+						ProjectileType.getProjectileType(packet.projectileAnimations[i]),
+						box2DToMapCoords(packet.projectileDisplayData[i*4],
+						packet.projectileDisplayData[i*4+1]),SpellUtils.getAngle(packet.projectileDisplayData[i*4+2],
+						packet.projectileDisplayData[i*4+3]));
+					projectile.setUpdated(true);
+					entities.put(projectile.getEntityIndex(), projectile);
+					entityList.add(projectile);
 				}
-				// Removing no longer existent entities:
-				for(Entity entity : entitiesToRemove) {
-					if(entity instanceof Player) {
-						// We're removing characters that have been
-						// mentioned before to prevent deleting
-						// new characters due to receiving old packets.
-						if(((Player)entity).wasAlreadyUpdated()) {
-							((Player)entity).setDead();
-						}
+			}
+
+			// Checking if all entities have been updated:
+			for(Entity entity : entityList) {
+				// Was updated - resetting status:
+				if(!entity.wasUpdated()) {
+					entitiesToRemove.add(entity);
+				}
+				entity.setUpdated(false);
+			}
+			// Removing no longer existent entities:
+			for(Entity entity : entitiesToRemove) {
+				if(entity instanceof Player) {
+					// We're removing characters that have been
+					// mentioned before to prevent deleting
+					// new characters due to receiving old packets.
+					if(((Player)entity).wasAlreadyUpdated()) {
+						((Player)entity).setDead();
 					}
-					else {
-						// Removing entity from the lists:
-						entityList.removeValue(entity,true);
-						// Displaying projectile's destruction SFX:
-						if(entity instanceof Projectile) {
-							entities.remove(entity.getEntityIndex());
-							((Projectile)entity).displaySFX();
-						}
+				}
+				else {
+					// Removing entity from the lists:
+					entityList.removeValue(entity,true);
+					// Displaying projectile's destruction SFX:
+					if(entity instanceof Projectile) {
+						entities.remove(entity.getEntityIndex());
+						((Projectile)entity).displaySFX();
 					}
 				}
-				entitiesToRemove.clear();
-
-				// Sorting sprites:
-				entityList.sort();
 			}
+			entitiesToRemove.clear();
+
+			// Sorting sprites:
+			entityList.sort();
 		}
 	}
 
@@ -221,13 +262,15 @@ public class BattleManager {
 
 	/**
 	 * If an entity dies by falling into the void, its sprite is scaled.
-	 * @param packet contains info about a falling entity.
+	 * @param entityIndex index of the falling entity.
+	 * @param x Box2D position x.
+	 * @param y Box2D position y.
 	 */
-	public void setEntityFalling(SrvSetEntityFalling packet) {
-		if(entities.containsKey(packet.entityIndex)) {
-			((Player)entities.get(packet.entityIndex)).setFalling();
-			entities.get(packet.entityIndex).updatePosition
-				(box2DToMapCoords(packet.x,packet.y));
+	private void setEntityFalling(int entityIndex,float x,float y) {
+		if(entities.containsKey(entityIndex)) {
+			((Player)entities.get(entityIndex)).setFalling();
+			entities.get(entityIndex).updatePosition
+				(box2DToMapCoords(x,y));
 		}
 	}
 
@@ -257,30 +300,34 @@ public class BattleManager {
 
 	/**
 	 * Displays a special effect requested by the server.
-	 * @param sfxPacket SFX data.
+	 * @param sfxIndex index of the SFX.
+	 * @param x Box2D position x.
+	 * @param y Box2D position y.
 	 */
-	public void displaySFX(SrvDisplaySFX sfxPacket) {
+	private void displaySFX(int sfxIndex,float x,float y) {
 		// Getting SFX type:
-		SFXType sfx = SFXType.getSFXType(sfxPacket.SFXIndex);
+		SFXType sfx = SFXType.getSFXType(sfxIndex);
 		// If SFX exists, display it:
 		if(sfx != null) {
-			addSFX(new SFX(sfx,box2DToMapCoords(sfxPacket.x, sfxPacket.y),-1f));
+			addSFX(new SFX(sfx,box2DToMapCoords(x, y),-1f));
 		}
 	}
 
 	/**
 	 * Attaches a special effect requested by the server to a character.
-	 * @param sfxPacket SFX data.
+	 * @param sfxIndex index of the SFX.
+	 * @param entityIndex index of the character.
+	 * @param duration duration of the SFX.
 	 */
-	public void displaySFX(SrvAttachSFX sfxPacket) {
+	private void attachSFX(int sfxIndex,int entityIndex,float duration) {
 		// Getting SFX type:
-		SFXType sfx = SFXType.getSFXType(sfxPacket.SFXIndex);
+		SFXType sfx = SFXType.getSFXType(sfxIndex);
 		// If SFX exists:
 		if(sfx != null) {
-			Entity player = entities.get(sfxPacket.entityIndex);
+			Entity player = entities.get(entityIndex);
 			// If player exists - attach SFX to him:
 			if(player != null) {
-				addSFX(new SFX(sfx,(Player)player,sfxPacket.duration));
+				addSFX(new SFX(sfx,(Player)player,duration));
 			}
 		}
 	}
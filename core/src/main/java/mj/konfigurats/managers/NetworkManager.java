@@ -1,6 +1,7 @@
 package mj.konfigurats.managers;
 
 import com.badlogic.gdx.Gdx;
+import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryonet.Client;
 import com.esotericsoftware.minlog.Log;
 import mj.konfigurats.Core;
@@ -10,6 +11,7 @@ import mj.konfigurats.network.ConnectionPackets.*;
 import mj.konfigurats.network.GamePackets.*;
 import mj.konfigurats.network.LobbyPackets.*;
 import mj.konfigurats.network.Ports;
+import mj.konfigurats.network.WorldUpdateSerializer;
 
 import java.io.IOException;
 import java.util.TimerTask;
@@ -37,7 +39,7 @@ public class NetworkManager {
 
 		// Setting up the client:
 		client.addListener(new ClientListener(this));
-		registerPackets();
+		registerPackets(client.getKryo());
 	}
 
 	/**
@@ -49,91 +51,93 @@ public class NetworkManager {
 	}
 
 	/**
-	 * Registers all packets that the client is expected to send and receive.
+	 * Registers all packets that the client is expected to send and receive. Packets
+	 * have to be registered in the same order as on the server.
+	 * @param kryo client's serializer.
 	 */
-	private final void registerPackets() {
+	public static void registerPackets(Kryo kryo) {
 		// General packets:
-		client.getKryo().register(byte[].class);
-		client.getKryo().register(float[].class);
-		client.getKryo().register(int[].class);
-		client.getKryo().register(String[].class);
+		kryo.register(byte[].class);
+		kryo.register(float[].class);
+		kryo.register(int[].class);
+		kryo.register(String[].class);
 
 		// Connection packets group:
-		client.getKryo().register(ConnectionPacket.class);
+		kryo.register(ConnectionPacket.class);
 		// Logging packets:
-		client.getKryo().register(CltLogin.class);
-		client.getKryo().register(SrvLogged.class);
-		client.getKryo().register(SrvAlreadyLogged.class);
-		client.getKryo().register(SrvUsernameInvalid.class);
-		client.getKryo().register(SrvPasswordInvalid.class);
+		kryo.register(CltLogin.class);
+		kryo.register(SrvLogged.class);
+		kryo.register(SrvAlreadyLogged.class);
+		kryo.register(SrvUsernameInvalid.class);
+		kryo.register(SrvPasswordInvalid.class);
 		// Registration packets:
-		client.getKryo().register(CltRegister.class);
-		client.getKryo().register(SrvRegistered.class);
-		client.getKryo().register(SrvUsernameTaken.class);
-		client.getKryo().register(SrvCorruptedData.class);
+		kryo.register(CltRegister.class);
+		kryo.register(SrvRegistered.class);
+		kryo.register(SrvUsernameTaken.class);
+		kryo.register(SrvCorruptedData.class);
+		kryo.register(SrvServerBusy.class);
 
 		// Lobby packets group:
-		client.getKryo().register(LobbyPacket.class);
+		kryo.register(LobbyPacket.class);
 		// Logging packets:
-		client.getKryo().register(CltLobbyLogOut.class);
-		client.getKryo().register(SrvLobbyLoggedOut.class);
+		kryo.register(CltLobbyLogOut.class);
+		kryo.register(SrvLobbyLoggedOut.class);
 		// Chat packets:
-		client.getKryo().register(CltLobbyMessage.class);
-		client.getKryo().register(CltPrivateMessage.class);
-		client.getKryo().register(SrvLobbyMessage.class);
-		client.getKryo().register(SrvAddLobbyUser.class);
-		client.getKryo().register(SrvRemoveLobbyUser.class);
+		kryo.register(CltLobbyMessage.class);
+		kryo.register(CltPrivateMessage.class);
+		kryo.register(SrvLobbyMessage.class);
+		kryo.register(SrvAddLobbyUser.class);
+		kryo.register(SrvRemoveLobbyUser.class);
 		// Game rooms management packets:
-		client.getKryo().register(PctGameInfo.class);
-		client.getKryo().register(CltCreateGame.class);
-		client.getKryo().register(CltJoinRandomGame.class);
-		client.getKryo().register(CltJoinGame.class);
-		client.getKryo().register(CltJoinPlayer.class);
-		client.getKryo().register(CltRoomPassword.class);
-		client.getKryo().register(SrvUpdateGame.class);
-		client.getKryo().register(SrvRemoveGame.class);
-		client.getKryo().register(SrvStartGame.class);
-		client.getKryo().register(SrvEnterRoomPassword.class);
-		client.getKryo().register(SrvInvalidRoomPassword.class);
-		client.getKryo().register(SrvGameAlreadyExists.class);
-		client.getKryo().register(SrvGameFull.class);
-		client.getKryo().register(SrvGameNotFound.class);
-		client.getKryo().register(SrvPlayerNotFound.class);
-		client.getKryo().register(SrvNoGamesOpen.class);
-		client.getKryo().register(SrvWrongMapIndex.class);
+		kryo.register(PctGameInfo.class);
+		kryo.register(CltCreateGame.class);
+		kryo.register(CltJoinRandomGame.class);
+		kryo.register(CltJoinGame.class);
+		kryo.register(CltJoinPlayer.class);
+		kryo.register(CltRoomPassword.class);
+		kryo.register(SrvUpdateGame.class);
+		kryo.register(SrvRemoveGame.class);
+		kryo.register(SrvStartGame.class);
+		kryo.register(SrvEnterRoomPassword.class);
+		kryo.register(SrvInvalidRoomPassword.class);
+		kryo.register(SrvGameAlreadyExists.class);
+		kryo.register(SrvGameFull.class);
+		kryo.register(SrvGameNotFound.class);
+		kryo.register(SrvPlayerNotFound.class);
+		kryo.register(SrvNoGamesOpen.class);
+		kryo.register(SrvWrongMapIndex.class);
 		// Ranking packets:
-		client.getKryo().register(CltShowRanking.class);
-		client.getKryo().register(SrvRankingData.class);
+		kryo.register(CltShowRanking.class);
+		kryo.register(SrvRankingData.class);
 
 		// Game packets group:
-		client.getKryo().register(GamePacket.class);
+		kryo.register(GamePacket.class);
 		// Logging packets:
-		client.getKryo().register(CltLeaveGame.class);
-		client.getKryo().register(SrvLeaveGame.class);
+		kryo.register(CltLeaveGame.class);
+		kryo.register(SrvLeaveGame.class);
 		// Game chat packets:
-		client.getKryo().register(CltGameChatMessage.class);
-		client.getKryo().register(CltTeamMessage.class);
-		client.getKryo().register(SrvGameChatMessage.class);
-		client.getKryo().register(SrvAddRoomUser.class);
-		client.getKryo().register(SrvRemoveRoomUser.class);
-		client.getKryo().register(SrvScoresUpdate.class);
+		kryo.register(CltGameChatMessage.class);
+		kryo.register(CltTeamMessage.class);
+		kryo.register(SrvGameChatMessage.class);
+		kryo.register(SrvAddRoomUser.class);
+		kryo.register(SrvRemoveRoomUser.class);
+		kryo.register(SrvScoresUpdate.class);
 		// Game logic packets:
-		client.getKryo().register(CltGameInitiated.class);
-		client.getKryo().register(CltCreateCharacter.class);
-		client.getKryo().register(CltHandleClick.class);
-		client.getKryo().register(CltHandleFireCast.class);
-		client.getKryo().register(CltHandleWaterCast.class);
-		client.getKryo().register(CltHandleEarthCast.class);
-		client.getKryo().register(CltHandleAirCast.class);
-		client.getKryo().register(SrvCorruptedCreationData.class);
-		client.getKryo().register(SrvCreateCharacter.class);
-		client.getKryo().register(SrvPlayerNotElite.class);
-		client.getKryo().register(SrvUpdateWorld.class);
-		client.getKryo().register(SrvSetSpellCooldown.class);
-		client.getKryo().register(SrvDisplaySFX.class);
-		client.getKryo().register(SrvAttachSFX.class);
-		client.getKryo().register(SrvSetEntityFalling.class);
-		client.getKryo().register(SrvSwitchMap.class);
+		kryo.register(CltGameInitiated.class);
+		kryo.register(CltCreateCharacter.class);
+		kryo.register(CltHandleClick.class);
+		kryo.register(CltHandleFireCast.class);
+		kryo.register(CltHandleWaterCast.class);
+		kryo.register(CltHandleEarthCast.class);
+		kryo.register(CltHandleAirCast.class);
+		kryo.register(SrvCorruptedCreationData.class);
+		kryo.register(SrvCreateCharacter.class);
+		kryo.register(SrvPlayerNotElite.class);
+		kryo.register(SrvUpdateWorld.class,new WorldUpdateSerializer());
+		kryo.register(SrvSetSpellCooldown.class);
+		kryo.register(SrvSwitchMap.class);
+		kryo.register(CltAcknowledgeWorld.class);
+		kryo.register(SrvUpdateHealth.class);
 	}
 
 	/**
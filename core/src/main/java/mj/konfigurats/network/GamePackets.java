@@ -146,17 +146,40 @@ public class GamePackets {
 	public static class SrvPlayerNotElite implements GamePacket {}
 	
 	/**
-	 * A single box2D world update. Contains room index, update index, current health
-	 * of the player and informations about all entities on the battlefield.
+	 * A single box2D world update. Contains room index, update index and informations
+	 * about entities on the battlefield. Unless it's a keyframe, only entities that
+	 * changed since the baseline update are included. Also contains all special effects
+	 * requested during the update. Serialized with WorldUpdateSerializer.
 	 */
 	public static class SrvUpdateWorld implements GamePacket {
+		// Types of special effects:
+		public final static byte DISPLAY_SFX=0,ATTACH_SFX=1,ENTITY_FALLING=2;
+		
 		// Final game's room index (game room's name hash code).
 		public int gameRoomIndex;
 		// Index of the update.
 		public long updateIndex;
-		// Current player's health.
-		public float currentHealth,summonHealth;
+		// True if the packet contains all entities and doesn't need a baseline.
+		public boolean isKeyframe;
+		// Index of the acknowledged update that the packet was compared against.
+		public long baselineIndex;
+		// Indexes of the baseline's entities that no longer exist.
+		public int[] removedIndexes;
+		// Box2D world bounds, used to quantize positions. Sent only with keyframes.
+		public float minX,minY,maxX,maxY;
+		// Amounts of entities stored in the arrays (arrays might be longer).
+		public int charactersAmount,projectilesAmount,removedAmount;
 		
+		// Types of the special effects.
+		public byte[] effectTypes;
+		// Effects indexes: 0. SFX index, 1. entity index.
+		public int[] effectIndexes;
+		// Effects data: 0-1. position or 0. duration of an attached SFX.
+		public float[] effectData;
+		public int effectsAmount;
+		// Serialized update, shared by all its recipients (see WorldUpdateSerializer.encode).
+		byte[] encodedData;
+		int encodedLength;
 		// Indexes of the characters on the arena:
 		public int[] charactersIndexes;
 		// Positions of the characters:
@@ -173,36 +196,29 @@ public class GamePackets {
 	}
 	
 	/**
-	 * Sent by the server to let the player know that he successfully
-	 * cast a spell and now has to wait to recast it.
-	 */
-	public static class SrvSetSpellCooldown implements GamePacket {
-		public byte spellType;
-		public float cooldown;
-	}
-	
-	/**
-	 * Tells the client to display a SFX effect in the given position.
+	 * Sent by the client after receiving a world update. Lets the server use
+	 * the update as a baseline for the next delta-compressed updates.
 	 */
-	public static class SrvDisplaySFX implements GamePacket {
-		public int SFXIndex;
-		public float x,y;
+	public static class CltAcknowledgeWorld implements GamePacket {
+		public int gameRoomIndex;
+		public long updateIndex;
 	}
 	
 	/**
-	 * Tells the client to attach a SFX effect to a character for a given duration.
+	 * Sent by the server along with the world updates. Contains current health
+	 * of the player's character and summon.
 	 */
-	public static class SrvAttachSFX implements GamePacket {
-		public int SFXIndex,entityIndex;
-		public float duration;
+	public static class SrvUpdateHealth implements GamePacket {
+		public float currentHealth,summonHealth;
 	}
 	
 	/**
-	 * Tells the client to scale down a summon or a player and update his position.
+	 * Sent by the server to let the player know that he successfully
+	 * cast a spell and now has to wait to recast it.
 	 */
-	public static class SrvSetEntityFalling implements GamePacket {
-		public int entityIndex;
-		public float x,y;
+	public static class SrvSetSpellCooldown implements GamePacket {
+		public byte spellType;
+		public float cooldown;
 	}
 	
 	/**
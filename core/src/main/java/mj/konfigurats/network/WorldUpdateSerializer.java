@@ -0,0 +1,257 @@
+package mj.konfigurats.network;
+
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Compact serializer of the world update packet. Positions are quantized to 16 bits within
+ * the map bounds, velocities are stored as 16-bit fixed-point values and entity indexes are
+ * encoded as variable-length differences between consecutive entities. Special effects are
+ * written in the same datagram. The bounds are sent only with keyframes - the reading
+ * serializer remembers the last received bounds, so it should not be shared by multiple
+ * clients. Deltas always follow a keyframe of their room, as they need an acknowledged
+ * baseline. Writes and reads directly from Kryo's buffers, using only the first entities
+ * amount values of the packet's arrays. An update sent to many players can be encoded
+ * once - its serialized data is then copied for each recipient.
+ * @author MJ
+ */
+public class WorldUpdateSerializer extends Serializer<SrvUpdateWorld> {
+	private final static int POSITION_STEPS=0xFFFF;
+	// Velocity is stored in 1/VELOCITY_SCALE units:
+	private final static float VELOCITY_SCALE=100f;
+	// Bounds of the last received keyframe, used to read the deltas:
+	private float minX,minY,maxX,maxY;
+
+	/**
+	 * Serializes the update once, so sending it to multiple players only copies the data.
+	 * The packet should not be modified until it is encoded again.
+	 * @param packet will store the encoded data.
+	 * @param buffer will contain the data. Should be reused only with this packet.
+	 */
+	public static void encode(SrvUpdateWorld packet,Output buffer) {
+		packet.encodedData = null;
+		buffer.clear();
+		writeUpdate(buffer,packet);
+		packet.encodedData = buffer.getBuffer();
+		packet.encodedLength = buffer.position();
+	}
+
+	/**
+	 * @param packet world update.
+	 * @return size of the encoded update (without the packet's class ID) in bytes or -1
+	 * if the packet was not encoded.
+	 */
+	public static int getEncodedLength(SrvUpdateWorld packet) {
+		return packet.encodedData == null ? -1 : packet.encodedLength;
+	}
+
+	@Override
+	public void write(Kryo kryo,Output output,SrvUpdateWorld packet) {
+		if(packet.encodedData != null) {
+			output.writeBytes(packet.encodedData,0,packet.encodedLength);
+		}
+		else {
+			writeUpdate(output,packet);
+		}
+	}
+
+	/**
+	 * @param output will contain the serialized update.
+	 * @param packet world update.
+	 */
+	private static void writeUpdate(Output output,SrvUpdateWorld packet) {
+		// Header:
+		output.writeInt(packet.gameRoomIndex);
+		output.writeLong(packet.updateIndex,true);
+		output.writeBoolean(packet.isKeyframe);
+		if(!packet.isKeyframe) {
+			output.writeLong(packet.updateIndex-packet.baselineIndex,true);
+		}
+		else {
+			// Bounds never change - deltas are quantized with the keyframe's bounds:
+			output.writeFloat(packet.minX);
+			output.writeFloat(packet.minY);
+			output.writeFloat(packet.maxX);
+			output.writeFloat(packet.maxY);
+		}
+		float width = packet.maxX-packet.minX, height = packet.maxY-packet.minY;
+
+		// Characters:
+		output.writeVarInt(packet.charactersAmount,true);
+		int previousIndex = 0;
+		for(int i=0; i<packet.charactersAmount; i++) {
+			output.writeVarInt(packet.charactersIndexes[i]-previousIndex,false);
+			previousIndex = packet.charactersIndexes[i];
+			output.writeShort(quantize(packet.charactersPositions[i*2],packet.minX,width));
+			output.writeShort(quantize(packet.charactersPositions[i*2+1],packet.minY,height));
+			output.writeByte(packet.charactereDisplayData[i*2]);
+			output.writeByte(packet.charactereDisplayData[i*2+1]);
+		}
+
+		// Projectiles:
+		output.writeVarInt(packet.projectilesAmount,true);
+		previousIndex = 0;
+		for(int i=0; i<packet.projectilesAmount; i++) {
+			output.writeVarInt(packet.projectileIndexes[i]-previousIndex,false);
+			previousIndex = packet.projectileIndexes[i];
+			output.writeByte(packet.projectileAnimations[i]);
+			output.writeShort(quantize(packet.projectileDisplayData[i*4],packet.minX,width));
+			output.writeShort(quantize(packet.projectileDisplayData[i*4+1],packet.minY,height));
+			output.writeShort(quantizeVelocity(packet.projectileDisplayData[i*4+2]));
+			output.writeShort(quantizeVelocity(packet.projectileDisplayData[i*4+3]));
+		}
+
+		// Removed entities:
+		output.writeVarInt(packet.removedAmount,true);
+		previousIndex = 0;
+		for(int i=0; i<packet.removedAmount; i++) {
+			output.writeVarInt(packet.removedIndexes[i]-previousIndex,false);
+			previousIndex = packet.removedIndexes[i];
+		}
+
+		// Special effects:
+		output.writeVarInt(packet.effectsAmount,true);
+		for(int i=0; i<packet.effectsAmount; i++) {
+			output.writeByte(packet.effectTypes[i]);
+			switch(packet.effectTypes[i]) {
+			case SrvUpdateWorld.DISPLAY_SFX:
+				output.writeVarInt(packet.effectIndexes[i*2],true);
+				output.writeShort(quantize(packet.effectData[i*2],packet.minX,width));
+				output.writeShort(quantize(packet.effectData[i*2+1],packet.minY,height));
+				break;
+			case SrvUpdateWorld.ATTACH_SFX:
+				output.writeVarInt(packet.effectIndexes[i*2],true);
+				output.writeInt(packet.effectIndexes[i*2+1]);
+				output.writeFloat(packet.effectData[i*2]);
+				break;
+			case SrvUpdateWorld.ENTITY_FALLING:
+				output.writeInt(packet.effectIndexes[i*2+1]);
+				output.writeShort(quantize(packet.effectData[i*2],packet.minX,width));
+				output.writeShort(quantize(packet.effectData[i*2+1],packet.minY,height));
+				break;
+			}
+		}
+	}
+
+	@Override
+	public SrvUpdateWorld read(Kryo kryo,Input input,Class<SrvUpdateWorld> type) {
+		SrvUpdateWorld packet = new SrvUpdateWorld();
+		// Header:
+		packet.gameRoomIndex = input.readInt();
+		packet.updateIndex = input.readLong(true);
+		packet.isKeyframe = input.readBoolean();
+		packet.baselineIndex = packet.isKeyframe ? -1 : packet.updateIndex-input.readLong(true);
+		if(packet.isKeyframe) {
+			minX = input.readFloat();
+			minY = input.readFloat();
+			maxX = input.readFloat();
+			maxY = input.readFloat();
+		}
+		// Deltas of a room that did not send a keyframe yet use wrong bounds, but they have
+		// no baseline on the client and are dropped anyway:
+		packet.minX = minX;
+		packet.minY = minY;
+		packet.maxX = maxX;
+		packet.maxY = maxY;
+		float width = packet.maxX-packet.minX, height = packet.maxY-packet.minY;
+
+		// Characters:
+		int amount = packet.charactersAmount = input.readVarInt(true);
+		packet.charactersIndexes = new int[amount];
+		packet.charactersPositions = new float[amount*2];
+		packet.charactereDisplayData = new byte[amount*2];
+		int previousIndex = 0;
+		for(int i=0; i<amount; i++) {
+			previousIndex = packet.charactersIndexes[i] = previousIndex+input.readVarInt(false);
+			packet.charactersPositions[i*2] = dequantize(input.readShortUnsigned(),packet.minX,width);
+			packet.charactersPositions[i*2+1] = dequantize(input.readShortUnsigned(),packet.minY,height);
+			packet.charactereDisplayData[i*2] = input.readByte();
+			packet.charactereDisplayData[i*2+1] = input.readByte();
+		}
+
+		// Projectiles:
+		amount = packet.projectilesAmount = input.readVarInt(true);
+		packet.projectileIndexes = new int[amount];
+		packet.projectileAnimations = new byte[amount];
+		packet.projectileDisplayData = new float[amount*4];
+		previousIndex = 0;
+		for(int i=0; i<amount; i++) {
+			previousIndex = packet.projectileIndexes[i] = previousIndex+input.readVarInt(false);
+			packet.projectileAnimations[i] = input.readByte();
+			packet.projectileDisplayData[i*4] = dequantize(input.readShortUnsigned(),packet.minX,width);
+			packet.projectileDisplayData[i*4+1] = dequantize(input.readShortUnsigned(),packet.minY,height);
+			packet.projectileDisplayData[i*4+2] = input.readShort()/VELOCITY_SCALE;
+			packet.projectileDisplayData[i*4+3] = input.readShort()/VELOCITY_SCALE;
+		}
+
+		// Removed entities:
+		amount = packet.removedAmount = input.readVarInt(true);
+		packet.removedIndexes = new int[amount];
+		previousIndex = 0;
+		for(int i=0; i<amount; i++) {
+			previousIndex = packet.removedIndexes[i] = previousIndex+input.readVarInt(false);
+		}
+
+		// Special effects:
+		amount = packet.effectsAmount = input.readVarInt(true);
+		packet.effectTypes = new byte[amount];
+		packet.effectIndexes = new int[amount*2];
+		packet.effectData = new float[amount*2];
+		for(int i=0; i<amount; i++) {
+			packet.effectTypes[i] = input.readByte();
+			switch(packet.effectTypes[i]) {
+			case SrvUpdateWorld.DISPLAY_SFX:
+				packet.effectIndexes[i*2] = input.readVarInt(true);
+				packet.effectData[i*2] = dequantize(input.readShortUnsigned(),packet.minX,width);
+				packet.effectData[i*2+1] = dequantize(input.readShortUnsigned(),packet.minY,height);
+				break;
+			case SrvUpdateWorld.ATTACH_SFX:
+				packet.effectIndexes[i*2] = input.readVarInt(true);
+				packet.effectIndexes[i*2+1] = input.readInt();
+				packet.effectData[i*2] = input.readFloat();
+				break;
+			case SrvUpdateWorld.ENTITY_FALLING:
+				packet.effectIndexes[i*2+1] = input.readInt();
+				packet.effectData[i*2] = dequantize(input.readShortUnsigned(),packet.minX,width);
+				packet.effectData[i*2+1] = dequantize(input.readShortUnsigned(),packet.minY,height);
+				break;
+			}
+		}
+		return packet;
+	}
+
+	/**
+	 * @param value position coordinate. Values out of bounds are clamped.
+	 * @param min lower bound.
+	 * @param range distance between bounds.
+	 * @return unsigned 16-bit value.
+	 */
+	private static int quantize(float value,float min,float range) {
+		int steps = Math.round((value-min)/range*POSITION_STEPS);
+		return steps < 0 ? 0 : steps > POSITION_STEPS ? POSITION_STEPS : steps;
+	}
+
+	/**
+	 * @param steps unsigned 16-bit value.
+	 * @param min lower bound.
+	 * @param range distance between bounds.
+	 * @return position coordinate.
+	 */
+	private static float dequantize(int steps,float min,float range) {
+		return min+steps*range/POSITION_STEPS;
+	}
+
+	/**
+	 * @param value velocity coordinate. Values out of range are clamped.
+	 * @return signed 16-bit value.
+	 */
+	private static int quantizeVelocity(float value) {
+		int velocity = Math.round(value*VELOCITY_SCALE);
+		return velocity < Short.MIN_VALUE ? Short.MIN_VALUE
+			: velocity > Short.MAX_VALUE ? Short.MAX_VALUE : velocity;
+	}
+}
@@ -0,0 +1,94 @@
+package mj.konfigurats.logic;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Game room's queue of players' inputs. Any thread can add commands without locking,
+ * while only the game thread polls them (intrusive multiple producers - single consumer
+ * queue, so adding a command doesn't allocate any nodes). Also keeps a pool of commands.
+ * @author MJ
+ */
+public class CommandInbox {
+	// Last added command, swapped by the producers:
+	private final AtomicReference<GameCommand> head;
+	// Next polled command, used only by the game thread:
+	private GameCommand tail;
+	// Empty node used when the inbox is drained:
+	private final GameCommand stub;
+	private final Pool<GameCommand> commandsPool;
+
+	public CommandInbox() {
+		stub = new GameCommand();
+		head = new AtomicReference<GameCommand>(stub);
+		tail = stub;
+		commandsPool = new Pool<GameCommand>() {
+			@Override
+			protected GameCommand newObject() {
+				return new GameCommand();
+			}
+		};
+	}
+
+	/**
+	 * @return an unused command. Should be filled and added to the inbox.
+	 */
+	public GameCommand obtain() {
+		synchronized(commandsPool) {
+			return commandsPool.obtain();
+		}
+	}
+
+	/**
+	 * @param command polled command that was already handled. Will be reused.
+	 */
+	public void free(GameCommand command) {
+		synchronized(commandsPool) {
+			commandsPool.free(command);
+		}
+	}
+
+	/**
+	 * Safe to use by any thread.
+	 * @param command will be added at the end of the queue.
+	 */
+	public void add(GameCommand command) {
+		command.next = null;
+		GameCommand previous = head.getAndSet(command);
+		previous.next = command;
+	}
+
+	/**
+	 * Should be used only by the game thread.
+	 * @return first command in the queue or null if there are no fully added commands.
+	 */
+	public GameCommand poll() {
+		GameCommand tail = this.tail, next = tail.next;
+		if(tail == stub) {
+			// Skipping the empty node:
+			if(next == null) {
+				return null;
+			}
+			this.tail = next;
+			tail = next;
+			next = next.next;
+		}
+		if(next != null) {
+			this.tail = next;
+			return tail;
+		}
+		if(tail != head.get()) {
+			// A producer is in the middle of adding a command:
+			return null;
+		}
+		// The last command is being polled - putting the empty node behind it:
+		add(stub);
+		next = tail.next;
+		if(next != null) {
+			this.tail = next;
+			return tail;
+		}
+		return null;
+	}
+}
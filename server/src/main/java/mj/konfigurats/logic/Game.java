@@ -2,19 +2,24 @@ package mj.konfigurats.logic;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
+import mj.konfigurats.logic.GameCommand.CommandType;
+import mj.konfigurats.logic.GameEvent.EventHandler;
 import mj.konfigurats.logic.entities.Entity;
+import mj.konfigurats.logic.entities.EntityArray;
 import mj.konfigurats.logic.entities.ExplosionParticles;
+import mj.konfigurats.logic.entities.ExplosionParticles.ExplosionType;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Player.PlayerClass;
 import mj.konfigurats.logic.entities.Projectile;
@@ -23,19 +28,26 @@ import mj.konfigurats.logic.entities.Teleport;
 import mj.konfigurats.logic.maps.Maps;
 import mj.konfigurats.logic.maps.Maps.MapInfo;
 import mj.konfigurats.logic.physics.BodyInformation;
+import mj.konfigurats.logic.physics.BodyPool;
 import mj.konfigurats.logic.physics.LogicUtils;
+import mj.konfigurats.logic.physics.SpatialGrid;
 import mj.konfigurats.logic.physics.SpellUtils.SFXIndexes;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
 import mj.konfigurats.logic.physics.SpellUtils.SpellType;
+import mj.konfigurats.logic.physics.WorldState;
+import mj.konfigurats.logic.snapshots.InterestArea;
+import mj.konfigurats.logic.snapshots.SnapshotHistory;
+import mj.konfigurats.logic.snapshots.SpecialEffects;
+import mj.konfigurats.logic.snapshots.WorldUpdateEncoder;
+import mj.konfigurats.logic.snapshots.WorldSnapshot;
 import mj.konfigurats.network.GamePackets.CltCreateCharacter;
 import mj.konfigurats.network.GamePackets.GamePacket;
 import mj.konfigurats.network.GamePackets.SrvCorruptedCreationData;
 import mj.konfigurats.network.GamePackets.SrvCreateCharacter;
-import mj.konfigurats.network.GamePackets.SrvDisplaySFX;
 import mj.konfigurats.network.GamePackets.SrvGameChatMessage;
 import mj.konfigurats.network.GamePackets.SrvPlayerNotElite;
 import mj.konfigurats.network.GamePackets.SrvScoresUpdate;
-import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+import mj.konfigurats.network.GamePackets.SrvUpdateHealth;
 import mj.konfigurats.server.ServerManager;
 
 import com.badlogic.gdx.maps.MapObject;
@@ -50,7 +62,9 @@ import com.badlogic.gdx.physics.box2d.CircleShape;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 import com.esotericsoftware.kryonet.Connection;
+import com.esotericsoftware.minlog.Log;
 
 /**
  * A single game room. Contains players and maintains game logic.
@@ -65,16 +79,30 @@ public class Game {
 	private final List<List<GameRoomUser>> teams;
 	private final int limit,roomIndex,mapIndex;
 	private final GameMode gameMode;
-	private final Timer gameThread;
+	// Tasks run by the game thread before the next update:
+	private final Queue<Runnable> tasks;
+	private ScheduledFuture<?> mapChangeTask;
+	private boolean isDisposed,isStopped;
 	
 	// Box2D variables:
 	private final World box2DWorld;
 	private final List<Player> characters;
-	private final List<Projectile> projectiles;
-	private final List<Entity> entitiesToRemove;
-	private final List<ExplosionParticles> explosionParticles;
-	private final List<ScheduledEvent> eventsQueue;
-	private final List<GamePacket> SFXpackets;
+	private final SpatialGrid charactersGrid;
+	private final WorldState worldState;
+	private final EntityArray<Projectile> projectiles;
+	private final Array<Entity> entitiesToRemove;
+	private final EntityArray<ExplosionParticles> explosionParticles;
+	private final EnumMap<ExplosionType,Array<ExplosionParticles>> freeExplosions;
+	private final BodyPool bodyPool;
+	private final TimingWheel scheduledEvents;
+	private final Pool<GameEvent> eventsPool;
+	private final EventHandler playerTeleport,projectileTeleport;
+	private final SpecialEffects specialEffects;
+	private final List<GamePacket> scorePackets;
+	private final CommandInbox commandsInbox;
+	private final SnapshotHistory snapshots;
+	private final WorldUpdateEncoder updateEncoder;
+	private final SrvUpdateHealth healthPacket;
 	private CircleShape circleShape;
 	
 	// Temporary values:
@@ -82,12 +110,33 @@ public class Game {
 	
 	// Static control variables:
 	public final static float UPDATE_TIME=1/20f;
-	private final static long UPDATE_MILIS=50;
+	final static long UPDATE_MILIS=50;
+	private final static long UPDATE_NANOS=TimeUnit.MILLISECONDS.toNanos(UPDATE_MILIS);
+	// Ticks scheduled slightly too early still do a step (the difference is carried over):
+	private final static long UPDATE_TOLERANCE=TimeUnit.MILLISECONDS.toNanos(2);
+	// Maximum amount of world steps done in a single tick when catching up:
+	private final static int MAX_CATCH_UP_STEPS=4;
+	// Maximum amount of players' commands handled before a single world step:
+	private final static int MAX_COMMANDS_PER_STEP=256;
+	// Maximum amount of updates sent as deltas before a player gets a full update:
+	private final static int KEYFRAME_INTERVAL=40;
+	// Health is sent when it changes and after each amount of updates:
+	private final static int HEALTH_REFRESH_INTERVAL=10;
+	// Distance (in Box2D units) that entities can move out of the map without being clamped:
+	private final static float WORLD_BOUNDS_MARGIN=4f;
+	// Radius (in Box2D units) of the area around characters sent to their owners. 0 sends the whole world:
+	private final static float INTEREST_RADIUS=Float.parseFloat(System.getProperty("INTEREST_RADIUS","0"));
+	// Maximum amount of inactive explosions (per type) kept for reuse:
+	private final static int MAX_FREE_EXPLOSIONS=8;
+	// Size (in Box2D units) of the cells used to find the nearest characters:
+	private final static float CHARACTERS_GRID_CELL_SIZE=4f;
 	public final static float CAMERA_RATIO=24;
 	
 	// Control variables:
+	private long lastTickTime,timeAccumulator;
+	private final TickStatistics tickStatistics;
 	private float mapHeight;
-	private AtomicLong updateIndex;
+	private long updateIndex;
 	private AtomicInteger entityIndex;
 	private Array<Vector2> spawnPoints;
 	private Array<Teleport> teleports;
@@ -95,6 +144,15 @@ public class Game {
 	
 	public Game(String roomName,String password,
 		MapInfo mapInfo,GameMode gameMode,int previousMap, int playersAmount) {
+		this(roomName,password,mapInfo,gameMode,previousMap,playersAmount,true);
+	}
+	
+	/**
+	 * @param isScheduled false to create a room that is not updated by the game scheduler and
+	 *	never changes its map. Such room has to be updated manually - used by benchmarks and tests.
+	 */
+	Game(String roomName,String password,MapInfo mapInfo,GameMode gameMode,
+		int previousMap, int playersAmount, boolean isScheduled) {
 		boolean changing = false;
 		try {
 			// Assigning room data:
@@ -148,46 +206,67 @@ public class Game {
 			// Initiating control variables:
 			tempVector2 = new Vector2();
 			timerVector2 = new Vector2();
-			updateIndex = new AtomicLong(Long.MIN_VALUE);
+			updateIndex = 0;
 			entityIndex = new AtomicInteger(Integer.MIN_VALUE);
+			tickStatistics = new TickStatistics(UPDATE_NANOS);
 			
 			// Creating Box2D world:
 			box2DWorld = new World(Vector2.Zero,true);
 			box2DWorld.setContactListener(LogicUtils.createContactListener());
 			characters = new ArrayList<Player>(mapInfo.getLimit()*2);
-			projectiles = new ArrayList<Projectile>(mapInfo.getLimit()*4);
-			entitiesToRemove = new LinkedList<Entity>();
-			explosionParticles = new ArrayList<ExplosionParticles>(mapInfo.getLimit()*2);
-			eventsQueue = new LinkedList<ScheduledEvent>();
-			SFXpackets = new LinkedList<GamePacket>();
+			charactersGrid = new SpatialGrid(CHARACTERS_GRID_CELL_SIZE);
+			worldState = new WorldState(mapInfo.getLimit()*2, mapInfo.getLimit()*4);
+			projectiles = new EntityArray<Projectile>(mapInfo.getLimit()*4);
+			entitiesToRemove = new Array<Entity>(false, mapInfo.getLimit()*4);
+			explosionParticles = new EntityArray<ExplosionParticles>(mapInfo.getLimit()*2);
+			freeExplosions = new EnumMap<ExplosionType,Array<ExplosionParticles>>(ExplosionType.class);
+			bodyPool = new BodyPool();
+			scheduledEvents = new TimingWheel();
+			eventsPool = new Pool<GameEvent>() {
+				@Override
+				protected GameEvent newObject() {
+					return new GameEvent(this);
+				}
+			};
+			playerTeleport = createPlayerTeleport();
+			projectileTeleport = createProjectileTeleport();
+			specialEffects = new SpecialEffects();
+			scorePackets = new LinkedList<GamePacket>();
+			commandsInbox = new CommandInbox();
+			snapshots = new SnapshotHistory();
+			updateEncoder = new WorldUpdateEncoder(roomIndex,specialEffects);
+			healthPacket = new SrvUpdateHealth();
 			
 			// Creating Box2D heavy objects:
 			circleShape = new CircleShape();
 			
 			// Creating Box2D bodies from the TMX map objects:
 			parseMapToBox2D(mapInfo.getLinkedMap());
+			setWorldBounds(mapInfo.getLinkedMap());
 		}
 		finally {
-			// Setting up the game thread:
-			gameThread = new Timer();
-			gameThread.schedule(new TimerTask() { //scheduleAtFixedRate
-				// Updating the game logic:
-				@Override
-				public void run() {
-					updateWorld();
-				}
-			},UPDATE_MILIS,UPDATE_MILIS);
+			// Updating the game logic with each global tick:
+			tasks = new ConcurrentLinkedQueue<Runnable>();
+			lastTickTime = System.nanoTime();
+			if(isScheduled) {
+				GameScheduler.SCHEDULER.register(this);
+			}
 			
 			// Scheduling map change:
-			if(changing) {
-				gameThread.schedule(new TimerTask() {
+			if(changing && isScheduled) {
+				mapChangeTask = GameScheduler.SCHEDULER.schedule(new Runnable() {
 					@Override
 					public void run() {
-						for(GameRoomUser roomUser : usersInfo.values()) {
-							ServerManager.SERVER.getConnectionManager()
-								.updatePlayerScore(roomUser);
-						}
-						ServerManager.SERVER.getGamesManager().resetMap(Game.this);
+						execute(new Runnable() {
+							@Override
+							public void run() {
+								for(GameRoomUser roomUser : usersInfo.values()) {
+									ServerManager.SERVER.getConnectionManager()
+										.updatePlayerScore(roomUser);
+								}
+								ServerManager.SERVER.getGamesManager().resetMap(Game.this);
+							}
+						});
 					}
 				}, 300000);
 			}
@@ -195,11 +274,33 @@ public class Game {
 	}
 	
 	/**
-	 * Schedules a single event on the queue.
-	 * @param event scheduled event.
+	 * Schedules a single event.
+	 * @param event will be executed by the game thread.
+	 * @param triggerWithEachUpdate true to execute event with each update.
+	 * @param duration time before the event is finished (in seconds).
 	 */
-	public void scheduleEvent(ScheduledEvent event) {
-		eventsQueue.add(event);
+	public void scheduleEvent(Runnable event,boolean triggerWithEachUpdate,float duration) {
+		scheduledEvents.schedule(event, triggerWithEachUpdate, duration, null);
+	}
+	
+	/**
+	 * Schedules a single event involving a player.
+	 * @param event will be executed by the game thread as long as the player is not removed.
+	 * @param triggerWithEachUpdate true to execute event with each update.
+	 * @param duration time before the event is finished (in seconds).
+	 * @param owner player involved in the event.
+	 */
+	public void scheduleEvent(Runnable event,boolean triggerWithEachUpdate,float duration,Player owner) {
+		scheduledEvents.schedule(event, triggerWithEachUpdate, duration, owner);
+	}
+	
+	/**
+	 * @param handler will run the event.
+	 * @return a pooled event. It returns to the pool after it is scheduled and finished, so
+	 *	it should always be scheduled. Run by the game thread.
+	 */
+	public GameEvent obtainEvent(EventHandler handler) {
+		return eventsPool.obtain().set(handler);
 	}
 	
 	/**
@@ -217,48 +318,150 @@ public class Game {
 	}
 	
 	/**
-	 * Does a single world update.
+	 * Runs the tasks queued since the last tick and updates the game logic. Run by the
+	 * game scheduler. If the update fails, the room stops updating the world, but it
+	 * still runs its tasks, so it can be disposed.
 	 */
-	private void updateWorld() {
-		box2DWorld.step(UPDATE_TIME, 6, 2);
+	void tick() {
+		runTasks();
+		if(!isDisposed && !isStopped) {
+			try {
+				update();
+			}
+			catch(RuntimeException exception) {
+				isStopped = true;
+				Log.error("SRV: game room "+roomName+" stopped after an error",exception);
+			}
+		}
+	}
+	
+	/**
+	 * Runs the tasks queued since the last call. Run by the game thread.
+	 */
+	void runTasks() {
+		Runnable task;
+		while(!isDisposed && (task = tasks.poll()) != null) {
+			try {
+				task.run();
+			}
+			catch(RuntimeException exception) {
+				Log.error("SRV: game room "+roomName+" failed to run a task",exception);
+			}
+		}
+	}
+	
+	/**
+	 * Runs the world updates that are due since the last tick. The simulation uses a fixed
+	 * time step: if the game thread was late, a few catch-up steps are done before the state
+	 * is sent to the players; if the room can't catch up at all, the missing steps are dropped.
+	 */
+	private void update() {
+		long currentTime = System.nanoTime();
+		timeAccumulator += currentTime - lastTickTime;
+		lastTickTime = currentTime;
 		
-		// Updating scheduled events:
-		Iterator<ScheduledEvent> iterator = eventsQueue.iterator();
-		while(iterator.hasNext()) {
-			ScheduledEvent event = iterator.next();
-			if(event.update(UPDATE_TIME)) {
-				iterator.remove();
+		// Doing world steps:
+		int steps = 0;
+		while(timeAccumulator >= UPDATE_NANOS-UPDATE_TOLERANCE && steps < MAX_CATCH_UP_STEPS) {
+			updateWorld();
+			timeAccumulator -= UPDATE_NANOS;
+			steps++;
+		}
+		
+		// Dropping steps that cannot be caught up:
+		if(timeAccumulator >= UPDATE_NANOS) {
+			long droppedSteps = timeAccumulator/UPDATE_NANOS;
+			timeAccumulator -= droppedSteps*UPDATE_NANOS;
+			tickStatistics.registerDroppedSteps(droppedSteps);
+			Log.debug("SRV: game room "+roomName+" is overloaded, dropped "+droppedSteps+" steps");
+		}
+		
+		if(steps > 0) {
+			// Sending update packets:
+			sendUpdatePackets();
+			
+			// Refreshing characters' states:
+			for(Player character : characters) {
+				character.refreshState();
 			}
 		}
+		tickStatistics.registerTick(System.nanoTime()-currentTime, steps);
+	}
+	
+	/**
+	 * Does a single world step. Run by the game thread.
+	 */
+	void updateWorld() {
+		// Handling players' input:
+		handleCommands();
+		
+		box2DWorld.step(UPDATE_TIME, 6, 2);
+		worldState.update(characters, projectiles);
+		charactersGrid.rebuild(worldState);
+		
+		// Updating scheduled events:
+		scheduledEvents.update();
 
 		// Updating players:
 		for(Entity entity : characters) {
 			entity.update(UPDATE_TIME,Game.this);
 		}
 		// Updating projectiles:
-		for(Entity entity : projectiles) {
-			entity.update(UPDATE_TIME,Game.this);
+		for(int i=0; i<projectiles.size(); i++) {
+			projectiles.get(i).update(UPDATE_TIME,Game.this);
 		}
 		// Updating explosions:
-		for(Entity entity : explosionParticles) {
-			entity.update(UPDATE_TIME,Game.this);
+		for(int i=0; i<explosionParticles.size(); i++) {
+			explosionParticles.get(i).update(UPDATE_TIME,Game.this);
 		}
 		
-		// Removing destroyed entities:
-		for(Entity entity : entitiesToRemove) {
-			entity.destroy(Game.this);
+		// Removing destroyed entities (destroying one might schedule another):
+		for(int i=0; i<entitiesToRemove.size; i++) {
+			entitiesToRemove.get(i).destroy(Game.this);
 		}
 		entitiesToRemove.clear();
-		
-		// Sending update packets:
-		sendUpdatePackets();
-		
-		// Refreshing characters' states:
-		for(Player character : characters) {
-			character.refreshState();
+	}
+	
+	/**
+	 * Handles players' commands queued since the last world step.
+	 */
+	void handleCommands() {
+		GameCommand command;
+		for(int i=0; i<MAX_COMMANDS_PER_STEP && (command = commandsInbox.poll()) != null; i++) {
+			switch(command.getType()) {
+			case CREATE_CHARACTER:
+				addCharacter(command.getPlayer(),command.getCharacterData());
+				break;
+			case CLICK:
+				moveCharacter(command.getPlayer(),command.getX(),command.getY());
+				break;
+			case FIRE_CAST:
+				castFireSpell(command.getPlayer(),command.getX(),command.getY());
+				break;
+			case WATER_CAST:
+				castWaterSpell(command.getPlayer(),command.getX(),command.getY());
+				break;
+			case EARTH_CAST:
+				castEarthSpell(command.getPlayer(),command.getX(),command.getY());
+				break;
+			case AIR_CAST:
+				castAirSpell(command.getPlayer(),command.getX(),command.getY());
+				break;
+			case ACKNOWLEDGE:
+				registerAcknowledgement(command.getPlayer(),command.getUpdateIndex());
+				break;
+			}
+			commandsInbox.free(command);
 		}
 	}
 	
+	/**
+	 * @return measurements of the room's update loop.
+	 */
+	public TickStatistics getTickStatistics() {
+		return tickStatistics;
+	}
+	
 	/**
 	 * @return list of current characters.
 	 */
@@ -266,27 +469,89 @@ public class Game {
 		return characters;
 	}
 	
+	/**
+	 * Adds a character to the characters list and makes it available for nearest
+	 * characters queries.
+	 * @param character new character.
+	 */
+	public void addCharacter(Player character) {
+		characters.add(character);
+		charactersGrid.add(character);
+	}
+	
+	/**
+	 * @return characters' and projectiles' data, captured after each world step.
+	 */
+	public WorldState getWorldState() {
+		return worldState;
+	}
+	
+	/**
+	 * @return grid of characters' positions, refreshed after each world step.
+	 */
+	public SpatialGrid getCharactersGrid() {
+		return charactersGrid;
+	}
+	
 	/**
 	 * @return list of entities scheduled to remove.
 	 */
-	public List<Entity> getEntitiesToRemove() {
+	public Array<Entity> getEntitiesToRemove() {
 		return entitiesToRemove;
 	}
 	
 	/**
 	 * @return list of currently active projectiles.
 	 */
-	public List<Projectile> getProjectiles() {
+	public EntityArray<Projectile> getProjectiles() {
 		return projectiles;
 	}
 	
 	/**
 	 * @return list of lists (sic) of explosion parcticles.
 	 */
-	public List<ExplosionParticles> getExplosionParticles() {
+	public EntityArray<ExplosionParticles> getExplosionParticles() {
 		return explosionParticles;
 	}
 	
+	/**
+	 * Launches an explosion, reusing an inactive one of the same type if possible.
+	 * @param caster player that cast the original spell.
+	 * @param type type of the explosion.
+	 * @param position initial position of the explosion blast.
+	 */
+	public void addExplosion(Player caster,ExplosionType type,Vector2 position) {
+		Array<ExplosionParticles> explosions = freeExplosions.get(type);
+		ExplosionParticles explosion = explosions == null || explosions.size == 0
+			? new ExplosionParticles(this,type) : explosions.pop();
+		explosion.launch(caster,position);
+		explosionParticles.add(explosion);
+	}
+	
+	/**
+	 * @param explosion finished explosion with inactive particles. Will be reused or disposed.
+	 */
+	public void freeExplosion(ExplosionParticles explosion) {
+		Array<ExplosionParticles> explosions = freeExplosions.get(explosion.getType());
+		if(explosions == null) {
+			explosions = new Array<ExplosionParticles>();
+			freeExplosions.put(explosion.getType(), explosions);
+		}
+		if(explosions.size < MAX_FREE_EXPLOSIONS) {
+			explosions.add(explosion);
+		}
+		else {
+			explosion.dispose();
+		}
+	}
+	
+	/**
+	 * @return pool of inactive projectile bodies.
+	 */
+	public BodyPool getBodyPool() {
+		return bodyPool;
+	}
+	
 	/**
 	 * @return current game mode.
 	 */
@@ -328,11 +593,41 @@ public class Game {
 	}
 	
 	/**
-	 * Schedules sending of a SFX info game packet.
-	 * @param sfxPacket SrvAttachSFX or SrvDisplaySFX packet.
+	 * Displays a special effect with the next world update.
+	 * @param sfxIndex index of the SFX.
+	 * @param position Box2D position of the effect.
+	 */
+	public void displaySFX(int sfxIndex,Vector2 position) {
+		specialEffects.display(sfxIndex, position.x, position.y);
+	}
+	
+	/**
+	 * Displays a special effect with the next world update.
+	 * @param sfxIndex index of the SFX.
+	 * @param x Box2D position x.
+	 * @param y Box2D position y.
 	 */
-	public void addSFXPacket(GamePacket sfxPacket) {
-		SFXpackets.add(sfxPacket);
+	public void displaySFX(int sfxIndex,float x,float y) {
+		specialEffects.display(sfxIndex, x, y);
+	}
+	
+	/**
+	 * Attaches a special effect to a character with the next world update.
+	 * @param sfxIndex index of the SFX.
+	 * @param entityIndex index of the character.
+	 * @param duration duration of the SFX or a negative number to play its animation once.
+	 */
+	public void attachSFX(int sfxIndex,int entityIndex,float duration) {
+		specialEffects.attach(sfxIndex, entityIndex, duration);
+	}
+	
+	/**
+	 * Shows a character falling into the void with the next world update.
+	 * @param entityIndex index of the character.
+	 * @param position Box2D position of the character.
+	 */
+	public void setEntityFalling(int entityIndex,Vector2 position) {
+		specialEffects.setFalling(entityIndex, position.x, position.y);
 	}
 	
 	/**
@@ -495,157 +790,258 @@ public class Game {
 	}
 	
 	/**
-	 * @return game's timer.
+	 * Runs the task on the game thread, before the next world update. Ignored after the
+	 * room is disposed.
+	 * @param task will be run by the game thread.
 	 */
-	public Timer getGameThread() {
-		return gameThread;
+	public void execute(Runnable task) {
+		tasks.add(task);
 	}
 	
 	/**
-	 * Sends packets with the Box2D body positions to all players.
+	 * Runs the task on the game thread after the given delay. Ignored after the
+	 * room is disposed.
+	 * @param task will be run by the game thread.
+	 * @param delay in milliseconds.
 	 */
-	private void sendUpdatePackets() {
-		// Creating update packet:
-		SrvUpdateWorld updatePacket = new SrvUpdateWorld();
-		updatePacket.gameRoomIndex = roomIndex;
-		updatePacket.updateIndex = updateIndex.getAndIncrement();
-		// Characters informations:
-		updatePacket.charactersIndexes = new int[characters.size()];
-		updatePacket.charactersPositions = new float[characters.size()*2];
-		updatePacket.charactereDisplayData = new byte[characters.size()*2];
-		// Projectiles informations:
-		updatePacket.projectileIndexes = new int[projectiles.size()];
-		updatePacket.projectileAnimations = new byte[projectiles.size()];
-		updatePacket.projectileDisplayData = new float[projectiles.size()*4];
-		
-		// Setting characters informations:
-		int i = 0;
-		for(Player character : characters) {
-			// Index:
-			updatePacket.charactersIndexes[i] = character.getEntityIndex();
-			// Position:
-			timerVector2.set(character.getPlayerBody().getPosition());
-			updatePacket.charactersPositions[i*2] = timerVector2.x;
-			updatePacket.charactersPositions[i*2+1] = timerVector2.y;
-			// Direction:
-			updatePacket.charactereDisplayData[i*2] = character.getDirection();
-			// Animation:
-			updatePacket.charactereDisplayData[i*2+1] = character.getState().getIndex();
-			i++;
+	public void schedule(final Runnable task,long delay) {
+		GameScheduler.SCHEDULER.schedule(new Runnable() {
+			@Override
+			public void run() {
+				execute(task);
+			}
+		}, delay);
+	}
+	
+	/**
+	 * Sends packets with the Box2D body positions to all players. The current state is
+	 * stored in the snapshot history and each player receives only the entities that
+	 * changed since the newest update acknowledged by all of them, so the update is
+	 * serialized only once per tick and shared by the players. Full updates are sent to
+	 * players that didn't acknowledge anything recently and periodically to every player.
+	 * Each update contains all special effects requested since the last one; health is sent
+	 * separately, only when it changes (and periodically, in case a packet was lost).
+	 */
+	void sendUpdatePackets() {
+		// Storing current entities data:
+		WorldSnapshot snapshot = snapshots.next(updateIndex++);
+		worldState.refreshCharacters();
+		for(int i=0, size=characters.size(); i<size; i++) {
+			Player character = characters.get(i);
+			int index = worldState.getIndex(character);
+			snapshot.addCharacter(character.getEntityIndex(), worldState.getCharacterX(index),
+				worldState.getCharacterY(index), worldState.getCharacterDirection(index),
+				worldState.getCharacterState(index), worldState.getCharacterTeam(index));
 		}
-		
-		// Setting projectiles informations:
-		i = 0;
-		for(Projectile projectile : projectiles) {
-			// Index:
-			updatePacket.projectileIndexes[i] = projectile.getEntityIndex();
-			// Animation:
-			updatePacket.projectileAnimations[i] = projectile.getProjectileIndex();
-			// Position:
-			timerVector2.set(projectile.getProjectileBody().getPosition());
-			updatePacket.projectileDisplayData[i*4] = timerVector2.x;
-			updatePacket.projectileDisplayData[i*4+1] = timerVector2.y;
-			// Velocity:
-			timerVector2.set(projectile.getProjectileBody().getLinearVelocity());
-			updatePacket.projectileDisplayData[i*4+2] = timerVector2.x;
-			updatePacket.projectileDisplayData[i*4+3] = timerVector2.y;
-			i++;
+		for(int i=0; i<projectiles.size(); i++) {
+			Projectile projectile = projectiles.get(i);
+			int index = worldState.getIndex(projectile);
+			snapshot.addProjectile(projectile.getEntityIndex(), projectile.getProjectileIndex(),
+				worldState.getProjectileX(index), worldState.getProjectileY(index),
+				worldState.getProjectileVelocityX(index), worldState.getProjectileVelocityY(index));
 		}
+		updateEncoder.reset();
+		boolean refreshHealth = snapshot.getUpdateIndex() % HEALTH_REFRESH_INTERVAL == 0;
+		// Players' areas of interest are compared against their own baselines:
+		WorldSnapshot sharedBaseline = INTEREST_RADIUS > 0f ? null : getSharedBaseline(snapshot);
 		
 		// Sending packets to all players:
 		for(Entry<Connection,Player> player : players.entrySet()) {
+			GameRoomUser user = usersInfo.get(player.getKey());
+			// Limiting the update to the player's surroundings:
+			SnapshotHistory history = snapshots;
+			WorldSnapshot view = snapshot;
+			if(INTEREST_RADIUS > 0f) {
+				InterestArea interestArea = user.getInterestArea();
+				history = interestArea.getViews();
+				if(player.getValue() != null) {
+					worldState.getPosition(player.getValue(), timerVector2);
+					view = interestArea.update(snapshot, timerVector2.x, timerVector2.y,
+						user.getTeamIndex(), INTEREST_RADIUS);
+				}
+				else {
+					view = interestArea.update(snapshot);
+				}
+			}
+			
+			// Choosing the baseline - null for a keyframe:
+			WorldSnapshot baseline = null;
+			if(receivesDelta(user, snapshot)) {
+				baseline = history.get(user.getLastAcknowledgedUpdate());
+				if(baseline != null && sharedBaseline != null) {
+					baseline = sharedBaseline;
+				}
+			}
+			if(baseline == null) {
+				user.setLastKeyframe(snapshot.getUpdateIndex());
+			}
+			player.getKey().sendUDP(view == snapshot ? updateEncoder.getUpdate(snapshot, baseline)
+				: updateEncoder.getPrivateUpdate(view, baseline));
+			
 			// Setting info about current health:
 			if(player.getValue() != null) {
-				updatePacket.currentHealth = player.getValue().getCurrentHealthPercent();
+				healthPacket.currentHealth = worldState.getCharacterHealth(worldState
+					.getIndex(player.getValue()));
 				if(player.getValue().hasSummon()) {
-					updatePacket.summonHealth = player.getValue()
-						.getSummon().getCurrentHealthPercent();
+					healthPacket.summonHealth = worldState.getCharacterHealth(worldState
+						.getIndex(player.getValue().getSummon()));
 				}
 				else {
-					updatePacket.summonHealth = 0f;
+					healthPacket.summonHealth = 0f;
 				}
 			}
 			else {
-				updatePacket.currentHealth = 0f;
-				updatePacket.summonHealth = 0f;
+				healthPacket.currentHealth = 0f;
+				healthPacket.summonHealth = 0f;
+			}
+			if(user.updateSentHealth(healthPacket.currentHealth, healthPacket.summonHealth)
+				|| refreshHealth) {
+				player.getKey().sendUDP(healthPacket);
 			}
-			player.getKey().sendUDP(updatePacket);
 			
-			// Sending info about special effects of spells:
-			for(GamePacket SFXpacket : SFXpackets) {
-				player.getKey().sendUDP(SFXpacket);
+			// Sending info about scores:
+			for(GamePacket scorePacket : scorePackets) {
+				player.getKey().sendUDP(scorePacket);
 			}
 		}
-		SFXpackets.clear();
+		specialEffects.clear();
+		scorePackets.clear();
+	}
+	
+	/**
+	 * @param user player in the room.
+	 * @param snapshot current world state.
+	 * @return true if the player should receive a delta update rather than a keyframe,
+	 *	provided that his last acknowledged update is still stored.
+	 */
+	private boolean receivesDelta(GameRoomUser user,WorldSnapshot snapshot) {
+		return user.getLastKeyframe() >= 0
+			&& snapshot.getUpdateIndex()-user.getLastKeyframe() < KEYFRAME_INTERVAL;
+	}
+	
+	/**
+	 * Chooses a common baseline for all players receiving delta updates. Players usually
+	 * acknowledge the same recent updates, so comparing the state against the newest update
+	 * received by everyone makes the deltas only slightly bigger, but lets the server encode
+	 * a single packet per tick instead of one per distinct acknowledgement.
+	 * @param snapshot current world state.
+	 * @return the newest stored snapshot acknowledged by all players receiving deltas or
+	 *	null if there is no such snapshot.
+	 */
+	private WorldSnapshot getSharedBaseline(WorldSnapshot snapshot) {
+		long newestIndex = snapshot.getUpdateIndex()-1;
+		// Current snapshot already replaced the oldest one in the history:
+		long commonUpdates = (1L << (SnapshotHistory.SIZE-1))-1L;
+		boolean hasDeltas = false;
+		for(Entry<Connection,GameRoomUser> user : usersInfo.entrySet()) {
+			if(players.containsKey(user.getKey()) && receivesDelta(user.getValue(), snapshot)
+				&& snapshots.get(user.getValue().getLastAcknowledgedUpdate()) != null) {
+				commonUpdates &= user.getValue().getAcknowledgedUpdates(newestIndex);
+				hasDeltas = true;
+			}
+		}
+		if(!hasDeltas || commonUpdates == 0L) {
+			return null;
+		}
+		return snapshots.get(newestIndex-Long.numberOfTrailingZeros(commonUpdates));
+	}
+	
+	/**
+	 * Lets the game thread know that the player received a world update.
+	 * @param player user's connection.
+	 * @param updateIndex index of the received update.
+	 */
+	public void acknowledgeWorld(Connection player,long updateIndex) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.ACKNOWLEDGE,
+			player,0f,0f).setUpdateIndex(updateIndex));
+	}
+	
+	/**
+	 * Marks the update as received by the player, so it can be used as a baseline
+	 * for the next updates. Run by the game thread.
+	 * @param player user's connection.
+	 * @param updateIndex index of the received update.
+	 */
+	private void registerAcknowledgement(Connection player,long updateIndex) {
+		GameRoomUser user = usersInfo.get(player);
+		// Ignoring invalid acknowledgements:
+		if(user != null && updateIndex >= 0 && updateIndex < this.updateIndex) {
+			user.acknowledgeUpdate(updateIndex);
+		}
 	}
 	
 	/**
-	 * Creates a character after player decides to do so. Run by the
-	 * game thread.
+	 * Creates a character after player decides to do so. The character is created
+	 * by the game thread before the next world step.
 	 * @param player user's connection.
 	 * @param packet packet with user's character data.
 	 */
-	public void createCharacter(final Connection player,final CltCreateCharacter packet) {
-		gameThread.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				if(usersInfo.containsKey(player) && players.containsKey(player)
-					&& players.get(player) == null) {
-					// Player is trying to create an elite character:
-					if(packet.isElite) {
-						if(!ServerManager.SERVER.getConnectionManager().isElite(player.toString())) {
-							player.sendTCP(new SrvPlayerNotElite());
-							return;
-						}
-					}
+	public void createCharacter(Connection player,CltCreateCharacter packet) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.CREATE_CHARACTER,
+			player,0f,0f).setCharacterData(packet));
+	}
+	
+	/**
+	 * Creates a character after player decides to do so. Run by the game thread.
+	 * @param player user's connection.
+	 * @param packet packet with user's character data.
+	 */
+	private void addCharacter(Connection player,CltCreateCharacter packet) {
+		if(usersInfo.containsKey(player) && players.containsKey(player)
+			&& players.get(player) == null) {
+			// Player is trying to create an elite character:
+			if(packet.isElite) {
+				if(!ServerManager.SERVER.getConnectionManager().isElite(player.toString())) {
+					player.sendTCP(new SrvPlayerNotElite());
+					return;
+				}
+			}
+			
+			// Getting player's class:
+			PlayerClass playerClass = PlayerClass.getPlayerClass(packet.classIndex);
+			if(playerClass != null && !playerClass.isSummon()) {
+				// Getting player's spells:
+				Spell fireSpell = SpellType.FIRE.getSpell(packet.fireSpell),
+					waterSpell = SpellType.WATER.getSpell(packet.waterSpell),
+					earthSpell = SpellType.EARTH.getSpell(packet.earthSpell),
+					airSpell = SpellType.AIR.getSpell(packet.airSpell);
+				
+				if(fireSpell != null && waterSpell != null && earthSpell != null && airSpell != null) {
 					
-					// Getting player's class:
-					PlayerClass playerClass = PlayerClass.getPlayerClass(packet.classIndex);
-					if(playerClass != null && !playerClass.isSummon()) {
-						// Getting player's spells:
-						Spell fireSpell = SpellType.FIRE.getSpell(packet.fireSpell),
-							waterSpell = SpellType.WATER.getSpell(packet.waterSpell),
-							earthSpell = SpellType.EARTH.getSpell(packet.earthSpell),
-							airSpell = SpellType.AIR.getSpell(packet.airSpell);
-						
-						if(fireSpell != null && waterSpell != null && earthSpell != null && airSpell != null) {
-							
-							
-							// Creating a new player character:
-							Player playerCharacter = new Player(entityIndex.getAndIncrement(),
-								player,null,Game.this,playerClass,packet.isElite,
-								spawnPoints.random(),usersInfo.get(player).getTeamIndex(),
-								fireSpell,waterSpell,earthSpell,airSpell);
-							
-							// Adding the character to the game's lists:
-							players.put(player,playerCharacter);
-							characters.add(playerCharacter);
-							
-							// Telling all players that a new character has been created:
-							SrvCreateCharacter characterPacket = new SrvCreateCharacter();
-							characterPacket.characterIndex = playerCharacter.getEntityIndex();
-							characterPacket.teamIndex = playerCharacter.getTeamIndex();
-							characterPacket.playerName = playerCharacter.getPlayerName();
-							characterPacket.characterClass = playerCharacter.getPlayerClass().getIndex();
-							characterPacket.isElite = playerCharacter.isElite(); 
-							characterPacket.x = playerCharacter.getPlayerBody().getPosition().x;
-							characterPacket.y = playerCharacter.getPlayerBody().getPosition().y;
-							for(Connection connection : players.keySet()) {
-								connection.sendTCP(characterPacket);
-							}
-						}
-						else {
-							// Corrupted spell index:
-							player.sendTCP(new SrvCorruptedCreationData());
-						}
-					}
-					else {
-						// Corrupted class index:
-						player.sendTCP(new SrvCorruptedCreationData());
+					
+					// Creating a new player character:
+					Player playerCharacter = new Player(entityIndex.getAndIncrement(),
+						player,null,this,playerClass,packet.isElite,
+						spawnPoints.random(),usersInfo.get(player).getTeamIndex(),
+						fireSpell,waterSpell,earthSpell,airSpell);
+					
+					// Adding the character to the game's lists:
+					players.put(player,playerCharacter);
+					addCharacter(playerCharacter);
+					
+					// Telling all players that a new character has been created:
+					SrvCreateCharacter characterPacket = new SrvCreateCharacter();
+					characterPacket.characterIndex = playerCharacter.getEntityIndex();
+					characterPacket.teamIndex = playerCharacter.getTeamIndex();
+					characterPacket.playerName = playerCharacter.getPlayerName();
+					characterPacket.characterClass = playerCharacter.getPlayerClass().getIndex();
+					characterPacket.isElite = playerCharacter.isElite(); 
+					characterPacket.x = playerCharacter.getPlayerBody().getPosition().x;
+					characterPacket.y = playerCharacter.getPlayerBody().getPosition().y;
+					for(Connection connection : players.keySet()) {
+						connection.sendTCP(characterPacket);
 					}
 				}
+				else {
+					// Corrupted spell index:
+					player.sendTCP(new SrvCorruptedCreationData());
+				}
+			}
+			else {
+				// Corrupted class index:
+				player.sendTCP(new SrvCorruptedCreationData());
 			}
-		}, 0);
+		}
 	}
 	
 	/**
@@ -670,295 +1066,325 @@ public class Game {
 	
 	/**
 	 * Moves the player's character to the selected position.
+	 * Handled by the game thread before the next world step.
 	 * @param player user's connection.
 	 * @param x x position of the tiled map camera.
 	 * @param y y position of the tiled map camera.
 	 */
-	public void handleClick(final Connection player,final float x,final float y) {
-		gameThread.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				Player character = players.get(player);
-				if(character != null) {
-					if(character.isConfused()) {
-						// Inverted destination:
-						character.setDestination(getInvertedPosition(character, x, y));
-					}
-					else {
-						// Proper destination:
-						character.setDestination(tempVector2.set(x,y));
-					}
-				}
+	public void handleClick(Connection player,float x,float y) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.CLICK,player,x,y));
+	}
+	
+	/**
+	 * Moves the player's character to the selected position. Run by the game thread.
+	 * @param player user's connection.
+	 * @param x input position x.
+	 * @param y input position y.
+	 */
+	private void moveCharacter(Connection player,float x,float y) {
+		Player character = players.get(player);
+		if(character != null) {
+			if(character.isConfused()) {
+				// Inverted destination:
+				character.setDestination(getInvertedPosition(character, x, y));
+			}
+			else {
+				// Proper destination:
+				character.setDestination(tempVector2.set(x,y));
 			}
-		}, 0);
+		}
 	}
 	
 	/**
 	 * Lets the player cast his fire spell.
+	 * Handled by the game thread before the next world step.
 	 * @param player user's connection.
 	 * @param x his current x mouse position.
 	 * @param y his current y mouse position.
 	 */
-	public void handleFireCast(final Connection player,final float x,final float y) {
-		gameThread.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				Player caster = players.get(player);
-				// Checking if player actually has a character:
-				if(caster == null) {
-					return;
-				}
-				
-				if(caster != null && caster.canCastSpell(SpellType.FIRE.getIndex())) {
-					caster.cancelDestination();
-					
-					// Getting spell position:
-					if(caster.isConfused()) {
-						getInvertedPosition(caster, x, y);
-					}
-					else {
-						tempVector2.set(x,y);
-					}
-					
-					switch(caster.getSpell(SpellType.FIRE)) {
-					case FIREBALL:
-						// Adding fireball projectile:
-						Spell.FIREBALL.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case METEOR:
-						// Scheduling meteor fall:
-						Spell.METEOR.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case BLAZING_FEET:
-						// Adding blazing feet status:
-						Spell.BLAZING_FEET.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case CURSE:
-						// Adding curse projectile:
-						Spell.CURSE.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case MAGIC_MISSILE:
-						// Adding magic missile projectile:
-						Spell.MAGIC_MISSILE.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case LIFE_STEAL:
-						// Adding life steal projectile:
-						Spell.LIFE_STEAL.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case SWARM:
-						// Summoning fire ant:
-						Spell.SWARM.cast(entityIndex.getAndIncrement(), Game.this,
-							caster, null, tempVector2);
-						break;
-					default:
-						break;
-					}
-				}
+	public void handleFireCast(Connection player,float x,float y) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.FIRE_CAST,player,x,y));
+	}
+	
+	/**
+	 * Casts the player's fire spell. Run by the game thread.
+	 * @param player user's connection.
+	 * @param x input position x.
+	 * @param y input position y.
+	 */
+	private void castFireSpell(Connection player,float x,float y) {
+		Player caster = players.get(player);
+		// Checking if player actually has a character:
+		if(caster == null) {
+			return;
+		}
+		
+		if(caster != null && caster.canCastSpell(SpellType.FIRE.getIndex())) {
+			caster.cancelDestination();
+			
+			// Getting spell position:
+			if(caster.isConfused()) {
+				getInvertedPosition(caster, x, y);
+			}
+			else {
+				tempVector2.set(x,y);
+			}
+			
+			switch(caster.getSpell(SpellType.FIRE)) {
+			case FIREBALL:
+				// Adding fireball projectile:
+				Spell.FIREBALL.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case METEOR:
+				// Scheduling meteor fall:
+				Spell.METEOR.cast(0, this, caster, null, tempVector2);
+				break;
+			case BLAZING_FEET:
+				// Adding blazing feet status:
+				Spell.BLAZING_FEET.cast(0, this, caster, null, tempVector2);
+				break;
+			case CURSE:
+				// Adding curse projectile:
+				Spell.CURSE.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case MAGIC_MISSILE:
+				// Adding magic missile projectile:
+				Spell.MAGIC_MISSILE.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case LIFE_STEAL:
+				// Adding life steal projectile:
+				Spell.LIFE_STEAL.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case SWARM:
+				// Summoning fire ant:
+				Spell.SWARM.cast(entityIndex.getAndIncrement(), this,
+					caster, null, tempVector2);
+				break;
+			default:
+				break;
 			}
-		},0);
+		}
 	}
 	
 	/**
 	 * Lets the player cast his water spell.
+	 * Handled by the game thread before the next world step.
 	 * @param player user's connection.
 	 * @param x his current x mouse position.
 	 * @param y his current y mouse position.
 	 */
-	public void handleWaterCast(final Connection player,final float x,final float y) {
-		gameThread.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				Player caster = players.get(player);
-				// Checking if player actually has a character:
-				if(caster == null) {
-					return;
-				}
-				
-				if(caster != null && caster.canCastSpell(SpellType.WATER.getIndex())) {
-					caster.cancelDestination();
-					
-					// Getting spell position:
-					if(caster.isConfused()) {
-						getInvertedPosition(caster, x, y);
-					}
-					else {
-						tempVector2.set(x,y);
-					}
-					
-					switch(caster.getSpell(SpellType.WATER)) {
-					case HEAL:
-						// Healing the player:
-						Spell.HEAL.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case FREEZE:
-						// Adding freezing projectile:
-						Spell.FREEZE.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case ICE_BLOCK:
-						// Adding ice block projectile:
-						Spell.ICE_BLOCK.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case SHIELD:
-						// Shielding a player:
-						Spell.SHIELD.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case PULSE:
-						// Creating pulse explosion:
-						Spell.PULSE.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case CONFUSION:
-						// Confusing target:
-						Spell.CONFUSION.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case SILENCE:
-						// Paralyzing target:
-						Spell.SILENCE.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					default:
-						break;
-					}
-				}
+	public void handleWaterCast(Connection player,float x,float y) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.WATER_CAST,player,x,y));
+	}
+	
+	/**
+	 * Casts the player's water spell. Run by the game thread.
+	 * @param player user's connection.
+	 * @param x input position x.
+	 * @param y input position y.
+	 */
+	private void castWaterSpell(Connection player,float x,float y) {
+		Player caster = players.get(player);
+		// Checking if player actually has a character:
+		if(caster == null) {
+			return;
+		}
+		
+		if(caster != null && caster.canCastSpell(SpellType.WATER.getIndex())) {
+			caster.cancelDestination();
+			
+			// Getting spell position:
+			if(caster.isConfused()) {
+				getInvertedPosition(caster, x, y);
 			}
-		},0);
+			else {
+				tempVector2.set(x,y);
+			}
+			
+			switch(caster.getSpell(SpellType.WATER)) {
+			case HEAL:
+				// Healing the player:
+				Spell.HEAL.cast(0, this, caster, null, tempVector2);
+				break;
+			case FREEZE:
+				// Adding freezing projectile:
+				Spell.FREEZE.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case ICE_BLOCK:
+				// Adding ice block projectile:
+				Spell.ICE_BLOCK.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case SHIELD:
+				// Shielding a player:
+				Spell.SHIELD.cast(0, this, caster, null, tempVector2);
+				break;
+			case PULSE:
+				// Creating pulse explosion:
+				Spell.PULSE.cast(0, this, caster, null, tempVector2);
+				break;
+			case CONFUSION:
+				// Confusing target:
+				Spell.CONFUSION.cast(0, this, caster, null, tempVector2);
+				break;
+			case SILENCE:
+				// Paralyzing target:
+				Spell.SILENCE.cast(0, this, caster, null, tempVector2);
+				break;
+			default:
+				break;
+			}
+		}
 	}
 	
 	/**
 	 * Lets the player cast his earth spell.
+	 * Handled by the game thread before the next world step.
 	 * @param player user's connection.
 	 * @param x his current x mouse position.
 	 * @param y his current y mouse position.
 	 */
-	public void handleEarthCast(final Connection player,final float x,final float y) {
-		gameThread.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				Player caster = players.get(player);
-				// Checking if player actually has a character:
-				if(caster == null) {
-					return;
-				}
-				
-				if(caster != null && caster.canCastSpell(SpellType.EARTH.getIndex())) {
-					caster.cancelDestination();
-					
-					// Getting spell position:
-					if(caster.isConfused()) {
-						getInvertedPosition(caster, x, y);
-					}
-					else {
-						tempVector2.set(x,y);
-					}
-					
-					switch(caster.getSpell(SpellType.EARTH)) {
-					case QUAKE:
-						// Creating explosion around the player:
-						Spell.QUAKE.cast(0, Game.this, caster, null, null);
-						break;
-					case POISON:
-						// Adding gas cloud projectile:
-						Spell.POISON.cast(entityIndex.getAndIncrement(),
-								Game.this, caster, circleShape, tempVector2);
-						break;
-					case ENTANGLE:
-						// Adding an entangle projectile:
-						Spell.ENTANGLE.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case CURE:
-						// Healing the player:
-						Spell.CURE.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case HOMING_ARROW:
-						// Adding an arrow projectile:
-						Spell.HOMING_ARROW.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case SUMMON_BEAST:
-						// Summoning minotaur:
-						Spell.SUMMON_BEAST.cast(entityIndex.getAndIncrement(), Game.this,
-							caster, null, tempVector2);
-						break;
-					case THORNS:
-						// Adding thorns projectiles:
-						Spell.THORNS.cast(0,Game.this, caster, circleShape, tempVector2);
-						break;
-					default:
-						break;
-					}
-				}
+	public void handleEarthCast(Connection player,float x,float y) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.EARTH_CAST,player,x,y));
+	}
+	
+	/**
+	 * Casts the player's earth spell. Run by the game thread.
+	 * @param player user's connection.
+	 * @param x input position x.
+	 * @param y input position y.
+	 */
+	private void castEarthSpell(Connection player,float x,float y) {
+		Player caster = players.get(player);
+		// Checking if player actually has a character:
+		if(caster == null) {
+			return;
+		}
+		
+		if(caster != null && caster.canCastSpell(SpellType.EARTH.getIndex())) {
+			caster.cancelDestination();
+			
+			// Getting spell position:
+			if(caster.isConfused()) {
+				getInvertedPosition(caster, x, y);
 			}
-		},0);
+			else {
+				tempVector2.set(x,y);
+			}
+			
+			switch(caster.getSpell(SpellType.EARTH)) {
+			case QUAKE:
+				// Creating explosion around the player:
+				Spell.QUAKE.cast(0, this, caster, null, null);
+				break;
+			case POISON:
+				// Adding gas cloud projectile:
+				Spell.POISON.cast(entityIndex.getAndIncrement(),
+						this, caster, circleShape, tempVector2);
+				break;
+			case ENTANGLE:
+				// Adding an entangle projectile:
+				Spell.ENTANGLE.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case CURE:
+				// Healing the player:
+				Spell.CURE.cast(0, this, caster, null, tempVector2);
+				break;
+			case HOMING_ARROW:
+				// Adding an arrow projectile:
+				Spell.HOMING_ARROW.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case SUMMON_BEAST:
+				// Summoning minotaur:
+				Spell.SUMMON_BEAST.cast(entityIndex.getAndIncrement(), this,
+					caster, null, tempVector2);
+				break;
+			case THORNS:
+				// Adding thorns projectiles:
+				Spell.THORNS.cast(0,this, caster, circleShape, tempVector2);
+				break;
+			default:
+				break;
+			}
+		}
 	}
 	
 	/**
 	 * Lets the player cast his air spell.
+	 * Handled by the game thread before the next world step.
 	 * @param player user's connection.
 	 * @param x his current x mouse position.
 	 * @param y his current y mouse position.
 	 */
-	public void handleAirCast(final Connection player,final float x,final float y) {
-		gameThread.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				Player caster = players.get(player);
-				// Checking if player actually has a character:
-				if(caster == null) {
-					return;
-				}
-				
-				// Getting spell position:
-				if(caster.isConfused()) {
-					getInvertedPosition(caster, x, y);
-				}
-				else {
-					tempVector2.set(x,y);
-				}
-				
-				if(caster != null && caster.canCastSpell(SpellType.AIR.getIndex())) {
-					caster.cancelDestination();
-					switch(caster.getSpell(SpellType.AIR)) {
-					case HASTE:
-						// Speeding the player up:
-						Spell.HASTE.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case LEAP:
-						// Moving the player in a given direction:
-						Spell.LEAP.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case LIGHTNING_BOLT:
-						// Adding a lightning bolt projectile:
-						Spell.LIGHTNING_BOLT.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case TORNADO:
-						// Adding a tornado "projectile":
-						Spell.TORNADO.cast(entityIndex.getAndIncrement(),
-							Game.this, caster, circleShape, tempVector2);
-						break;
-					case SWAP:
-						// Switching players' positions:
-						Spell.SWAP.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case TAUNT:
-						// Changing projectiles' velocity:
-						Spell.TAUNT.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					case LINK:
-						// Changing projectiles' velocity:
-						Spell.LINK.cast(0, Game.this, caster, null, tempVector2);
-						break;
-					default:
-						break;
-					}
-				}
+	public void handleAirCast(Connection player,float x,float y) {
+		commandsInbox.add(commandsInbox.obtain().set(CommandType.AIR_CAST,player,x,y));
+	}
+	
+	/**
+	 * Casts the player's air spell. Run by the game thread.
+	 * @param player user's connection.
+	 * @param x input position x.
+	 * @param y input position y.
+	 */
+	private void castAirSpell(Connection player,float x,float y) {
+		Player caster = players.get(player);
+		// Checking if player actually has a character:
+		if(caster == null) {
+			return;
+		}
+		
+		// Getting spell position:
+		if(caster.isConfused()) {
+			getInvertedPosition(caster, x, y);
+		}
+		else {
+			tempVector2.set(x,y);
+		}
+		
+		if(caster != null && caster.canCastSpell(SpellType.AIR.getIndex())) {
+			caster.cancelDestination();
+			switch(caster.getSpell(SpellType.AIR)) {
+			case HASTE:
+				// Speeding the player up:
+				Spell.HASTE.cast(0, this, caster, null, tempVector2);
+				break;
+			case LEAP:
+				// Moving the player in a given direction:
+				Spell.LEAP.cast(0, this, caster, null, tempVector2);
+				break;
+			case LIGHTNING_BOLT:
+				// Adding a lightning bolt projectile:
+				Spell.LIGHTNING_BOLT.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case TORNADO:
+				// Adding a tornado "projectile":
+				Spell.TORNADO.cast(entityIndex.getAndIncrement(),
+					this, caster, circleShape, tempVector2);
+				break;
+			case SWAP:
+				// Switching players' positions:
+				Spell.SWAP.cast(0, this, caster, null, tempVector2);
+				break;
+			case TAUNT:
+				// Changing projectiles' velocity:
+				Spell.TAUNT.cast(0, this, caster, null, tempVector2);
+				break;
+			case LINK:
+				// Changing projectiles' velocity:
+				Spell.LINK.cast(0, this, caster, null, tempVector2);
+				break;
+			default:
+				break;
 			}
-		},0);
+		}
 	}
 	
 	/**
@@ -976,7 +1402,7 @@ public class Game {
 		packet.deaths = userInfo.getDeaths();
 		
 		// Scheduling packet:
-		SFXpackets.add(packet);
+		scorePackets.add(packet);
 	}
 	
 	/**
@@ -994,7 +1420,7 @@ public class Game {
 		packet.deaths = userInfo.getDeaths();
 		
 		// Scheduling packet:
-		SFXpackets.add(packet);
+		scorePackets.add(packet);
 	}
 	
 	/**
@@ -1002,7 +1428,7 @@ public class Game {
 	 * @param player the player to be teleported.
 	 * @param teleport the teleport he stepped into.
 	 */
-	public void teleport(final Player player, Teleport teleport) {
+	public void teleport(Player player, Teleport teleport) {
 		if(player.getLastUsedTeleportIndex() != teleport.getEntityIndex()) {
 			// Getting random teleport:
 			Teleport destination = teleports.random();
@@ -1012,41 +1438,13 @@ public class Game {
 			}
 			
 			// Sending teleport packet:
-			SrvDisplaySFX teleportingOutPacket = new SrvDisplaySFX();
-			teleportingOutPacket.SFXIndex = SFXIndexes.SWAP_CAST.getSFXIndex();
-			teleportingOutPacket.x = player.getPlayerBody().getPosition().x;
-			teleportingOutPacket.y = player.getPlayerBody().getPosition().y;
-			SFXpackets.add(teleportingOutPacket);
+			displaySFX(SFXIndexes.SWAP_CAST.getSFXIndex(),
+				player.getPlayerBody().getPosition());
 			
 			player.setLastUsedTeleport(destination.getEntityIndex());
-			final Vector2 destinationPosition = new Vector2(destination.getPosition());
-			// Teleporting the player (making sure it won't break the game update):
-			gameThread.schedule(new TimerTask() {
-				@Override
-				public void run() {
-					// Getting destination relative to the player:
-					if(player.isMoving()) {
-						tempVector2.set(player.getDestination());
-						tempVector2.sub(player.getPlayerBody().getPosition());
-					}
-					
-					player.getPlayerBody().setTransform(destinationPosition,
-						player.getPlayerBody().getAngle());
-					
-					// Setting new destination:
-					if(player.isMoving()) {
-						player.setDestination(tempVector2.add(player
-							.getPlayerBody().getPosition()));
-					}
-
-					// Sending teleport packet:
-					SrvDisplaySFX teleportingInPacket = new SrvDisplaySFX();
-					teleportingInPacket.SFXIndex = SFXIndexes.SWAP_CAST.getSFXIndex();
-					teleportingInPacket.x = player.getPlayerBody().getPosition().x;
-					teleportingInPacket.y = player.getPlayerBody().getPosition().y;
-					SFXpackets.add(teleportingInPacket);
-				}
-			}, 0);
+			// Teleporting the player (making sure it won't break the world step):
+			scheduleEvent(obtainEvent(playerTeleport).setPlayers(player, null).setPosition(
+				destination.getPosition().x, destination.getPosition().y), false, 0f, player);
 		}
 	}
 	
@@ -1055,7 +1453,7 @@ public class Game {
 	 * @param projectile the projectile to be teleported.
 	 * @param teleport the teleport that the projectile fell into.
 	 */
-	public void teleport(final Projectile projectile, Teleport teleport) {
+	public void teleport(Projectile projectile, Teleport teleport) {
 		if(projectile.getLastUsedTeleportIndex() != teleport.getEntityIndex()) {
 			// Getting random teleport:
 			Teleport destination = teleports.random();
@@ -1064,47 +1462,111 @@ public class Game {
 				destination = teleports.get((destination.getEntityIndex()+1)%teleportsAmount);
 			}
 			// Sending teleport packet:
-			SrvDisplaySFX teleportingOutPacket = new SrvDisplaySFX();
-			teleportingOutPacket.SFXIndex = SFXIndexes.SWAP_CAST.getSFXIndex();
-			teleportingOutPacket.x = projectile.getProjectileBody().getPosition().x;
-			teleportingOutPacket.y = projectile.getProjectileBody().getPosition().y;
-			SFXpackets.add(teleportingOutPacket);
+			displaySFX(SFXIndexes.SWAP_CAST.getSFXIndex(),
+				projectile.getProjectileBody().getPosition());
 			
 			projectile.setLastUsedTeleport(destination.getEntityIndex());
-			final Vector2 destinationPosition = new Vector2(destination.getPosition());
-			// Teleporting the projectile (making sure it won't break the game update):
-			gameThread.schedule(new TimerTask() {
-				@Override
-				public void run() {
-					projectile.getProjectileBody().setTransform(destinationPosition,
-						projectile.getProjectileBody().getAngle());
+			// Teleporting the projectile (making sure it won't break the world step):
+			scheduleEvent(obtainEvent(projectileTeleport).setProjectile(projectile).setPosition(
+				destination.getPosition().x, destination.getPosition().y), false, 0f);
+		}
+	}
+	
+	/**
+	 * @return handler of the scheduled players' teleportations.
+	 */
+	private EventHandler createPlayerTeleport() {
+		return new EventHandler() {
+			@Override
+			public void handle(GameEvent event) {
+				Player player = event.getPlayer();
+				// Getting destination relative to the player:
+				if(player.isMoving()) {
+					tempVector2.set(player.getDestination());
+					tempVector2.sub(player.getPlayerBody().getPosition());
+				}
+				
+				player.getPlayerBody().setTransform(event.getPosition(),
+					player.getPlayerBody().getAngle());
+				
+				// Setting new destination:
+				if(player.isMoving()) {
+					player.setDestination(tempVector2.add(player
+						.getPlayerBody().getPosition()));
+				}
 
-					// Sending teleport packet:
-					SrvDisplaySFX teleportingInPacket = new SrvDisplaySFX();
-					teleportingInPacket.SFXIndex = SFXIndexes.SWAP_CAST.getSFXIndex();
-					teleportingInPacket.x = projectile.getProjectileBody().getPosition().x;
-					teleportingInPacket.y = projectile.getProjectileBody().getPosition().y;
-					SFXpackets.add(teleportingInPacket);
+				// Sending teleport packet:
+				displaySFX(SFXIndexes.SWAP_CAST.getSFXIndex(),
+					player.getPlayerBody().getPosition());
+			}
+		};
+	}
+	
+	/**
+	 * @return handler of the scheduled projectiles' teleportations.
+	 */
+	private EventHandler createProjectileTeleport() {
+		return new EventHandler() {
+			@Override
+			public void handle(GameEvent event) {
+				Projectile projectile = event.getProjectile();
+				// Projectile might have been already removed and reused by another cast:
+				if(projectile == null) {
+					return;
 				}
-			}, 0);
-		}
+				projectile.getProjectileBody().setTransform(event.getPosition(),
+					projectile.getProjectileBody().getAngle());
+
+				// Sending teleport packet:
+				displaySFX(SFXIndexes.SWAP_CAST.getSFXIndex(),
+					projectile.getProjectileBody().getPosition());
+			}
+		};
 	}
 	
 	/**
-	 * Stops the game thread and disposes of Box2D world.
+	 * Stops the game updates and disposes of Box2D world.
 	 */
 	public void dispose() {
-		gameThread.schedule(new TimerTask() {
+		execute(new Runnable() {
 			@Override
 			public void run() {
+				// Stopping game updates:
+				isDisposed = true;
+				GameScheduler.SCHEDULER.unregister(Game.this);
+				if(mapChangeTask != null) {
+					mapChangeTask.cancel(false);
+				}
+				
 				// Disposing of Box2D world:
 				box2DWorld.dispose();
 				circleShape.dispose();
-				
-				// Stopping game thread:
-				gameThread.cancel();
 			}
-		}, 0);
+		});
+	}
+	
+	/**
+	 * Sets Box2D world bounds used to quantize positions in world updates. The bounds
+	 * contain the whole TMX map and a margin for entities falling into the void.
+	 * @param map parsed map.
+	 */
+	private void setWorldBounds(TiledMap map) {
+		float mapWidth = map.getProperties().get("width",Integer.class)*
+			map.getProperties().get("tilewidth",Integer.class);
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE,
+			maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+		// Checking the map corners:
+		for(int i=0; i<4; i++) {
+			tiledToBox2DCoords(i%2 == 0 ? 0f : mapWidth, i/2 == 0 ? 0f : mapHeight);
+			minX = Math.min(minX, tempVector2.x);
+			minY = Math.min(minY, tempVector2.y);
+			maxX = Math.max(maxX, tempVector2.x);
+			maxY = Math.max(maxY, tempVector2.y);
+		}
+		updateEncoder.setWorldBounds(minX-WORLD_BOUNDS_MARGIN, minY-WORLD_BOUNDS_MARGIN,
+			maxX+WORLD_BOUNDS_MARGIN, maxY+WORLD_BOUNDS_MARGIN);
+		charactersGrid.setBounds(minX-WORLD_BOUNDS_MARGIN, minY-WORLD_BOUNDS_MARGIN,
+			maxX+WORLD_BOUNDS_MARGIN, maxY+WORLD_BOUNDS_MARGIN);
 	}
 	
 	/**
@@ -1143,7 +1605,7 @@ public class Game {
 	 * @param player will be added.
 	 */
 	public void addPlayer(final Connection player) {
-		gameThread.schedule(new TimerTask() {
+		execute(new Runnable() {
 			@Override
 			public void run() {
 				players.put(player,null);
@@ -1165,7 +1627,7 @@ public class Game {
 					usersInfo.put(player, new GameRoomUser(player,-1));
 				}
 			}
-		}, 0);
+		});
 		
 	}
 	
@@ -1176,7 +1638,7 @@ public class Game {
 	 * @param player user's connection.
 	 */
 	public void sendCurrentEntities(final Connection player) {
-		gameThread.schedule(new TimerTask() {
+		execute(new Runnable() {
 			@Override
 			public void run() {
 				// Sending packets with character creation data:
@@ -1200,7 +1662,7 @@ public class Game {
 					player.sendUDP(packet);
 				}
 			}
-		}, 0);
+		});
 	}
 	
 	/**
@@ -1209,21 +1671,7 @@ public class Game {
 	 * @return nearest character.
 	 */
 	public Player getNearestPlayer(Vector2 position) {
-		Player nearestPlayer = null;
-		float distance = Float.MAX_VALUE, currentDistance;
-		
-		// Checking distance for each character:
-		for(Player player : characters) {
-			currentDistance = LogicUtils.getDistanceIndicator(position,
-				player.getPlayerBody().getPosition());
-			// If distance from the character is lower than the current nearest...
-			if(currentDistance < distance) {
-				distance = currentDistance;
-				nearestPlayer = player;
-			}
-		}
-		
-		return nearestPlayer;
+		return charactersGrid.getNearest(position.x, position.y, null, null, -1);
 	}
 	
 	/**
@@ -1231,23 +1679,9 @@ public class Game {
 	 * @return nearest character other than player or null.
 	 */
 	public Player getNearestPlayer(Player player) {
-		Player nearestPlayer = null;
-		float distance = Float.MAX_VALUE, currentDistance;
-		
-		// Checking distance for each character:
-		for(Player checkedPlayer : characters) {
-			if(checkedPlayer.getEntityIndex() != player.getEntityIndex()) {
-				currentDistance = LogicUtils.getDistanceIndicator(player
-					.getPlayerBody().getPosition(),checkedPlayer.getPlayerBody().getPosition());
-				// If distance from the character is lower than the current nearest...
-				if(currentDistance < distance) {
-					distance = currentDistance;
-					nearestPlayer = checkedPlayer;
-				}
-			}
-		}
-		
-		return nearestPlayer;
+		int index = worldState.getIndex(player);
+		return charactersGrid.getNearest(worldState.getCharacterX(index),
+			worldState.getCharacterY(index), player, null, -1);
 	}
 	
 	/**
@@ -1256,50 +1690,17 @@ public class Game {
 	 * @return closest enemy.
 	 */
 	public Player getNearestEnemy(Summon summon) {
+		int index = worldState.getIndex(summon);
 		switch(gameMode) {
-		case STARNDARD: {
-			Player nearestPlayer = null;
-			float distance = Float.MAX_VALUE, currentDistance;
-			
-			// Checking distance for each character:
-			for(Player player : characters) {
-				if(player != summon && player != summon.getCaster()) {
-					currentDistance = LogicUtils.getDistanceIndicator
-						(summon.getPlayerBody().getPosition(),
-						player.getPlayerBody().getPosition());
-					// If distance from the character is lower than the current nearest...
-					if(currentDistance < distance) {
-						distance = currentDistance;
-						nearestPlayer = player;
-					}
-				}
-			}
-			return nearestPlayer;
-		}
+		case STARNDARD:
+			return charactersGrid.getNearest(worldState.getCharacterX(index),
+				worldState.getCharacterY(index), summon, summon.getCaster(), -1);
 		case TEAM:
-			Player nearestPlayer = null;
-			float distance = Float.MAX_VALUE, currentDistance;
-			
-			// Checking distance for each character:
-			for(Player player : characters) {
-				if(player.getTeamIndex() != summon.getTeamIndex()) {
-					currentDistance = LogicUtils.getDistanceIndicator
-						(summon.getPlayerBody().getPosition(),
-						player.getPlayerBody().getPosition());
-					// If distance from the character is lower than the current nearest...
-					if(currentDistance < distance) {
-						distance = currentDistance;
-						nearestPlayer = player;
-					}
-				}
-			}
-			return nearestPlayer;
+			return charactersGrid.getNearest(worldState.getCharacterX(index),
+				worldState.getCharacterY(index), null, null, summon.getTeamIndex());
 		default:
 			return null;
 		}
-		
-		
-		
 	}
 	
 	/**
@@ -1309,7 +1710,7 @@ public class Game {
 	 */
 	public boolean removePlayer(final Connection player) {
 		if(players.containsKey(player)) {
-			gameThread.schedule(new TimerTask() {
+			execute(new Runnable() {
 				@Override
 				public void run() {		
 					if(players.get(player) != null) {
@@ -1331,7 +1732,7 @@ public class Game {
 					// Removing temporary player info:
 					usersInfo.remove(player);
 				}
-			}, 0);
+			});
 			return true;
 		}
 		return false;
@@ -1350,14 +1751,14 @@ public class Game {
 	 * @param packet game chat message.
 	 */
 	public void sendMessage(final SrvGameChatMessage packet) {
-		gameThread.schedule(new TimerTask() {
+		execute(new Runnable() {
 			@Override
 			public void run() {
 				for(Connection user : getPlayers()) {
 					user.sendUDP(packet);
 				}
 			}
-		}, 0);
+		});
 	}
 	
 	/**
@@ -1367,7 +1768,7 @@ public class Game {
 	 * @param packet game chat message.
 	 */
 	public void sendTeamMessage(final Connection player,final SrvGameChatMessage packet) {
-		gameThread.schedule(new TimerTask() {
+		execute(new Runnable() {
 			@Override
 			public void run() {
 				// Finding player:
@@ -1382,7 +1783,7 @@ public class Game {
 					}
 				}
 			}
-		}, 0);
+		});
 	}
 	
 	/**
@@ -0,0 +1,112 @@
+package mj.konfigurats.logic;
+
+import mj.konfigurats.network.GamePackets.CltCreateCharacter;
+
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.esotericsoftware.kryonet.Connection;
+
+/**
+ * A single player's input, queued by the network threads and handled by the game thread
+ * right before the next world step. Reused by the room's command inbox.
+ * @author MJ
+ */
+public class GameCommand implements Poolable {
+	private CommandType type;
+	private Connection player;
+	private float x,y;
+	private long updateIndex;
+	private CltCreateCharacter characterData;
+	// Next command in the inbox:
+	volatile GameCommand next;
+
+	/**
+	 * @param type type of the command.
+	 * @param player user's connection.
+	 * @param x input position x.
+	 * @param y input position y.
+	 * @return this command for chaining.
+	 */
+	public GameCommand set(CommandType type,Connection player,float x,float y) {
+		this.type = type;
+		this.player = player;
+		this.x = x;
+		this.y = y;
+		return this;
+	}
+
+	/**
+	 * @param characterData packet with user's character data.
+	 * @return this command for chaining.
+	 */
+	public GameCommand setCharacterData(CltCreateCharacter characterData) {
+		this.characterData = characterData;
+		return this;
+	}
+
+	/**
+	 * @param updateIndex index of the world update acknowledged by the player.
+	 * @return this command for chaining.
+	 */
+	public GameCommand setUpdateIndex(long updateIndex) {
+		this.updateIndex = updateIndex;
+		return this;
+	}
+	
+	/**
+	 * @return type of the command.
+	 */
+	public CommandType getType() {
+		return type;
+	}
+
+	/**
+	 * @return connection of the user that sent the command.
+	 */
+	public Connection getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return input position x.
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * @return input position y.
+	 */
+	public float getY() {
+		return y;
+	}
+
+	/**
+	 * @return index of the acknowledged world update.
+	 */
+	public long getUpdateIndex() {
+		return updateIndex;
+	}
+	
+	/**
+	 * @return packet with user's character data or null.
+	 */
+	public CltCreateCharacter getCharacterData() {
+		return characterData;
+	}
+
+	@Override
+	public void reset() {
+		type = null;
+		player = null;
+		characterData = null;
+		next = null;
+	}
+
+	/**
+	 * Types of players' inputs handled by the game thread.
+	 * @author MJ
+	 */
+	public static enum CommandType {
+		CREATE_CHARACTER,CLICK,FIRE_CAST,WATER_CAST,EARTH_CAST,AIR_CAST,ACKNOWLEDGE;
+	}
+}
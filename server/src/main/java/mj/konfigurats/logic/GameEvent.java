@@ -0,0 +1,200 @@
+package mj.konfigurats.logic;
+
+import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.entities.Projectile;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/**
+ * A reusable scheduled event of a game room. Instead of capturing its data in an anonymous
+ * runnable, the event stores it in its own fields and passes itself to a stateless handler.
+ * Events are obtained from the room's pool (see Game.obtainEvent) and are returned to it
+ * after they finish or get cancelled, so scheduling them doesn't allocate. Should be used
+ * only by the game thread.
+ * @author MJ
+ */
+public class GameEvent implements Runnable, Poolable {
+	private final Pool<GameEvent> pool;
+	private final Vector2 position;
+	private EventHandler handler;
+	private Player player,target;
+	private Projectile projectile;
+	private int index,projectileGeneration;
+	private float value,interval,timer;
+
+	/**
+	 * @param pool the event will be returned to this pool after it is finished.
+	 */
+	GameEvent(Pool<GameEvent> pool) {
+		this.pool = pool;
+		position = new Vector2();
+	}
+
+	/**
+	 * @param handler will run the event.
+	 * @return this event for chaining.
+	 */
+	GameEvent set(EventHandler handler) {
+		this.handler = handler;
+		return this;
+	}
+
+	/**
+	 * @param player caster of the spell or the affected player.
+	 * @param target target of the spell. Can be null.
+	 * @return this event for chaining.
+	 */
+	public GameEvent setPlayers(Player player,Player target) {
+		this.player = player;
+		this.target = target;
+		return this;
+	}
+
+	/**
+	 * @param projectile affected projectile. Its current generation is stored, so the event
+	 *	can tell if the projectile object was reused.
+	 * @return this event for chaining.
+	 */
+	public GameEvent setProjectile(Projectile projectile) {
+		this.projectile = projectile;
+		projectileGeneration = projectile.getGeneration();
+		return this;
+	}
+
+	/**
+	 * @param x position of the event.
+	 * @param y position of the event.
+	 * @return this event for chaining.
+	 */
+	public GameEvent setPosition(float x,float y) {
+		position.set(x, y);
+		return this;
+	}
+
+	/**
+	 * @param index entity index used by the event.
+	 * @param value modification, angle etc. - depends on the handler.
+	 * @return this event for chaining.
+	 */
+	public GameEvent setValue(int index,float value) {
+		this.index = index;
+		this.value = value;
+		return this;
+	}
+
+	/**
+	 * @param interval time (in seconds) between the event's effects. Used by repeating events.
+	 * @return this event for chaining.
+	 */
+	public GameEvent setInterval(float interval) {
+		this.interval = interval;
+		return this;
+	}
+
+	/**
+	 * @return caster of the spell or the affected player.
+	 */
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return target of the spell or null.
+	 */
+	public Player getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return affected projectile or null if it was removed. Removed projectiles might be
+	 *	already reused by other casts.
+	 */
+	public Projectile getProjectile() {
+		if(projectile == null || projectile.isRemoved()
+			|| projectile.getGeneration() != projectileGeneration) {
+			return null;
+		}
+		return projectile;
+	}
+
+	/**
+	 * @return position of the event. Can be modified.
+	 */
+	public Vector2 getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return entity index used by the event.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return modification, angle etc.
+	 */
+	public float getValue() {
+		return value;
+	}
+
+	/**
+	 * @return time between the event's effects.
+	 */
+	public float getInterval() {
+		return interval;
+	}
+
+	/**
+	 * @param delta time passed since the last call.
+	 * @return amount of effects due since the last call, according to the event's interval.
+	 *	0 if the interval was not set.
+	 */
+	public int advanceTimer(float delta) {
+		if(interval <= 0f) {
+			return 0;
+		}
+		timer += delta;
+		int effects = 0;
+		while(timer >= interval) {
+			timer -= interval;
+			effects++;
+		}
+		return effects;
+	}
+
+	@Override
+	public void run() {
+		handler.handle(this);
+	}
+
+	/**
+	 * Returns the event to its pool. Called by the timing wheel after the event is finished
+	 * or cancelled.
+	 */
+	void free() {
+		pool.free(this);
+	}
+
+	@Override
+	public void reset() {
+		handler = null;
+		player = target = null;
+		projectile = null;
+		index = projectileGeneration = 0;
+		value = interval = timer = 0f;
+	}
+
+	/**
+	 * Runs pooled events. Handlers should not keep any state - it belongs to the events.
+	 * @author MJ
+	 */
+	public static interface EventHandler {
+		/**
+		 * @param event scheduled event with its data.
+		 */
+		public void handle(GameEvent event);
+	}
+}
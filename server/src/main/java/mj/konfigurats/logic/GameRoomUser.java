@@ -1,5 +1,7 @@
 package mj.konfigurats.logic;
 
+import mj.konfigurats.logic.snapshots.InterestArea;
+
 import com.esotericsoftware.kryonet.Connection;
 
 /**
@@ -10,10 +12,18 @@ public class GameRoomUser {
 	private final Connection userConnection;
 	private final int index,teamIndex;
 	private int kills,deaths;
+	// World updates data, used only by the game thread:
+	private long lastAcknowledgedUpdate,lastKeyframe;
+	// Bit i is set if the update with index lastAcknowledgedUpdate-i was received:
+	private long acknowledgedUpdates;
+	private float sentHealth,sentSummonHealth;
+	private InterestArea interestArea;
 	
 	public GameRoomUser(Connection userConnection,int teamIndex) {
 		this.userConnection = userConnection;
 		kills = deaths = 0;
+		lastAcknowledgedUpdate = lastKeyframe = -1;
+		sentHealth = sentSummonHealth = -1f;
 		index = userConnection.getID();
 		this.teamIndex = teamIndex;
 	}
@@ -60,6 +70,80 @@ public class GameRoomUser {
 		return deaths;
 	}
 	
+	/**
+	 * @return index of the last world update received by the user or a negative number.
+	 */
+	public long getLastAcknowledgedUpdate() {
+		return lastAcknowledgedUpdate;
+	}
+	
+	/**
+	 * @param updateIndex index of a world update received by the user. Older (reordered)
+	 *	updates are remembered as well, as long as they are not older than 63 updates.
+	 */
+	public void acknowledgeUpdate(long updateIndex) {
+		if(updateIndex > lastAcknowledgedUpdate) {
+			long shift = lastAcknowledgedUpdate < 0 ? Long.SIZE : updateIndex-lastAcknowledgedUpdate;
+			acknowledgedUpdates = (shift < Long.SIZE ? acknowledgedUpdates << shift : 0L) | 1L;
+			lastAcknowledgedUpdate = updateIndex;
+		}
+		else if(lastAcknowledgedUpdate-updateIndex < Long.SIZE) {
+			acknowledgedUpdates |= 1L << (lastAcknowledgedUpdate-updateIndex);
+		}
+	}
+	
+	/**
+	 * @param updateIndex index of the newest update.
+	 * @return received updates: bit i is set if the update with index updateIndex-i was
+	 *	acknowledged by the user.
+	 */
+	public long getAcknowledgedUpdates(long updateIndex) {
+		long shift = updateIndex-lastAcknowledgedUpdate;
+		if(lastAcknowledgedUpdate < 0 || Math.abs(shift) >= Long.SIZE) {
+			return 0L;
+		}
+		return shift >= 0 ? acknowledgedUpdates << shift : acknowledgedUpdates >>> -shift;
+	}
+	
+	/**
+	 * @return index of the last full world update sent to the user or a negative number.
+	 */
+	public long getLastKeyframe() {
+		return lastKeyframe;
+	}
+	
+	/**
+	 * @param lastKeyframe index of the last full world update sent to the user.
+	 */
+	public void setLastKeyframe(long lastKeyframe) {
+		this.lastKeyframe = lastKeyframe;
+	}
+	
+	/**
+	 * @return part of the world sent to the user. Created on the first call.
+	 */
+	public InterestArea getInterestArea() {
+		if(interestArea == null) {
+			interestArea = new InterestArea();
+		}
+		return interestArea;
+	}
+	
+	/**
+	 * Stores health values that are about to be sent to the user.
+	 * @param currentHealth health of the user's character.
+	 * @param summonHealth health of the user's summon.
+	 * @return true if the values are different than the last sent ones.
+	 */
+	public boolean updateSentHealth(float currentHealth,float summonHealth) {
+		if(currentHealth != sentHealth || summonHealth != sentSummonHealth) {
+			sentHealth = currentHealth;
+			sentSummonHealth = summonHealth;
+			return true;
+		}
+		return false;
+	}
+	
 	@Override
 	public int hashCode() {
 		return index;
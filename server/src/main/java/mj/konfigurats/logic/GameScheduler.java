@@ -0,0 +1,209 @@
+package mj.konfigurats.logic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.esotericsoftware.minlog.Log;
+
+/**
+ * A singleton which drives all game rooms. Rooms don't share any state during their
+ * updates, so each global tick submits every room's update to a work-stealing pool
+ * (by default - one worker per core) and waits until all of them are finished. Rooms
+ * that took the longest during the previous tick are submitted first, so the expensive
+ * updates don't end up starting last. A room is never updated by two threads at once,
+ * but it's not pinned to any of them either - room's logic should be run only through
+ * its tick (see Game.execute).
+ * @author MJ
+ */
+public enum GameScheduler {
+	SCHEDULER;
+
+	// Updates all rooms:
+	private final ForkJoinPool workers;
+	// Starts global ticks and delayed tasks:
+	private final ScheduledThreadPoolExecutor coordinator;
+	private final ScheduledFuture<?> tickTask;
+	private final CopyOnWriteArrayList<RoomUpdate> rooms;
+	private final TickStatistics tickStatistics;
+	// Rooms updated by the current tick, sorted by the previous update duration:
+	private RoomUpdate[] tickRooms;
+
+	private GameScheduler() {
+		int workersAmount = Integer.parseInt(System.getProperty("GAME_WORKERS",
+			String.valueOf(Runtime.getRuntime().availableProcessors())));
+		if(workersAmount < 1) {
+			workersAmount = 1;
+		}
+
+		workers = new ForkJoinPool(workersAmount);
+		coordinator = new ScheduledThreadPoolExecutor(1,new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable,"Game rooms coordinator");
+			}
+		});
+		// Cancelled tasks shouldn't linger in the coordinator's queue:
+		coordinator.setRemoveOnCancelPolicy(true);
+		rooms = new CopyOnWriteArrayList<RoomUpdate>();
+		tickStatistics = new TickStatistics(TimeUnit.MILLISECONDS.toNanos(Game.UPDATE_MILIS));
+		tickRooms = new RoomUpdate[0];
+
+		tickTask = coordinator.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				tick();
+			}
+		},Game.UPDATE_MILIS,Game.UPDATE_MILIS,TimeUnit.MILLISECONDS);
+		Log.info("SRV: created "+workersAmount+" game room workers");
+	}
+
+	/**
+	 * Updates all registered game rooms in parallel. Run by the coordinator thread. Never
+	 * throws - an exception would cancel the following ticks.
+	 */
+	private void tick() {
+		try {
+			updateRooms();
+		}
+		catch(Throwable throwable) {
+			Log.error("SRV: global tick failed",throwable);
+		}
+	}
+
+	/**
+	 * Submits the updates of all rooms to the workers and waits until they are finished.
+	 */
+	private void updateRooms() {
+		long startTime = System.nanoTime();
+		tickRooms = rooms.toArray(tickRooms);
+		// Array is reused, so current rooms are followed by a null:
+		int roomsAmount = 0;
+		while(roomsAmount < tickRooms.length && tickRooms[roomsAmount] != null) {
+			roomsAmount++;
+		}
+		// Clearing references to removed rooms:
+		Arrays.fill(tickRooms, roomsAmount, tickRooms.length, null);
+		Arrays.sort(tickRooms, 0, roomsAmount, RoomUpdate.BY_DURATION);
+
+		// Submitting all rooms before waiting for any of them:
+		for(int i=0; i<roomsAmount; i++) {
+			tickRooms[i].reinitialize();
+			workers.execute(tickRooms[i]);
+		}
+		for(int i=0; i<roomsAmount; i++) {
+			tickRooms[i].join();
+		}
+		tickStatistics.registerTick(System.nanoTime()-startTime, roomsAmount);
+	}
+
+	/**
+	 * Starts updating the game room with each global tick.
+	 * @param game new game room.
+	 */
+	void register(Game game) {
+		rooms.add(new RoomUpdate(game));
+	}
+
+	/**
+	 * Stops updating the game room. Should be called after the room was disposed.
+	 * @param game game room.
+	 */
+	void unregister(Game game) {
+		for(RoomUpdate room : rooms) {
+			if(room.game == game) {
+				rooms.remove(room);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @param task will be run by the coordinator thread after the delay. Should be short.
+	 * @param delay in milliseconds.
+	 * @return scheduled task, allowing to cancel it.
+	 */
+	ScheduledFuture<?> schedule(Runnable task,long delay) {
+		return coordinator.schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return measurements of the global ticks. Each "step" is a single room update.
+	 */
+	public TickStatistics getTickStatistics() {
+		return tickStatistics;
+	}
+
+	/**
+	 * Runs the last global tick (so the rooms can finish their remaining tasks) and stops
+	 * the workers. Should be run after all game rooms were disposed.
+	 */
+	public void shutdown() {
+		coordinator.execute(new Runnable() {
+			@Override
+			public void run() {
+				tick();
+				tickTask.cancel(false);
+				coordinator.shutdown();
+				workers.shutdown();
+				Log.info("SRV: stopped game room workers, global ticks: "+tickStatistics);
+			}
+		});
+	}
+
+	/**
+	 * A single game room's update, reused by each global tick.
+	 * @author MJ
+	 */
+	private static class RoomUpdate extends RecursiveAction {
+		private final static long serialVersionUID = 1L;
+		// Rooms with the longest updates go first:
+		private final static Comparator<RoomUpdate> BY_DURATION = new Comparator<RoomUpdate>() {
+			@Override
+			public int compare(RoomUpdate roomA, RoomUpdate roomB) {
+				return Long.compare(roomB.lastDuration, roomA.lastDuration);
+			}
+		};
+		private final Game game;
+		// Written by the workers, read by the coordinator after joining the update:
+		private long lastDuration;
+		// Set after the room's update failed and the room was disposed:
+		private boolean isBroken;
+
+		public RoomUpdate(Game game) {
+			this.game = game;
+		}
+
+		/**
+		 * Updates the room. If the update throws, the room is disposed - it is unregistered
+		 * by its disposal task during the next tick. Other rooms are not affected.
+		 */
+		@Override
+		protected void compute() {
+			long startTime = System.nanoTime();
+			try {
+				if(isBroken) {
+					// Only the remaining tasks (including the disposal) are run:
+					game.runTasks();
+				}
+				else {
+					game.tick();
+				}
+			}
+			catch(Throwable throwable) {
+				Log.error("SRV: game room "+game+" crashed",throwable);
+				if(!isBroken) {
+					isBroken = true;
+					game.dispose();
+				}
+			}
+			lastDuration = System.nanoTime()-startTime;
+		}
+	}
+}
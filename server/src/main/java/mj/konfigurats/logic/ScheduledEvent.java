@@ -1,50 +1,76 @@
 package mj.konfigurats.logic;
 
+import mj.konfigurats.logic.entities.Player;
+
+import com.badlogic.gdx.utils.Pool.Poolable;
+
 /**
- * A class used to schedule various events in the game. When the class'
- * timer reaches 0, the (Runnable) event is executed. ScheduledEvent can
- * be set to run with each update for over-time effects.
+ * A class used to schedule various events in the game. When the event's
+ * timer runs out, the (Runnable) event is executed. ScheduledEvent can
+ * be set to run with each update for over-time effects. Events are pooled
+ * and kept by the game room's timing wheel - see Game.scheduleEvent.
  * @author MJ
  */
-public class ScheduledEvent {
-	private final boolean triggerWithEachUpdate;
-	private final Runnable event;
-	private float duration;
-	
+public class ScheduledEvent implements Poolable {
+	private Runnable event;
+	private boolean triggerWithEachUpdate;
+	private long expirationTick;
+	private Player owner;
+	// Next event in the timing wheel's list:
+	ScheduledEvent next;
+
 	/**
-	 * Schedules a new event. Event should be updated with delta time
-	 * to be executed.
 	 * @param event scheduled event.
 	 * @param triggerWithEachUpdate true to execute event with each update.
-	 * @param duration time before the event is finished (in seconds).
+	 * @param expirationTick index of the update in which the event is finished.
+	 * @param owner the event will be cancelled if this player is removed. Can be null.
+	 * @return this event for chaining.
 	 */
-	public ScheduledEvent(Runnable event, boolean triggerWithEachUpdate,
-		float duration) {
+	ScheduledEvent set(Runnable event,boolean triggerWithEachUpdate,
+		long expirationTick,Player owner) {
 		this.event = event;
 		this.triggerWithEachUpdate = triggerWithEachUpdate;
-		this.duration = duration;
+		this.expirationTick = expirationTick;
+		this.owner = owner;
+		return this;
 	}
-	
+
 	/**
-	 * Updates the timer on the scheduled event. Will run its event when
-	 * the timer reaches one (or with each update, if set to do so).
-	 * @param delta time with which the event is updated.
-	 * @return true when the timer reached 0.
+	 * Executes the event.
 	 */
-	public boolean update(float delta) {
-		duration -= delta;
-		
-		// If the event is finished:
-		if(duration <= 0f) {
-			event.run();
-			return true;
-		}
-		
-		// If the event occurs with each update:
-		if(triggerWithEachUpdate) {
-			event.run();
-		}
-		return false;
+	void run() {
+		event.run();
+	}
+
+	/**
+	 * @return true if the event should be executed with each update.
+	 */
+	boolean isTriggeredWithEachUpdate() {
+		return triggerWithEachUpdate;
 	}
 
+	/**
+	 * @return index of the update in which the event is finished.
+	 */
+	long getExpirationTick() {
+		return expirationTick;
+	}
+
+	/**
+	 * @return true if the event's owner was removed from the game.
+	 */
+	boolean isCancelled() {
+		return owner != null && owner.isRemoved();
+	}
+
+	@Override
+	public void reset() {
+		if(event instanceof GameEvent) {
+			// Pooled events are reused after they finish:
+			((GameEvent)event).free();
+		}
+		event = null;
+		owner = null;
+		next = null;
+	}
 }
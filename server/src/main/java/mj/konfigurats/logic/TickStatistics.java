@@ -0,0 +1,106 @@
+package mj.konfigurats.logic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the game room's update loop. Written only by the game thread, but safe
+ * to read from other threads.
+ * @author MJ
+ */
+public class TickStatistics {
+	private final long tickBudget;
+	private volatile long ticks,steps,overruns,droppedSteps;
+	private volatile long lastTickDuration,maxTickDuration,totalTickDuration;
+
+	/**
+	 * @param tickBudget maximum time that a single update can take without delaying
+	 * the next one, in nanoseconds.
+	 */
+	public TickStatistics(long tickBudget) {
+		this.tickBudget = tickBudget;
+	}
+
+	/**
+	 * Registers a finished game loop tick.
+	 * @param duration tick duration in nanoseconds.
+	 * @param stepsAmount amount of world steps done by the tick.
+	 */
+	public void registerTick(long duration,int stepsAmount) {
+		ticks++;
+		steps += stepsAmount;
+		lastTickDuration = duration;
+		totalTickDuration += duration;
+		if(duration > maxTickDuration) {
+			maxTickDuration = duration;
+		}
+		if(duration > tickBudget) {
+			overruns++;
+		}
+	}
+
+	/**
+	 * Registers world steps that were skipped because the room couldn't catch up.
+	 * @param stepsAmount amount of skipped steps.
+	 */
+	public void registerDroppedSteps(long stepsAmount) {
+		droppedSteps += stepsAmount;
+	}
+
+	/**
+	 * @return amount of game loop ticks.
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return amount of world steps. Might be higher than ticks amount if the room
+	 * had to catch up.
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * @return amount of ticks that took longer than the update time.
+	 */
+	public long getOverruns() {
+		return overruns;
+	}
+
+	/**
+	 * @return amount of world steps skipped because of the room being overloaded.
+	 */
+	public long getDroppedSteps() {
+		return droppedSteps;
+	}
+
+	/**
+	 * @return duration of the last tick in nanoseconds.
+	 */
+	public long getLastTickDuration() {
+		return lastTickDuration;
+	}
+
+	/**
+	 * @return duration of the longest tick in nanoseconds.
+	 */
+	public long getMaxTickDuration() {
+		return maxTickDuration;
+	}
+
+	/**
+	 * @return average tick duration in nanoseconds.
+	 */
+	public long getAverageTickDuration() {
+		long ticks = this.ticks;
+		return ticks == 0 ? 0 : totalTickDuration/ticks;
+	}
+
+	@Override
+	public String toString() {
+		return "ticks: "+ticks+", steps: "+steps+", overruns: "+overruns+", dropped steps: "
+			+droppedSteps+", average tick: "+TimeUnit.NANOSECONDS.toMicros(getAverageTickDuration())
+			+"us, max tick: "+TimeUnit.NANOSECONDS.toMicros(maxTickDuration)+"us";
+	}
+}
@@ -0,0 +1,159 @@
+package mj.konfigurats.logic;
+
+import mj.konfigurats.logic.entities.Player;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Keeps the game room's scheduled events in a hierarchical, update-indexed timing wheel.
+ * Events due in the next few seconds are kept in slots of the near wheel (one slot per
+ * update), later ones - in slots of the far wheel (one slot per NEAR_SLOTS updates) and are
+ * moved to the near wheel when their time comes. Scheduling and expiring an event takes
+ * constant time, so each update costs only as much as the amount of events that actually
+ * run. Events triggered with each update are kept on a separate list. Should be used only
+ * by the game thread.
+ * @author MJ
+ */
+public class TimingWheel {
+	private final static int WHEEL_BITS=6,NEAR_SLOTS=1<<WHEEL_BITS,FAR_SLOTS=1<<WHEEL_BITS,
+		SLOT_MASK=NEAR_SLOTS-1;
+
+	private final ScheduledEvent[] nearWheel,farWheel;
+	// Events scheduled beyond the far wheel's range:
+	private ScheduledEvent overflowEvents;
+	// Events executed with each update:
+	private ScheduledEvent repeatingEvents;
+	private final Pool<ScheduledEvent> eventsPool;
+	// Index of the last update:
+	private long currentTick;
+
+	public TimingWheel() {
+		nearWheel = new ScheduledEvent[NEAR_SLOTS];
+		farWheel = new ScheduledEvent[FAR_SLOTS];
+		eventsPool = new Pool<ScheduledEvent>() {
+			@Override
+			protected ScheduledEvent newObject() {
+				return new ScheduledEvent();
+			}
+		};
+	}
+
+	/**
+	 * Schedules a new event.
+	 * @param event will be executed.
+	 * @param triggerWithEachUpdate true to execute event with each update.
+	 * @param duration time before the event is finished (in seconds).
+	 * @param owner the event will be cancelled if this player is removed. Can be null.
+	 */
+	public void schedule(Runnable event,boolean triggerWithEachUpdate,float duration,Player owner) {
+		// Converting duration to the amount of updates - event is run by at least one update:
+		long updates = (long)Math.ceil(duration/Game.UPDATE_TIME - 0.001f);
+		if(updates < 1) {
+			updates = 1;
+		}
+
+		ScheduledEvent scheduledEvent = eventsPool.obtain()
+			.set(event,triggerWithEachUpdate,currentTick+updates,owner);
+		if(triggerWithEachUpdate) {
+			scheduledEvent.next = repeatingEvents;
+			repeatingEvents = scheduledEvent;
+		}
+		else {
+			insert(scheduledEvent);
+		}
+	}
+
+	/**
+	 * Puts the event in a proper wheel slot.
+	 * @param event a single event, not linked with any other.
+	 */
+	private void insert(ScheduledEvent event) {
+		long expirationTick = event.getExpirationTick();
+		if(expirationTick - currentTick < NEAR_SLOTS) {
+			int slot = (int)(expirationTick & SLOT_MASK);
+			event.next = nearWheel[slot];
+			nearWheel[slot] = event;
+		}
+		else if((expirationTick >> WHEEL_BITS) - (currentTick >> WHEEL_BITS) < FAR_SLOTS) {
+			int slot = (int)((expirationTick >> WHEEL_BITS) & SLOT_MASK);
+			event.next = farWheel[slot];
+			farWheel[slot] = event;
+		}
+		else {
+			event.next = overflowEvents;
+			overflowEvents = event;
+		}
+	}
+
+	/**
+	 * Advances the wheel by one update and runs the events that are due.
+	 */
+	public void update() {
+		currentTick++;
+
+		if((currentTick & SLOT_MASK) == 0) {
+			if(((currentTick >> WHEEL_BITS) & SLOT_MASK) == 0) {
+				// Far wheel made a full turn - rescheduling distant events:
+				ScheduledEvent event = overflowEvents;
+				overflowEvents = null;
+				reinsert(event);
+			}
+			// Moving events from the far wheel slot to the near wheel:
+			int slot = (int)((currentTick >> WHEEL_BITS) & SLOT_MASK);
+			ScheduledEvent event = farWheel[slot];
+			farWheel[slot] = null;
+			reinsert(event);
+		}
+
+		// Running events from the current slot (detached, as events might schedule new ones):
+		int slot = (int)(currentTick & SLOT_MASK);
+		ScheduledEvent event = nearWheel[slot], next;
+		nearWheel[slot] = null;
+		while(event != null) {
+			next = event.next;
+			if(event.getExpirationTick() != currentTick) {
+				insert(event);
+			}
+			else {
+				if(!event.isCancelled()) {
+					event.run();
+				}
+				eventsPool.free(event);
+			}
+			event = next;
+		}
+
+		// Running over-time events:
+		event = repeatingEvents;
+		repeatingEvents = null;
+		while(event != null) {
+			next = event.next;
+			if(event.isCancelled()) {
+				eventsPool.free(event);
+			}
+			else {
+				event.run();
+				if(event.getExpirationTick() <= currentTick) {
+					eventsPool.free(event);
+				}
+				else {
+					event.next = repeatingEvents;
+					repeatingEvents = event;
+				}
+			}
+			event = next;
+		}
+	}
+
+	/**
+	 * @param event first event of a list. Each event will be put in its proper slot.
+	 */
+	private void reinsert(ScheduledEvent event) {
+		ScheduledEvent next;
+		while(event != null) {
+			next = event.next;
+			insert(event);
+			event = next;
+		}
+	}
+}
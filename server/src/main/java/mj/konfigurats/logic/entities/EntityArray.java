@@ -0,0 +1,65 @@
+package mj.konfigurats.logic.entities;
+
+import java.util.Arrays;
+
+/**
+ * Dense array of entities. Each entity knows its slot, so it can be removed in constant
+ * time by moving the last entity into its place - the order of the entities is not kept.
+ * Should be used only by the game thread.
+ * @author MJ
+ */
+public class EntityArray<T extends StoredEntity> {
+	private StoredEntity[] entities;
+	private int size;
+	
+	/**
+	 * @param capacity initial capacity of the array.
+	 */
+	public EntityArray(int capacity) {
+		entities = new StoredEntity[Math.max(capacity, 4)];
+	}
+	
+	/**
+	 * @param entity will be added at the end of the array.
+	 */
+	public void add(T entity) {
+		if(size == entities.length) {
+			entities = Arrays.copyOf(entities, size*2);
+		}
+		entities[size] = entity;
+		entity.setSlot(size++);
+	}
+	
+	/**
+	 * @param entity will be removed. Last entity is moved into its slot.
+	 * @return true if the entity was stored in the array.
+	 */
+	public boolean remove(T entity) {
+		int slot = entity.getSlot();
+		if(slot < 0 || slot >= size || entities[slot] != entity) {
+			return false;
+		}
+		StoredEntity last = entities[--size];
+		entities[slot] = last;
+		last.setSlot(slot);
+		entities[size] = null;
+		entity.setSlot(-1);
+		return true;
+	}
+	
+	/**
+	 * @param index index of the entity, lower than size.
+	 * @return stored entity.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T)entities[index];
+	}
+	
+	/**
+	 * @return current amount of entities.
+	 */
+	public int size() {
+		return size;
+	}
+}
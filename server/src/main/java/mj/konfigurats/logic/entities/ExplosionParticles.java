@@ -1,7 +1,6 @@
 package mj.konfigurats.logic.entities;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.projectiles.Poison;
 import mj.konfigurats.logic.physics.LogicUtils;
 import mj.konfigurats.logic.physics.BodyInformation.BodyBehavior;
@@ -20,34 +19,31 @@ import com.badlogic.gdx.utils.Array;
  * when an explosion occurs.
  * @author MJ
  */
-public class ExplosionParticles implements Entity {
+public class ExplosionParticles implements StoredEntity {
 	private final Array<Body> particles;
 	private final ExplosionType type;
-	private final Player caster;
+	private Player caster;
 	private float duration;
+	private int slot;
 	
 	/**
-	 * Creates a new set of explosion particles.
+	 * Creates a new set of explosion particles. Particles' bodies are inactive until
+	 * the explosion is launched. Explosions are reused by the game room - use
+	 * Game.addExplosion instead of creating them directly.
 	 * @param game game room.
-	 * @param caster player that cast the original spell.
 	 * @param type type of the explosion, depending on the spell projectile.
-	 * @param position initial position of the explosion blast.
-	 * @param isSensor if true, particles will detect contacts, but do not
-	 * cause collisions.
 	 */
-	public ExplosionParticles(Game game, Player caster,
-		ExplosionType type,Vector2 position) {
+	public ExplosionParticles(Game game,ExplosionType type) {
 		this.type = type;
-		this.caster = caster;
-		this.duration = type.getDuration();
+		slot = -1;
 		particles = new Array<Body>();
 		
 		// Creating particle's body definition:
 		BodyDef bodyDefinition = new BodyDef();
 		bodyDefinition.type = BodyType.DynamicBody;
 		bodyDefinition.bullet = true;
-		bodyDefinition.position.set(position);
 		bodyDefinition.fixedRotation = true;
+		bodyDefinition.active = false;
 		
 		// Creating particle's fixture definition:
 		game.getCircleShape().setRadius(type.getRadius());
@@ -56,17 +52,12 @@ public class ExplosionParticles implements Entity {
 		fixtureDefinition.isSensor = type.isSensor();
 		fixtureDefinition.density = type.getDensity();
 		fixtureDefinition.restitution = 1f;
-		fixtureDefinition.filter.categoryBits = 0x0010;
+		// Filtering out contacts ignored by the game logic:
+		BodyBehavior.EXPLOSION_PARTICLE.applyFilter(fixtureDefinition);
+		// Particles never collide with each other:
 		fixtureDefinition.filter.groupIndex = -0x0010;
 		
 		for(float angle=0; angle<360; angle += type.getAngle()) {
-			// Adjusting position if the explosion doesn't start at the center:
-			if(type.getOffset() != 0f) {
-				bodyDefinition.position.set(position.x+type.getOffset()
-					*MathUtils.cosDeg(angle),position.y+type.getOffset()
-					*MathUtils.sinDeg(angle));
-			}
-			
 			// Creating particle's body and setting it's data:
 			Body particle = game.getBox2DWorld()
 				.createBody(bodyDefinition);
@@ -76,15 +67,41 @@ public class ExplosionParticles implements Entity {
 			particle.createFixture(fixtureDefinition)
 				.setUserData(BodyBehavior.EXPLOSION_PARTICLE);
 			
+			// Adding particle to the list:
+			particles.add(particle);
+		}
+	}
+	
+	/**
+	 * Activates the particles and shoots them in all directions.
+	 * @param caster player that cast the original spell.
+	 * @param position initial position of the explosion blast.
+	 */
+	public void launch(Player caster,Vector2 position) {
+		this.caster = caster;
+		this.duration = type.getDuration();
+		
+		float angle = 0f;
+		for(Body particle : particles) {
+			// Adjusting position if the explosion doesn't start at the center:
+			particle.setTransform(position.x+type.getOffset()*MathUtils.cosDeg(angle),
+				position.y+type.getOffset()*MathUtils.sinDeg(angle), angle);
+			particle.setLinearVelocity(0f, 0f);
+			particle.setActive(true);
+			
 			// Applying explosion's force:
-			particle.setTransform(particle.getPosition(), angle);
 			particle.applyForceToCenter(type.getForce()*MathUtils.cosDeg(angle),
 				type.getForce()*MathUtils.sinDeg(angle),true);
-			
-			// Adding particle to the list:
-			particles.add(particle);
+			angle += type.getAngle();
 		}
 	}
+	
+	/**
+	 * @return type of the explosion.
+	 */
+	public ExplosionType getType() {
+		return type;
+	}
 
 	@Override
 	public void update(float delta, Game game) {
@@ -99,16 +116,37 @@ public class ExplosionParticles implements Entity {
 		// Particles are never send to the client.
 		return 0;
 	}
+	
+	@Override
+	public int getSlot() {
+		return slot;
+	}
+	
+	@Override
+	public void setSlot(int slot) {
+		this.slot = slot;
+	}
 
 	@Override
 	public void destroy(Game game) {
-		// Removing particle's bodies:
+		// Removing explosion from the game list:
+		if(game.getExplosionParticles().remove(this)) {
+			// Deactivating particle's bodies:
+			for(Body particle : particles) {
+				particle.setActive(false);
+			}
+			game.freeExplosion(this);
+		}
+	}
+	
+	/**
+	 * Destroys particles' bodies. Should be called if the explosion will not be reused.
+	 */
+	public void dispose() {
 		for(Body particle : particles) {
 			particle.getWorld().destroyBody(particle);
 		}
-		
-		// Removing explosion from the game list:
-		game.getExplosionParticles().remove(this);
+		particles.clear();
 	}
 	
 	/**
@@ -122,7 +160,7 @@ public class ExplosionParticles implements Entity {
 			// Slowing down:
 			victim.modifySpeed(Poison.SPEED_MODIFICATOR);
 			// Applying poison:
-			victim.scheduleEvent(new ScheduledEvent(new Runnable() {
+			victim.scheduleEvent(new Runnable() {
 				@Override
 				public void run() {
 					// Lowering health:
@@ -130,7 +168,7 @@ public class ExplosionParticles implements Entity {
 					// Regaining speed:
 					victim.modifySpeed(Poison.SPEED_RECOVERY);
 				}
-			}, true, 8f));
+			}, true, 8f);
 			break;
 		case PULSE:
 			if(caster.getEntityIndex() != victim.getEntityIndex()) {
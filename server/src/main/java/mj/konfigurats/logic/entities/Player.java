@@ -1,8 +1,5 @@
 package mj.konfigurats.logic.entities;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-
 import mj.konfigurats.logic.Game;
 import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.physics.BodyInformation;
@@ -42,10 +39,12 @@ public class Player implements Entity {
 	// Control variables:
 	private final Game game;
 	private final Connection owner;
-	private final LinkedList<ScheduledEvent> scheduledEvents;
 	private Player lastDamageDealer;
 	private Summon summon;
-	private int lastUsedTeleport;
+	private int lastUsedTeleport,stateIndex;
+	// Reusable tasks and packets:
+	private final Runnable[] effectRemovals;
+	private final SrvSetSpellCooldown cooldownPacket;
 	
 	// Character's state variables:
 	protected float currentHealth;
@@ -57,7 +56,9 @@ public class Player implements Entity {
 	
 	// Box2D variables:
 	private final Body playerBody;
-	private Vector2 destination;
+	// Reused with each click, valid only if the player has a destination:
+	private final Vector2 destination;
+	private boolean hasDestination;
 	
 	// Player's sprite informations:
 	private PlayerState state;
@@ -81,8 +82,18 @@ public class Player implements Entity {
 			.createNewBody(game.getBox2DWorld(),game.getCircleShape(),
 			this,position.x,position.y);
 		this.isElite = isElite;
-		this.scheduledEvents = new LinkedList<ScheduledEvent>();
 		this.game = game;
+		this.destination = new Vector2();
+		this.cooldownPacket = new SrvSetSpellCooldown();
+		this.effectRemovals = new Runnable[StatusEffect.values().length];
+		for(final StatusEffect effect : StatusEffect.values()) {
+			effectRemovals[effect.ordinal()] = new Runnable() {
+				@Override
+				public void run() {
+					effect.remove(Player.this);
+				}
+			};
+		}
 		this.owner = owner;
 		this.teamIndex = teamIndex;
 		
@@ -98,7 +109,7 @@ public class Player implements Entity {
 		state = PlayerState.STANCE;
 		isImmobilized = isParalyzed = isShielded = isConfused = inLava = 0;
 		isDead = isRemoved = false;
-		lastUsedTeleport = -1;
+		lastUsedTeleport = stateIndex = -1;
 	}
 	
 	//////////////////////////////////////////////////////////////////
@@ -133,6 +144,20 @@ public class Player implements Entity {
 		return teamIndex;
 	}
 	
+	/**
+	 * @return index of the character's data in the game's world state. Might be outdated.
+	 */
+	public int getStateIndex() {
+		return stateIndex;
+	}
+	
+	/**
+	 * @param stateIndex index of the character's data in the game's world state.
+	 */
+	public void setStateIndex(int stateIndex) {
+		this.stateIndex = stateIndex;
+	}
+	
 	/**
 	 * @return true if the player uses an elite sprite.
 	 */
@@ -182,7 +207,6 @@ public class Player implements Entity {
 	@Override
 	public void update(float delta,Game game) {
 		updateSpellCooldowns(delta);
-		updateScheduledEvents(delta);
 		checkIfInLava();
 		updateMovement(delta);
 	}
@@ -210,7 +234,7 @@ public class Player implements Entity {
 	 */
 	public void refreshState() {
 		// If there is a destination that the character is trying to reach:
-		if(destination != null) {
+		if(hasDestination) {
 			// Walking animation:
 			this.state = PlayerState.WALK;
 		}
@@ -243,25 +267,21 @@ public class Player implements Entity {
 	 * Schedules an event, usually involving the player.
 	 * @param event will be scheduled and executed as long as the player
 	 * is alive.
+	 * @param triggerWithEachUpdate true to execute event with each update.
+	 * @param duration time before the event is finished (in seconds).
 	 */
-	public void scheduleEvent(ScheduledEvent event) {
-		scheduledEvents.add(event);
+	public void scheduleEvent(Runnable event,boolean triggerWithEachUpdate,float duration) {
+		game.scheduleEvent(event, triggerWithEachUpdate, duration, this);
 	}
 	
 	/**
-	 * Updates player's scheduled events.
-	 * @param delta time passed since the last update.
+	 * Schedules the end of a status effect. Removal tasks are reused, so this method
+	 * doesn't allocate new events.
+	 * @param effect will be removed after the duration.
+	 * @param duration time before the effect is removed (in seconds).
 	 */
-	protected void updateScheduledEvents(float delta) {
-		// Updating scheduled events:
-		Iterator<ScheduledEvent> iterator = scheduledEvents.iterator();
-		while(iterator.hasNext()) {
-			ScheduledEvent event = iterator.next();
-			if(event.update(delta)) {
-				// If the event has finished:
-				iterator.remove();
-			};
-		}
+	public void scheduleEffectRemoval(StatusEffect effect,float duration) {
+		scheduleEvent(effectRemovals[effect.ordinal()], false, duration);
 	}
 	
 	/**
@@ -337,7 +357,7 @@ public class Player implements Entity {
 	public void setConfused(boolean confused) {
 		if(confused) {
 			// Changing current player's destination:
-			if(destination != null) {
+			if(hasDestination) {
 				destination.set(LogicUtils.getInvertedPosition(this, destination));
 				// Recalculating direction:
 				direction = LogicUtils.getPlayerAngle(playerBody.getPosition(), destination);
@@ -504,11 +524,11 @@ public class Player implements Entity {
 	public void applySpellCooldown(byte spellType,float cooldown) {
 		// Setting spell cooldown:
 		spellCooldowns[spellType] = cooldown*cooldownModificator;
-		// Sending packet to the player to let him know about the recast time:
-		SrvSetSpellCooldown packet = new SrvSetSpellCooldown();
-		packet.spellType = spellType;
-		packet.cooldown = spellCooldowns[spellType];
-		owner.sendUDP(packet);
+		// Sending packet to the player to let him know about the recast time
+		// (it's serialized right away, so it can be reused):
+		cooldownPacket.spellType = spellType;
+		cooldownPacket.cooldown = spellCooldowns[spellType];
+		owner.sendUDP(cooldownPacket);
 	}
 	
 	/**
@@ -555,7 +575,7 @@ public class Player implements Entity {
 			}
 		}
 		// If the player is trying to reach a point:
-		if(destination != null) {
+		if(hasDestination) {
 			// If he has reached it:
 			if(playerBody.getFixtureList().get(0).testPoint(destination)) {
 				cancelDestination();
@@ -579,7 +599,7 @@ public class Player implements Entity {
 	 * @return true if character is moving, false for no destination.
 	 */
 	public boolean isMoving() {
-		return destination != null;
+		return hasDestination;
 	}
 	
 	/**
@@ -613,7 +633,8 @@ public class Player implements Entity {
 	public void setDestination(Vector2 destination) {
 		if(!isImmobilized() && !isDead) {
 			if(playerBody.getPosition().x != destination.x || playerBody.getPosition().y != destination.y) {
-				this.destination = new Vector2(destination);
+				this.destination.set(destination);
+				hasDestination = true;
 				direction = LogicUtils.getPlayerAngle(playerBody.getPosition(),this.destination);
 			}
 		}
@@ -623,7 +644,7 @@ public class Player implements Entity {
 	 * Nullifies character's destination.
 	 */
 	public void cancelDestination() {
-		destination = null;
+		hasDestination = false;
 	}
 	
 	/**
@@ -664,7 +685,7 @@ public class Player implements Entity {
 	 * @return current destination or null.
 	 */
 	public Vector2 getDestination() {
-		return destination;
+		return hasDestination ? destination : null;
 	}
 	
 	//////////////////////////////////////////////////////////////////
@@ -770,7 +791,7 @@ public class Player implements Entity {
 	protected void setDead() {
 		currentHealth = 0f;
 		isDead = true;
-		destination = null;
+		hasDestination = false;
 		
 		if(lastDamageDealer!= null) {
 			// Getting actual killer:
@@ -797,6 +818,13 @@ public class Player implements Entity {
 		return isDead || isRemoved;
 	}
 	
+	/**
+	 * @return true if character was already removed from the game.
+	 */
+	public boolean isRemoved() {
+		return isRemoved;
+	}
+	
 	/**
 	 * Contains all current players' characters' types.
 	 * @author MJ
@@ -977,6 +1005,44 @@ public class Player implements Entity {
 		}
 	}
 	
+	/**
+	 * Contains status effects that are removed after some time without any other action.
+	 * @author MJ
+	 */
+	public static enum StatusEffect {
+		SHIELD {
+			@Override
+			protected void remove(Player player) {
+				player.setShielded(false);
+			}
+		}, CONFUSION {
+			@Override
+			protected void remove(Player player) {
+				player.setConfused(false);
+			}
+		}, SILENCE {
+			@Override
+			protected void remove(Player player) {
+				player.paralyzePlayer(false);
+			}
+		}, ENTANGLE {
+			@Override
+			protected void remove(Player player) {
+				player.immobilizePlayer(false);
+			}
+		}, FREEZE {
+			@Override
+			protected void remove(Player player) {
+				player.freezePlayer(false);
+			}
+		};
+		
+		/**
+		 * @param player will no longer be affected.
+		 */
+		protected abstract void remove(Player player);
+	}
+	
 	public static enum PlayerState {
 		STANCE((byte)0),WALK((byte)1),CAST1((byte)2),
 		CAST2((byte)3),BLOCK((byte)4),DEATH((byte)5);
@@ -5,24 +5,50 @@ import mj.konfigurats.logic.physics.SpellUtils.Spell;
 
 import com.badlogic.gdx.physics.box2d.Body;
 
-public abstract class Projectile implements Entity {
-	private final int entityIndex;
+/**
+ * A spell's projectile. Projectile objects stay attached to their bodies (as the bodies' user
+ * data) when the bodies are returned to the game's pool, so a pooled body is reused along
+ * with its projectile - see {@link #launch(int, Player)}. Objects that keep a reference to
+ * a projectile for later should compare its generation to make sure it wasn't reused.
+ * @author MJ
+ */
+public abstract class Projectile implements StoredEntity {
+	private int entityIndex;
+	private final Spell spell;
 	private final byte projectileIndex;
 	protected final Body projectileBody;
 	protected Player caster;
 	protected float duration;
 	protected boolean isScheduledToRemove,touched;
-	private int lastUsedTeleport;
+	private int lastUsedTeleport,slot,stateIndex,generation;
 	
-	public Projectile(int entityIndex, Spell spell,
-		Body projectile, Player caster) {
-		this.entityIndex = entityIndex;
+	/**
+	 * Creates a projectile attached to the body. It should be launched before use.
+	 * @param spell spell that creates the projectile.
+	 * @param projectile projectile's body. Its user data is set to this projectile.
+	 */
+	public Projectile(Spell spell,Body projectile) {
 		this.projectileBody = projectile;
-		this.caster = caster;
+		this.spell = spell;
 		this.projectileIndex = spell.getProjectileIndex();
+		isScheduledToRemove = true;
+		projectile.setUserData(this);
+	}
+	
+	/**
+	 * Resets the projectile, so it can be added to the game. Called for new and reused
+	 * projectiles. Projectiles with a different duration should override this method.
+	 * @param entityIndex unique index of the entity.
+	 * @param caster spell's caster.
+	 */
+	public void launch(int entityIndex,Player caster) {
+		this.entityIndex = entityIndex;
+		this.caster = caster;
 		isScheduledToRemove = false;
 		touched = false;
 		lastUsedTeleport = -1;
+		slot = stateIndex = -1;
+		generation++;
 	}
 	
 	/**
@@ -51,6 +77,30 @@ public abstract class Projectile implements Entity {
 		return entityIndex;
 	}
 	
+	@Override
+	public int getSlot() {
+		return slot;
+	}
+	
+	@Override
+	public void setSlot(int slot) {
+		this.slot = slot;
+	}
+	
+	/**
+	 * @return index of the projectile's data in the game's world state. Might be outdated.
+	 */
+	public int getStateIndex() {
+		return stateIndex;
+	}
+	
+	/**
+	 * @param stateIndex index of the projectile's data in the game's world state.
+	 */
+	public void setStateIndex(int stateIndex) {
+		this.stateIndex = stateIndex;
+	}
+	
 	/**
 	 * @param touched if true, projectile will explode.
 	 */
@@ -105,6 +155,30 @@ public abstract class Projectile implements Entity {
 		}
 	}
 	
+	/**
+	 * @return true if the projectile was destroyed and its body can no longer be used.
+	 */
+	public boolean isRemoved() {
+		return isScheduledToRemove;
+	}
+	
+	/**
+	 * @return incremented each time the projectile is launched. If it changed, the
+	 *	projectile object was reused by another cast.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+	
+	/**
+	 * Deactivates projectile's body and returns it to the game's pool, so it can be reused
+	 * (along with this object) by another projectile of the same spell.
+	 * @param game game room.
+	 */
+	protected void releaseBody(Game game) {
+		game.getBodyPool().free(spell.ordinal(), projectileBody);
+	}
+	
 	/**
 	 * @return projectile's Box2D body.
 	 */
@@ -0,0 +1,18 @@
+package mj.konfigurats.logic.entities;
+
+/**
+ * Entity kept in an EntityArray. Remembers its position in the array, so it can be
+ * removed without searching.
+ * @author MJ
+ */
+public interface StoredEntity extends Entity {
+	/**
+	 * @return index of the entity in its array or a negative number if not stored.
+	 */
+	public int getSlot();
+	
+	/**
+	 * @param slot index of the entity in its array or a negative number if removed.
+	 */
+	public void setSlot(int slot);
+}
@@ -1,7 +1,6 @@
 package mj.konfigurats.logic.entities;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.physics.LogicUtils;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
 
@@ -18,6 +17,8 @@ public class Summon extends Player {
 	private float cooldown,actionCooldown;
 	private Player target;
 	private boolean wasTeleported;
+	// Positions read from the game's world state or, during the world step, from the bodies:
+	private final Vector2 currentPosition,targetPosition;
 	
 	public Summon(int entityIndex, Game game, PlayerClass playerClass,
 		SummonType type, Vector2 position, Player caster,
@@ -36,6 +37,8 @@ public class Summon extends Player {
 		recalculateHealthPercent();
 		setDirection(initialDirection);
 		actionCooldown = type.getActionDelay();
+		currentPosition = new Vector2();
+		targetPosition = new Vector2();
 	}
 	
 	/**
@@ -47,7 +50,6 @@ public class Summon extends Player {
 
 	@Override
 	public void update(float delta, Game game) {
-		updateScheduledEvents(delta);
 		checkIfInLava();
 		updateMovement(delta);
 		
@@ -81,6 +83,7 @@ public class Summon extends Player {
 					}
 					else {
 						// Target is alive - chasing the hell out of him:
+						getGame().getWorldState().getPosition(target, targetPosition);
 						actionCooldown -= delta;
 						
 						if(actionCooldown <= 0f) {
@@ -99,13 +102,12 @@ public class Summon extends Player {
 									if(isConfused()) {
 										type.getCastedSpell().cast(getGame().getUniqueEntityIndex(),
 											getGame(), this, getGame().getCircleShape(),
-											LogicUtils.getInvertedPosition(this,target
-											.getPlayerBody().getPosition()));
+											LogicUtils.getInvertedPosition(this,targetPosition));
 									}
 									else {
 										type.getCastedSpell().cast(getGame().getUniqueEntityIndex(),
 											getGame(), this, getGame().getCircleShape(),
-											target.getPlayerBody().getPosition());
+											targetPosition);
 									}
 								}
 								// Finding another target:
@@ -115,14 +117,15 @@ public class Summon extends Player {
 						}
 						
 						if(!isImmobilized()) {
+							getGame().getWorldState().getPosition(target, targetPosition);
 							if(isConfused()) {
 								// Setting inverted destination:
 								setDestination(LogicUtils.getInvertedPosition
-									(this, target.getPlayerBody().getPosition()));
+									(this, targetPosition));
 							}
 							else {
 								// Setting actual target's position:
-								setDestination(target.getPlayerBody().getPosition());
+								setDestination(targetPosition);
 							}
 						}
 					}
@@ -175,53 +178,53 @@ public class Summon extends Player {
 			cancelDestination();
 			this.target = null;
 			actionCooldown = type.getActionDelay();
+			// Called during the world step - the world state is not updated yet:
+			currentPosition.set(getPlayerBody().getPosition());
+			targetPosition.set(target.getPlayerBody().getPosition());
 			
 			switch(type) {
 			case MINOTAUR:
 				// Setting direction to face the player:
-				setDirection(LogicUtils.getPlayerAngle(getPlayerBody()
-					.getPosition(), target.getPlayerBody().getPosition()));
+				setDirection(LogicUtils.getPlayerAngle(currentPosition, targetPosition));
 				// Slight push away from the player:
-				float angle = (float)LogicUtils.getAngle(target.getPlayerBody()
-					.getPosition(), getPlayerBody().getPosition());
+				float angle = (float)LogicUtils.getAngle(targetPosition, currentPosition);
 				getPlayerBody().applyForceToCenter(10000f*MathUtils.cosDeg(angle),
 					10000f*MathUtils.sinDeg(angle), true);
 				// Scheduling attack:
-				scheduleEvent(new ScheduledEvent(new Runnable() {
+				scheduleEvent(new Runnable() {
 					@Override
 					public void run() {
 						type.getCastedSpell().cast(0, getGame(),
 							Summon.this, null, null);
 					}
-				},false,type.getAttackDelay()));
+				},false,type.getAttackDelay());
 				break;
 			case FIRE_ANT:
 				if(!isImmobilized()) {
 					// Jumping away from the player:
-					Vector2 leapPosition = target.getPlayerBody().getPosition();
-					leapPosition.sub(getPlayerBody().getPosition());
+					Vector2 leapPosition = targetPosition.sub(currentPosition);
 					leapPosition.set(-leapPosition.x,-leapPosition.y);
-					leapPosition.add(getPlayerBody().getPosition());
+					leapPosition.add(currentPosition);
 					// Casting leap:
 					type.getUtilitySpell().cast(0, getGame(), this, null, leapPosition);
 				}
 				// Scheduling attack:
-				scheduleEvent(new ScheduledEvent(new Runnable() {
+				scheduleEvent(new Runnable() {
 					@Override
 					public void run() {
+						getGame().getWorldState().getPosition(target, targetPosition);
 						if(isConfused()) {
 							type.getCastedSpell().cast(getGame().getUniqueEntityIndex(),
 								getGame(), Summon.this, getGame().getCircleShape(),
-								LogicUtils.getInvertedPosition(Summon.this,target
-								.getPlayerBody().getPosition()));
+								LogicUtils.getInvertedPosition(Summon.this,targetPosition));
 						}
 						else {
 							type.getCastedSpell().cast(getGame().getUniqueEntityIndex(),
 								getGame(), Summon.this, getGame().getCircleShape(),
-								target.getPlayerBody().getPosition());
+								targetPosition);
 						}
 					}
-				},false,type.getAttackDelay()));
+				},false,type.getAttackDelay());
 				break;
 			}
 		}
@@ -239,26 +242,32 @@ public class Summon extends Player {
 				actionCooldown = type.getActionDelay();
 				this.target = null;
 				// Setting direction to face the block:
-				setDirection(LogicUtils.getPlayerAngle(getPlayerBody()
-					.getPosition(), block.getProjectileBody().getPosition()));
+				setDirection(LogicUtils.getPlayerAngle(getPlayerBody().getPosition(),
+					block.getProjectileBody().getPosition()));
 				// Scheduling attack:
-				scheduleEvent(new ScheduledEvent(new Runnable() {
+				final int blockGeneration = block.getGeneration();
+				scheduleEvent(new Runnable() {
 					@Override
 					public void run() {
 						type.getCastedSpell().cast(0, getGame(),
 							Summon.this, null, null);
-						// Greatly damaging the block (quake is not enough):
-						block.applyEffect(null);
+						// Greatly damaging the block (quake is not enough), unless it was
+						// already removed and reused by another cast:
+						if(!block.isRemoved() && block.getGeneration() == blockGeneration) {
+							block.applyEffect(null);
+						}
 					}
-				},false,type.getAttackDelay()));
+				},false,type.getAttackDelay());
 			}
 			break;
 		case FIRE_ANT:
 			if(!isImmobilized()) {
-				Vector2 leapPosition = block.getProjectileBody().getPosition();
-				leapPosition.sub(getPlayerBody().getPosition());
+				// Called during the world step - the world state is not updated yet:
+				currentPosition.set(getPlayerBody().getPosition());
+				Vector2 leapPosition = targetPosition.set(block.getProjectileBody().getPosition());
+				leapPosition.sub(currentPosition);
 				leapPosition.set(-leapPosition.x,-leapPosition.y);
-				leapPosition.add(getPlayerBody().getPosition());
+				leapPosition.add(currentPosition);
 				// Casting leap:
 				type.getUtilitySpell().cast(0, getGame(), this, null, leapPosition);
 				// Waiting...
@@ -289,21 +298,21 @@ public class Summon extends Player {
 	 * Called by warning objects to trigger summon's AI when trying to avoid the void.
 	 */
 	public void avoidVoid(Vector2 voidPosition) {
+		// Called during the world step - the world state is not updated yet:
+		currentPosition.set(getPlayerBody().getPosition());
+		Vector2 velocity = getPlayerBody().getLinearVelocity();
 		switch(type) {
 		case MINOTAUR:
 			// If is active and not pushed:
 			if(cooldown <= 0f && !isImmobilized()
-				&& getPlayerBody().getLinearVelocity().x < Player.PUSHBACK_THRESHOLD
-				&& getPlayerBody().getLinearVelocity().y < Player.PUSHBACK_THRESHOLD) {
+				&& velocity.x < Player.PUSHBACK_THRESHOLD
+				&& velocity.y < Player.PUSHBACK_THRESHOLD) {
 				// Slight push away from the void:
-				float angle = (float)LogicUtils.getAngle(voidPosition,
-					getPlayerBody().getPosition());
+				float angle = (float)LogicUtils.getAngle(voidPosition, currentPosition);
 				getPlayerBody().applyForceToCenter(10000f*MathUtils.cosDeg(angle),
 					10000f*MathUtils.sinDeg(angle), true);
 				// Slowing down:
-				getPlayerBody().applyForceToCenter(-5000f*getPlayerBody()
-					.getLinearVelocity().x,-5000f*getPlayerBody()
-					.getLinearVelocity().y, true);
+				getPlayerBody().applyForceToCenter(-5000f*velocity.x,-5000f*velocity.y, true);
 				// Waiting...
 				cooldown = type.getCooldown()/3f;
 				cancelDestination();
@@ -314,8 +323,7 @@ public class Summon extends Player {
 		case FIRE_ANT:
 			if(!isImmobilized()) {
 				// Slight push away from the void:
-				float angle = (float)LogicUtils.getAngle(voidPosition,
-					getPlayerBody().getPosition());
+				float angle = (float)LogicUtils.getAngle(voidPosition, currentPosition);
 				getPlayerBody().applyForceToCenter(10000f*MathUtils.cosDeg(angle),
 					10000f*MathUtils.sinDeg(angle), true);
 //				// Slowing down: - too crazy with the leaps
@@ -323,9 +331,9 @@ public class Summon extends Player {
 //					.getLinearVelocity().x,-3000f*getPlayerBody()
 //					.getLinearVelocity().y, true);
 				// Casting leap:
-				voidPosition.sub(getPlayerBody().getPosition());
+				voidPosition.sub(currentPosition);
 				voidPosition.set(-voidPosition.x,-voidPosition.y);
-				voidPosition.add(getPlayerBody().getPosition());
+				voidPosition.add(currentPosition);
 				type.getUtilitySpell().cast(0, getGame(), this, null, voidPosition);
 				if(cooldown <= 0f) {
 					// Waiting...
@@ -363,12 +371,12 @@ public class Summon extends Player {
 	 * to summon another creature.
 	 */
 	public void killSummon() {
-		scheduleEvent(new ScheduledEvent(new Runnable() {
+		scheduleEvent(new Runnable() {
 			@Override
 			public void run() {
 				setDead();
 			}
-		}, false, 0.1f));
+		}, false, 0.1f);
 	}
 	
 	public static enum SummonType {
@@ -3,16 +3,19 @@ package mj.konfigurats.logic.entities.projectiles;
 import com.badlogic.gdx.physics.box2d.Body;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.SpellUtils.SFXIndexes;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
-import mj.konfigurats.network.GamePackets.SrvAttachSFX;
 
 public class Curse extends Projectile {
-	public Curse(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.CURSE, projectile, caster);
+	public Curse(Body projectile) {
+		super(Spell.CURSE, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 3.5f;
 	}
 
@@ -24,8 +27,8 @@ public class Curse extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -37,14 +40,13 @@ public class Curse extends Projectile {
 			victim.setCursed(true);
 			
 			// Adding packet with SFX:
-			SrvAttachSFX packet = new SrvAttachSFX();
-			packet.SFXIndex = SFXIndexes.CURSE_BUFF.getSFXIndex();
-			packet.entityIndex = victim.getEntityIndex();
-			packet.duration = 45f;
-			victim.getGame().addSFXPacket(packet);
+			victim.getGame().attachSFX(SFXIndexes.CURSE_BUFF.getSFXIndex(),
+				victim.getEntityIndex(), 45f);
 			
+			// This object might be reused before the curse check:
+			final Player caster = this.caster;
 			// Scheduling curse check:
-			victim.scheduleEvent(new ScheduledEvent(new Runnable() {
+			victim.scheduleEvent(new Runnable() {
 				@Override
 				public void run() {
 					// If curse was not removed:
@@ -54,7 +56,7 @@ public class Curse extends Projectile {
 						victim.setCursed(false);
 					}
 				}
-			}, false, 45f));
+			}, false, 45f);
 		}
 		// Making sure the projectile will be removed:
 		setTouched(true);
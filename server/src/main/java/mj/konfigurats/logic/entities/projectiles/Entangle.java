@@ -3,17 +3,21 @@ package mj.konfigurats.logic.entities.projectiles;
 import com.badlogic.gdx.physics.box2d.Body;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.entities.Player.StatusEffect;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.SpellUtils.SFXIndexes;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
-import mj.konfigurats.network.GamePackets.SrvAttachSFX;
 
 public class Entangle extends Projectile {
 
-	public Entangle(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.ENTANGLE, projectile, caster);
+	public Entangle(Body projectile) {
+		super(Spell.ENTANGLE, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 2f;
 	}
 
@@ -25,8 +29,8 @@ public class Entangle extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -37,20 +41,12 @@ public class Entangle extends Projectile {
 		victim.setLastDamageDealer(caster);
 		
 		// Adding packet with SFX:
-		SrvAttachSFX packet = new SrvAttachSFX();
-		packet.SFXIndex = SFXIndexes.ENTANGLE_BUFF.getSFXIndex();
-		packet.entityIndex = victim.getEntityIndex();
-		packet.duration = Spell.ENTANGLE.getEfficiency()*caster.getDamageModificator();
-		victim.getGame().addSFXPacket(packet);
+		victim.getGame().attachSFX(SFXIndexes.ENTANGLE_BUFF.getSFXIndex(),
+			victim.getEntityIndex(), Spell.ENTANGLE.getEfficiency()*caster.getDamageModificator());
 		
-		// Scheduling curse check:
-		victim.scheduleEvent(new ScheduledEvent(new Runnable() {
-			@Override
-			public void run() {
-				// Unentangling player:
-				victim.immobilizePlayer(false);
-			}
-		}, false, Spell.ENTANGLE.getEfficiency()*caster.getDamageModificator()));
+		// Scheduling effect removal:
+		victim.scheduleEffectRemoval(StatusEffect.ENTANGLE,
+			Spell.ENTANGLE.getEfficiency()*caster.getDamageModificator());
 		// Making sure the projectile will be removed:
 		setTouched(true);
 	}
@@ -1,19 +1,22 @@
 package mj.konfigurats.logic.entities.projectiles;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.entities.ExplosionParticles;
 import mj.konfigurats.logic.entities.ExplosionParticles.ExplosionType;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.SpellUtils.SFXIndexes;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
-import mj.konfigurats.network.GamePackets.SrvDisplaySFX;
 
 import com.badlogic.gdx.physics.box2d.Body;
 
 public class Fireball extends Projectile {
-	public Fireball(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.FIREBALL, projectile, caster);
+	public Fireball(Body projectile) {
+		super(Spell.FIREBALL, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 1f;
 	}
 
@@ -23,20 +26,16 @@ public class Fireball extends Projectile {
 			isScheduledToRemove = true;
 			
 			// Adding explosion:
-			game.getExplosionParticles().add(new ExplosionParticles
-				(game,caster,ExplosionType.FIREBALL,projectileBody.getPosition()));
+			game.addExplosion(caster,ExplosionType.FIREBALL,projectileBody.getPosition());
 			// Creating SFX packet:
-			SrvDisplaySFX packet = new SrvDisplaySFX();
-			packet.SFXIndex = SFXIndexes.FIREBALL_EXPLOSION.getSFXIndex();
-			packet.x = projectileBody.getPosition().x;
-			packet.y = projectileBody.getPosition().y;
-			game.addSFXPacket(packet);
+			game.displaySFX(SFXIndexes.FIREBALL_EXPLOSION.getSFXIndex(),
+				projectileBody.getPosition());
 			
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
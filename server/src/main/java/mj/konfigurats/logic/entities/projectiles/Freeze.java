@@ -3,17 +3,21 @@ package mj.konfigurats.logic.entities.projectiles;
 import com.badlogic.gdx.physics.box2d.Body;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.entities.Player.StatusEffect;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.SpellUtils.SFXIndexes;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
-import mj.konfigurats.network.GamePackets.SrvAttachSFX;
 
 public class Freeze extends Projectile {
 
-	public Freeze(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.FREEZE, projectile, caster);
+	public Freeze(Body projectile) {
+		super(Spell.FREEZE, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 3f;
 	}
 
@@ -25,8 +29,8 @@ public class Freeze extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -37,20 +41,12 @@ public class Freeze extends Projectile {
 		victim.setLastDamageDealer(caster);
 		
 		// Adding packet with SFX:
-		SrvAttachSFX packet = new SrvAttachSFX();
-		packet.SFXIndex = SFXIndexes.FREEZE_BUFF.getSFXIndex();
-		packet.entityIndex = victim.getEntityIndex();
-		packet.duration = Spell.FREEZE.getEfficiency()*caster.getDamageModificator();
-		victim.getGame().addSFXPacket(packet);
+		victim.getGame().attachSFX(SFXIndexes.FREEZE_BUFF.getSFXIndex(),
+			victim.getEntityIndex(), Spell.FREEZE.getEfficiency()*caster.getDamageModificator());
 		
-		// Scheduling curse check:
-		victim.scheduleEvent(new ScheduledEvent(new Runnable() {
-			@Override
-			public void run() {
-				// Unfreezing player:
-				victim.freezePlayer(false);
-			}
-		}, false, Spell.FREEZE.getEfficiency()*caster.getDamageModificator()));
+		// Scheduling effect removal:
+		victim.scheduleEffectRemoval(StatusEffect.FREEZE,
+			Spell.FREEZE.getEfficiency()*caster.getDamageModificator());
 		// Making sure the projectile will be removed:
 		setTouched(true);
 	}
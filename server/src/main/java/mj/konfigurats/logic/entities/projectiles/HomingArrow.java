@@ -5,7 +5,6 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.LogicUtils;
@@ -13,8 +12,17 @@ import mj.konfigurats.logic.physics.SpellUtils.Spell;
 
 public class HomingArrow extends Projectile {
 	private Player target;
-	public HomingArrow(int entityIndex, Body projectile, Player caster, Player target) {
-		super(entityIndex, Spell.HOMING_ARROW, projectile, caster);
+	public HomingArrow(Body projectile) {
+		super(Spell.HOMING_ARROW, projectile);
+	}
+	
+	/**
+	 * @param entityIndex unique index of the entity.
+	 * @param caster spell's caster.
+	 * @param target player chased by the arrow.
+	 */
+	public void launch(int entityIndex, Player caster, Player target) {
+		launch(entityIndex, caster);
 		duration = 2.5f;
 		this.target = target;
 	}
@@ -62,8 +70,8 @@ public class HomingArrow extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -77,7 +85,7 @@ public class HomingArrow extends Projectile {
 			victim.getPlayerBody().getPosition());
 		
 		// Pushing effect:
-		victim.scheduleEvent(new ScheduledEvent(new Runnable() {
+		victim.scheduleEvent(new Runnable() {
 			@Override
 			public void run() {
 				// Pushing the player's body:
@@ -85,7 +93,7 @@ public class HomingArrow extends Projectile {
 					(7000f*MathUtils.cosDeg(angle),
 					7000f*MathUtils.sinDeg(angle), true);
 			}
-		}, false, 0f));
+		}, false, 0f);
 		
 		// "Destroying" projectile:
 		setTouched(true);
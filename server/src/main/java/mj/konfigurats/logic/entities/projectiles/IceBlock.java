@@ -9,8 +9,13 @@ import com.badlogic.gdx.physics.box2d.Body;
 
 public class IceBlock extends Projectile {
 	
-	public IceBlock(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.ICE_BLOCK, projectile, caster);
+	public IceBlock(Body projectile) {
+		super(Spell.ICE_BLOCK, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = Spell.ICE_BLOCK.getEfficiency()*caster.getDamageModificator();
 	}
 
@@ -22,8 +27,8 @@ public class IceBlock extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
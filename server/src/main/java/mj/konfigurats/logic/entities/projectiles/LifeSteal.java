@@ -9,8 +9,13 @@ import com.badlogic.gdx.physics.box2d.Body;
 
 public class LifeSteal extends Projectile {
 
-	public LifeSteal(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.LIFE_STEAL, projectile, caster);
+	public LifeSteal(Body projectile) {
+		super(Spell.LIFE_STEAL, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 2f;
 	}
 
@@ -22,8 +27,8 @@ public class LifeSteal extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -4,7 +4,6 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.physics.box2d.Body;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.LogicUtils;
@@ -12,8 +11,13 @@ import mj.konfigurats.logic.physics.SpellUtils.Spell;
 
 public class LightningBolt extends Projectile {
 
-	public LightningBolt(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.LIGHTNING_BOLT, projectile, caster);
+	public LightningBolt(Body projectile) {
+		super(Spell.LIGHTNING_BOLT, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 2.5f;
 	}
 
@@ -25,8 +29,8 @@ public class LightningBolt extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -40,7 +44,7 @@ public class LightningBolt extends Projectile {
 			victim.getPlayerBody().getPosition());
 		
 		// Pushing effect:
-		victim.scheduleEvent(new ScheduledEvent(new Runnable() {
+		victim.scheduleEvent(new Runnable() {
 			@Override
 			public void run() {
 				// Pushing the player's body:
@@ -48,7 +52,7 @@ public class LightningBolt extends Projectile {
 					(6000f*MathUtils.cosDeg(angle),
 					6000f*MathUtils.sinDeg(angle), true);
 			}
-		}, false, 0f));
+		}, false, 0f);
 	}
 
 }
@@ -1,14 +1,12 @@
 package mj.konfigurats.logic.entities.projectiles;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.entities.ExplosionParticles;
 import mj.konfigurats.logic.entities.ExplosionParticles.ExplosionType;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.LogicUtils;
 import mj.konfigurats.logic.physics.SpellUtils.SFXIndexes;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
-import mj.konfigurats.network.GamePackets.SrvDisplaySFX;
 
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
@@ -17,10 +15,21 @@ import com.badlogic.gdx.physics.box2d.Body;
 public class MagicMissile extends Projectile {
 	private final Vector2 destination;
 	
-	public MagicMissile(int entityIndex, Body projectile, Player caster,Vector2 destination) {
-		super(entityIndex, Spell.MAGIC_MISSILE, projectile, caster);
+	public MagicMissile(Body projectile) {
+		super(Spell.MAGIC_MISSILE, projectile);
+		destination = new Vector2();
+	}
+	
+	/**
+	 * @param entityIndex unique index of the entity.
+	 * @param caster spell's caster.
+	 * @param destinationX the missile explodes after reaching this point.
+	 * @param destinationY the missile explodes after reaching this point.
+	 */
+	public void launch(int entityIndex, Player caster, float destinationX, float destinationY) {
+		launch(entityIndex, caster);
 		duration = 2.5f;
-		this.destination = destination;
+		destination.set(destinationX, destinationY);
 	}
 	
 	@Override
@@ -65,20 +74,16 @@ public class MagicMissile extends Projectile {
 			isScheduledToRemove = true;
 			
 			// Adding explosion:
-			game.getExplosionParticles().add(new ExplosionParticles
-				(game,caster,ExplosionType.MAGIC_MISSILE,projectileBody.getPosition()));
+			game.addExplosion(caster,ExplosionType.MAGIC_MISSILE,projectileBody.getPosition());
 			// Creating SFX packet:
-			SrvDisplaySFX packet = new SrvDisplaySFX();
-			packet.SFXIndex = SFXIndexes.MAGIC_MISSILE_EXPLOSION.getSFXIndex();
-			packet.x = projectileBody.getPosition().x;
-			packet.y = projectileBody.getPosition().y;
-			game.addSFXPacket(packet);
+			game.displaySFX(SFXIndexes.MAGIC_MISSILE_EXPLOSION.getSFXIndex(),
+				projectileBody.getPosition());
 						
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -1,8 +1,6 @@
 package mj.konfigurats.logic.entities.projectiles;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
-import mj.konfigurats.logic.entities.ExplosionParticles;
 import mj.konfigurats.logic.entities.ExplosionParticles.ExplosionType;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
@@ -18,12 +16,23 @@ public class Poison extends Projectile {
 		PROJECTILE_SPEED_MOD = SPEED_MODIFICATOR*5f,
 		PROJECTILE_SPEED_REC = SPEED_RECOVERY*5f;
 		
-	private Vector2 destination;
+	private final Vector2 destination;
 	
-	public Poison(int entityIndex, Body projectile, Player caster, Vector2 destination) {
-		super(entityIndex, Spell.POISON, projectile, caster);
+	public Poison(Body projectile) {
+		super(Spell.POISON, projectile);
+		destination = new Vector2();
+	}
+	
+	/**
+	 * @param entityIndex unique index of the entity.
+	 * @param caster spell's caster.
+	 * @param destinationX the poison explodes after reaching this point.
+	 * @param destinationY the poison explodes after reaching this point.
+	 */
+	public void launch(int entityIndex, Player caster, float destinationX, float destinationY) {
+		launch(entityIndex, caster);
 		duration = 2f;
-		this.destination = destination;
+		destination.set(destinationX, destinationY);
 	}
 	
 	@Override
@@ -43,16 +52,14 @@ public class Poison extends Projectile {
 			isScheduledToRemove = true;
 			
 			// Adding explosion:
-			game.getExplosionParticles().add(new ExplosionParticles
-				(game,caster,ExplosionType.POISON_PRIMARY,projectileBody.getPosition()));
-			game.getExplosionParticles().add(new ExplosionParticles
-				(game,caster,ExplosionType.POISON_SECONDARY,projectileBody.getPosition()));
+			game.addExplosion(caster,ExplosionType.POISON_PRIMARY,projectileBody.getPosition());
+			game.addExplosion(caster,ExplosionType.POISON_SECONDARY,projectileBody.getPosition());
 			
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -60,8 +67,10 @@ public class Poison extends Projectile {
 	public void applyEffect(final Player victim) {
 		// Slowing down:
 		victim.modifySpeed(PROJECTILE_SPEED_MOD);
+		// This object might be reused before the poison wears off:
+		final Player caster = this.caster;
 		// Applying poison:
-		victim.scheduleEvent(new ScheduledEvent(new Runnable() {
+		victim.scheduleEvent(new Runnable() {
 			@Override
 			public void run() {
 				// Lowering health:
@@ -69,7 +78,7 @@ public class Poison extends Projectile {
 				// Regaining speed:
 				victim.modifySpeed(PROJECTILE_SPEED_REC);
 			}
-		}, true, 8f));
+		}, true, 8f);
 	}
 
 }
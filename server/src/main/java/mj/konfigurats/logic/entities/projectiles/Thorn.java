@@ -8,8 +8,13 @@ import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.SpellUtils.Spell;
 
 public class Thorn extends Projectile {
-	public Thorn(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.THORNS, projectile, caster);
+	public Thorn(Body projectile) {
+		super(Spell.THORNS, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 0.4f;
 	}
 
@@ -21,8 +26,8 @@ public class Thorn extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -1,7 +1,6 @@
 package mj.konfigurats.logic.entities.projectiles;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.physics.LogicUtils;
@@ -12,8 +11,13 @@ import com.badlogic.gdx.physics.box2d.Body;
 
 public class Tornado extends Projectile {
 
-	public Tornado(int entityIndex, Body projectile, Player caster) {
-		super(entityIndex, Spell.TORNADO, projectile, caster);
+	public Tornado(Body projectile) {
+		super(Spell.TORNADO, projectile);
+	}
+	
+	@Override
+	public void launch(int entityIndex, Player caster) {
+		super.launch(entityIndex, caster);
 		duration = 3f;
 	}
 	
@@ -36,8 +40,8 @@ public class Tornado extends Projectile {
 			// Removing projectile from the list:
 			game.getProjectiles().remove(this);
 			
-			// Removing projectile's body:
-			projectileBody.getWorld().destroyBody(projectileBody);
+			// Returning projectile's body to the pool:
+			releaseBody(game);
 		}
 	}
 
@@ -51,7 +55,7 @@ public class Tornado extends Projectile {
 			victim.getPlayerBody().getPosition());
 		
 		// Pushing effect:
-		victim.scheduleEvent(new ScheduledEvent(new Runnable() {
+		victim.scheduleEvent(new Runnable() {
 			@Override
 			public void run() {
 				// Pushing the player's body:
@@ -59,7 +63,7 @@ public class Tornado extends Projectile {
 					(4500f*MathUtils.cosDeg(angle),
 					4500f*MathUtils.sinDeg(angle), true);
 			}
-		}, false, 0f));
+		}, false, 0f);
 	}
 
 }
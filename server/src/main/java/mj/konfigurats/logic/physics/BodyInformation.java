@@ -30,6 +30,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.75f;
 			fixtureDefinition.friction = 0.25f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.BOUNDS.applyFilter(fixtureDefinition);
+			
 			// Creating obstacle's Box2D body:
 			world.createBody(bodyDefinition).createFixture(fixtureDefinition)
 				.setUserData(BodyBehavior.BOUNDS);
@@ -53,6 +56,9 @@ public enum BodyInformation {
 			fixtureDefinition.shape = shape;
 			fixtureDefinition.isSensor = true;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.TELEPORT.applyFilter(fixtureDefinition);
+			
 			// Creating obstacle's Box2D body:
 			Body teleport = world.createBody(bodyDefinition);
 			teleport.setUserData(owner);
@@ -76,6 +82,9 @@ public enum BodyInformation {
 			fixtureDefinition.shape = shape;
 			fixtureDefinition.isSensor = true;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.LAVA.applyFilter(fixtureDefinition);
+			
 			// Creating obstacle's Box2D body:
 			world.createBody(bodyDefinition).createFixture(fixtureDefinition)
 				.setUserData(BodyBehavior.LAVA);
@@ -98,6 +107,9 @@ public enum BodyInformation {
 			fixtureDefinition.shape = shape;
 			fixtureDefinition.isSensor = true;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.VOID.applyFilter(fixtureDefinition);
+			
 			// Creating obstacle's Box2D body:
 			world.createBody(bodyDefinition).createFixture(fixtureDefinition)
 				.setUserData(BodyBehavior.VOID);
@@ -120,6 +132,9 @@ public enum BodyInformation {
 			fixtureDefinition.shape = shape;
 			fixtureDefinition.isSensor = true;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.WARNING.applyFilter(fixtureDefinition);
+			
 			// Creating obstacle's Box2D body:
 			world.createBody(bodyDefinition).createFixture(fixtureDefinition)
 				.setUserData(BodyBehavior.WARNING);
@@ -142,6 +157,9 @@ public enum BodyInformation {
 			fixtureDefinition.shape = shape;
 			fixtureDefinition.isSensor = true;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.OUTER_BOUNDS.applyFilter(fixtureDefinition);
+			
 			// Creating obstacle's Box2D body:
 			world.createBody(bodyDefinition).createFixture(fixtureDefinition)
 				.setUserData(BodyBehavior.OUTER_BOUNDS);
@@ -170,6 +188,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.1f;
 			fixtureDefinition.friction = 0.3f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.PLAYER.applyFilter(fixtureDefinition);
+			
 			body.createFixture(fixtureDefinition).setUserData
 				(BodyBehavior.PLAYER);
 			
@@ -200,6 +221,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.25f;
 			fixtureDefinition.friction = 0.25f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.PLAYER.applyFilter(fixtureDefinition);
+			
 			body.createFixture(fixtureDefinition).setUserData
 				(BodyBehavior.PLAYER);
 			
@@ -230,6 +254,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.1f;
 			fixtureDefinition.friction = 0.2f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.PLAYER.applyFilter(fixtureDefinition);
+			
 			body.createFixture(fixtureDefinition).setUserData
 				(BodyBehavior.PLAYER);
 			
@@ -260,6 +287,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.075f;
 			fixtureDefinition.friction = 0.4f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.PLAYER.applyFilter(fixtureDefinition);
+			
 			body.createFixture(fixtureDefinition).setUserData
 				(BodyBehavior.PLAYER);
 			
@@ -290,6 +320,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.075f;
 			fixtureDefinition.friction = 0.4f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.SUMMON.applyFilter(fixtureDefinition);
+			
 			body.createFixture(fixtureDefinition).setUserData
 				(BodyBehavior.SUMMON);
 			
@@ -320,6 +353,9 @@ public enum BodyInformation {
 			fixtureDefinition.restitution = 0.2f;
 			fixtureDefinition.friction = 0.2f;
 			
+			// Filtering out contacts ignored by the game logic:
+			BodyBehavior.SUMMON.applyFilter(fixtureDefinition);
+			
 			body.createFixture(fixtureDefinition).setUserData
 				(BodyBehavior.SUMMON);
 			
@@ -356,38 +392,73 @@ public enum BodyInformation {
 	 */
 	public static enum BodyBehavior {
 		/** Body belongs to a player. */
-		PLAYER,
+		PLAYER(false),
 		/** Body belongs to a summon. */
-		SUMMON,
+		SUMMON(false),
 		/** Body disappears after contact with a player or after some time. */
-		PROJECTILE,
+		PROJECTILE(false),
 		/** Body disappears after contact with a player, explosion or block. */
-		SEEKING_PROJECTILE,
+		SEEKING_PROJECTILE(false),
 		/** Body disappears after after some time. */
-		BOUNCING_PROJECTILE,
+		BOUNCING_PROJECTILE(false),
 		/** Body disappears after some time and does not collide. */
-		SENSOR_PROJECTILE,
+		SENSOR_PROJECTILE(true),
 		/** Body disappears after any contact. */
-		EXPLODING_PROJECTILE,
+		EXPLODING_PROJECTILE(false),
 		/** Body gets damaged by projectiles and explosions. */
-		CRACKING_PROJECTILE,
+		CRACKING_PROJECTILE(false),
 		/** Body is a map obstacle. */
-		OBSTACLE,
+		OBSTACLE(false),
 		/** Body is an explosion particle and disappears after a short time. */
-		EXPLOSION_PARTICLE,
+		EXPLOSION_PARTICLE(false),
 		/** Body teleports projectiles and players.*/
-		TELEPORT,
+		TELEPORT(true),
 		/** Body belongs to a warning for the summon AI. */
-		WARNING,
+		WARNING(true),
 		/** Body belongs to the map bounds. */
-		BOUNDS,
+		BOUNDS(false),
 		/** Body outside the actual map, destroys everything. */
-		OUTER_BOUNDS,
+		OUTER_BOUNDS(true),
 		/** Body belongs to the map void, characters die when they touch void. */
-		VOID,
+		VOID(true),
 		/** Body belongs to a laval "obstacle". */
-		LAVA;
+		LAVA(true);
+		
+		private final boolean isSensor;
+		private BodyBehavior(boolean isSensor) {
+			this.isSensor = isSensor;
+		}
+		
+		/**
+		 * @return true if fixtures with this behavior are always sensors, so their contacts
+		 * matter only if they are handled by the contact listener.
+		 */
+		public boolean isSensor() {
+			return isSensor;
+		}
+		
+		/**
+		 * @return collision category of fixtures with this behavior.
+		 */
+		public short getCategoryBits() {
+			return (short)(1 << ordinal());
+		}
+		
+		/**
+		 * @return categories of fixtures that can collide with this behavior's fixtures.
+		 */
+		public short getMaskBits() {
+			return CollisionDispatcher.getMaskBits(this);
+		}
+		
+		/**
+		 * Sets collision filter of the fixture, so that Box2D does not report contacts
+		 * that would be ignored by the contact listener and would not affect the bodies.
+		 * @param fixtureDefinition fixture with this behavior.
+		 */
+		public void applyFilter(FixtureDef fixtureDefinition) {
+			fixtureDefinition.filter.categoryBits = getCategoryBits();
+			fixtureDefinition.filter.maskBits = getMaskBits();
+		}
 	}
 }
-
-
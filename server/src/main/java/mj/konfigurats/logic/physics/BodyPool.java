@@ -0,0 +1,65 @@
+package mj.konfigurats.logic.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Keeps deactivated Box2D bodies of a single game room, so they can be reused instead of
+ * being destroyed and created again. Bodies keep their fixtures, so each pooled body is
+ * stored under a key representing its fixtures' setup. Bodies also keep their user data, so
+ * objects attached to them (like projectiles) can be reused as well. Bodies can be freed and
+ * obtained only when the world is not locked (outside of the world step).
+ * @author MJ
+ */
+public class BodyPool {
+	// Bodies above this amount (per key) are destroyed:
+	private final static int MAX_FREE_BODIES=32;
+	private final IntMap<Array<Body>> freeBodies;
+
+	public BodyPool() {
+		freeBodies = new IntMap<Array<Body>>();
+	}
+
+	/**
+	 * @param key key of the bodies' setup.
+	 * @param position initial position of the body.
+	 * @param angle initial angle of the body.
+	 * @return an activated body with no velocity or null if there are no free bodies. Its
+	 *	user data is not cleared.
+	 */
+	public Body obtain(int key,Vector2 position,float angle) {
+		Array<Body> bodies = freeBodies.get(key);
+		if(bodies == null || bodies.size == 0) {
+			return null;
+		}
+		Body body = bodies.pop();
+		body.setTransform(position, angle);
+		body.setLinearVelocity(0f, 0f);
+		body.setAngularVelocity(0f);
+		body.setActive(true);
+		body.setAwake(true);
+		return body;
+	}
+
+	/**
+	 * Deactivates the body and stores it for future use, along with its user data.
+	 * @param key key of the body's setup.
+	 * @param body no longer used body.
+	 */
+	public void free(int key,Body body) {
+		Array<Body> bodies = freeBodies.get(key);
+		if(bodies == null) {
+			bodies = new Array<Body>();
+			freeBodies.put(key, bodies);
+		}
+		if(bodies.size < MAX_FREE_BODIES) {
+			body.setActive(false);
+			bodies.add(body);
+		}
+		else {
+			body.getWorld().destroyBody(body);
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package mj.konfigurats.logic.physics;
+
+import mj.konfigurats.logic.entities.ExplosionParticles;
+import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.entities.Projectile;
+import mj.konfigurats.logic.entities.Summon;
+import mj.konfigurats.logic.entities.Teleport;
+import mj.konfigurats.logic.physics.BodyInformation.BodyBehavior;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Manifold;
+
+/**
+ * Contact listener that handles collisions with precomputed tables indexed by the
+ * behaviors of both fixtures. Handlers are registered for a single fixture order; table
+ * entries combine the handlers of both orders, so each contact needs a single lookup.
+ * Handlers are stateless and the tables are shared by all game rooms. The same tables
+ * are used to create collision filters of the fixtures, so that Box2D does not report
+ * contacts that would be ignored.
+ * @author MJ
+ */
+class CollisionDispatcher implements ContactListener {
+	private final static int BEHAVIORS=BodyBehavior.values().length;
+	private final static BodyBehavior[] ALL_PROJECTILES = { BodyBehavior.PROJECTILE,
+		BodyBehavior.SEEKING_PROJECTILE, BodyBehavior.SENSOR_PROJECTILE,
+		BodyBehavior.BOUNCING_PROJECTILE, BodyBehavior.EXPLODING_PROJECTILE,
+		BodyBehavior.CRACKING_PROJECTILE };
+	private final static CollisionHandler[] BEGIN_HANDLERS,END_HANDLERS;
+	// Collision filter masks of each behavior:
+	private final static short[] MASK_BITS;
+
+	static {
+		CollisionHandler[] handlers = new CollisionHandler[BEHAVIORS*BEHAVIORS];
+		registerBeginHandlers(handlers);
+		BEGIN_HANDLERS = createDispatchTable(handlers);
+		handlers = new CollisionHandler[BEHAVIORS*BEHAVIORS];
+		registerEndHandlers(handlers);
+		END_HANDLERS = createDispatchTable(handlers);
+		MASK_BITS = createMaskBits();
+	}
+
+	/**
+	 * @param behavior behavior of a fixture.
+	 * @return collision filter mask of the fixture.
+	 */
+	static short getMaskBits(BodyBehavior behavior) {
+		return MASK_BITS[behavior.ordinal()];
+	}
+
+	@Override
+	public void beginContact(Contact contact) {
+		dispatch(BEGIN_HANDLERS, contact.getFixtureA(), contact.getFixtureB());
+	}
+
+	@Override
+	public void endContact(Contact contact) {
+		dispatch(END_HANDLERS, contact.getFixtureA(), contact.getFixtureB());
+	}
+
+	/**
+	 * Runs the handlers of a beginning contact without a Box2D contact object.
+	 * @param fixtureA first fixture of the collision.
+	 * @param fixtureB second fixture of the collision.
+	 */
+	void beginContact(Fixture fixtureA,Fixture fixtureB) {
+		dispatch(BEGIN_HANDLERS, fixtureA, fixtureB);
+	}
+
+	/**
+	 * Runs the handlers of an ending contact without a Box2D contact object.
+	 * @param fixtureA first fixture of the collision.
+	 * @param fixtureB second fixture of the collision.
+	 */
+	void endContact(Fixture fixtureA,Fixture fixtureB) {
+		dispatch(END_HANDLERS, fixtureA, fixtureB);
+	}
+
+	@Override
+	public void preSolve(Contact contact, Manifold oldManifold) {}
+	@Override
+	public void postSolve(Contact contact, ContactImpulse impulse) {}
+
+	/**
+	 * @param table begin or end contact handlers.
+	 * @param fixtureA first fixture of the collision.
+	 * @param fixtureB second fixture of the collision.
+	 */
+	private static void dispatch(CollisionHandler[] table,Fixture fixtureA,Fixture fixtureB) {
+		BodyBehavior behaviorA = (BodyBehavior)fixtureA.getUserData(),
+			behaviorB = (BodyBehavior)fixtureB.getUserData();
+		if(behaviorA == null || behaviorB == null) {
+			return;
+		}
+		CollisionHandler handler = table[behaviorA.ordinal()*BEHAVIORS+behaviorB.ordinal()];
+		if(handler != null) {
+			handler.handle(fixtureA, fixtureB);
+		}
+	}
+
+	/**
+	 * @param handlers handlers registered for a single fixtures order.
+	 * @return table with handlers of both orders for each pair of behaviors.
+	 */
+	private static CollisionHandler[] createDispatchTable(CollisionHandler[] handlers) {
+		CollisionHandler[] table = new CollisionHandler[BEHAVIORS*BEHAVIORS];
+		for(int a=0; a<BEHAVIORS; a++) {
+			for(int b=0; b<BEHAVIORS; b++) {
+				final CollisionHandler direct = handlers[a*BEHAVIORS+b],
+					reversed = handlers[b*BEHAVIORS+a];
+				if(direct != null && reversed != null) {
+					table[a*BEHAVIORS+b] = new CollisionHandler() {
+						@Override
+						public void handle(Fixture fixtureA,Fixture fixtureB) {
+							direct.handle(fixtureA, fixtureB);
+							reversed.handle(fixtureB, fixtureA);
+						}
+					};
+				}
+				else if(direct != null) {
+					table[a*BEHAVIORS+b] = direct;
+				}
+				else if(reversed != null) {
+					table[a*BEHAVIORS+b] = new CollisionHandler() {
+						@Override
+						public void handle(Fixture fixtureA,Fixture fixtureB) {
+							reversed.handle(fixtureB, fixtureA);
+						}
+					};
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Two behaviors interact if their contact is handled or if it might affect their
+	 * bodies - when none of the behaviors is a sensor.
+	 * @return collision filter masks of all behaviors.
+	 */
+	private static short[] createMaskBits() {
+		BodyBehavior[] behaviors = BodyBehavior.values();
+		short[] maskBits = new short[BEHAVIORS];
+		for(int a=0; a<BEHAVIORS; a++) {
+			for(int b=0; b<BEHAVIORS; b++) {
+				if(BEGIN_HANDLERS[a*BEHAVIORS+b] != null || END_HANDLERS[a*BEHAVIORS+b] != null
+					|| !behaviors[a].isSensor() && !behaviors[b].isSensor()) {
+					maskBits[a] |= behaviors[b].getCategoryBits();
+				}
+			}
+		}
+		return maskBits;
+	}
+
+	/**
+	 * @param handlers will contain the handler.
+	 * @param handler handles collisions of fixtureA with the first behavior.
+	 * @param behaviorA behavior of fixtureA.
+	 * @param behaviorsB behaviors of fixtureB.
+	 */
+	private static void register(CollisionHandler[] handlers,CollisionHandler handler,
+		BodyBehavior behaviorA,BodyBehavior... behaviorsB) {
+		for(BodyBehavior behaviorB : behaviorsB) {
+			handlers[behaviorA.ordinal()*BEHAVIORS+behaviorB.ordinal()] = handler;
+		}
+	}
+
+	/**
+	 * @param handlers will contain handlers of starting collisions.
+	 */
+	private static void registerBeginHandlers(CollisionHandler[] handlers) {
+		for(BodyBehavior character : new BodyBehavior[] { BodyBehavior.PLAYER, BodyBehavior.SUMMON }) {
+			// Player or a summon hits map bounds:
+			register(handlers, new CollisionHandler() {
+				@Override
+				public void handle(Fixture fixtureA,Fixture fixtureB) {
+					((Player)(fixtureA.getBody().getUserData())).cancelDestination();
+				}
+			}, character, BodyBehavior.BOUNDS);
+			// Regular projectile:
+			register(handlers, new CollisionHandler() {
+				@Override
+				public void handle(Fixture fixtureA,Fixture fixtureB) {
+					// Projectile will (likely) hurt the player and may disappear:
+					((Projectile)fixtureB.getBody().getUserData())
+						.applyEffect((Player)fixtureA.getBody().getUserData());
+				}
+			}, character, BodyBehavior.PROJECTILE, BodyBehavior.SEEKING_PROJECTILE,
+				BodyBehavior.SENSOR_PROJECTILE, BodyBehavior.BOUNCING_PROJECTILE);
+			// Explosion particle:
+			register(handlers, new CollisionHandler() {
+				@Override
+				public void handle(Fixture fixtureA,Fixture fixtureB) {
+					// Particle will (usually) damage the player:
+					((ExplosionParticles)fixtureB.getBody().getUserData())
+						.dealDamage((Player)fixtureA.getBody().getUserData(), fixtureB.getBody());
+				}
+			}, character, BodyBehavior.EXPLOSION_PARTICLE);
+			// A summon:
+			register(handlers, new CollisionHandler() {
+				@Override
+				public void handle(Fixture fixtureA,Fixture fixtureB) {
+					// Summon might attack the player:
+					((Summon)fixtureB.getBody().getUserData())
+						.attack(((Player)fixtureA.getBody().getUserData()));
+				}
+			}, character, BodyBehavior.SUMMON);
+			// Lava:
+			register(handlers, new CollisionHandler() {
+				@Override
+				public void handle(Fixture fixtureA,Fixture fixtureB) {
+					// Dealing damage:
+					((Player)fixtureA.getBody().getUserData()).enterLava(true);
+				}
+			}, character, BodyBehavior.LAVA);
+			// Void:
+			register(handlers, new CollisionHandler() {
+				@Override
+				public void handle(Fixture fixtureA,Fixture fixtureB) {
+					// Kills the player:
+					Player fallingEntity = (Player)fixtureA.getBody().getUserData();
+					fallingEntity.modifyHealth(null,-1000f, false, false);
+					// Scheduling info about the falling player:
+					fallingEntity.getGame().setEntityFalling(fallingEntity.getEntityIndex(),
+						fallingEntity.getPlayerBody().getPosition());
+				}
+			}, character, BodyBehavior.VOID);
+		}
+
+		// Projectiles destroyed on contact:
+		CollisionHandler touchProjectile = new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				((Projectile)fixtureA.getBody().getUserData()).setTouched(true);
+			}
+		};
+		// Exploding projectile will explode on anything but void, lava, warnings and teleports:
+		for(BodyBehavior behavior : BodyBehavior.values()) {
+			if(behavior != BodyBehavior.VOID && behavior != BodyBehavior.WARNING
+				&& behavior != BodyBehavior.LAVA && behavior != BodyBehavior.TELEPORT) {
+				register(handlers, touchProjectile, BodyBehavior.EXPLODING_PROJECTILE, behavior);
+			}
+		}
+		// Seeking projectile hits an explosion particle, another seeking projectile or a block:
+		register(handlers, touchProjectile, BodyBehavior.SEEKING_PROJECTILE,
+			BodyBehavior.EXPLOSION_PARTICLE, BodyBehavior.SEEKING_PROJECTILE,
+			BodyBehavior.CRACKING_PROJECTILE);
+		// Sensor projectile hits a wall:
+		register(handlers, touchProjectile, BodyBehavior.SENSOR_PROJECTILE, BodyBehavior.BOUNDS);
+
+		// Cracking projectile hits a projectile:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				// Greatly damaging cracking projectile:
+				((Projectile)fixtureA.getBody().getUserData()).applyEffect(null);
+			}
+		}, BodyBehavior.CRACKING_PROJECTILE, BodyBehavior.BOUNCING_PROJECTILE,
+			BodyBehavior.SEEKING_PROJECTILE);
+		// Explosion particle:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				// Lowering cracking projectile's duration:
+				((ExplosionParticles)fixtureB.getBody().getUserData())
+					.dealDamage((Projectile)fixtureA.getBody().getUserData());
+			}
+		}, BodyBehavior.CRACKING_PROJECTILE, BodyBehavior.EXPLOSION_PARTICLE);
+		// A summon:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				// Applying summon's AI to avoid the block:
+				((Summon)fixtureB.getBody().getUserData())
+					.avoidBlock((Projectile)fixtureA.getBody().getUserData());
+			}
+		}, BodyBehavior.CRACKING_PROJECTILE, BodyBehavior.SUMMON);
+		// Void or lava:
+		register(handlers, touchProjectile, BodyBehavior.CRACKING_PROJECTILE,
+			BodyBehavior.VOID, BodyBehavior.LAVA);
+
+		// Teleporting a projectile:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				Teleport teleport = (Teleport)fixtureA.getBody().getUserData();
+				// The body itself is moved by an event scheduled after the world step:
+				teleport.getGame().teleport((Projectile)fixtureB.getBody().getUserData(),teleport);
+			}
+		}, BodyBehavior.TELEPORT, BodyBehavior.PROJECTILE, BodyBehavior.SEEKING_PROJECTILE,
+			BodyBehavior.SENSOR_PROJECTILE, BodyBehavior.BOUNCING_PROJECTILE,
+			BodyBehavior.EXPLODING_PROJECTILE);
+		// Teleporting a player:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				Teleport teleport = (Teleport)fixtureA.getBody().getUserData();
+				// The body itself is moved by an event scheduled after the world step:
+				teleport.getGame().teleport((Player)fixtureB.getBody().getUserData(),teleport);
+			}
+		}, BodyBehavior.TELEPORT, BodyBehavior.SUMMON, BodyBehavior.PLAYER);
+
+		// Trying to warn a summon - there's void ahead!
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				((Summon)fixtureB.getBody().getUserData())
+					.avoidVoid(fixtureA.getBody().getPosition());
+			}
+		}, BodyBehavior.WARNING, BodyBehavior.SUMMON);
+
+		// Something (or someone) got out of the map bounds - destroying projectile:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				((Projectile)fixtureB.getBody().getUserData()).setTouched(true);
+			}
+		}, BodyBehavior.OUTER_BOUNDS, ALL_PROJECTILES);
+		// Killing summon:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				((Summon)fixtureB.getBody().getUserData()).killSummon();
+			}
+		}, BodyBehavior.OUTER_BOUNDS, BodyBehavior.SUMMON);
+		// Killing player:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				((Player)fixtureB.getBody().getUserData()).modifyHealth(null,
+					-1000f, false, false);
+			}
+		}, BodyBehavior.OUTER_BOUNDS, BodyBehavior.PLAYER);
+	}
+
+	/**
+	 * @param handlers will contain handlers of ending collisions.
+	 */
+	private static void registerEndHandlers(CollisionHandler[] handlers) {
+		// A player gets out of lava:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				((Player)fixtureB.getBody().getUserData()).enterLava(false);
+			}
+		}, BodyBehavior.LAVA, BodyBehavior.PLAYER, BodyBehavior.SUMMON);
+		// A projectile gets out of teleport:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				// Resetting last touched teleport:
+				((Projectile)fixtureB.getBody().getUserData()).resetLastUsedTeleport
+					(((Teleport)fixtureA.getBody().getUserData()).getEntityIndex());
+			}
+		}, BodyBehavior.TELEPORT, BodyBehavior.PROJECTILE, BodyBehavior.SEEKING_PROJECTILE,
+			BodyBehavior.SENSOR_PROJECTILE, BodyBehavior.BOUNCING_PROJECTILE,
+			BodyBehavior.CRACKING_PROJECTILE);
+		// A player gets out of teleport:
+		register(handlers, new CollisionHandler() {
+			@Override
+			public void handle(Fixture fixtureA,Fixture fixtureB) {
+				Teleport teleport = (Teleport)fixtureA.getBody().getUserData();
+				Player player = (Player)fixtureB.getBody().getUserData();
+				teleport.getGame().teleport(player,teleport);
+				// Resetting last touched teleport:
+				player.resetLastUsedTeleport(teleport.getEntityIndex());
+			}
+		}, BodyBehavior.TELEPORT, BodyBehavior.SUMMON, BodyBehavior.PLAYER);
+	}
+
+	/**
+	 * Handles collision of two fixtures with known behaviors.
+	 * @author MJ
+	 */
+	private static interface CollisionHandler {
+		/**
+		 * @param fixtureA fixture with the first behavior of the registered pair.
+		 * @param fixtureB fixture with the second behavior of the registered pair.
+		 */
+		void handle(Fixture fixtureA,Fixture fixtureB);
+	}
+}
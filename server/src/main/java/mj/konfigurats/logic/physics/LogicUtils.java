@@ -1,20 +1,9 @@
 package mj.konfigurats.logic.physics;
 
-import mj.konfigurats.logic.ScheduledEvent;
-import mj.konfigurats.logic.entities.ExplosionParticles;
 import mj.konfigurats.logic.entities.Player;
-import mj.konfigurats.logic.entities.Projectile;
-import mj.konfigurats.logic.entities.Summon;
-import mj.konfigurats.logic.entities.Teleport;
-import mj.konfigurats.logic.physics.BodyInformation.BodyBehavior;
-import mj.konfigurats.network.GamePackets.SrvSetEntityFalling;
 
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Contact;
-import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
-import com.badlogic.gdx.physics.box2d.Fixture;
-import com.badlogic.gdx.physics.box2d.Manifold;
 
 /**
  * Utility class for some logic calculations. Do not initialize.
@@ -265,235 +254,10 @@ public class LogicUtils {
 		return (float)Math.sqrt(deltaX*deltaX+deltaY*deltaY);
 	}
 	
+	/**
+	 * @return listener handling collisions between the game's bodies.
+	 */
 	public static ContactListener createContactListener() {
-		return new ContactListener() {
-			@Override
-			public void beginContact(Contact contact) {
-				// Checking collisions. Since we won't want to write a 100 cases,
-				// we check two separate variants:
-				checkCollisions(contact.getFixtureA(), contact.getFixtureB());
-				checkCollisions(contact.getFixtureB(), contact.getFixtureA());
-			}
-			
-			/**
-			 * Used to check collisions between 2 fixtures.
-			 */
-			private void checkCollisions(Fixture fixtureA, Fixture fixtureB) {
-				// Player or a summon hits...
-				if(fixtureA.getUserData() == BodyBehavior.PLAYER ||
-					fixtureA.getUserData() == BodyBehavior.SUMMON) {
-					// Map bounds:
-					if(fixtureB.getUserData() == BodyBehavior.BOUNDS) {
-						((Player)(fixtureA.getBody()
-							.getUserData())).cancelDestination();
-					}
-					// Regular projectile:
-					else if(fixtureB.getUserData() == BodyBehavior.PROJECTILE ||
-							fixtureB.getUserData() == BodyBehavior.SEEKING_PROJECTILE ||
-							fixtureB.getUserData() == BodyBehavior.SENSOR_PROJECTILE ||
-							fixtureB.getUserData() == BodyBehavior.BOUNCING_PROJECTILE) {
-						// Projectile will (likely) hurt the player and may disappear:
-						((Projectile)fixtureB.getBody().getUserData())
-							.applyEffect((Player)fixtureA.getBody().getUserData());
-					}
-					// Explosion particle:
-					else if(fixtureB.getUserData() == BodyBehavior.EXPLOSION_PARTICLE) {
-						// Particle will (usually) damage the player:
-						((ExplosionParticles)fixtureB.getBody().getUserData())
-							.dealDamage((Player)fixtureA.getBody().getUserData(),
-							fixtureB.getBody());
-					}
-					// A summon:
-					else if(fixtureB.getUserData() == BodyBehavior.SUMMON) {
-						// Summon might attack the player:
-						((Summon)fixtureB.getBody().getUserData())
-							.attack(((Player)fixtureA.getBody().getUserData()));
-					}
-					// Lava:
-					else if(fixtureB.getUserData() == BodyBehavior.LAVA) {
-						// Dealing damage:
-						((Player)fixtureA.getBody().getUserData()).enterLava(true);
-					}
-					// Void:
-					else if(fixtureB.getUserData() == BodyBehavior.VOID) {
-						// Kills the player:
-						Player fallingEntity = (Player)fixtureA.getBody().getUserData();
-						fallingEntity.modifyHealth(null,-1000f, false, false);
-						// Scheduling packet with falling player info:
-						SrvSetEntityFalling packet = new SrvSetEntityFalling();
-						packet.entityIndex = fallingEntity.getEntityIndex();
-						packet.x = fallingEntity.getPlayerBody().getPosition().x;
-						packet.y = fallingEntity.getPlayerBody().getPosition().y;
-						fallingEntity.getGame().addSFXPacket(packet);
-					}
-				}
-				// Exploding projectile hits...
-				else if(fixtureA.getUserData() == BodyBehavior.EXPLODING_PROJECTILE) {
-					// Projectile will explode on anything but void:
-					if(fixtureB.getUserData() != BodyBehavior.VOID &&
-						fixtureB.getUserData() != BodyBehavior.WARNING &&
-						fixtureB.getUserData() != BodyBehavior.LAVA &&
-						fixtureB.getUserData() != BodyBehavior.TELEPORT) {
-						((Projectile)fixtureA.getBody().getUserData())
-							.setTouched(true);
-					}
-				}
-				// Seeking projectile hits...
-				else if(fixtureA.getUserData() == BodyBehavior.SEEKING_PROJECTILE) {
-					// Explosion particle, another seeking projectile or a block:
-					if(fixtureB.getUserData() == BodyBehavior.EXPLOSION_PARTICLE ||
-						fixtureB.getUserData() == BodyBehavior.SEEKING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.CRACKING_PROJECTILE) {
-						// Destroying projectile:
-						((Projectile)fixtureA.getBody().getUserData())
-							.setTouched(true);
-					}
-				}
-				// Sensor projectile hits...
-				else if(fixtureA.getUserData() == BodyBehavior.SENSOR_PROJECTILE) {
-					// A wall:
-					if(fixtureB.getUserData() == BodyBehavior.BOUNDS) {
-						((Projectile)fixtureA.getBody().getUserData())
-							.setTouched(true);
-					}
-				}
-				// Cracking projectile hits...
-				else if(fixtureA.getUserData() == BodyBehavior.CRACKING_PROJECTILE) {
-					// A projectile:
-					if(fixtureB.getUserData() == BodyBehavior.BOUNCING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SEEKING_PROJECTILE) {
-						// Greatly damaging cracking projectile:
-						((Projectile)fixtureA.getBody().getUserData())
-							.applyEffect(null);
-					}
-					// Explosion particle:
-					else if(fixtureB.getUserData() == BodyBehavior.EXPLOSION_PARTICLE) {
-						// Lowering cracking projectile's duration:
-						((ExplosionParticles)fixtureB.getBody().getUserData())
-							.dealDamage((Projectile)fixtureA.getBody().getUserData());
-					}
-					// A summon:
-					else if(fixtureB.getUserData() == BodyBehavior.SUMMON) {
-						// Applying summon's AI to avoid the block:
-						((Summon)fixtureB.getBody().getUserData())
-							.avoidBlock((Projectile)fixtureA.getBody().getUserData());
-					}
-					// Void or lava:
-					else if(fixtureB.getUserData() == BodyBehavior.VOID ||
-							fixtureB.getUserData() == BodyBehavior.LAVA) {
-						// Destroying projectile:
-						((Projectile)fixtureA.getBody().getUserData()).setTouched(true);
-					}
-				}
-				// Teleportation:
-				else if(fixtureA.getUserData() == BodyBehavior.TELEPORT) {
-					if(fixtureB.getUserData() == BodyBehavior.PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SEEKING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SENSOR_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.BOUNCING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.EXPLODING_PROJECTILE) {
-						// Teleporting a projectile:
-						final Teleport teleport = (Teleport)fixtureA.getBody().getUserData();
-						final Projectile projectile = (Projectile)fixtureB.getBody().getUserData();
-						teleport.getGame().scheduleEvent(new ScheduledEvent(new Runnable() {
-							@Override
-							public void run() {
-								teleport.getGame().teleport(projectile,teleport);
-							}
-						}, false, 0f));
-					}
-					else if(fixtureB.getUserData() == BodyBehavior.SUMMON ||
-						fixtureB.getUserData() == BodyBehavior.PLAYER) {
-						// Teleporting a player:
-						final Teleport teleport = (Teleport)fixtureA.getBody().getUserData();
-						final Player player = (Player)fixtureB.getBody().getUserData();
-						teleport.getGame().scheduleEvent(new ScheduledEvent(new Runnable() {
-							@Override
-							public void run() {
-								teleport.getGame().teleport(player,teleport);
-							}
-						}, false, 0f));
-					}
-				}
-				// Trying to warn a summon - there's void ahead!
-				else if(fixtureA.getUserData() == BodyBehavior.WARNING) {
-					if(fixtureB.getUserData() == BodyBehavior.SUMMON) {
-						((Summon)fixtureB.getBody().getUserData())
-							.avoidVoid(fixtureA.getBody().getPosition());
-					}
-				}
-				// Something (or someone) got out of the map bounds:
-				else if(fixtureA.getUserData() == BodyBehavior.OUTER_BOUNDS) {
-					// Destroying: projectile:
-					if(fixtureB.getUserData() == BodyBehavior.PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SEEKING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SENSOR_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.BOUNCING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.EXPLODING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.CRACKING_PROJECTILE) {
-						((Projectile)fixtureB.getBody().getUserData()).setTouched(true);
-					}
-					// Killing summon:
-					else if(fixtureB.getUserData() == BodyBehavior.SUMMON) {
-						((Summon)fixtureB.getBody().getUserData()).killSummon();
-					}
-					// Killing player:
-					else if(fixtureB.getUserData() == BodyBehavior.PLAYER) {
-						((Player)fixtureB.getBody().getUserData()).modifyHealth(null,
-							-1000f, false, false);
-					}
-				}
-			}
-
-			@Override
-			public void endContact(Contact contact) {
-				checkEndingCollisions(contact.getFixtureA(), contact.getFixtureB());
-				checkEndingCollisions(contact.getFixtureB(), contact.getFixtureA());
-			}
-			
-			/**
-			 * Checks if something should be done with the ending collisions.
-			 * @param fixtureA first fixture of the collision.
-			 * @param fixtureB second fixture of the collision.
-			 */
-			private void checkEndingCollisions(Fixture fixtureA, Fixture fixtureB) {
-				//If a player gets out of lava:
-				if(fixtureA.getUserData() == BodyBehavior.LAVA) {
-					if(fixtureB.getUserData() == BodyBehavior.PLAYER ||
-						fixtureB.getUserData() == BodyBehavior.SUMMON) {
-						((Player)fixtureB.getBody().getUserData()).enterLava(false);
-					}
-				}
-				// If a player or projectile gets out of teleport:
-				else if(fixtureA.getUserData() == BodyBehavior.TELEPORT) {
-					if(fixtureB.getUserData() == BodyBehavior.PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SEEKING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.SENSOR_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.BOUNCING_PROJECTILE ||
-						fixtureB.getUserData() == BodyBehavior.CRACKING_PROJECTILE) {
-						// Resetting last touched teleport:
-						((Projectile)fixtureB.getBody().getUserData())
-							.resetLastUsedTeleport(((Teleport)fixtureA.getBody()
-							.getUserData()).getEntityIndex());
-						
-					}
-					else if(fixtureB.getUserData() == BodyBehavior.SUMMON ||
-						fixtureB.getUserData() == BodyBehavior.PLAYER) {
-						((Teleport)fixtureA.getBody().getUserData()).getGame()
-							.teleport((Player)fixtureB.getBody().getUserData(),
-							(Teleport)fixtureA.getBody().getUserData());
-						// Resetting last touched teleport:
-						((Player)fixtureB.getBody().getUserData())
-							.resetLastUsedTeleport(((Teleport)fixtureA.getBody()
-							.getUserData()).getEntityIndex());
-					}
-				}
-			}
-			
-			@Override
-			public void preSolve(Contact contact, Manifold oldManifold) {}
-			@Override
-			public void postSolve(Contact contact, ContactImpulse impulse) {}
-		};
+		return new CollisionDispatcher();
 	}
 }
@@ -0,0 +1,275 @@
+package mj.konfigurats.logic.physics;
+
+import java.util.Arrays;
+
+import mj.konfigurats.logic.entities.Player;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Uniform grid of characters' positions, used to find the nearest characters without
+ * checking the whole characters list. Rebuilt after each world step - characters added
+ * between the rebuilds are inserted at their current position and removed characters
+ * are skipped by the queries. Positions outside of the world bounds are stored in the
+ * border cells. Should be used only by the game thread.
+ * @author MJ
+ */
+public class SpatialGrid {
+	private final float cellSize;
+	private float minX,minY;
+	private int columns,rows;
+	// First character of each cell or a negative number:
+	private int[] cellHeads;
+	// Characters data, linked into cells' lists:
+	private final Array<Player> entries;
+	private float[] positions;
+	private int[] nextEntries;
+	// Best candidates of the current k-nearest query:
+	private float[] nearestDistances;
+
+	/**
+	 * @param cellSize width and height of a single cell in Box2D units.
+	 */
+	public SpatialGrid(float cellSize) {
+		this.cellSize = cellSize;
+		columns = rows = 1;
+		cellHeads = new int[] { -1 };
+		entries = new Array<Player>();
+		positions = new float[32];
+		nextEntries = new int[16];
+		nearestDistances = new float[4];
+	}
+
+	/**
+	 * Resizes the grid. Should be called before the first rebuild.
+	 * @param minX lowest position x.
+	 * @param minY lowest position y.
+	 * @param maxX highest position x.
+	 * @param maxY highest position y.
+	 */
+	public void setBounds(float minX,float minY,float maxX,float maxY) {
+		this.minX = minX;
+		this.minY = minY;
+		columns = Math.max(1, (int)Math.ceil((maxX-minX)/cellSize));
+		rows = Math.max(1, (int)Math.ceil((maxY-minY)/cellSize));
+		cellHeads = new int[columns*rows];
+		Arrays.fill(cellHeads, -1);
+		entries.clear();
+	}
+
+	/**
+	 * Replaces the grid's content with characters' positions stored in the world state.
+	 * @param worldState freshly captured world state.
+	 */
+	public void rebuild(WorldState worldState) {
+		Arrays.fill(cellHeads, -1);
+		entries.clear();
+		for(int i=0, size=worldState.getCharactersAmount(); i<size; i++) {
+			add(worldState.getCharacter(i), worldState.getCharacterX(i), worldState.getCharacterY(i));
+		}
+	}
+
+	/**
+	 * @param character will be added at its current position.
+	 */
+	public void add(Player character) {
+		Vector2 position = character.getPlayerBody().getPosition();
+		add(character, position.x, position.y);
+	}
+
+	private void add(Player character,float x,float y) {
+		int entry = entries.size;
+		if(entry == nextEntries.length) {
+			nextEntries = Arrays.copyOf(nextEntries, entry*2);
+			positions = Arrays.copyOf(positions, entry*4);
+		}
+		positions[entry*2] = x;
+		positions[entry*2+1] = y;
+		int cell = getRow(y)*columns+getColumn(x);
+		nextEntries[entry] = cellHeads[cell];
+		cellHeads[cell] = entry;
+		entries.add(character);
+	}
+
+	/**
+	 * @param x position x.
+	 * @param y position y.
+	 * @param ignored will not be returned. Can be null.
+	 * @param ignoredCaster will not be returned. Can be null.
+	 * @param ignoredTeam characters from this team will not be returned. Negative for none.
+	 * @return nearest matching character or null.
+	 */
+	public Player getNearest(float x,float y,Player ignored,Player ignoredCaster,int ignoredTeam) {
+		Player nearest = null;
+		float nearestDistance = Float.MAX_VALUE;
+		int column = getColumn(x), row = getRow(y);
+		for(int ring=0, rings=Math.max(columns, rows); ring<rings; ring++) {
+			// Further cells cannot contain a closer character:
+			float ringDistance = (ring-1)*cellSize;
+			if(ring > 1 && ringDistance*ringDistance >= nearestDistance) {
+				break;
+			}
+			for(int cellY=row-ring; cellY<=row+ring; cellY++) {
+				if(cellY < 0 || cellY >= rows) {
+					continue;
+				}
+				// Only the cells on the ring's border are checked:
+				int step = cellY == row-ring || cellY == row+ring ? 1 : Math.max(1, ring*2);
+				for(int cellX=column-ring; cellX<=column+ring; cellX+=step) {
+					if(cellX < 0 || cellX >= columns) {
+						continue;
+					}
+					for(int entry=cellHeads[cellY*columns+cellX]; entry>=0; entry=nextEntries[entry]) {
+						if(isAccepted(entries.get(entry), ignored, ignoredCaster, ignoredTeam)) {
+							float distance = getDistanceIndicator(entry, x, y);
+							if(distance < nearestDistance) {
+								nearestDistance = distance;
+								nearest = entries.get(entry);
+							}
+						}
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * @param x position x.
+	 * @param y position y.
+	 * @param amount maximum amount of returned characters.
+	 * @param ignored will not be returned. Can be null.
+	 * @param ignoredCaster will not be returned. Can be null.
+	 * @param ignoredTeam characters from this team will not be returned. Negative for none.
+	 * @param result will be cleared and will contain the nearest characters, closest first.
+	 * @return amount of found characters.
+	 */
+	public int getNearest(float x,float y,int amount,Player ignored,Player ignoredCaster,
+		int ignoredTeam,Array<Player> result) {
+		result.clear();
+		if(nearestDistances.length < amount) {
+			nearestDistances = new float[amount];
+		}
+		int column = getColumn(x), row = getRow(y);
+		for(int ring=0, rings=Math.max(columns, rows); ring<rings; ring++) {
+			float ringDistance = (ring-1)*cellSize;
+			if(ring > 1 && result.size == amount
+				&& ringDistance*ringDistance >= nearestDistances[amount-1]) {
+				break;
+			}
+			for(int cellY=row-ring; cellY<=row+ring; cellY++) {
+				if(cellY < 0 || cellY >= rows) {
+					continue;
+				}
+				int step = cellY == row-ring || cellY == row+ring ? 1 : Math.max(1, ring*2);
+				for(int cellX=column-ring; cellX<=column+ring; cellX+=step) {
+					if(cellX < 0 || cellX >= columns) {
+						continue;
+					}
+					for(int entry=cellHeads[cellY*columns+cellX]; entry>=0; entry=nextEntries[entry]) {
+						if(isAccepted(entries.get(entry), ignored, ignoredCaster, ignoredTeam)) {
+							insertNearest(entries.get(entry), getDistanceIndicator(entry, x, y),
+								amount, result);
+						}
+					}
+				}
+			}
+		}
+		return result.size;
+	}
+
+	/**
+	 * @param x position x.
+	 * @param y position y.
+	 * @param radius maximum distance from the position.
+	 * @param ignored will not be returned. Can be null.
+	 * @param ignoredCaster will not be returned. Can be null.
+	 * @param ignoredTeam characters from this team will not be returned. Negative for none.
+	 * @param result will be cleared and will contain characters within the radius.
+	 * @return amount of found characters.
+	 */
+	public int getInRadius(float x,float y,float radius,Player ignored,Player ignoredCaster,
+		int ignoredTeam,Array<Player> result) {
+		result.clear();
+		float radius2 = radius*radius;
+		int fromX = getColumn(x-radius), toX = getColumn(x+radius),
+			fromY = getRow(y-radius), toY = getRow(y+radius);
+		for(int cellY=fromY; cellY<=toY; cellY++) {
+			for(int cellX=fromX; cellX<=toX; cellX++) {
+				for(int entry=cellHeads[cellY*columns+cellX]; entry>=0; entry=nextEntries[entry]) {
+					if(getDistanceIndicator(entry, x, y) <= radius2
+						&& isAccepted(entries.get(entry), ignored, ignoredCaster, ignoredTeam)) {
+						result.add(entries.get(entry));
+					}
+				}
+			}
+		}
+		return result.size;
+	}
+
+	/**
+	 * @param character found character.
+	 * @param distance squared distance from the query position.
+	 * @param amount maximum amount of results.
+	 * @param result sorted results.
+	 */
+	private void insertNearest(Player character,float distance,int amount,Array<Player> result) {
+		if(result.size == amount && distance >= nearestDistances[amount-1]) {
+			return;
+		}
+		int i = Math.min(result.size, amount-1);
+		if(result.size < amount) {
+			result.add(character);
+		}
+		// Moving further characters back:
+		for(; i>0 && nearestDistances[i-1] > distance; i--) {
+			nearestDistances[i] = nearestDistances[i-1];
+			result.set(i, result.get(i-1));
+		}
+		nearestDistances[i] = distance;
+		result.set(i, character);
+	}
+
+	/**
+	 * @param character checked character.
+	 * @param ignored can be null.
+	 * @param ignoredCaster can be null.
+	 * @param ignoredTeam negative for none.
+	 * @return true if the character can be returned by a query.
+	 */
+	private boolean isAccepted(Player character,Player ignored,Player ignoredCaster,
+		int ignoredTeam) {
+		return !character.isRemoved() && character != ignored && character != ignoredCaster
+			&& (ignoredTeam < 0 || character.getTeamIndex() != ignoredTeam);
+	}
+
+	/**
+	 * @param entry index of the entry.
+	 * @param x position x.
+	 * @param y position y.
+	 * @return squared distance between the entry and the position.
+	 */
+	private float getDistanceIndicator(int entry,float x,float y) {
+		float deltaX = positions[entry*2]-x, deltaY = positions[entry*2+1]-y;
+		return deltaX*deltaX+deltaY*deltaY;
+	}
+
+	/**
+	 * @param x position x.
+	 * @return column of the position, clamped to the grid.
+	 */
+	private int getColumn(float x) {
+		int column = (int)((x-minX)/cellSize);
+		return column < 0 ? 0 : column >= columns ? columns-1 : column;
+	}
+
+	/**
+	 * @param y position y.
+	 * @return row of the position, clamped to the grid.
+	 */
+	private int getRow(float y) {
+		int row = (int)((y-minY)/cellSize);
+		return row < 0 ? 0 : row >= rows ? rows-1 : row;
+	}
+}
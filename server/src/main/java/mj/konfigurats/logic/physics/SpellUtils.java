@@ -1,12 +1,13 @@
 package mj.konfigurats.logic.physics;
 
 import mj.konfigurats.logic.Game;
-import mj.konfigurats.logic.ScheduledEvent;
-import mj.konfigurats.logic.entities.ExplosionParticles;
+import mj.konfigurats.logic.GameEvent;
+import mj.konfigurats.logic.GameEvent.EventHandler;
 import mj.konfigurats.logic.entities.ExplosionParticles.ExplosionType;
 import mj.konfigurats.logic.entities.Player;
 import mj.konfigurats.logic.entities.Player.PlayerClass;
 import mj.konfigurats.logic.entities.Player.PlayerState;
+import mj.konfigurats.logic.entities.Player.StatusEffect;
 import mj.konfigurats.logic.entities.Projectile;
 import mj.konfigurats.logic.entities.Summon;
 import mj.konfigurats.logic.entities.Summon.SummonType;
@@ -23,9 +24,7 @@ import mj.konfigurats.logic.entities.projectiles.Poison;
 import mj.konfigurats.logic.entities.projectiles.Thorn;
 import mj.konfigurats.logic.entities.projectiles.Tornado;
 import mj.konfigurats.logic.physics.BodyInformation.BodyBehavior;
-import mj.konfigurats.network.GamePackets.SrvAttachSFX;
 import mj.konfigurats.network.GamePackets.SrvCreateCharacter;
-import mj.konfigurats.network.GamePackets.SrvDisplaySFX;
 
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
@@ -177,7 +176,7 @@ public class SpellUtils {
 	 * Contains all spells.
 	 * @author MJ
 	 */
-	public static enum Spell {
+	public static enum Spell implements EventHandler {
 		/** Fire spells. */
 		FIREBALL(SpellType.FIRE.getIndex(),0,(byte)0,
 			PlayerState.CAST1,-4f,7f) {
@@ -193,82 +192,63 @@ public class SpellUtils {
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 150f;
-				fixtureDefinition.restitution = 0.9f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.EXPLODING_PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.FIREBALL,game,shape,position,
+					0.25f,150f,0.9f,false,BodyBehavior.EXPLODING_PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(450f*cos,450f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new Fireball
-					(entityIndex,projectile,caster));
-				
+				// Launching the projectile object attached to the body (created with new bodies):
+				Fireball fireball = projectile.getUserData() == null
+					? new Fireball(projectile) : (Fireball)projectile.getUserData();
+				fireball.launch(entityIndex, caster);
+
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(fireball);
 			
 				validateSpellCast(caster, angle);
 			}
 		}, METEOR(SpellType.FIRE.getIndex(),1,(byte)-1,
 			PlayerState.CAST2,-5f,10f) {
 			@Override
-			public void cast(int entityIndex,final Game game,final Player caster,
+			public void cast(int entityIndex,Game game,Player caster,
 					Shape shape,Vector2 position) {
 				// Adding packet with SFX warning:
-				SrvDisplaySFX packet = new SrvDisplaySFX();
-				packet.SFXIndex = SFXIndexes.METEOR_WARNING.getSFXIndex();
-				packet.x = position.x;
-				packet.y = position.y;
-				game.addSFXPacket(packet);
-				
-				final Vector2 spellCastPostion = new Vector2(position);
+				game.displaySFX(SFXIndexes.METEOR_WARNING.getSFXIndex(), position);
 				
 				// Scheduling explosion:
-				game.scheduleEvent(new ScheduledEvent(new Runnable() {
-					@Override
-					public void run() {
-						game.getExplosionParticles().add(new ExplosionParticles
-							(game,caster,ExplosionType.METEOR_PRIMARY,spellCastPostion));
-						game.getExplosionParticles().add(new ExplosionParticles
-							(game,caster,ExplosionType.METEOR_SECONDARY,spellCastPostion));
-						// Adding packet with SFX explosion:
-						SrvDisplaySFX packet = new SrvDisplaySFX();
-						packet.SFXIndex = SFXIndexes.METEOR_EXPLOSION.getSFXIndex();
-						packet.x = spellCastPostion.x;
-						packet.y = spellCastPostion.y;
-						game.addSFXPacket(packet);
-					}
-				}, false, 1.85f));
+				game.scheduleEvent(game.obtainEvent(this).setPlayers(caster, null)
+					.setPosition(position.x, position.y), false, 1.85f);
 				
 				validateSpellCast(caster, (float)LogicUtils.getAngle(caster.getPlayerBody()
 					.getPosition(), position));
 			}
+			
+			@Override
+			public void handle(GameEvent event) {
+				Game game = event.getPlayer().getGame();
+				game.addExplosion(event.getPlayer(),ExplosionType.METEOR_PRIMARY,event.getPosition());
+				game.addExplosion(event.getPlayer(),ExplosionType.METEOR_SECONDARY,event.getPosition());
+				// Adding packet with SFX explosion:
+				game.displaySFX(SFXIndexes.METEOR_EXPLOSION.getSFXIndex(),
+					event.getPosition());
+			}
 		}, BLAZING_FEET(SpellType.FIRE.getIndex(),2,(byte)-1,
 			PlayerState.CAST2,-7.5f,9.5f) {
 			@Override
-			public void cast(int entityIndex,final Game game, Player caster,
+			public void cast(int entityIndex,Game game, Player caster,
 					Shape shape,Vector2 position) {
 				// Finding target nearest to the cursor:
-				final Player target = game.getNearestPlayer(position);
+				Player target = game.getNearestPlayer(position);
 				
 				if(target != null) {
 					// Applying blazing buff:
 					target.setBlazing(true);
 					
 					// Calculating flames creation frequency:
-					final float creationTime,
+					float creationTime,
 						speedModification = 750f*caster.getDamageModificator();
 					if(target.getSpeed() >= 5000) {
 						creationTime = 0.1f;
@@ -281,53 +261,46 @@ public class SpellUtils {
 					target.modifySpeed(speedModification);
 					
 					// Creating flames:
-					target.scheduleEvent(new ScheduledEvent(new Runnable() {
-						private float timePassed;
-						@Override
-						public void run() {
-							timePassed += Game.UPDATE_TIME;
-							
-							while(timePassed >= creationTime) {
-								timePassed -= creationTime;
-								
-								if(target.isMoving()) {
-									// Creating flame:
-									game.getExplosionParticles().add(new ExplosionParticles
-										(game, target, ExplosionType.BLAZING_FEET_FLAME,
-										target.getPlayerBody().getPosition()));
-									
-									// Adding packet with SFX flame:
-									SrvDisplaySFX packet = new SrvDisplaySFX();
-									packet.SFXIndex = SFXIndexes.BLAZING_FEET_FLAME.getSFXIndex();
-									packet.x = target.getPlayerBody().getPosition().x;
-									packet.y = target.getPlayerBody().getPosition().y+0.2f;
-									game.addSFXPacket(packet);
-								}
-							}
-						}
-					}, true, 5f*caster.getDamageModificator()));
+					target.scheduleEvent(game.obtainEvent(this).setPlayers(target, null)
+						.setInterval(creationTime), true, 5f*caster.getDamageModificator());
 					
-					// Scheduling buff removal:
-					target.scheduleEvent(new ScheduledEvent(new Runnable() {
-						@Override
-						public void run() {
-							// Removing buff:
-							target.setBlazing(false);
-							target.modifySpeed(-speedModification);
-						}
+					// Scheduling buff removal (an event without an interval):
+					target.scheduleEvent(game.obtainEvent(this).setPlayers(target, null)
+						.setValue(0, speedModification),
 					// Buff removal is a bit longer than the effect so that you can escape your flames:
-					}, false, 5.25f*caster.getDamageModificator()));
+						false, 5.25f*caster.getDamageModificator());
 					
 					// Adding packet with SFX:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.BLAZING_FEET_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration =  5f*caster.getDamageModificator();
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.BLAZING_FEET_BUFF.getSFXIndex(),
+						target.getEntityIndex(), 5f*caster.getDamageModificator());
 				}
 				
 				validateSpellCast(caster);
 			}
+			
+			@Override
+			public void handle(GameEvent event) {
+				Player target = event.getPlayer();
+				if(event.getInterval() > 0f) {
+					for(int flames=event.advanceTimer(Game.UPDATE_TIME); flames>0; flames--) {
+						if(target.isMoving()) {
+							// Creating flame:
+							target.getGame().addExplosion(target, ExplosionType.BLAZING_FEET_FLAME,
+								target.getPlayerBody().getPosition());
+							
+							// Adding packet with SFX flame:
+							target.getGame().displaySFX(SFXIndexes.BLAZING_FEET_FLAME.getSFXIndex(),
+								target.getPlayerBody().getPosition().x,
+								target.getPlayerBody().getPosition().y+0.2f);
+						}
+					}
+				}
+				else {
+					// Removing buff:
+					target.setBlazing(false);
+					target.modifySpeed(-event.getValue());
+				}
+			}
 		}, CURSE(SpellType.FIRE.getIndex(),3,(byte)1,
 			PlayerState.CAST1,-50f,25f) {
 			@Override
@@ -341,30 +314,21 @@ public class SpellUtils {
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 50f;
-				fixtureDefinition.restitution = 0.5f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.CURSE,game,shape,position,
+					0.25f,50f,0.5f,false,BodyBehavior.PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(30f*cos,30f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new Curse(entityIndex,projectile,caster));
+				// Launching the projectile object attached to the body (created with new bodies):
+				Curse curse = projectile.getUserData() == null
+					? new Curse(projectile) : (Curse)projectile.getUserData();
+				curse.launch(entityIndex, caster);
 
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(curse);
 			
 				validateSpellCast(caster, angle);
 			}
@@ -383,35 +347,25 @@ public class SpellUtils {
 					sin = MathUtils.sinDeg(modifiedAngle);
 				
 				// Setting actual spell position:
-				Vector2 missileDestination = new Vector2(position);
+				float destinationX = position.x, destinationY = position.y;
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 150f;
-				fixtureDefinition.restitution = 0.9f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.EXPLODING_PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.MAGIC_MISSILE,game,shape,position,
+					0.25f,150f,0.9f,false,BodyBehavior.EXPLODING_PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(650f*cos,650f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new MagicMissile
-					(entityIndex,projectile,caster,missileDestination));
+				// Launching the projectile object attached to the body (created with new bodies):
+				MagicMissile missile = projectile.getUserData() == null
+					? new MagicMissile(projectile) : (MagicMissile)projectile.getUserData();
+				missile.launch(entityIndex, caster, destinationX, destinationY);
 				
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(missile);
 			
 				validateSpellCast(caster, angle);
 			}
@@ -428,30 +382,21 @@ public class SpellUtils {
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 200f;
-				fixtureDefinition.restitution = 0.6f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.LIFE_STEAL,game,shape,position,
+					0.25f,200f,0.6f,false,BodyBehavior.PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(400f*cos,400f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new LifeSteal(entityIndex,projectile,caster));
-				
+				// Launching the projectile object attached to the body (created with new bodies):
+				LifeSteal lifeSteal = projectile.getUserData() == null
+					? new LifeSteal(projectile) : (LifeSteal)projectile.getUserData();
+				lifeSteal.launch(entityIndex, caster);
+
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(lifeSteal);
 				
 				validateSpellCast(caster, angle);
 			}
@@ -478,7 +423,7 @@ public class SpellUtils {
 					*caster.getDamageModificator(),LogicUtils.getPlayerAngle(angle));
 				
 				// Adding the summon to the game's characters list:
-				game.getCharacters().add(fireAnt);
+				game.addCharacter(fireAnt);
 				
 				// Telling all players that a new character has been summoned:
 				SrvCreateCharacter characterPacket = new SrvCreateCharacter();
@@ -512,11 +457,8 @@ public class SpellUtils {
 					// Trying to remove a curse:
 					target.healCurse(0.65f*caster.getDamageModificator());
 					// Adding packet with SFX healing:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.HEAL_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration = -1f;
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.HEAL_BUFF.getSFXIndex(),
+						target.getEntityIndex(), -1f);
 				}
 				
 				validateSpellCast(caster);
@@ -534,30 +476,21 @@ public class SpellUtils {
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 150f;
-				fixtureDefinition.restitution = 0.4f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.FREEZE,game,shape,position,
+					0.25f,150f,0.4f,false,BodyBehavior.PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(160f*cos,160f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new Freeze(entityIndex,projectile,caster));
-				
+				// Launching the projectile object attached to the body (created with new bodies):
+				Freeze freeze = projectile.getUserData() == null
+					? new Freeze(projectile) : (Freeze)projectile.getUserData();
+				freeze.launch(entityIndex, caster);
+
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(freeze);
 				
 				validateSpellCast(caster, angle);
 			}
@@ -575,26 +508,17 @@ public class SpellUtils {
 				position.set(caster.getPlayerBody().getPosition().x + 2f*cos,
 					caster.getPlayerBody().getPosition().y + 2f*sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(1.1f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 6000f;
-				fixtureDefinition.restitution = 0.6f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.CRACKING_PROJECTILE);
-				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new IceBlock(entityIndex,projectile,caster));
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.ICE_BLOCK,game,shape,position,
+					1.1f,6000f,0.6f,false,BodyBehavior.CRACKING_PROJECTILE);
 				
+				// Launching the projectile object attached to the body (created with new bodies):
+				IceBlock iceBlock = projectile.getUserData() == null
+					? new IceBlock(projectile) : (IceBlock)projectile.getUserData();
+				iceBlock.launch(entityIndex, caster);
+
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(iceBlock);
 			
 				validateSpellCast(caster, angle);
 			}
@@ -610,19 +534,12 @@ public class SpellUtils {
 						// Adding shield:
 						target.setShielded(true);
 						// Adding packet with SFX buff:
-						SrvAttachSFX packet = new SrvAttachSFX();
-						packet.SFXIndex = SFXIndexes.SHIELD_BUFF.getSFXIndex();
-						packet.entityIndex = target.getEntityIndex();
-						packet.duration = this.getEfficiency()*caster.getDamageModificator();
-						game.addSFXPacket(packet);
+						game.attachSFX(SFXIndexes.SHIELD_BUFF.getSFXIndex(),
+							target.getEntityIndex(), this.getEfficiency()*caster.getDamageModificator());
 						
 						// Removing shield:
-						target.scheduleEvent(new ScheduledEvent(new Runnable() {
-							@Override
-							public void run() {
-								target.setShielded(false);
-							}
-						}, false, this.getEfficiency()*caster.getDamageModificator()));
+						target.scheduleEffectRemoval(StatusEffect.SHIELD,
+							this.getEfficiency()*caster.getDamageModificator());
 					}
 					
 					validateSpellCast(caster);
@@ -637,16 +554,12 @@ public class SpellUtils {
 				
 				if(target != null) {
 					// Creating pulse around the target:
-					game.getExplosionParticles().add(new ExplosionParticles
-						(game,caster,ExplosionType.PULSE,
-						target.getPlayerBody().getPosition()));
+					game.addExplosion(caster,ExplosionType.PULSE,
+						target.getPlayerBody().getPosition());
 					
 					// Adding packet with SFX explosion:
-					SrvDisplaySFX packet = new SrvDisplaySFX();
-					packet.SFXIndex = SFXIndexes.PULSE_EXPLOSION.getSFXIndex();
-					packet.x = target.getPlayerBody().getPosition().x;
-					packet.y = target.getPlayerBody().getPosition().y;
-					game.addSFXPacket(packet);
+					game.displaySFX(SFXIndexes.PULSE_EXPLOSION.getSFXIndex(),
+						target.getPlayerBody().getPosition());
 				}
 				
 				validateSpellCast(caster);
@@ -664,19 +577,12 @@ public class SpellUtils {
 					target.setConfused(true);
 					target.setLastDamageDealer(caster);
 					// Adding packet with SFX buff:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.CONFUSION_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration = this.getEfficiency()*caster.getDamageModificator();
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.CONFUSION_BUFF.getSFXIndex(),
+						target.getEntityIndex(), this.getEfficiency()*caster.getDamageModificator());
 					
 					// Removing confusion:
-					target.scheduleEvent(new ScheduledEvent(new Runnable() {
-						@Override
-						public void run() {
-							target.setConfused(false);
-						}
-					}, false, this.getEfficiency()*caster.getDamageModificator()));
+					target.scheduleEffectRemoval(StatusEffect.CONFUSION,
+						this.getEfficiency()*caster.getDamageModificator());
 				}
 				validateSpellCast(caster);
 			}
@@ -693,19 +599,12 @@ public class SpellUtils {
 					target.paralyzePlayer(true);
 					target.setLastDamageDealer(caster);
 					// Adding packet with SFX buff:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.SILENCE_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration = this.getEfficiency()*caster.getDamageModificator();
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.SILENCE_BUFF.getSFXIndex(),
+						target.getEntityIndex(), this.getEfficiency()*caster.getDamageModificator());
 					
 					// Removing effect:
-					target.scheduleEvent(new ScheduledEvent(new Runnable() {
-						@Override
-						public void run() {
-							target.paralyzePlayer(false);
-						}
-					}, false, this.getEfficiency()*caster.getDamageModificator()));
+					target.scheduleEffectRemoval(StatusEffect.SILENCE,
+						this.getEfficiency()*caster.getDamageModificator());
 				}
 				validateSpellCast(caster);
 			}
@@ -718,15 +617,11 @@ public class SpellUtils {
 			public void cast(int entityIndex, Game game, Player caster,
 					Shape shape,Vector2 position) {
 				// Creating earthquake:
-				game.getExplosionParticles().add(new ExplosionParticles
-					(game,caster,ExplosionType.QUAKE,
-					caster.getPlayerBody().getPosition()));
+				game.addExplosion(caster,ExplosionType.QUAKE,
+					caster.getPlayerBody().getPosition());
 				// Adding packet with SFX explosion:
-				SrvDisplaySFX packet = new SrvDisplaySFX();
-				packet.SFXIndex = SFXIndexes.QUAKE_EXPLOSION.getSFXIndex();
-				packet.x = caster.getPlayerBody().getPosition().x;
-				packet.y = caster.getPlayerBody().getPosition().y;
-				game.addSFXPacket(packet);
+				game.displaySFX(SFXIndexes.QUAKE_EXPLOSION.getSFXIndex(),
+					caster.getPlayerBody().getPosition());
 				
 				validateSpellCast(caster);
 			}
@@ -741,36 +636,26 @@ public class SpellUtils {
 					sin = MathUtils.sinDeg(angle);
 				
 				// Setting destination:
-				Vector2 poisonDestination = new Vector2(position);
+				float destinationX = position.x, destinationY = position.y;
 				// Setting actual spell position:
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 150f;
-				fixtureDefinition.isSensor = true;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.SENSOR_PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.POISON,game,shape,position,
+					0.25f,150f,0f,true,BodyBehavior.SENSOR_PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(100f*cos,100f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new Poison
-					(entityIndex,projectile,caster,poisonDestination));
+				// Launching the projectile object attached to the body (created with new bodies):
+				Poison poison = projectile.getUserData() == null
+					? new Poison(projectile) : (Poison)projectile.getUserData();
+				poison.launch(entityIndex, caster, destinationX, destinationY);
 
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(poison);
 				
 				validateSpellCast(caster, angle);
 			}
@@ -787,64 +672,53 @@ public class SpellUtils {
 				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
-				// Creating body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.25f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 200f;
-				fixtureDefinition.restitution = 0.6f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.PROJECTILE);
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.ENTANGLE,game,shape,position,
+					0.25f,200f,0.6f,false,BodyBehavior.PROJECTILE);
 				
 				// Applying force to the projectile:
 				projectile.applyLinearImpulse(position.set(400f*cos,400f*sin),
 					projectile.getWorldCenter(),true);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new Entangle(entityIndex,projectile,caster));
-				
+				// Launching the projectile object attached to the body (created with new bodies):
+				Entangle entangle = projectile.getUserData() == null
+					? new Entangle(projectile) : (Entangle)projectile.getUserData();
+				entangle.launch(entityIndex, caster);
+
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(entangle);
 				
 				validateSpellCast(caster, angle);
 			}
 		}, CURE(SpellType.EARTH.getIndex(),3,(byte)-1,
 			PlayerState.CAST2,1/6f,18.5f) {
 			@Override
-			public void cast(int entityIndex, Game game,final Player caster,
+			public void cast(int entityIndex, Game game,Player caster,
 					Shape shape,Vector2 position) {
 				// Finding target nearest to the cursor:
-				final Player target = game.getNearestPlayer(position);
+				Player target = game.getNearestPlayer(position);
 				
 				if(target != null) {
 					// Applying healing buff:
-					target.scheduleEvent(new ScheduledEvent(new Runnable() {
-						@Override
-						public void run() {
-							// Adding health:
-							target.modifyHealth(caster, Spell.CURE.getEfficiency(),
-								false, false);
-						}
-					}, true, 6f*caster.getDamageModificator()));
+					target.scheduleEvent(game.obtainEvent(this).setPlayers(caster, target),
+						true, 6f*caster.getDamageModificator());
 					// Trying to remove a curse:
 					target.healCurse(0.6f*caster.getDamageModificator());
 					
 					// Adding packet with SFX healing:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.CURE_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration = 6f*caster.getDamageModificator();
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.CURE_BUFF.getSFXIndex(),
+						target.getEntityIndex(), 6f*caster.getDamageModificator());
 				}
 				
 				validateSpellCast(caster);
 			}
+			
+			@Override
+			public void handle(GameEvent event) {
+				// Adding health:
+				event.getTarget().modifyHealth(event.getPlayer(), this.getEfficiency(),
+					false, false);
+			}
 		}, HOMING_ARROW(SpellType.EARTH.getIndex(),4,(byte)9,
 			PlayerState.CAST1,-10f,9.5f) {
 			@Override
@@ -862,27 +736,17 @@ public class SpellUtils {
 					position.set(caster.getPlayerBody().getPosition().x + cos,
 						caster.getPlayerBody().getPosition().y + sin);
 					
-					// Creating body:
-					Body projectile = game.getBox2DWorld().createBody
-						(getDefaultProjectileBodyDef(position));
-					
-					// Creating fixture definition:
-					shape.setRadius(0.25f);
-					FixtureDef fixtureDefinition = new FixtureDef();
-					fixtureDefinition.shape = shape;
-					fixtureDefinition.density = 200f;
-					fixtureDefinition.restitution = 0.6f;
-					
-					// Creating fixture:
-					projectile.createFixture(fixtureDefinition)
-						.setUserData(BodyBehavior.SEEKING_PROJECTILE);
+					// Creating body (or reusing a pooled one):
+					Body projectile = createProjectileBody(Spell.HOMING_ARROW,game,shape,position,
+						0.25f,200f,0.6f,false,BodyBehavior.SEEKING_PROJECTILE);
 					
-					// Creating a projectile object, so that it could be updated:
-					projectile.setUserData(new HomingArrow(entityIndex,
-							projectile,caster,target));
+					// Launching the projectile object attached to the body (created with new bodies):
+					HomingArrow arrow = projectile.getUserData() == null
+						? new HomingArrow(projectile) : (HomingArrow)projectile.getUserData();
+					arrow.launch(entityIndex, caster, target);
 					
 					// Adding projectile to the list:
-					game.getProjectiles().add((Projectile)projectile.getUserData());
+					game.getProjectiles().add(arrow);
 					
 					validateSpellCast(caster, angle);
 				}
@@ -913,7 +777,7 @@ public class SpellUtils {
 					*caster.getDamageModificator(),LogicUtils.getPlayerAngle(angle));
 				
 				// Adding the summon to the game's characters list:
-				game.getCharacters().add(minotaur);
+				game.addCharacter(minotaur);
 				
 				// Telling all players that a new character has been summoned:
 				SrvCreateCharacter characterPacket = new SrvCreateCharacter();
@@ -947,31 +811,21 @@ public class SpellUtils {
 						position.set(caster.getPlayerBody().getPosition().x
 							+ cos,caster.getPlayerBody().getPosition().y + sin);
 						
-						// Creating body:
-						Body projectile = game.getBox2DWorld().createBody
-							(getDefaultProjectileBodyDef(position));
-						
-						// Creating fixture definition:
-						shape.setRadius(0.1f);
-						FixtureDef fixtureDefinition = new FixtureDef();
-						fixtureDefinition.shape = shape;
-						fixtureDefinition.density = 200f;
-						fixtureDefinition.restitution = 0.6f;
-						
-						// Creating fixture:
-						projectile.createFixture(fixtureDefinition)
-							.setUserData(BodyBehavior.SEEKING_PROJECTILE);
+						// Creating body (or reusing a pooled one):
+						Body projectile = createProjectileBody(Spell.THORNS,game,shape,position,
+							0.1f,200f,0.6f,false,BodyBehavior.SEEKING_PROJECTILE);
 						
 						// Applying force to the projectile:
 						projectile.applyLinearImpulse(position.set(150f*cos,150f*sin),
 							projectile.getWorldCenter(),true);
 						
-						// Creating a projectile object, so that it could be updated:
-						projectile.setUserData(new Thorn(game
-							.getUniqueEntityIndex(),projectile,caster));
+						// Launching the projectile object attached to the body (created with new bodies):
+						Thorn thorn = projectile.getUserData() == null
+							? new Thorn(projectile) : (Thorn)projectile.getUserData();
+						thorn.launch(game.getUniqueEntityIndex(), caster);
 						
 						// Adding projectile to the list:
-						game.getProjectiles().add((Projectile)projectile.getUserData());
+						game.getProjectiles().add(thorn);
 					}
 					
 					validateSpellCast(caster, angle+60f);
@@ -982,36 +836,34 @@ public class SpellUtils {
 		HASTE(SpellType.AIR.getIndex(),0,(byte)-1,
 			PlayerState.CAST2,2000f,8f) {
 			@Override
-			public void cast(int entityIndex, Game game,final Player caster,
+			public void cast(int entityIndex, Game game,Player caster,
 					Shape shape,Vector2 position) {
 				// Finding target nearest to the cursor:
-				final Player target = game.getNearestPlayer(position);
+				Player target = game.getNearestPlayer(position);
 				
 				if(target != null) {
 					// Calculating speed bonus:
-					final float speedBonus = this.getEfficiency()*caster.getDamageModificator();
+					float speedBonus = this.getEfficiency()*caster.getDamageModificator();
 					
 					// Applying speed buff:
 					target.modifySpeed(speedBonus);
 	
 					// Adding packet with SFX healing:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.HASTE_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration = 4.5f*caster.getDamageModificator();
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.HASTE_BUFF.getSFXIndex(),
+						target.getEntityIndex(), 4.5f*caster.getDamageModificator());
 					
-					target.scheduleEvent(new ScheduledEvent(new Runnable() {
-						@Override
-						public void run() {
-							// Lowering speed:
-							target.modifySpeed(-speedBonus);
-						}
-					}, false, 4.5f*caster.getDamageModificator()));
+					target.scheduleEvent(game.obtainEvent(this).setPlayers(target, null)
+						.setValue(0, speedBonus), false, 4.5f*caster.getDamageModificator());
 				}
 				
 				validateSpellCast(caster);
 			}
+			
+			@Override
+			public void handle(GameEvent event) {
+				// Lowering speed:
+				event.getPlayer().modifySpeed(-event.getValue());
+			}
 		}, LEAP(SpellType.AIR.getIndex(),1,(byte)-1,
 			PlayerState.CAST2,30000f,7.5f) {
 			@Override
@@ -1026,67 +878,54 @@ public class SpellUtils {
 					MathUtils.sinDeg(angle)*this.getEfficiency()*caster.getDamageModificator(), true);
 
 				// Adding packet with SFX leap:
-				SrvDisplaySFX packet = new SrvDisplaySFX();
-				packet.SFXIndex = SFXIndexes.LEAP_CAST.getSFXIndex();
-				packet.x = caster.getPlayerBody().getPosition().x;
-				packet.y = caster.getPlayerBody().getPosition().y;
-				game.addSFXPacket(packet);
+				game.displaySFX(SFXIndexes.LEAP_CAST.getSFXIndex(),
+					caster.getPlayerBody().getPosition());
 				
 				validateSpellCast(caster, angle);
 			}
 		}, LIGHTNING_BOLT(SpellType.AIR.getIndex(),2,(byte)6,
 			PlayerState.CAST1,-17.5f,7.5f) {
 			@Override
-			public void cast(final int entityIndex,final Game game,
-					final Player caster,final Shape shape,Vector2 position) {
+			public void cast(int entityIndex,Game game,
+					Player caster,Shape shape,Vector2 position) {
 				// Calculating angle and its cos&sin:
-				final float angle = (float)LogicUtils.getAngle(caster.getPlayerBody()
+				float angle = (float)LogicUtils.getAngle(caster.getPlayerBody()
 					.getPosition(), position), cos = MathUtils.cosDeg(angle),
 					sin = MathUtils.sinDeg(angle);
 				// Setting actual spell position:
-				final Vector2 spellCastPosition = new Vector2(caster.getPlayerBody().getPosition().x + cos,
+				position.set(caster.getPlayerBody().getPosition().x + cos,
 					caster.getPlayerBody().getPosition().y + sin);
 				
 				// Adding packet with SFX cast:
-				SrvDisplaySFX packet = new SrvDisplaySFX();
-				packet.SFXIndex = SFXIndexes.LIGHTNING_CAST.getSFXIndex();
-				packet.x = spellCastPosition.x;
-				packet.y = spellCastPosition.y;
-				game.addSFXPacket(packet);
+				game.displaySFX(SFXIndexes.LIGHTNING_CAST.getSFXIndex(), position);
 				
 				// Scheduling actual lighting cast:
-				game.scheduleEvent(new ScheduledEvent(new Runnable() {
-					@Override
-					public void run() {
-						// Creating body:
-						Body projectile = game.getBox2DWorld().createBody
-							(getDefaultProjectileBodyDef(spellCastPosition));
-						
-						// Creating fixture definition:
-						shape.setRadius(0.3f);
-						FixtureDef fixtureDefinition = new FixtureDef();
-						fixtureDefinition.shape = shape;
-						fixtureDefinition.density = 150f;
-						fixtureDefinition.restitution = 1f;
-						
-						// Creating fixture:
-						projectile.createFixture(fixtureDefinition)
-							.setUserData(BodyBehavior.BOUNCING_PROJECTILE);
-						
-						// Applying force to the projectile:
-						projectile.applyLinearImpulse(spellCastPosition.set(1200f*cos,1200f*sin),
-							projectile.getWorldCenter(),true);
-						
-						// Creating a projectile object, so that it could be updated:
-						projectile.setUserData(new LightningBolt(entityIndex,projectile,caster));
-
-						// Adding projectile to the list:
-						game.getProjectiles().add((Projectile)projectile.getUserData());
-					}
-				}, false, 0.8f));
+				game.scheduleEvent(game.obtainEvent(this).setPlayers(caster, null)
+					.setPosition(position.x, position.y).setValue(entityIndex, angle), false, 0.8f);
 				
 				validateSpellCast(caster, angle);
 			}
+			
+			@Override
+			public void handle(GameEvent event) {
+				Game game = event.getPlayer().getGame();
+				Vector2 position = event.getPosition();
+				// Creating body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.LIGHTNING_BOLT,game,game.getCircleShape(),
+					position,0.3f,150f,1f,false,BodyBehavior.BOUNCING_PROJECTILE);
+				
+				// Applying force to the projectile:
+				projectile.applyLinearImpulse(position.set(1200f*MathUtils.cosDeg(event.getValue()),
+					1200f*MathUtils.sinDeg(event.getValue())),projectile.getWorldCenter(),true);
+				
+				// Launching the projectile object attached to the body (created with new bodies):
+				LightningBolt lightningBolt = projectile.getUserData() == null
+					? new LightningBolt(projectile) : (LightningBolt)projectile.getUserData();
+				lightningBolt.launch(event.getIndex(), event.getPlayer());
+
+				// Adding projectile to the list:
+				game.getProjectiles().add(lightningBolt);
+			}
 		}, TORNADO(SpellType.AIR.getIndex(),3,(byte)7,
 			PlayerState.CAST2,-7f,9.5f) {
 			@Override
@@ -1096,26 +935,17 @@ public class SpellUtils {
 				float angle = (float)LogicUtils.getAngle(caster.getPlayerBody()
 						.getPosition(), position);
 				
-				// Creating projectile body:
-				Body projectile = game.getBox2DWorld().createBody
-					(getDefaultProjectileBodyDef(position));
-				
-				// Creating fixture definition:
-				shape.setRadius(0.4f);
-				FixtureDef fixtureDefinition = new FixtureDef();
-				fixtureDefinition.shape = shape;
-				fixtureDefinition.density = 400f;
-				fixtureDefinition.restitution = 0.3f;
-				
-				// Creating fixture:
-				projectile.createFixture(fixtureDefinition)
-					.setUserData(BodyBehavior.BOUNCING_PROJECTILE);
+				// Creating projectile body (or reusing a pooled one):
+				Body projectile = createProjectileBody(Spell.TORNADO,game,shape,position,
+					0.4f,400f,0.3f,false,BodyBehavior.BOUNCING_PROJECTILE);
 				
-				// Creating a projectile object, so that it could be updated:
-				projectile.setUserData(new Tornado(entityIndex,projectile,caster));
-	
+				// Launching the projectile object attached to the body (created with new bodies):
+				Tornado tornado = projectile.getUserData() == null
+					? new Tornado(projectile) : (Tornado)projectile.getUserData();
+				tornado.launch(entityIndex, caster);
+
 				// Adding projectile to the list:
-				game.getProjectiles().add((Projectile)projectile.getUserData());
+				game.getProjectiles().add(tornado);
 				
 				validateSpellCast(caster, angle);
 			}
@@ -1147,16 +977,10 @@ public class SpellUtils {
 						target.setTeleported(true);
 						
 						// Adding packet with SFX cast for both players:
-						SrvDisplaySFX casterPacket = new SrvDisplaySFX();
-						casterPacket.SFXIndex = SFXIndexes.SWAP_CAST.getSFXIndex();
-						casterPacket.x = caster.getPlayerBody().getPosition().x;
-						casterPacket.y = caster.getPlayerBody().getPosition().y;
-						game.addSFXPacket(casterPacket);
-						SrvDisplaySFX targetPacket = new SrvDisplaySFX();
-						targetPacket.SFXIndex = SFXIndexes.SWAP_CAST.getSFXIndex();
-						targetPacket.x = target.getPlayerBody().getPosition().x;
-						targetPacket.y = target.getPlayerBody().getPosition().y;
-						game.addSFXPacket(targetPacket);
+						game.displaySFX(SFXIndexes.SWAP_CAST.getSFXIndex(),
+							caster.getPlayerBody().getPosition());
+						game.displaySFX(SFXIndexes.SWAP_CAST.getSFXIndex(),
+							target.getPlayerBody().getPosition());
 					}
 				}
 				
@@ -1176,7 +1000,8 @@ public class SpellUtils {
 					float radius = this.getEfficiency() * caster.getDamageModificator(),
 							totalVelocity,angle;
 					// Checking if any projectiles are around the player:
-					for(Projectile projectile : game.getProjectiles()) {
+					for(int i=0; i<game.getProjectiles().size(); i++) {
+						Projectile projectile = game.getProjectiles().get(i);
 						if(LogicUtils.getDistance(target.getPlayerBody()
 							.getPosition(), projectile.getProjectileBody()
 							.getPosition()) <= radius) {
@@ -1197,11 +1022,8 @@ public class SpellUtils {
 					}
 					
 					// Adding packet with SFX:
-					SrvAttachSFX packet = new SrvAttachSFX();
-					packet.SFXIndex = SFXIndexes.TAUNT_BUFF.getSFXIndex();
-					packet.entityIndex = target.getEntityIndex();
-					packet.duration = -1f;
-					game.addSFXPacket(packet);
+					game.attachSFX(SFXIndexes.TAUNT_BUFF.getSFXIndex(),
+						target.getEntityIndex(), -1f);
 				}
 				
 				validateSpellCast(caster);
@@ -1238,17 +1060,11 @@ public class SpellUtils {
 							MathUtils.sinDeg(angle)*this.getEfficiency()*caster.getDamageModificator(), true);
 						
 						// Adding packet with SFX:
-						SrvDisplaySFX firstPacket = new SrvDisplaySFX();
-						firstPacket.SFXIndex = SFXIndexes.LEAP_CAST.getSFXIndex();
-						firstPacket.x = firstTarget.getPlayerBody().getPosition().x;
-						firstPacket.y = firstTarget.getPlayerBody().getPosition().y;
-						game.addSFXPacket(firstPacket);
+						game.displaySFX(SFXIndexes.LEAP_CAST.getSFXIndex(),
+							firstTarget.getPlayerBody().getPosition());
 						
-						SrvDisplaySFX secondPacket = new SrvDisplaySFX();
-						secondPacket.SFXIndex = SFXIndexes.LEAP_CAST.getSFXIndex();
-						secondPacket.x = secondTarget.getPlayerBody().getPosition().x;
-						secondPacket.y = secondTarget.getPlayerBody().getPosition().y;
-						game.addSFXPacket(secondPacket);
+						game.displaySFX(SFXIndexes.LEAP_CAST.getSFXIndex(),
+							secondTarget.getPlayerBody().getPosition());
 					}
 				}
 				
@@ -1350,6 +1166,52 @@ public class SpellUtils {
 		public abstract void cast(int entityIndex,Game game,Player caster,
 				Shape shape,Vector2 position);
 		
+		/**
+		 * Runs delayed effects of the spell. Spells schedule the game's pooled events
+		 * instead of creating new runnables with each cast - the events keep the cast's data.
+		 * Spells without delayed effects ignore the events.
+		 * @param event scheduled event of the spell.
+		 */
+		@Override
+		public void handle(GameEvent event) {
+		}
+		
+		/**
+		 * Obtains a deactivated body of the spell from the game's pool or creates a new one.
+		 * @param spell spell that creates the projectile. Its bodies have the same fixtures.
+		 * @param game game room.
+		 * @param shape shape used to create the fixture.
+		 * @param position initial position of the projectile.
+		 * @param radius radius of the projectile.
+		 * @param density density of the fixture.
+		 * @param restitution restitution of the fixture.
+		 * @param isSensor true if the projectile does not collide.
+		 * @param behavior behavior of the projectile's fixture.
+		 * @return projectile's body.
+		 */
+		private static Body createProjectileBody(Spell spell,Game game,Shape shape,Vector2 position,
+			float radius,float density,float restitution,boolean isSensor,BodyBehavior behavior) {
+			Body projectile = game.getBodyPool().obtain(spell.ordinal(), position, 0f);
+			if(projectile == null) {
+				projectile = game.getBox2DWorld().createBody(getDefaultProjectileBodyDef(position));
+				
+				// Creating fixture definition:
+				shape.setRadius(radius);
+				FixtureDef fixtureDefinition = new FixtureDef();
+				fixtureDefinition.shape = shape;
+				fixtureDefinition.density = density;
+				fixtureDefinition.restitution = restitution;
+				fixtureDefinition.isSensor = isSensor;
+				
+				// Filtering out contacts ignored by the game logic:
+				behavior.applyFilter(fixtureDefinition);
+				
+				// Creating fixture:
+				projectile.createFixture(fixtureDefinition).setUserData(behavior);
+			}
+			return projectile;
+		}
+		
 		/**
 		 * Returns a definition of a dynamic body with fixed rotation.
 		 * @param position position of the body.
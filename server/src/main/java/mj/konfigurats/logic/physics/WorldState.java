@@ -0,0 +1,325 @@
+package mj.konfigurats.logic.physics;
+
+import java.util.Arrays;
+import java.util.List;
+
+import mj.konfigurats.logic.entities.EntityArray;
+import mj.konfigurats.logic.entities.Player;
+import mj.konfigurats.logic.entities.Projectile;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+/**
+ * Keeps the current state of characters and projectiles in primitive arrays, so the game
+ * logic doesn't have to ask Box2D bodies for their positions and velocities over and over
+ * again. Captured after each world step - entities are given dense indexes, valid until
+ * the next capture. Entities created after the capture are appended with their current
+ * bodies' data when their index is requested. Holds the previous step's data during the
+ * world step, so contact callbacks should read the bodies directly. Should be used only by
+ * the game thread.
+ * @author MJ
+ */
+public class WorldState {
+	// Characters data:
+	private Player[] characters;
+	private int charactersAmount;
+	private float[] charactersX,charactersY,charactersVelocityX,charactersVelocityY,
+		charactersHealth;
+	private byte[] charactersStates,charactersDirections;
+	private int[] charactersTeams;
+	// Projectiles data:
+	private Projectile[] projectiles;
+	private int projectilesAmount;
+	private float[] projectilesX,projectilesY,projectilesVelocityX,projectilesVelocityY;
+
+	/**
+	 * @param charactersCapacity expected amount of characters.
+	 * @param projectilesCapacity expected amount of projectiles.
+	 */
+	public WorldState(int charactersCapacity,int projectilesCapacity) {
+		resizeCharacters(Math.max(1, charactersCapacity));
+		resizeProjectiles(Math.max(1, projectilesCapacity));
+	}
+
+	/**
+	 * Replaces stored data with the current state of the entities. Should be called
+	 * after each world step.
+	 * @param characters current characters.
+	 * @param projectiles current projectiles.
+	 */
+	public void update(List<Player> characters,EntityArray<Projectile> projectiles) {
+		Arrays.fill(this.characters, 0, charactersAmount, null);
+		Arrays.fill(this.projectiles, 0, projectilesAmount, null);
+		charactersAmount = projectilesAmount = 0;
+		for(int i=0, size=characters.size(); i<size; i++) {
+			addCharacter(characters.get(i));
+		}
+		for(int i=0, size=projectiles.size(); i<size; i++) {
+			addProjectile(projectiles.get(i));
+		}
+	}
+
+	/**
+	 * Refreshes characters' data that is changed by the entities' updates rather than
+	 * the world step: animations, directions and health. Should be called before sending
+	 * the stored state to the players.
+	 */
+	public void refreshCharacters() {
+		for(int i=0; i<charactersAmount; i++) {
+			charactersStates[i] = characters[i].getState().getIndex();
+			charactersDirections[i] = characters[i].getDirection();
+			charactersHealth[i] = characters[i].getCurrentHealthPercent();
+		}
+	}
+
+	/**
+	 * @param character a game character.
+	 * @return index of the character's data.
+	 */
+	public int getIndex(Player character) {
+		int index = character.getStateIndex();
+		if(index >= 0 && index < charactersAmount && characters[index] == character) {
+			return index;
+		}
+		return addCharacter(character);
+	}
+
+	/**
+	 * @param projectile a game projectile.
+	 * @return index of the projectile's data.
+	 */
+	public int getIndex(Projectile projectile) {
+		int index = projectile.getStateIndex();
+		if(index >= 0 && index < projectilesAmount && projectiles[index] == projectile) {
+			return index;
+		}
+		return addProjectile(projectile);
+	}
+
+	/**
+	 * @return amount of stored characters, including the ones removed since the capture.
+	 */
+	public int getCharactersAmount() {
+		return charactersAmount;
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return stored character.
+	 */
+	public Player getCharacter(int index) {
+		return characters[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return character's position x.
+	 */
+	public float getCharacterX(int index) {
+		return charactersX[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return character's position y.
+	 */
+	public float getCharacterY(int index) {
+		return charactersY[index];
+	}
+
+	/**
+	 * @param character a game character.
+	 * @param result will contain the character's position.
+	 * @return result, for chaining.
+	 */
+	public Vector2 getPosition(Player character,Vector2 result) {
+		int index = getIndex(character);
+		return result.set(charactersX[index], charactersY[index]);
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return character's linear velocity x.
+	 */
+	public float getCharacterVelocityX(int index) {
+		return charactersVelocityX[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return character's linear velocity y.
+	 */
+	public float getCharacterVelocityY(int index) {
+		return charactersVelocityY[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return character's health percent.
+	 */
+	public float getCharacterHealth(int index) {
+		return charactersHealth[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return index of the character's animation.
+	 */
+	public byte getCharacterState(int index) {
+		return charactersStates[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return direction that the character is facing.
+	 */
+	public byte getCharacterDirection(int index) {
+		return charactersDirections[index];
+	}
+
+	/**
+	 * @param index index of the character's data.
+	 * @return character's team index.
+	 */
+	public int getCharacterTeam(int index) {
+		return charactersTeams[index];
+	}
+
+	/**
+	 * @return amount of stored projectiles, including the ones removed since the capture.
+	 */
+	public int getProjectilesAmount() {
+		return projectilesAmount;
+	}
+
+	/**
+	 * @param index index of the projectile's data.
+	 * @return stored projectile.
+	 */
+	public Projectile getProjectile(int index) {
+		return projectiles[index];
+	}
+
+	/**
+	 * @param index index of the projectile's data.
+	 * @return projectile's position x.
+	 */
+	public float getProjectileX(int index) {
+		return projectilesX[index];
+	}
+
+	/**
+	 * @param index index of the projectile's data.
+	 * @return projectile's position y.
+	 */
+	public float getProjectileY(int index) {
+		return projectilesY[index];
+	}
+
+	/**
+	 * @param projectile a game projectile.
+	 * @param result will contain the projectile's position.
+	 * @return result, for chaining.
+	 */
+	public Vector2 getPosition(Projectile projectile,Vector2 result) {
+		int index = getIndex(projectile);
+		return result.set(projectilesX[index], projectilesY[index]);
+	}
+
+	/**
+	 * @param index index of the projectile's data.
+	 * @return projectile's linear velocity x.
+	 */
+	public float getProjectileVelocityX(int index) {
+		return projectilesVelocityX[index];
+	}
+
+	/**
+	 * @param index index of the projectile's data.
+	 * @return projectile's linear velocity y.
+	 */
+	public float getProjectileVelocityY(int index) {
+		return projectilesVelocityY[index];
+	}
+
+	private int addCharacter(Player character) {
+		int index = charactersAmount++;
+		if(index == characters.length) {
+			resizeCharacters(index*2);
+		}
+		Body body = character.getPlayerBody();
+		Vector2 vector = body.getPosition();
+		charactersX[index] = vector.x;
+		charactersY[index] = vector.y;
+		vector = body.getLinearVelocity();
+		charactersVelocityX[index] = vector.x;
+		charactersVelocityY[index] = vector.y;
+		charactersHealth[index] = character.getCurrentHealthPercent();
+		charactersStates[index] = character.getState().getIndex();
+		charactersDirections[index] = character.getDirection();
+		charactersTeams[index] = character.getTeamIndex();
+		characters[index] = character;
+		character.setStateIndex(index);
+		return index;
+	}
+
+	private int addProjectile(Projectile projectile) {
+		int index = projectilesAmount++;
+		if(index == projectiles.length) {
+			resizeProjectiles(index*2);
+		}
+		Body body = projectile.getProjectileBody();
+		Vector2 vector = body.getPosition();
+		projectilesX[index] = vector.x;
+		projectilesY[index] = vector.y;
+		vector = body.getLinearVelocity();
+		projectilesVelocityX[index] = vector.x;
+		projectilesVelocityY[index] = vector.y;
+		projectiles[index] = projectile;
+		projectile.setStateIndex(index);
+		return index;
+	}
+
+	private void resizeCharacters(int capacity) {
+		if(characters == null) {
+			characters = new Player[capacity];
+			charactersX = new float[capacity];
+			charactersY = new float[capacity];
+			charactersVelocityX = new float[capacity];
+			charactersVelocityY = new float[capacity];
+			charactersHealth = new float[capacity];
+			charactersStates = new byte[capacity];
+			charactersDirections = new byte[capacity];
+			charactersTeams = new int[capacity];
+		}
+		else {
+			characters = Arrays.copyOf(characters, capacity);
+			charactersX = Arrays.copyOf(charactersX, capacity);
+			charactersY = Arrays.copyOf(charactersY, capacity);
+			charactersVelocityX = Arrays.copyOf(charactersVelocityX, capacity);
+			charactersVelocityY = Arrays.copyOf(charactersVelocityY, capacity);
+			charactersHealth = Arrays.copyOf(charactersHealth, capacity);
+			charactersStates = Arrays.copyOf(charactersStates, capacity);
+			charactersDirections = Arrays.copyOf(charactersDirections, capacity);
+			charactersTeams = Arrays.copyOf(charactersTeams, capacity);
+		}
+	}
+
+	private void resizeProjectiles(int capacity) {
+		if(projectiles == null) {
+			projectiles = new Projectile[capacity];
+			projectilesX = new float[capacity];
+			projectilesY = new float[capacity];
+			projectilesVelocityX = new float[capacity];
+			projectilesVelocityY = new float[capacity];
+		}
+		else {
+			projectiles = Arrays.copyOf(projectiles, capacity);
+			projectilesX = Arrays.copyOf(projectilesX, capacity);
+			projectilesY = Arrays.copyOf(projectilesY, capacity);
+			projectilesVelocityX = Arrays.copyOf(projectilesVelocityX, capacity);
+			projectilesVelocityY = Arrays.copyOf(projectilesVelocityY, capacity);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package mj.konfigurats.logic.snapshots;
+
+import com.badlogic.gdx.utils.IntSet;
+
+/**
+ * Part of the world that is sent to a single player. Contains entities within a radius
+ * of the player's character and all of the player's teammates. Entities enter the area
+ * within the radius and leave it only after moving further than the radius multiplied by
+ * the hysteresis, so they do not flicker at its edge. Characters that left the area stay
+ * frozen at their last sent position, so the client does not consider them removed. Keeps
+ * its own views history, since the player's updates are compared against the views that
+ * were actually sent. Should be used only by the game thread.
+ * @author MJ
+ */
+public class InterestArea {
+	private final static float HYSTERESIS=1.25f;
+	private final SnapshotHistory views;
+	// Entities currently sent with their up-to-date data:
+	private final IntSet entitiesInRange;
+
+	public InterestArea() {
+		views = new SnapshotHistory();
+		entitiesInRange = new IntSet();
+	}
+
+	/**
+	 * @return views sent to the player.
+	 */
+	public SnapshotHistory getViews() {
+		return views;
+	}
+
+	/**
+	 * Prepares a view that contains the whole world.
+	 * @param world current world state.
+	 * @return player's view of the current update.
+	 */
+	public WorldSnapshot update(WorldSnapshot world) {
+		WorldSnapshot view = views.next(world.getUpdateIndex());
+		entitiesInRange.clear();
+		for(int i=0, amount=world.getCharactersAmount(); i<amount; i++) {
+			view.copyCharacter(world, i);
+			entitiesInRange.add(world.getCharacterIndex(i));
+		}
+		for(int i=0, amount=world.getProjectilesAmount(); i<amount; i++) {
+			view.copyProjectile(world, i);
+			entitiesInRange.add(world.getProjectileIndex(i));
+		}
+		return view;
+	}
+
+	/**
+	 * Prepares a view that contains entities within the radius of the position.
+	 * @param world current world state.
+	 * @param x center of the area.
+	 * @param y center of the area.
+	 * @param teamIndex player's team index or a negative number. Teammates are always sent.
+	 * @param radius entities closer than this distance enter the area.
+	 * @return player's view of the current update.
+	 */
+	public WorldSnapshot update(WorldSnapshot world,float x,float y,int teamIndex,float radius) {
+		WorldSnapshot previous = views.get(world.getUpdateIndex()-1);
+		WorldSnapshot view = views.next(world.getUpdateIndex());
+		float enterDistance2 = radius*radius,
+			leaveDistance2 = enterDistance2*HYSTERESIS*HYSTERESIS;
+
+		// Removing entities that no longer exist:
+		IntSet.IntSetIterator iterator = entitiesInRange.iterator();
+		while(iterator.hasNext) {
+			if(!world.contains(iterator.next())) {
+				iterator.remove();
+			}
+		}
+
+		// Adding characters:
+		for(int i=0, amount=world.getCharactersAmount(); i<amount; i++) {
+			int index = world.getCharacterIndex(i);
+			if(teamIndex >= 0 && world.getCharacterTeam(i) == teamIndex
+				|| isInRange(index, world.getCharacterDistance2(i, x, y),
+					enterDistance2, leaveDistance2)) {
+				view.copyCharacter(world, i);
+				continue;
+			}
+			// Freezing the character at its last sent position:
+			int previousPosition = previous == null ? -1 : previous.findCharacter(index);
+			if(previousPosition >= 0) {
+				view.copyCharacter(previous, previousPosition);
+			}
+		}
+
+		// Adding projectiles:
+		for(int i=0, amount=world.getProjectilesAmount(); i<amount; i++) {
+			if(isInRange(world.getProjectileIndex(i), world.getProjectileDistance2(i, x, y),
+				enterDistance2, leaveDistance2)) {
+				view.copyProjectile(world, i);
+			}
+		}
+		return view;
+	}
+
+	/**
+	 * @param index entity's index.
+	 * @param distance2 squared distance between the entity and the area's center.
+	 * @param enterDistance2 squared distance required to enter the area.
+	 * @param leaveDistance2 squared distance required to leave the area.
+	 * @return true if the entity should be sent with its current data.
+	 */
+	private boolean isInRange(int index,float distance2,float enterDistance2,
+		float leaveDistance2) {
+		if(entitiesInRange.contains(index)) {
+			if(distance2 > leaveDistance2) {
+				entitiesInRange.remove(index);
+				return false;
+			}
+			return true;
+		}
+		if(distance2 <= enterDistance2) {
+			entitiesInRange.add(index);
+			return true;
+		}
+		return false;
+	}
+}
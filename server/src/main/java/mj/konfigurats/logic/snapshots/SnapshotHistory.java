@@ -0,0 +1,42 @@
+package mj.konfigurats.logic.snapshots;
+
+/**
+ * Keeps the last world snapshots of a game room in a ring buffer. Clients acknowledge
+ * the updates they received, so the server can send only the differences between the
+ * current state and the last acknowledged one. Should be used only by the game thread.
+ * @author MJ
+ */
+public class SnapshotHistory {
+	// Has to be a power of 2:
+	public final static int SIZE=32;
+	private final static int MASK=SIZE-1;
+	private final WorldSnapshot[] snapshots;
+
+	public SnapshotHistory() {
+		snapshots = new WorldSnapshot[SIZE];
+		for(int i=0; i<SIZE; i++) {
+			snapshots[i] = new WorldSnapshot();
+		}
+	}
+
+	/**
+	 * Replaces the oldest snapshot.
+	 * @param updateIndex non-negative index of the new update.
+	 * @return an empty snapshot that should be filled with current entities data.
+	 */
+	public WorldSnapshot next(long updateIndex) {
+		return snapshots[(int)(updateIndex & MASK)].clear(updateIndex);
+	}
+
+	/**
+	 * @param updateIndex index of the update.
+	 * @return stored snapshot or null if it was already replaced or never existed.
+	 */
+	public WorldSnapshot get(long updateIndex) {
+		if(updateIndex < 0) {
+			return null;
+		}
+		WorldSnapshot snapshot = snapshots[(int)(updateIndex & MASK)];
+		return snapshot.getUpdateIndex() == updateIndex ? snapshot : null;
+	}
+}
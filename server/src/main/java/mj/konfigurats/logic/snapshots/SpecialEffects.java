@@ -0,0 +1,90 @@
+package mj.konfigurats.logic.snapshots;
+
+import java.util.Arrays;
+
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+
+/**
+ * Special effects requested by the game logic since the last world update. The effects
+ * are sent to all players in a single block of the next update. Should be used only by
+ * the game thread.
+ * @author MJ
+ */
+public class SpecialEffects {
+	private byte[] types;
+	private int[] indexes;
+	private float[] data;
+	private int amount;
+
+	public SpecialEffects() {
+		types = new byte[16];
+		indexes = new int[32];
+		data = new float[32];
+	}
+
+	/**
+	 * @param sfxIndex index of the SFX.
+	 * @param x position x.
+	 * @param y position y.
+	 */
+	public void display(int sfxIndex,float x,float y) {
+		add(SrvUpdateWorld.DISPLAY_SFX, sfxIndex, 0, x, y);
+	}
+
+	/**
+	 * @param sfxIndex index of the SFX.
+	 * @param entityIndex the SFX will be attached to this character.
+	 * @param duration duration of the SFX or a negative number to play its animation once.
+	 */
+	public void attach(int sfxIndex,int entityIndex,float duration) {
+		add(SrvUpdateWorld.ATTACH_SFX, sfxIndex, entityIndex, duration, 0f);
+	}
+
+	/**
+	 * @param entityIndex index of the character falling into the void.
+	 * @param x position x.
+	 * @param y position y.
+	 */
+	public void setFalling(int entityIndex,float x,float y) {
+		add(SrvUpdateWorld.ENTITY_FALLING, 0, entityIndex, x, y);
+	}
+
+	/**
+	 * @param type type of the effect.
+	 * @param sfxIndex index of the SFX.
+	 * @param entityIndex index of the entity.
+	 * @param first first value of the effect's data.
+	 * @param second second value of the effect's data.
+	 */
+	private void add(byte type,int sfxIndex,int entityIndex,float first,float second) {
+		if(amount == types.length) {
+			types = Arrays.copyOf(types, amount*2);
+			indexes = Arrays.copyOf(indexes, amount*4);
+			data = Arrays.copyOf(data, amount*4);
+		}
+		types[amount] = type;
+		indexes[amount*2] = sfxIndex;
+		indexes[amount*2+1] = entityIndex;
+		data[amount*2] = first;
+		data[amount*2+1] = second;
+		amount++;
+	}
+
+	/**
+	 * @param packet will contain current effects. Arrays are shared, so the packet
+	 * should be encoded before the effects are cleared.
+	 */
+	public void writeUpdate(SrvUpdateWorld packet) {
+		packet.effectTypes = types;
+		packet.effectIndexes = indexes;
+		packet.effectData = data;
+		packet.effectsAmount = amount;
+	}
+
+	/**
+	 * Removes all effects. Should be called after the update is sent.
+	 */
+	public void clear() {
+		amount = 0;
+	}
+}
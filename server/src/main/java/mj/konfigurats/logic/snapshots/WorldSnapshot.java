@@ -0,0 +1,316 @@
+package mj.konfigurats.logic.snapshots;
+
+import java.util.Arrays;
+
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+
+import com.badlogic.gdx.utils.IntIntMap;
+
+/**
+ * State of the game room's entities after a single world update, as seen by the players.
+ * Snapshots are kept by the room's history and reused, so they can serve as baselines
+ * for delta-compressed world updates.
+ * @author MJ
+ */
+public class WorldSnapshot {
+	private long updateIndex;
+
+	// Characters data:
+	private int charactersAmount;
+	private int[] charactersIndexes;
+	private float[] charactersPositions;
+	private byte[] charactersDisplayData;
+	// Not sent to the players:
+	private int[] charactersTeams;
+	// Projectiles data:
+	private int projectilesAmount;
+	private int[] projectileIndexes;
+	private byte[] projectileAnimations;
+	private float[] projectileDisplayData;
+	// Entity index to its position in the arrays:
+	private final IntIntMap charactersLookup,projectilesLookup;
+
+	public WorldSnapshot() {
+		updateIndex = -1;
+		charactersIndexes = new int[16];
+		charactersPositions = new float[32];
+		charactersDisplayData = new byte[32];
+		charactersTeams = new int[16];
+		projectileIndexes = new int[32];
+		projectileAnimations = new byte[32];
+		projectileDisplayData = new float[128];
+		charactersLookup = new IntIntMap();
+		projectilesLookup = new IntIntMap();
+	}
+
+	/**
+	 * Removes all entities from the snapshot.
+	 * @param updateIndex index of the update that will be stored.
+	 * @return this snapshot for chaining.
+	 */
+	WorldSnapshot clear(long updateIndex) {
+		this.updateIndex = updateIndex;
+		charactersAmount = projectilesAmount = 0;
+		charactersLookup.clear();
+		projectilesLookup.clear();
+		return this;
+	}
+
+	/**
+	 * @return index of the stored update or a negative number if empty.
+	 */
+	public long getUpdateIndex() {
+		return updateIndex;
+	}
+
+	/**
+	 * @param index character's entity index.
+	 * @param x position x.
+	 * @param y position y.
+	 * @param direction character's direction.
+	 * @param animation character's animation index.
+	 * @param teamIndex character's team index or a negative number.
+	 */
+	public void addCharacter(int index,float x,float y,byte direction,byte animation,int teamIndex) {
+		if(charactersAmount == charactersIndexes.length) {
+			charactersIndexes = Arrays.copyOf(charactersIndexes, charactersAmount*2);
+			charactersPositions = Arrays.copyOf(charactersPositions, charactersAmount*4);
+			charactersDisplayData = Arrays.copyOf(charactersDisplayData, charactersAmount*4);
+			charactersTeams = Arrays.copyOf(charactersTeams, charactersAmount*2);
+		}
+		charactersIndexes[charactersAmount] = index;
+		charactersPositions[charactersAmount*2] = x;
+		charactersPositions[charactersAmount*2+1] = y;
+		charactersDisplayData[charactersAmount*2] = direction;
+		charactersDisplayData[charactersAmount*2+1] = animation;
+		charactersTeams[charactersAmount] = teamIndex;
+		charactersLookup.put(index, charactersAmount);
+		charactersAmount++;
+	}
+
+	/**
+	 * @param snapshot contains the character.
+	 * @param i position of the character in the snapshot's arrays.
+	 */
+	void copyCharacter(WorldSnapshot snapshot,int i) {
+		addCharacter(snapshot.charactersIndexes[i], snapshot.charactersPositions[i*2],
+			snapshot.charactersPositions[i*2+1], snapshot.charactersDisplayData[i*2],
+			snapshot.charactersDisplayData[i*2+1], snapshot.charactersTeams[i]);
+	}
+
+	/**
+	 * @param snapshot contains the projectile.
+	 * @param i position of the projectile in the snapshot's arrays.
+	 */
+	void copyProjectile(WorldSnapshot snapshot,int i) {
+		addProjectile(snapshot.projectileIndexes[i], snapshot.projectileAnimations[i],
+			snapshot.projectileDisplayData[i*4], snapshot.projectileDisplayData[i*4+1],
+			snapshot.projectileDisplayData[i*4+2], snapshot.projectileDisplayData[i*4+3]);
+	}
+
+	/**
+	 * @param index entity index of a character.
+	 * @return position of the character in the arrays or a negative number if absent.
+	 */
+	int findCharacter(int index) {
+		return charactersLookup.get(index, -1);
+	}
+
+	/**
+	 * @param index entity index of any entity.
+	 * @return true if the snapshot contains a character or a projectile with the index.
+	 */
+	boolean contains(int index) {
+		return charactersLookup.containsKey(index) || projectilesLookup.containsKey(index);
+	}
+
+	/**
+	 * @return amount of stored characters.
+	 */
+	int getCharactersAmount() {
+		return charactersAmount;
+	}
+
+	/**
+	 * @param i position of the character in the arrays.
+	 * @return character's entity index.
+	 */
+	int getCharacterIndex(int i) {
+		return charactersIndexes[i];
+	}
+
+	/**
+	 * @param i position of the character in the arrays.
+	 * @return character's team index.
+	 */
+	int getCharacterTeam(int i) {
+		return charactersTeams[i];
+	}
+
+	/**
+	 * @param i position of the character in the arrays.
+	 * @param x position x.
+	 * @param y position y.
+	 * @return squared distance between the character and the position.
+	 */
+	float getCharacterDistance2(int i,float x,float y) {
+		float distanceX = charactersPositions[i*2]-x, distanceY = charactersPositions[i*2+1]-y;
+		return distanceX*distanceX+distanceY*distanceY;
+	}
+
+	/**
+	 * @return amount of stored projectiles.
+	 */
+	int getProjectilesAmount() {
+		return projectilesAmount;
+	}
+
+	/**
+	 * @param i position of the projectile in the arrays.
+	 * @return projectile's entity index.
+	 */
+	int getProjectileIndex(int i) {
+		return projectileIndexes[i];
+	}
+
+	/**
+	 * @param i position of the projectile in the arrays.
+	 * @param x position x.
+	 * @param y position y.
+	 * @return squared distance between the projectile and the position.
+	 */
+	float getProjectileDistance2(int i,float x,float y) {
+		float distanceX = projectileDisplayData[i*4]-x, distanceY = projectileDisplayData[i*4+1]-y;
+		return distanceX*distanceX+distanceY*distanceY;
+	}
+
+	/**
+	 * @param index projectile's entity index.
+	 * @param animation projectile's animation index.
+	 * @param x position x.
+	 * @param y position y.
+	 * @param velocityX linear velocity x.
+	 * @param velocityY linear velocity y.
+	 */
+	public void addProjectile(int index,byte animation,float x,float y,
+		float velocityX,float velocityY) {
+		if(projectilesAmount == projectileIndexes.length) {
+			projectileIndexes = Arrays.copyOf(projectileIndexes, projectilesAmount*2);
+			projectileAnimations = Arrays.copyOf(projectileAnimations, projectilesAmount*2);
+			projectileDisplayData = Arrays.copyOf(projectileDisplayData, projectilesAmount*8);
+		}
+		projectileIndexes[projectilesAmount] = index;
+		projectileAnimations[projectilesAmount] = animation;
+		projectileDisplayData[projectilesAmount*4] = x;
+		projectileDisplayData[projectilesAmount*4+1] = y;
+		projectileDisplayData[projectilesAmount*4+2] = velocityX;
+		projectileDisplayData[projectilesAmount*4+3] = velocityY;
+		projectilesLookup.put(index, projectilesAmount);
+		projectilesAmount++;
+	}
+
+	/**
+	 * Fills the world update with entities that changed since the baseline. Entities that
+	 * are no longer present are added to the removed indexes. Packet's arrays are reused
+	 * if they are big enough.
+	 * @param packet will contain the update. Health values and bounds are not modified.
+	 * @param baseline last snapshot acknowledged by the client or null to send a keyframe.
+	 */
+	public void writeUpdate(SrvUpdateWorld packet,WorldSnapshot baseline) {
+		packet.updateIndex = updateIndex;
+		packet.isKeyframe = baseline == null;
+		packet.baselineIndex = baseline == null ? -1 : baseline.updateIndex;
+
+		// Setting changed characters:
+		if(packet.charactersIndexes == null || packet.charactersIndexes.length < charactersAmount) {
+			packet.charactersIndexes = new int[charactersIndexes.length];
+			packet.charactersPositions = new float[charactersIndexes.length*2];
+			packet.charactereDisplayData = new byte[charactersIndexes.length*2];
+		}
+		int changed = 0;
+		for(int i=0; i<charactersAmount; i++) {
+			if(isCharacterChanged(i, baseline)) {
+				packet.charactersIndexes[changed] = charactersIndexes[i];
+				System.arraycopy(charactersPositions, i*2, packet.charactersPositions, changed*2, 2);
+				System.arraycopy(charactersDisplayData, i*2, packet.charactereDisplayData, changed*2, 2);
+				changed++;
+			}
+		}
+		packet.charactersAmount = changed;
+
+		// Setting changed projectiles:
+		if(packet.projectileIndexes == null || packet.projectileIndexes.length < projectilesAmount) {
+			packet.projectileIndexes = new int[projectileIndexes.length];
+			packet.projectileAnimations = new byte[projectileIndexes.length];
+			packet.projectileDisplayData = new float[projectileIndexes.length*4];
+		}
+		changed = 0;
+		for(int i=0; i<projectilesAmount; i++) {
+			if(isProjectileChanged(i, baseline)) {
+				packet.projectileIndexes[changed] = projectileIndexes[i];
+				packet.projectileAnimations[changed] = projectileAnimations[i];
+				System.arraycopy(projectileDisplayData, i*4, packet.projectileDisplayData, changed*4, 4);
+				changed++;
+			}
+		}
+		packet.projectilesAmount = changed;
+
+		// Setting removed entities:
+		int removed = 0;
+		if(baseline != null) {
+			int maxRemoved = baseline.charactersAmount+baseline.projectilesAmount;
+			if(packet.removedIndexes == null || packet.removedIndexes.length < maxRemoved) {
+				packet.removedIndexes = new int[maxRemoved];
+			}
+			for(int i=0; i<baseline.charactersAmount; i++) {
+				if(!charactersLookup.containsKey(baseline.charactersIndexes[i])) {
+					packet.removedIndexes[removed++] = baseline.charactersIndexes[i];
+				}
+			}
+			for(int i=0; i<baseline.projectilesAmount; i++) {
+				if(!projectilesLookup.containsKey(baseline.projectileIndexes[i])) {
+					packet.removedIndexes[removed++] = baseline.projectileIndexes[i];
+				}
+			}
+		}
+		packet.removedAmount = removed;
+	}
+
+	/**
+	 * @param i position of the character in the arrays.
+	 * @param baseline can be null.
+	 * @return true if the character is not in the baseline or its data is different.
+	 */
+	private boolean isCharacterChanged(int i,WorldSnapshot baseline) {
+		if(baseline == null) {
+			return true;
+		}
+		int j = baseline.charactersLookup.get(charactersIndexes[i], -1);
+		return j < 0
+			|| charactersPositions[i*2] != baseline.charactersPositions[j*2]
+			|| charactersPositions[i*2+1] != baseline.charactersPositions[j*2+1]
+			|| charactersDisplayData[i*2] != baseline.charactersDisplayData[j*2]
+			|| charactersDisplayData[i*2+1] != baseline.charactersDisplayData[j*2+1];
+	}
+
+	/**
+	 * @param i position of the projectile in the arrays.
+	 * @param baseline can be null.
+	 * @return true if the projectile is not in the baseline or its data is different.
+	 */
+	private boolean isProjectileChanged(int i,WorldSnapshot baseline) {
+		if(baseline == null) {
+			return true;
+		}
+		int j = baseline.projectilesLookup.get(projectileIndexes[i], -1);
+		if(j < 0 || projectileAnimations[i] != baseline.projectileAnimations[j]) {
+			return true;
+		}
+		for(int k=0; k<4; k++) {
+			if(projectileDisplayData[i*4+k] != baseline.projectileDisplayData[j*4+k]) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,107 @@
+package mj.konfigurats.logic.snapshots;
+
+import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
+import mj.konfigurats.network.WorldUpdateSerializer;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * Prepares world update packets of a single game room. Players that acknowledged the same
+ * update (or need a keyframe) receive the same packet, which is serialized only once per
+ * tick - sending it to each of them only copies the encoded data. Updates limited to
+ * the players' areas of interest are encoded separately for each player. Special effects of
+ * the update are the same for everyone and are included in each packet. Packets and their
+ * buffers are reused. Should be used only by the game thread.
+ * @author MJ
+ */
+public class WorldUpdateEncoder {
+	private final int roomIndex;
+	private final SpecialEffects effects;
+	private float minX,minY,maxX,maxY;
+	private final Array<SrvUpdateWorld> packets;
+	private final Array<Output> buffers;
+	// Amount of packets encoded during the current tick:
+	private int packetsAmount;
+
+	/**
+	 * @param roomIndex game room's index.
+	 * @param effects special effects of the room, added to each update.
+	 */
+	public WorldUpdateEncoder(int roomIndex,SpecialEffects effects) {
+		this.roomIndex = roomIndex;
+		this.effects = effects;
+		packets = new Array<SrvUpdateWorld>();
+		buffers = new Array<Output>();
+	}
+
+	/**
+	 * @param minX lowest position x.
+	 * @param minY lowest position y.
+	 * @param maxX highest position x.
+	 * @param maxY highest position y.
+	 */
+	public void setWorldBounds(float minX,float minY,float maxX,float maxY) {
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+	}
+
+	/**
+	 * Should be called before getting the packets of a new update.
+	 */
+	public void reset() {
+		packetsAmount = 0;
+	}
+
+	/**
+	 * @param snapshot current world state.
+	 * @param baseline last snapshot acknowledged by the player or null for a keyframe.
+	 * @return encoded update. Shared by all players with the same baseline.
+	 */
+	public SrvUpdateWorld getUpdate(WorldSnapshot snapshot,WorldSnapshot baseline) {
+		long baselineIndex = baseline == null ? -1 : baseline.getUpdateIndex();
+		// Looking for an already encoded packet:
+		for(int i=0; i<packetsAmount; i++) {
+			if(packets.get(i).baselineIndex == baselineIndex) {
+				return packets.get(i);
+			}
+		}
+
+		return encode(snapshot, baseline);
+	}
+
+	/**
+	 * @param view part of the world sent to a single player.
+	 * @param baseline last view acknowledged by the player or null for a keyframe.
+	 * @return encoded update. Never shared with other players.
+	 */
+	public SrvUpdateWorld getPrivateUpdate(WorldSnapshot view,WorldSnapshot baseline) {
+		return encode(view, baseline);
+	}
+
+	/**
+	 * @param snapshot entities state.
+	 * @param baseline can be null.
+	 * @return a newly encoded packet.
+	 */
+	private SrvUpdateWorld encode(WorldSnapshot snapshot,WorldSnapshot baseline) {
+		if(packetsAmount == packets.size) {
+			SrvUpdateWorld packet = new SrvUpdateWorld();
+			packet.gameRoomIndex = roomIndex;
+			packets.add(packet);
+			buffers.add(new Output(512,-1));
+		}
+		SrvUpdateWorld packet = packets.get(packetsAmount);
+		packet.minX = minX;
+		packet.minY = minY;
+		packet.maxX = maxX;
+		packet.maxY = maxY;
+		snapshot.writeUpdate(packet, baseline);
+		effects.writeUpdate(packet);
+		WorldUpdateSerializer.encode(packet, buffers.get(packetsAmount));
+		packetsAmount++;
+		return packet;
+	}
+}
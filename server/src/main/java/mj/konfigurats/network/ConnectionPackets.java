@@ -67,4 +67,10 @@ public class ConnectionPackets {
 	 * a username or a password.
 	 */
 	public static class SrvCorruptedData implements ConnectionPacket {}
+	
+	/**
+	 * Sent when the server is unable to handle the logging or registration request
+	 * at the moment, because too many of them are waiting.
+	 */
+	public static class SrvServerBusy implements ConnectionPacket {}
 }
@@ -172,15 +172,33 @@ public class LobbyPackets {
 	
 	// Ranking packets:
 	/**
-	 * Sent by the client when the user tries to access ranking.
-	 */
-	public static class CltShowRanking implements LobbyPacket {}
+	 * Sent by the client when the user tries to access ranking. Requests a single
+	 * page of the selected ranking.
+	 */
+	public static class CltShowRanking implements LobbyPacket {
+		// Types of rankings:
+		public final static byte KILLS=0,DEATHS=1,RATIO=2;
+		
+		public byte rankingType;
+		// 0-based position of the first requested entry and amount of entries.
+		public int from,amount;
+		// True to ignore the position and get the entries around the user.
+		public boolean aroundUser;
+	}
 	
 	/**
-	 * Contains data of the top players.
+	 * Contains a page of the requested ranking and user's score.
 	 */
 	public static class SrvRankingData implements LobbyPacket {
-		public String[] topKills,topDeaths,topRatio;
+		public byte rankingType;
+		// 0-based position of the first entry and amount of all ranked users.
+		public int from,rankedAmount;
+		// Entries of the page, in ranking order.
+		public String[] usernames;
+		public int[] kills,deaths;
+		// User's score.
 		public int userKills,userDeaths;
+		// User's 0-based positions in each ranking (by ranking type), -1 if unranked.
+		public int[] userRanks;
 	}
 }
\ No newline at end of file
@@ -13,8 +13,10 @@ import mj.konfigurats.network.ConnectionPackets.SrvCorruptedData;
 import mj.konfigurats.network.ConnectionPackets.SrvLogged;
 import mj.konfigurats.network.ConnectionPackets.SrvPasswordInvalid;
 import mj.konfigurats.network.ConnectionPackets.SrvRegistered;
+import mj.konfigurats.network.ConnectionPackets.SrvServerBusy;
 import mj.konfigurats.network.ConnectionPackets.SrvUsernameInvalid;
 import mj.konfigurats.network.ConnectionPackets.SrvUsernameTaken;
+import mj.konfigurats.network.GamePackets.CltAcknowledgeWorld;
 import mj.konfigurats.network.GamePackets.CltCreateCharacter;
 import mj.konfigurats.network.GamePackets.CltGameChatMessage;
 import mj.konfigurats.network.GamePackets.CltGameInitiated;
@@ -27,18 +29,16 @@ import mj.konfigurats.network.GamePackets.CltLeaveGame;
 import mj.konfigurats.network.GamePackets.CltTeamMessage;
 import mj.konfigurats.network.GamePackets.GamePacket;
 import mj.konfigurats.network.GamePackets.SrvAddRoomUser;
-import mj.konfigurats.network.GamePackets.SrvAttachSFX;
 import mj.konfigurats.network.GamePackets.SrvCorruptedCreationData;
 import mj.konfigurats.network.GamePackets.SrvCreateCharacter;
-import mj.konfigurats.network.GamePackets.SrvDisplaySFX;
 import mj.konfigurats.network.GamePackets.SrvGameChatMessage;
 import mj.konfigurats.network.GamePackets.SrvLeaveGame;
 import mj.konfigurats.network.GamePackets.SrvPlayerNotElite;
 import mj.konfigurats.network.GamePackets.SrvRemoveRoomUser;
 import mj.konfigurats.network.GamePackets.SrvScoresUpdate;
-import mj.konfigurats.network.GamePackets.SrvSetEntityFalling;
 import mj.konfigurats.network.GamePackets.SrvSetSpellCooldown;
 import mj.konfigurats.network.GamePackets.SrvSwitchMap;
+import mj.konfigurats.network.GamePackets.SrvUpdateHealth;
 import mj.konfigurats.network.GamePackets.SrvUpdateWorld;
 import mj.konfigurats.network.LobbyPackets.CltCreateGame;
 import mj.konfigurats.network.LobbyPackets.CltJoinGame;
@@ -68,6 +68,7 @@ import mj.konfigurats.network.LobbyPackets.SrvStartGame;
 import mj.konfigurats.network.LobbyPackets.SrvUpdateGame;
 import mj.konfigurats.network.LobbyPackets.SrvWrongMapIndex;
 import mj.konfigurats.network.Ports;
+import mj.konfigurats.network.WorldUpdateSerializer;
 import mj.konfigurats.server.managers.ConnectionManager;
 import mj.konfigurats.server.managers.GamesManager;
 import mj.konfigurats.server.managers.LobbyManager;
@@ -83,8 +84,8 @@ import com.esotericsoftware.minlog.Log;
 public enum ServerManager {
 	SERVER;
 	
-	// Server manager threads:
-	private final ExecutorService listenerThread,analyzerThread;
+	// Server manager thread:
+	private final ExecutorService listenerThread;
 	// KryoNet server:
 	private final Server server;
 	// Network managers:
@@ -104,7 +105,6 @@ public enum ServerManager {
 		// Initializing threads and managers:
 		Log.info("SRV: attempting to start the server...");
 		listenerThread = Executors.newSingleThreadExecutor();
-		analyzerThread = Executors.newSingleThreadExecutor();
 		server = new Server();
 		lobbyManager = new LobbyManager(this);
 		connectionManager = new ConnectionManager(this);
@@ -165,6 +165,7 @@ public enum ServerManager {
 		server.getKryo().register(SrvRegistered.class);
 		server.getKryo().register(SrvUsernameTaken.class);
 		server.getKryo().register(SrvCorruptedData.class);
+		server.getKryo().register(SrvServerBusy.class);
 		
 		// Lobby packets group:
 		server.getKryo().register(LobbyPacket.class);
@@ -222,52 +223,44 @@ public enum ServerManager {
 		server.getKryo().register(SrvCorruptedCreationData.class);
 		server.getKryo().register(SrvCreateCharacter.class);
 		server.getKryo().register(SrvPlayerNotElite.class);
-		server.getKryo().register(SrvUpdateWorld.class);
+		server.getKryo().register(SrvUpdateWorld.class,new WorldUpdateSerializer());
 		server.getKryo().register(SrvSetSpellCooldown.class);
-		server.getKryo().register(SrvDisplaySFX.class);
-		server.getKryo().register(SrvAttachSFX.class);
-		server.getKryo().register(SrvSetEntityFalling.class);
 		server.getKryo().register(SrvSwitchMap.class);
+		server.getKryo().register(CltAcknowledgeWorld.class);
+		server.getKryo().register(SrvUpdateHealth.class);
 	}
 	
 	/**
 	 * Run by the listener when a user disconnects from the server.
+	 * Each manager disconnects the user on its own thread.
 	 * @param connection user's connection.
 	 */
 	public void disconnect(final Connection connection) {
-		analyzerThread.execute(new Runnable() {
-			@Override
-			public void run() {
-				connectionManager.disconnect(connection);
-				lobbyManager.disconnect(connection);
-				gamesManager.disconnect(connection);
-				
-				Log.info("ID"+connection.getID()+": user disconnected");
-			}
-		});
+		connectionManager.disconnect(connection);
+		lobbyManager.disconnect(connection);
+		gamesManager.disconnect(connection);
+		
+		Log.info("ID"+connection.getID()+": user disconnected");
 	}
 	
 	/**
 	 * Run by the listener when the server receives a packet.
-	 * The packet is analyzed by the analyzer thread and handled by one of the managers, depending on its type.
+	 * The packet is passed to one of the managers, depending on its type. Each manager
+	 * has its own lane: connection and lobby packets are analyzed by their managers' threads,
+	 * while game packets go straight to the player's game room.
 	 * @param connection user's connection.
 	 * @param packet packet sent by the user's client.
 	 */
-	public void analyze(final Connection connection,final Object packet) {
-		analyzerThread.execute(new Runnable() {
-			@Override
-			public void run() {
-				if(packet instanceof ConnectionPacket) {
-					connectionManager.analyze(connection, packet);
-				}
-				else if(packet instanceof LobbyPacket) {
-					lobbyManager.analyze(connection, packet);
-				}
-				else if(packet instanceof GamePacket) {
-					gamesManager.analyze(connection, packet);
-				}
-			}
-		});
+	public void analyze(Connection connection,Object packet) {
+		if(packet instanceof GamePacket) {
+			gamesManager.analyze(connection, packet);
+		}
+		else if(packet instanceof LobbyPacket) {
+			lobbyManager.analyze(connection, packet);
+		}
+		else if(packet instanceof ConnectionPacket) {
+			connectionManager.analyze(connection, packet);
+		}
 	}
 	
 	/**
@@ -0,0 +1,140 @@
+package mj.konfigurats.server.database;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.esotericsoftware.minlog.Log;
+
+/**
+ * A small, fixed-size pool of database connections. Each connection caches its prepared
+ * statements, so they are created once per connection rather than once per query.
+ * Connections don't use auto-commit. Thread-safe.
+ * @author MJ
+ */
+public class ConnectionPool {
+	private final BlockingQueue<PooledConnection> availableConnections;
+	private final List<PooledConnection> connections;
+
+	/**
+	 * Opens all connections of the pool.
+	 * @param url JDBC address of the database.
+	 * @param user database user.
+	 * @param password user's password.
+	 * @param size amount of connections.
+	 * @throws SQLException if unable to connect.
+	 */
+	public ConnectionPool(String url,String user,String password,int size) throws SQLException {
+		availableConnections = new ArrayBlockingQueue<PooledConnection>(size);
+		connections = new ArrayList<PooledConnection>(size);
+		for(int i=0; i<size; i++) {
+			java.sql.Connection connection = DriverManager.getConnection(url, user, password);
+			connection.setAutoCommit(false);
+			PooledConnection pooledConnection = new PooledConnection(connection);
+			connections.add(pooledConnection);
+			availableConnections.add(pooledConnection);
+		}
+	}
+
+	/**
+	 * @return a connection that has to be released after use. Waits until a connection
+	 *	is available.
+	 * @throws SQLException if interrupted while waiting.
+	 */
+	public PooledConnection acquire() throws SQLException {
+		try {
+			return availableConnections.take();
+		}
+		catch(InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection.",exception);
+		}
+	}
+
+	/**
+	 * @param connection acquired connection. Will be used by other queries.
+	 */
+	public void release(PooledConnection connection) {
+		availableConnections.offer(connection);
+	}
+
+	/**
+	 * Closes all connections with their statements. Should be called after all queries
+	 * are finished.
+	 */
+	public void close() {
+		for(PooledConnection connection : connections) {
+			connection.close();
+		}
+		connections.clear();
+		availableConnections.clear();
+	}
+
+	/**
+	 * A single database connection with cached prepared statements. Should be used by
+	 * one thread at a time.
+	 * @author MJ
+	 */
+	public static class PooledConnection {
+		private final java.sql.Connection connection;
+		// Cached statements, <SQL,statement>:
+		private final Map<String,PreparedStatement> statements;
+
+		private PooledConnection(java.sql.Connection connection) {
+			this.connection = connection;
+			statements = new HashMap<String,PreparedStatement>();
+		}
+
+		/**
+		 * @param sql query.
+		 * @return cached prepared statement of the query.
+		 * @throws SQLException if unable to prepare the query.
+		 */
+		public PreparedStatement prepare(String sql) throws SQLException {
+			PreparedStatement statement = statements.get(sql);
+			if(statement == null) {
+				statement = connection.prepareStatement(sql);
+				statements.put(sql, statement);
+			}
+			return statement;
+		}
+
+		/**
+		 * @throws SQLException if unable to commit.
+		 */
+		public void commit() throws SQLException {
+			connection.commit();
+		}
+
+		/**
+		 * Reverts the current transaction, logging any errors.
+		 */
+		public void rollback() {
+			try {
+				connection.rollback();
+			}
+			catch(SQLException exception) {
+				Log.error("SRV: unable to rollback a transaction: "+exception.getMessage());
+			}
+		}
+
+		private void close() {
+			try {
+				for(PreparedStatement statement : statements.values()) {
+					statement.close();
+				}
+				statements.clear();
+				connection.close();
+			}
+			catch(SQLException exception) {
+				Log.error("SRV: unable to close a database connection: "+exception.getMessage());
+			}
+		}
+	}
+}
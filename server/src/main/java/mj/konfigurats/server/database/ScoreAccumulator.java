@@ -0,0 +1,117 @@
+package mj.konfigurats.server.database;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.esotericsoftware.minlog.Log;
+
+/**
+ * Write-behind buffer of players' scores. Kills and deaths gained in the game rooms are
+ * merged per user in memory and saved with a single batch in one transaction, so the
+ * database load depends on the flushes rate rather than the amount of players.
+ * If a flush fails, its scores are merged back and saved with the next one. Thread-safe.
+ * @author MJ
+ */
+public class ScoreAccumulator {
+	private final UserRepository userRepository;
+	private final int flushThreshold;
+	// Scores waiting for the flush, <username,score>:
+	private Map<String,ScoreDelta> pendingScores;
+
+	/**
+	 * @param userRepository saves the scores.
+	 * @param flushThreshold amount of users with pending scores that should trigger a flush.
+	 */
+	public ScoreAccumulator(UserRepository userRepository,int flushThreshold) {
+		this.userRepository = userRepository;
+		this.flushThreshold = Math.max(1, flushThreshold);
+		pendingScores = new HashMap<String,ScoreDelta>();
+	}
+
+	/**
+	 * @param username user's nickname.
+	 * @param kills will be added to the user's kills.
+	 * @param deaths will be added to the user's deaths.
+	 * @return true if the pending scores just reached the threshold and should be flushed.
+	 */
+	public synchronized boolean add(String username,int kills,int deaths) {
+		if(kills == 0 && deaths == 0) {
+			return false;
+		}
+		ScoreDelta score = pendingScores.get(username);
+		if(score == null) {
+			pendingScores.put(username, new ScoreDelta(username,kills,deaths));
+			return pendingScores.size() == flushThreshold;
+		}
+		score.add(kills, deaths);
+		return false;
+	}
+
+	/**
+	 * Saves all pending scores. Blocks until the batch is finished - should be run by
+	 * a database worker.
+	 */
+	public void flush() {
+		Map<String,ScoreDelta> scores;
+		synchronized(this) {
+			if(pendingScores.isEmpty()) {
+				return;
+			}
+			scores = pendingScores;
+			pendingScores = new HashMap<String,ScoreDelta>();
+		}
+		try {
+			userRepository.updateScores(scores.values());
+			Log.debug("SRV: saved scores of "+scores.size()+" users");
+		}
+		catch(SQLException exception) {
+			Log.error("SRV: unable to save scores of "+scores.size()+" users, retrying with"
+				+ " the next flush: "+exception.getMessage());
+			for(ScoreDelta score : scores.values()) {
+				add(score.getUsername(), score.getKills(), score.getDeaths());
+			}
+		}
+	}
+
+	/**
+	 * Kills and deaths gained by a single user since the last flush.
+	 * @author MJ
+	 */
+	public static class ScoreDelta {
+		private final String username;
+		private int kills,deaths;
+
+		private ScoreDelta(String username,int kills,int deaths) {
+			this.username = username;
+			this.kills = kills;
+			this.deaths = deaths;
+		}
+
+		private void add(int kills,int deaths) {
+			this.kills += kills;
+			this.deaths += deaths;
+		}
+
+		/**
+		 * @return user's nickname.
+		 */
+		public String getUsername() {
+			return username;
+		}
+
+		/**
+		 * @return gained kills.
+		 */
+		public int getKills() {
+			return kills;
+		}
+
+		/**
+		 * @return gained deaths.
+		 */
+		public int getDeaths() {
+			return deaths;
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package mj.konfigurats.server.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+import mj.konfigurats.server.database.ConnectionPool.PooledConnection;
+import mj.konfigurats.server.database.ScoreAccumulator.ScoreDelta;
+import mj.konfigurats.server.ranking.Leaderboard;
+
+/**
+ * Runs all queries of the users database. Each query acquires a pooled connection for
+ * a single transaction, so multiple threads can use the repository at once. Methods
+ * block until the query is finished - they should be run by the database workers, never
+ * by the network threads.
+ * @author MJ
+ */
+public class UserRepository {
+	private final static String GET_CREDENTIALS="SELECT key,password FROM Users WHERE id=?;",
+		CREATE_USER="INSERT INTO Users VALUES(?,?,?,?,0,0,0);",
+		UPDATE_PASSWORD="UPDATE Users SET password=?, key=? WHERE id=?;",
+		CHECK_IF_ELITE="SELECT elite FROM Users WHERE id=?;",
+		UPDATE_SCORE="UPDATE Users SET kills=kills+?, deaths=deaths+? WHERE id=?;",
+		GET_ALL_SCORES="SELECT username,kills,deaths FROM Users;";
+	// SQL state class of integrity constraint violations:
+	private final static String CONSTRAINT_VIOLATION="23";
+	private final ConnectionPool connectionPool;
+
+	/**
+	 * @param connectionPool connections to the users database.
+	 */
+	public UserRepository(ConnectionPool connectionPool) {
+		this.connectionPool = connectionPool;
+	}
+
+	/**
+	 * @param username user's nickname.
+	 * @return user's password hash and salt or null if the user doesn't exist.
+	 * @throws SQLException if unable to execute the query.
+	 */
+	public UserCredentials getCredentials(String username) throws SQLException {
+		PooledConnection connection = connectionPool.acquire();
+		try {
+			PreparedStatement statement = connection.prepare(GET_CREDENTIALS);
+			statement.setInt(1, username.hashCode());
+			ResultSet result = statement.executeQuery();
+			try {
+				return result.next() ? new UserCredentials(result.getString(1),
+					result.getString(2)) : null;
+			}
+			finally {
+				result.close();
+				connection.commit();
+			}
+		}
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+
+	/**
+	 * @param username user's nickname.
+	 * @param password encrypted password.
+	 * @param salt password's salt.
+	 * @return true if the user was created, false if the username is taken.
+	 * @throws SQLException if unable to execute the query.
+	 */
+	public boolean createUser(String username,String password,String salt) throws SQLException {
+		PooledConnection connection = connectionPool.acquire();
+		try {
+			PreparedStatement statement = connection.prepare(CREATE_USER);
+			statement.setInt(1, username.hashCode());
+			statement.setString(2, username);
+			statement.setString(3, password);
+			statement.setString(4, salt);
+			statement.executeUpdate();
+			connection.commit();
+			return true;
+		}
+		catch(SQLException exception) {
+			connection.rollback();
+			// Another user registered the same name (or name's hash) first:
+			if(exception.getSQLState() != null
+				&& exception.getSQLState().startsWith(CONSTRAINT_VIOLATION)) {
+				return false;
+			}
+			throw exception;
+		}
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+
+	/**
+	 * @param username user's nickname.
+	 * @param password encrypted password.
+	 * @param salt password's salt.
+	 * @throws SQLException if unable to execute the query.
+	 */
+	public void updatePassword(String username,String password,String salt) throws SQLException {
+		PooledConnection connection = connectionPool.acquire();
+		try {
+			PreparedStatement statement = connection.prepare(UPDATE_PASSWORD);
+			statement.setString(1, password);
+			statement.setString(2, salt);
+			statement.setInt(3, username.hashCode());
+			statement.executeUpdate();
+			connection.commit();
+		}
+		catch(SQLException exception) {
+			connection.rollback();
+			throw exception;
+		}
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+	
+	/**
+	 * @param username user's nickname.
+	 * @return true if the user has an elite account.
+	 * @throws SQLException if unable to execute the query.
+	 */
+	public boolean isElite(String username) throws SQLException {
+		PooledConnection connection = connectionPool.acquire();
+		try {
+			PreparedStatement statement = connection.prepare(CHECK_IF_ELITE);
+			statement.setInt(1, username.hashCode());
+			ResultSet result = statement.executeQuery();
+			try {
+				return result.next() && result.getBoolean(1);
+			}
+			finally {
+				result.close();
+				connection.commit();
+			}
+		}
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+
+	/**
+	 * Updates scores of multiple users with a single batch in one transaction.
+	 * @param scores kills and deaths that will be added to the users' scores.
+	 * @throws SQLException if unable to execute the batch. No scores are saved.
+	 */
+	public void updateScores(Collection<ScoreDelta> scores) throws SQLException {
+		PooledConnection connection = connectionPool.acquire();
+		try {
+			PreparedStatement statement = connection.prepare(UPDATE_SCORE);
+			for(ScoreDelta score : scores) {
+				statement.setInt(1, score.getKills());
+				statement.setInt(2, score.getDeaths());
+				statement.setInt(3, score.getUsername().hashCode());
+				statement.addBatch();
+			}
+			statement.executeBatch();
+			connection.commit();
+		}
+		catch(SQLException exception) {
+			connection.prepare(UPDATE_SCORE).clearBatch();
+			connection.rollback();
+			throw exception;
+		}
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+
+	/**
+	 * @param leaderboard will contain scores of all users.
+	 * @throws SQLException if unable to execute the query.
+	 */
+	public void loadScores(Leaderboard leaderboard) throws SQLException {
+		PooledConnection connection = connectionPool.acquire();
+		try {
+			ResultSet result = connection.prepare(GET_ALL_SCORES).executeQuery();
+			try {
+				while(result.next()) {
+					leaderboard.addUser(result.getString(1), result.getInt(2), result.getInt(3));
+				}
+			}
+			finally {
+				result.close();
+				connection.commit();
+			}
+		}
+		finally {
+			connectionPool.release(connection);
+		}
+	}
+
+	/**
+	 * Closes the database connections. Should be called after all queries are finished.
+	 */
+	public void close() {
+		connectionPool.close();
+	}
+
+	/**
+	 * Stored password data of a single user.
+	 * @author MJ
+	 */
+	public static class UserCredentials {
+		private final String salt,password;
+
+		public UserCredentials(String salt,String password) {
+			this.salt = salt;
+			this.password = password;
+		}
+
+		/**
+		 * @return password's salt.
+		 */
+		public String getSalt() {
+			return salt;
+		}
+
+		/**
+		 * @return encrypted password.
+		 */
+		public String getPassword() {
+			return password;
+		}
+	}
+}
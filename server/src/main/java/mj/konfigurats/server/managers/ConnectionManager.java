@@ -1,16 +1,18 @@
 package mj.konfigurats.server.managers;
 
-import java.math.BigInteger;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,9 +24,17 @@ import mj.konfigurats.network.ConnectionPackets.SrvCorruptedData;
 import mj.konfigurats.network.ConnectionPackets.SrvLogged;
 import mj.konfigurats.network.ConnectionPackets.SrvPasswordInvalid;
 import mj.konfigurats.network.ConnectionPackets.SrvRegistered;
+import mj.konfigurats.network.ConnectionPackets.SrvServerBusy;
 import mj.konfigurats.network.ConnectionPackets.SrvUsernameInvalid;
 import mj.konfigurats.network.ConnectionPackets.SrvUsernameTaken;
 import mj.konfigurats.server.ServerManager;
+import mj.konfigurats.server.database.ConnectionPool;
+import mj.konfigurats.server.database.ScoreAccumulator;
+import mj.konfigurats.server.database.UserRepository;
+import mj.konfigurats.server.database.UserRepository.UserCredentials;
+import mj.konfigurats.server.ranking.Leaderboard;
+import mj.konfigurats.server.ranking.Leaderboard.RankingType;
+import mj.konfigurats.server.security.PasswordHasher;
 
 import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.minlog.Log;
@@ -37,19 +47,18 @@ public class ConnectionManager extends AbstractManager {
 	// Used to validate passwords:
 	private final Pattern regexPattern;
 	private Matcher regexMatcher;
-	private static SecureRandom SALT;
-	private static MessageDigest PASSWORD_ENCRYPTOR;
+	// Hashes and verifies passwords:
+	private PasswordHasher passwordHasher;
 	// User database:
-	private java.sql.Connection databaseConnection;
-	// Prepared statement for easy SQL queries:
-	private PreparedStatement 	getPasswordStatement,
-								createUserStatement,
-								checkIfEliteStatement,
-								updateScoreStatement,
-								getScoreStatement,
-								getTopKillsStatement,
-								getTopDeathsStatement,
-								getTopRatioStatement;
+	private UserRepository userRepository;
+	// Merges scores from the game rooms and saves them in batches:
+	private ScoreAccumulator scoreAccumulator;
+	// Users' scores and rankings, updated as soon as the players gain score:
+	private final Leaderboard leaderboard;
+	// Run all database queries, so the manager thread never waits for the database:
+	private final ExecutorService databaseWorkers;
+	// Hash passwords, so logins don't wait for each other or for the database queries:
+	private final ThreadPoolExecutor cryptoWorkers;
 	// Ranking update thread:
 	private final Timer managerTimer;
 	// Environment settings:
@@ -60,8 +69,7 @@ public class ConnectionManager extends AbstractManager {
 		// Preparing data validation regex:
 		regexPattern = Pattern.compile("[\\da-zA-Z-]+");
 		try {
-			SALT = SecureRandom.getInstance("SHA1PRNG");
-			PASSWORD_ENCRYPTOR = MessageDigest.getInstance("SHA-512");
+			passwordHasher = new PasswordHasher(Integer.parseInt(System.getProperty("PASSWORD_ITERATIONS", "100000")));
 		} catch (NoSuchAlgorithmException e) {
 			Log.error("SRV: unable to prepare encrypting algorythms: "+e.getMessage());
 			System.exit(4);
@@ -71,32 +79,44 @@ public class ConnectionManager extends AbstractManager {
 		eliteUsers = new ConcurrentHashMap<Integer,Connection>();
 		// Preparing another manager thread:
 		managerTimer = new Timer();
+		leaderboard = new Leaderboard();
 		// Reading environment settings:
 		skipEliteCheck = Boolean.parseBoolean(System.getProperty("SKIP_ELITE_CHECK", "true"));
 
+		// Preparing database workers - each uses its own pooled connection:
+		int databaseWorkersAmount = Math.max(1, Integer.parseInt(System.getProperty("DATABASE_WORKERS", "4")));
+		databaseWorkers = Executors.newFixedThreadPool(databaseWorkersAmount, new ThreadFactory() {
+			private final AtomicInteger threadIndex = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable,"Database worker "+threadIndex.incrementAndGet());
+			}
+		});
+		// Preparing crypto workers - requests over the queue limit are rejected:
+		int cryptoWorkersAmount = Math.max(1, Integer.parseInt(System.getProperty("CRYPTO_WORKERS",
+			String.valueOf(Runtime.getRuntime().availableProcessors()))));
+		int cryptoQueueSize = Math.max(1, Integer.parseInt(System.getProperty("CRYPTO_QUEUE_SIZE", "256")));
+		cryptoWorkers = new ThreadPoolExecutor(cryptoWorkersAmount, cryptoWorkersAmount,
+			0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(cryptoQueueSize),
+			new ThreadFactory() {
+				private final AtomicInteger threadIndex = new AtomicInteger();
+				@Override
+				public Thread newThread(Runnable runnable) {
+					return new Thread(runnable,"Crypto worker "+threadIndex.incrementAndGet());
+				}
+			});
+
 		Log.info("SRV: attempting to connect with the database...");
 		try {
 			// Connecting with the database:
-			databaseConnection = DriverManager.getConnection
-				("jdbc:hsqldb:file:konfigurats-database;shutdown=true", "admin", "konfigurateli");
-			databaseConnection.setAutoCommit(false);
-			// Preparing SQL statements:
-			getPasswordStatement = databaseConnection.prepareStatement
-				("SELECT key,password FROM Users WHERE id=?;");
-			createUserStatement = databaseConnection.prepareStatement
-				("INSERT INTO Users VALUES(?,?,?,?,0,0,0);");
-			checkIfEliteStatement = databaseConnection.prepareStatement
-				("SELECT elite FROM Users WHERE id=?;");
-			updateScoreStatement = databaseConnection.prepareStatement
-				("UPDATE Users SET kills=kills+?, deaths=deaths+? WHERE id=?;");
-			getScoreStatement = databaseConnection.prepareStatement
-				("SELECT kills,deaths FROM Users WHERE id=?;");
-			getTopKillsStatement = databaseConnection.prepareStatement
-				("SELECT TOP 10 username, kills, deaths FROM Users ORDER BY kills DESC, deaths ASC;");
-			getTopDeathsStatement = databaseConnection.prepareStatement
-				("SELECT TOP 10 username, kills, deaths FROM Users ORDER BY deaths DESC, kills ASC;");
-			getTopRatioStatement = databaseConnection.prepareStatement
-				("SELECT TOP 10 username, kills, deaths FROM Users WHERE (kills+deaths)>=100 ORDER BY (kills*10000)/(deaths+kills) DESC;");
+			userRepository = new UserRepository(new ConnectionPool
+				("jdbc:hsqldb:file:konfigurats-database;shutdown=true", "admin", "konfigurateli",
+				databaseWorkersAmount));
+			scoreAccumulator = new ScoreAccumulator(userRepository,
+				Integer.parseInt(System.getProperty("SCORE_FLUSH_THRESHOLD", "256")));
+			// Loading rankings:
+			userRepository.loadScores(leaderboard);
+			Log.info("SRV: loaded scores of "+leaderboard.getRankedAmount(RankingType.KILLS)+" users");
 		}
 		catch (SQLException e) {
 			Log.error("SRV: unable to connect with the database: "+e.getMessage());
@@ -104,18 +124,14 @@ public class ConnectionManager extends AbstractManager {
 		}
 		finally {
 			Log.info("SRV: database connection established");
-			// Scheduling ranking update:
+			// Scheduling scores saving:
+			long scoreFlushInterval = Long.parseLong(System.getProperty("SCORE_FLUSH_INTERVAL", "30000"));
 			managerTimer.schedule(new TimerTask() {
 				@Override
 				public void run() {
-					managerThread.execute(new Runnable() {
-						@Override
-						public void run() {
-							updateTopPlayers();
-						}
-					});
+					flushScores();
 				}
-			}, 0, 3600000);
+			}, scoreFlushInterval, scoreFlushInterval);
 		}
 	}
 	
@@ -128,61 +144,7 @@ public class ConnectionManager extends AbstractManager {
 			// Making sure that the user isn't trying to screw with our database...
 			regexMatcher = regexPattern.matcher(loginData.username);
 			if(regexMatcher.matches()) {
-				// Getting password from the database:
-				try {
-					getPasswordStatement.setInt(1, loginData.username.hashCode());
-					ResultSet result = getPasswordStatement.executeQuery();
-					if(result.next()) {
-						// If password matches the one in the database:
-						if(encryptPassword(loginData.password,result.getString(1).getBytes())
-							.equals(result.getString(2))) {
-							// Valid password and not logged in:
-							if(!loggedUsers.containsKey(loginData.username.hashCode())) {
-								// Adding user to the logged users lists:
-								loggedUsers.put(loginData.username.hashCode(),connection);
-								// Assigning username to the connection:
-								connection.setName(loginData.username);
-								// Checking if the user is elite:
-								if (!skipEliteCheck) {
-									checkIfEliteStatement.setInt(1, connection.toString().hashCode());
-									ResultSet eliteResult = checkIfEliteStatement.executeQuery();
-									if (eliteResult.next()) {
-										if (eliteResult.getBoolean(1)) {
-											eliteUsers.put(connection.toString().hashCode(), connection);
-										}
-									}
-									eliteResult.close();
-								}
-								
-								// Sending a packet with the player's username:
-								SrvLogged success = new SrvLogged();
-								success.username = connection.toString();
-								connection.sendTCP(success);
-								
-								// Adding user to the lobby:
-								serverManager.getLobbyManager().enterLobby(connection);
-								
-								Log.info("ID"+connection.getID()+": "+connection.toString()+": logged in");
-							}
-							else { // Account already logged:
-								connection.sendTCP(new SrvAlreadyLogged());
-								Log.debug("ID"+connection.getID()+": tried to log in as an already logged user: "+loginData.username);
-							}
-						}
-						else { // Wrong password:
-							connection.sendTCP(new SrvPasswordInvalid());
-							Log.debug("ID"+connection.getID()+": unsuccessfully tried to log in as: "+loginData.username);
-						}
-					}
-					else { // Wrong username:
-						connection.sendTCP(new SrvUsernameInvalid());
-						Log.debug("ID"+connection.getID()+": entered invalid username: "+loginData.username);
-					}
-					result.close();
-				}
-				catch (SQLException e) {
-					Log.error("SRV: unable to execute query - logging error: "+e.getMessage());
-				}
+				logIn(connection, loginData);
 			}
 			else { // Username is too short/long or contains forbidden characters.
 				connection.sendTCP(new SrvCorruptedData());
@@ -203,32 +165,7 @@ public class ConnectionManager extends AbstractManager {
 				if(registrationData.password.length()>7 &&
 						registrationData.password.length()<21 &&
 						regexMatcher.matches()) {
-					try {
-						getPasswordStatement.setInt(1, registrationData.username.hashCode());
-						ResultSet result = getPasswordStatement.executeQuery();
-						// If no one used the same login:
-						if(!result.next()) {
-							createUserStatement.setInt(1, registrationData.username.hashCode());
-							createUserStatement.setString(2, registrationData.username);
-							byte[] salt = getSalt();
-							// Encrypted password data:
-							createUserStatement.setString(3, encryptPassword(registrationData.password,salt));
-							createUserStatement.setString(4, new String(salt));
-							createUserStatement.executeUpdate();
-							databaseConnection.commit();
-							
-							connection.sendTCP(new SrvRegistered());
-							Log.info("ID"+connection.getID()+": registered a new account: "+registrationData.username);
-						}
-						else {
-							connection.sendTCP(new SrvUsernameTaken());
-							Log.debug("ID"+connection.getID()+": tried to register as "+registrationData.username);
-						}
-						result.close();
-					}
-					catch (SQLException e) {
-						Log.error("SRV: unable to execute query - registration error: " + e.getMessage());
-					}
+					register(connection, registrationData);
 				}
 				else { // Password is too short/long or contains forbidden characters.
 					connection.sendTCP(new SrvCorruptedData());
@@ -242,6 +179,181 @@ public class ConnectionManager extends AbstractManager {
 		}
 	}
 	
+	/**
+	 * Gets the user's password from the database and verifies it. Run by a database
+	 * worker, then by a crypto worker.
+	 * @param connection user's connection.
+	 * @param loginData validated logging data.
+	 */
+	private void logIn(final Connection connection,final CltLogin loginData) {
+		executeDatabase(connection, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					// Getting password from the database:
+					final UserCredentials credentials = userRepository.getCredentials(loginData.username);
+					if(credentials != null) {
+						executeCrypto(connection, new Runnable() {
+							@Override
+							public void run() {
+								// If password matches the one in the database:
+								if(passwordHasher.verify(loginData.password,credentials.getSalt(),
+									credentials.getPassword())) {
+									// Legacy or outdated hashes are replaced with the current one:
+									String salt = null, password = null;
+									if(passwordHasher.needsRehash(credentials.getPassword())) {
+										salt = passwordHasher.getSalt();
+										password = passwordHasher.hash(loginData.password, salt);
+									}
+									completeLogIn(connection, loginData.username, password, salt);
+								}
+								else { // Wrong password:
+									connection.sendTCP(new SrvPasswordInvalid());
+									Log.debug("ID"+connection.getID()+": unsuccessfully tried to log in as: "+loginData.username);
+								}
+							}
+						});
+					}
+					else { // Wrong username:
+						connection.sendTCP(new SrvUsernameInvalid());
+						Log.debug("ID"+connection.getID()+": entered invalid username: "+loginData.username);
+					}
+				}
+				catch (SQLException e) {
+					Log.error("SRV: unable to execute query - logging error: "+e.getMessage());
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Logs in a user with a verified password. Run by a database worker.
+	 * @param connection user's connection.
+	 * @param username user's nickname.
+	 * @param password new password hash or null if the stored one is up to date.
+	 * @param salt new password's salt or null if the stored one is up to date.
+	 */
+	private void completeLogIn(final Connection connection,final String username,
+		final String password,final String salt) {
+		executeDatabase(connection, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					// Valid password and not logged in - adding user to the logged users list:
+					if(loggedUsers.putIfAbsent(username.hashCode(),connection) == null) {
+						// Replacing an outdated hash - the user can log in even if it fails:
+						if(password != null) {
+							try {
+								userRepository.updatePassword(username, password, salt);
+								Log.debug("ID"+connection.getID()+": rehashed password of: "+username);
+							}
+							catch (SQLException e) {
+								Log.error("SRV: unable to execute query - password rehash error: "+e.getMessage());
+							}
+						}
+						// Assigning username to the connection:
+						connection.setName(username);
+						// User might have disconnected while the password was checked:
+						if(!connection.isConnected()) {
+							loggedUsers.remove(username.hashCode(),connection);
+							return;
+						}
+						// Checking if the user is elite:
+						if (!skipEliteCheck && userRepository.isElite(connection.toString())) {
+							eliteUsers.put(connection.toString().hashCode(), connection);
+						}
+						
+						// Sending a packet with the player's username:
+						SrvLogged success = new SrvLogged();
+						success.username = connection.toString();
+						connection.sendTCP(success);
+						
+						// Adding user to the lobby:
+						serverManager.getLobbyManager().enterLobby(connection);
+						
+						Log.info("ID"+connection.getID()+": "+connection.toString()+": logged in");
+					}
+					else { // Account already logged:
+						connection.sendTCP(new SrvAlreadyLogged());
+						Log.debug("ID"+connection.getID()+": tried to log in as an already logged user: "+username);
+					}
+				}
+				catch (SQLException e) {
+					Log.error("SRV: unable to execute query - logging error: "+e.getMessage());
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Creates a new account. Password is hashed by a crypto worker, then the account
+	 * is created by a database worker.
+	 * @param connection user's connection.
+	 * @param registrationData validated registration data.
+	 */
+	private void register(final Connection connection,final CltRegister registrationData) {
+		executeCrypto(connection, new Runnable() {
+			@Override
+			public void run() {
+				// Encrypted password data:
+				final String salt = passwordHasher.getSalt();
+				final String password = passwordHasher.hash(registrationData.password, salt);
+				executeDatabase(connection, new Runnable() {
+					@Override
+					public void run() {
+						try {
+							// The insert fails if someone registered the same login first:
+							if(userRepository.createUser(registrationData.username,password,salt)) {
+								leaderboard.addUser(registrationData.username, 0, 0);
+								connection.sendTCP(new SrvRegistered());
+								Log.info("ID"+connection.getID()+": registered a new account: "+registrationData.username);
+							}
+							else {
+								connection.sendTCP(new SrvUsernameTaken());
+								Log.debug("ID"+connection.getID()+": tried to register as "+registrationData.username);
+							}
+						}
+						catch (SQLException e) {
+							Log.error("SRV: unable to execute query - registration error: " + e.getMessage());
+						}
+					}
+				});
+			}
+		});
+	}
+	
+	/**
+	 * Runs a password hashing task on a crypto worker. If too many tasks are queued, the
+	 * user is asked to try again later instead.
+	 * @param connection user's connection.
+	 * @param task hashes a password.
+	 */
+	private void executeCrypto(Connection connection,Runnable task) {
+		try {
+			cryptoWorkers.execute(task);
+		}
+		catch(RejectedExecutionException exception) {
+			connection.sendTCP(new SrvServerBusy());
+			Log.warn("ID"+connection.getID()+": too many queued logins, rejected request");
+		}
+	}
+	
+	/**
+	 * Runs a user's query on a database worker. Crypto workers might finish hashing after
+	 * the database workers started shutting down - the user is asked to try again later then.
+	 * @param connection user's connection.
+	 * @param task executes the query.
+	 */
+	private void executeDatabase(Connection connection,Runnable task) {
+		try {
+			databaseWorkers.execute(task);
+		}
+		catch(RejectedExecutionException exception) {
+			connection.sendTCP(new SrvServerBusy());
+			Log.warn("ID"+connection.getID()+": database workers rejected request");
+		}
+	}
+	
 	@Override
 	protected boolean disconnectUser(Connection connection) {
 		if(loggedUsers.containsKey(connection.toString().hashCode())) {
@@ -272,145 +384,77 @@ public class ConnectionManager extends AbstractManager {
 	
 	/**
 	 * Updates the amount of kills and deaths according to the scores that the
-	 * player got in the last game room. Needs a connection to the database
-	 * and is run by the connection thread.
+	 * player got in the last game room. Rankings are updated immediately; scores
+	 * are merged in memory and saved periodically or after enough users gained score.
 	 * @param userData user's data updated by the game room.
 	 */
-	public void updatePlayerScore(final GameRoomUser userData) {
+	public void updatePlayerScore(GameRoomUser userData) {
 		if(userData != null) {
-			managerThread.execute(new Runnable() {
-				@Override
-				public void run() {
-					try {
-						updateScoreStatement.setInt(1, userData.getKills());
-						updateScoreStatement.setInt(2, userData.getDeaths());
-						updateScoreStatement.setInt(3, userData.getUserConnection().toString().hashCode());
-						updateScoreStatement.executeUpdate();
-						databaseConnection.commit();
-					} catch (SQLException e) {
-						Log.error("SRV: unable to execute query - score saving error: "+e.getMessage());
-					}
-				}
-			});
-		}
-	}
-	
-	/**
-	 * Gets player's score from the database.
-	 * @param player user's connection.
-	 */
-	public void requestUserScore(final Connection player) {
-		managerThread.execute(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					getScoreStatement.setInt(1, player.toString().hashCode());
-					ResultSet result = getScoreStatement.executeQuery();
-					if(result.next()) {
-						serverManager.getLobbyManager().sendRankingData
-							(player, result.getInt(1), result.getInt(2));
-					}
-					result.close();
-				} catch (SQLException e) {
-					Log.error("SRV: unable to execute query - getting score error: " + e.getMessage());
-				}
+			leaderboard.addScore(userData.getUserConnection().toString(),
+				userData.getKills(), userData.getDeaths());
+			if(scoreAccumulator.add(userData.getUserConnection().toString(),
+				userData.getKills(), userData.getDeaths())) {
+				flushScores();
 			}
-		});
+		}
 	}
 	
 	/**
-	 * Updates ranking info in the lobby.
+	 * Saves pending scores. Run by a database worker.
 	 */
-	private void updateTopPlayers() {
-		managerThread.execute(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					// Getting top players from the database and
-					// updating ranking info in the lobby:
-					serverManager.getLobbyManager().updateRankingData
-						(fillRankingTable(getTopKillsStatement.executeQuery()),
-						fillRankingTable(getTopDeathsStatement.executeQuery()),
-						fillRankingTable(getTopRatioStatement.executeQuery()));
-				} catch (SQLException e) {
-					Log.error("SRV: unable to update ranking: "+e.getMessage());
+	private void flushScores() {
+		if(databaseWorkers.isShutdown()) {
+			// Remaining scores are saved by the shutdown:
+			return;
+		}
+		try {
+			databaseWorkers.execute(new Runnable() {
+				@Override
+				public void run() {
+					scoreAccumulator.flush();
 				}
-			}
-		});
-	}
-	
-	/**
-	 * Helper method to fill each ranking table.
-	 * @param result database result.
-	 * @return filled data array.
-	 * @throws SQLException may throw exception due to SQL stuff.
-	 */
-	private String[] fillRankingTable(ResultSet result) throws SQLException {
-		String[] rankingData = new String[10];
-		int index = 0;
-		while(result.next()) {
-			rankingData[index] = result.getString(1) + " " +
-				result.getInt(2) + "/" + result.getInt(3);
-			index ++;
-			if(index == 10) {
-				break;
-			}
+			});
 		}
-		for(;index<10;index++) {
-			rankingData[index] = "- -";
+		catch(RejectedExecutionException exception) {
+			// Workers are shutting down - scores stay in the accumulator for the final flush:
+			Log.debug("SRV: database workers rejected scores flush, postponing");
 		}
-		result.close();
-		return rankingData;
-	}
-	
-	/**
-	 * Encrypts a password with SHA-512 algorithm using salt.
-	 * @param password password to be encrypted.
-	 * @param salt secure random bytes array.
-	 * @return encrypted password hash.
-	 */
-	private static String encryptPassword(String password, byte[] salt) {
-		// Resetting password encryptor instance:
-	    PASSWORD_ENCRYPTOR.reset();
-	    // Updating encryptor with salt (secure random) bytes:
-	    PASSWORD_ENCRYPTOR.update(salt);
-	    // Encrypting password:
-	    return String.format("%0128x", new BigInteger
-	    	(1,PASSWORD_ENCRYPTOR.digest(password.getBytes())));
 	}
 	
 	/**
-	 * @return secure random array of bytes.
+	 * @return users' scores and rankings.
 	 */
-	private static byte[] getSalt() {
-		byte[] salt = new byte[16];
-		SALT.nextBytes(salt);
-        return String.format("%016x", new BigInteger(1,salt)).getBytes();
+	public Leaderboard getLeaderboard() {
+		return leaderboard;
 	}
 	
 	/**
-	 * Attempts to close (and save) users database.
+	 * Attempts to close (and save) users database after the queued queries are finished.
 	 * Should be run when the server application is about to close.
 	 */
 	public void shutdown() {
+		managerTimer.cancel();
 		managerThread.execute(new Runnable() {
 			@Override
 			public void run() {
 				try {
-					// Closing prepared statements:
-					getPasswordStatement.close();
-					createUserStatement.close();
-					updateScoreStatement.close();
-					getScoreStatement.close();
-					getTopKillsStatement.close();
-					getTopDeathsStatement.close();
-					getTopRatioStatement.close();
-					// Closing database connection:
-					databaseConnection.close();
-					Log.info("SRV: database closed");
-				} catch (SQLException e) {
-					Log.error("SRV: unable to close the database: "+e.getMessage());
+					// Finishing queued logins and queries:
+					cryptoWorkers.shutdown();
+					if(!cryptoWorkers.awaitTermination(10, TimeUnit.SECONDS)) {
+						Log.warn("SRV: passwords are still being hashed, skipping remaining logins");
+					}
+					databaseWorkers.shutdown();
+					if(!databaseWorkers.awaitTermination(10, TimeUnit.SECONDS)) {
+						Log.warn("SRV: database queries are still running, closing the database anyway");
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
 				}
+				// Saving scores added after the last flush:
+				scoreAccumulator.flush();
+				// Closing database connections:
+				userRepository.close();
+				Log.info("SRV: database closed");
 			}
 		});
 	}
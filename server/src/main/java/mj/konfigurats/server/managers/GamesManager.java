@@ -3,14 +3,15 @@ package mj.konfigurats.server.managers;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import mj.konfigurats.logic.Game;
 import mj.konfigurats.logic.Game.GameMode;
+import mj.konfigurats.logic.GameScheduler;
 import mj.konfigurats.logic.GameRoomUser;
 import mj.konfigurats.logic.maps.Maps.MapInfo;
+import mj.konfigurats.network.GamePackets.CltAcknowledgeWorld;
 import mj.konfigurats.network.GamePackets.CltCreateCharacter;
 import mj.konfigurats.network.GamePackets.CltGameChatMessage;
 import mj.konfigurats.network.GamePackets.CltGameInitiated;
@@ -58,94 +59,92 @@ public class GamesManager extends AbstractManager {
 		openGames = new CopyOnWriteArrayList<Game>(); // Replace with a hash map if it turns out to be inefficient.
 	}
 
+	/**
+	 * Game room packets are passed straight from the network thread to the player's
+	 * game room, without waiting for the manager thread. Only packets that modify the
+	 * game rooms lists are analyzed by the manager thread.
+	 */
 	@Override
-	protected void analyzePacket(Connection connection, Object packet) {
-		// Game management packets:
-		if(packet instanceof CltGameChatMessage) {
-			// Got a game room chat message - check if the player is in a game room:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				// Sending the message to all users in the player's game room:
-				SrvGameChatMessage message = new SrvGameChatMessage();
-				message.message = connection.toString()+": "+((CltGameChatMessage)packet).message;
-				playersGameRooms.get(connection.toString().hashCode()).sendMessage(message);
-			}
-		}
-		else if(packet instanceof CltTeamMessage) {
-			// Got a game team chat message - check if the player is in a game room:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				if(playersGameRooms.get(connection.toString().hashCode()).getGameMode() == GameMode.TEAM) {
-					SrvGameChatMessage message = new SrvGameChatMessage();
-					message.message = "(Team) " + connection.toString()+": "+((CltTeamMessage)packet).message;
-					playersGameRooms.get(connection.toString().hashCode()).sendTeamMessage(connection,message);
-				}
-			}
+	public void analyze(Connection connection, Object packet) {
+		if(packet instanceof CltLeaveGame) {
+			super.analyze(connection, packet);
 		}
-		else if(packet instanceof CltLeaveGame) {
-			// Player is trying to leave the game - check if he's playing:
-			if(disconnectUser(connection)) {
-				serverManager.getLobbyManager().enterLobby(connection);
-				// Send him a packet to enter lobby:
-				connection.sendTCP(new SrvLeaveGame());
+		else {
+			// Checking if the player is in a game room:
+			Game game = playersGameRooms.get(connection.toString().hashCode());
+			if(game != null) {
+				analyzeGamePacket(connection, game, packet);
 			}
 		}
+	}
+	
+	/**
+	 * Run by the network thread. Passes the packet to the player's game room.
+	 * @param connection user's connection.
+	 * @param game user's game room.
+	 * @param packet packet sent by the user's client.
+	 */
+	private void analyzeGamePacket(Connection connection, Game game, Object packet) {
 		// Game logic packets:
-		else if(packet instanceof CltGameInitiated) {
-			// Player's client initiated a game - tell him about current entities:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				playersGameRooms.get(connection.toString().hashCode())
-					.sendCurrentEntities(connection);
+		if(packet instanceof CltHandleClick) {
+			// Telling the game room to update its logic:
+			game.handleClick(connection, ((CltHandleClick)packet).x,
+				((CltHandleClick)packet).y);
+		}
+		else if(packet instanceof CltHandleFireCast) {
+			game.handleFireCast(connection, ((CltHandleFireCast)packet).x,
+				((CltHandleFireCast)packet).y);
+		}
+		else if(packet instanceof CltHandleWaterCast) {
+			game.handleWaterCast(connection, ((CltHandleWaterCast)packet).x,
+				((CltHandleWaterCast)packet).y);
+		}
+		else if(packet instanceof CltHandleEarthCast) {
+			game.handleEarthCast(connection, ((CltHandleEarthCast)packet).x,
+				((CltHandleEarthCast)packet).y);
+		}
+		else if(packet instanceof CltHandleAirCast) {
+			game.handleAirCast(connection, ((CltHandleAirCast)packet).x,
+				((CltHandleAirCast)packet).y);
+		}
+		else if(packet instanceof CltAcknowledgeWorld) {
+			// Player received a world update - it can be used as a delta baseline:
+			if(((CltAcknowledgeWorld)packet).gameRoomIndex == game.getRoomIndex()) {
+				game.acknowledgeWorld(connection, ((CltAcknowledgeWorld)packet).updateIndex);
 			}
 		}
 		else if(packet instanceof CltCreateCharacter) {
 			// Player is trying to enter the game with a new character:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				playersGameRooms.get(connection.toString().hashCode())
-					.createCharacter(connection, (CltCreateCharacter)packet);
-			}
-		}
-		else if(packet instanceof CltHandleClick) {
-			// If the player is actually in a game:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				// Telling the game room to update its logic:
-				playersGameRooms.get(connection.toString().hashCode())
-					.handleClick(connection, ((CltHandleClick)packet).x,
-					((CltHandleClick)packet).y);
-			}
+			game.createCharacter(connection, (CltCreateCharacter)packet);
 		}
-		else if(packet instanceof CltHandleFireCast) {
-			// If the player is actually in a game:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				// Telling the game room to update its logic:
-				playersGameRooms.get(connection.toString().hashCode())
-					.handleFireCast(connection, ((CltHandleFireCast)packet).x,
-					((CltHandleFireCast)packet).y);
-			}
+		else if(packet instanceof CltGameInitiated) {
+			// Player's client initiated a game - tell him about current entities:
+			game.sendCurrentEntities(connection);
 		}
-		else if(packet instanceof CltHandleWaterCast) {
-			// If the player is actually in a game:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				// Telling the game room to update its logic:
-				playersGameRooms.get(connection.toString().hashCode())
-					.handleWaterCast(connection, ((CltHandleWaterCast)packet).x,
-					((CltHandleWaterCast)packet).y);
-			}
+		// Game chat packets:
+		else if(packet instanceof CltGameChatMessage) {
+			// Sending the message to all users in the player's game room:
+			SrvGameChatMessage message = new SrvGameChatMessage();
+			message.message = connection.toString()+": "+((CltGameChatMessage)packet).message;
+			game.sendMessage(message);
 		}
-		else if(packet instanceof CltHandleEarthCast) {
-			// If the player is actually in a game:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				// Telling the game room to update its logic:
-				playersGameRooms.get(connection.toString().hashCode())
-					.handleEarthCast(connection, ((CltHandleEarthCast)packet).x,
-					((CltHandleEarthCast)packet).y);
+		else if(packet instanceof CltTeamMessage) {
+			if(game.getGameMode() == GameMode.TEAM) {
+				SrvGameChatMessage message = new SrvGameChatMessage();
+				message.message = "(Team) " + connection.toString()+": "+((CltTeamMessage)packet).message;
+				game.sendTeamMessage(connection,message);
 			}
 		}
-		else if(packet instanceof CltHandleAirCast) {
-			// If the player is actually in a game:
-			if(playersGameRooms.containsKey(connection.toString().hashCode())) {
-				// Telling the game room to update its logic:
-				playersGameRooms.get(connection.toString().hashCode())
-					.handleAirCast(connection, ((CltHandleAirCast)packet).x,
-					((CltHandleAirCast)packet).y);
+	}
+
+	@Override
+	protected void analyzePacket(Connection connection, Object packet) {
+		if(packet instanceof CltLeaveGame) {
+			// Player is trying to leave the game - check if he's playing:
+			if(disconnectUser(connection)) {
+				serverManager.getLobbyManager().enterLobby(connection);
+				// Send him a packet to enter lobby:
+				connection.sendTCP(new SrvLeaveGame());
 			}
 		}
 	}
@@ -210,7 +209,7 @@ public class GamesManager extends AbstractManager {
 			Log.info("ID"+connection.getID()+": "+connection.toString()+": left game room: "+game.toString());
 			
 			// Telling the game thread to schedule a validity check on the game:
-			game.getGameThread().schedule(new TimerTask() {
+			game.schedule(new Runnable() {
 				@Override
 				public void run() {
 					validateGame(game,connection);
@@ -238,6 +237,8 @@ public class GamesManager extends AbstractManager {
 					serverManager.getLobbyManager().removeGameRoomInfo(game.toString());
 					game.dispose();
 					Log.info("SRV: removed empty game room: "+game.toString());
+					Log.debug("SRV: "+game.toString()+" update loop: "+game.getTickStatistics());
+					Log.debug("SRV: global game rooms tick: "+GameScheduler.SCHEDULER.getTickStatistics());
 				}
 				else {
 					// If it isn't: updating game room informations in the lobby:
@@ -251,14 +252,14 @@ public class GamesManager extends AbstractManager {
 					// Removing the leaving user from the rest users' chat lists:
 					final SrvRemoveRoomUser removeUser = new SrvRemoveRoomUser();
 					removeUser.username = leavingPlayer.toString();
-					game.getGameThread().schedule(new TimerTask() {
+					game.execute(new Runnable() {
 						@Override
 						public void run() {
 							for(Connection user : game.getPlayers()) {
 								user.sendUDP(removeUser);
 							}
 						}
-					}, 0);
+					});
 				}
 			}
 		});
@@ -454,7 +455,7 @@ public class GamesManager extends AbstractManager {
 				}
 				
 				// Sending packets with names of the players in the room:
-				game.getGameThread().schedule(new TimerTask() {
+				game.schedule(new Runnable() {
 					@Override
 					public void run() {
 						SrvAddRoomUser newUserNickname = new SrvAddRoomUser();
@@ -534,6 +535,7 @@ public class GamesManager extends AbstractManager {
 				
 				// Destroying the game:
 				game.dispose();
+				Log.debug("SRV: "+game.toString()+" update loop: "+game.getTickStatistics());
 				
 				// Creating a new game object and adding it to the lists:
 				Game newMapGame = new Game(game.toString(),game.getPassword(),
@@ -584,6 +586,8 @@ public class GamesManager extends AbstractManager {
 				playersGameRooms.clear();
 				openGames.clear();
 				activeGames.clear();
+				// Stopping game threads once the worlds are disposed:
+				GameScheduler.SCHEDULER.shutdown();
 
 				Log.info("SRV: destroyed Box2D worlds");
 			}
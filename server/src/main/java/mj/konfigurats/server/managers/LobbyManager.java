@@ -1,5 +1,6 @@
 package mj.konfigurats.server.managers;
 
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 
 import mj.konfigurats.network.GamePackets.SrvGameChatMessage;
@@ -21,23 +22,24 @@ import mj.konfigurats.network.LobbyPackets.SrvRemoveGame;
 import mj.konfigurats.network.LobbyPackets.SrvRemoveLobbyUser;
 import mj.konfigurats.network.LobbyPackets.SrvUpdateGame;
 import mj.konfigurats.server.ServerManager;
+import mj.konfigurats.server.ranking.Leaderboard;
+import mj.konfigurats.server.ranking.Leaderboard.RankingType;
 
 import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.minlog.Log;
 
 public class LobbyManager extends AbstractManager {
+	// Maximum amount of ranking entries sent at once:
+	private final static int MAX_RANKING_PAGE=50;
 	// All users present in the lobby, <connection.toString().hashCode(),connection>:
 	private final ConcurrentHashMap<Integer,Connection> lobbyUsers;
 	// Packets with informations about currently active games, <packet.game.name.hashCode(),packet>:
 	private final ConcurrentHashMap<Integer,SrvUpdateGame> activeGames;
-	// Ranking data:
-	private final String[][] rankingData;
 	
 	public LobbyManager(ServerManager serverManager) {
 		super(serverManager);
 		lobbyUsers = new ConcurrentHashMap<Integer,Connection>();
 		activeGames = new ConcurrentHashMap<Integer,SrvUpdateGame>();
-		rankingData = new String[3][];
 	}
 
 	@Override
@@ -106,8 +108,8 @@ public class LobbyManager extends AbstractManager {
 			connection.sendTCP(new SrvLobbyLoggedOut());
 		}
 		else if(packet instanceof CltShowRanking) {
-			// Sending database access request to the connection manager:
-			serverManager.getConnectionManager().requestUserScore(connection);
+			// Sending the requested page of the ranking with the player's score:
+			sendRankingData(connection, (CltShowRanking)packet);
 		}
 		else if(packet instanceof CltCreateGame) {
 			// Creating a game room with a specified name:
@@ -236,31 +238,49 @@ public class LobbyManager extends AbstractManager {
 	}
 	
 	/**
-	 * Sends a packet with current ranking data and player's scores to a user.
+	 * Sends a packet with the requested ranking page, player's score and ranks to a user.
+	 * Invalid ranking types are ignored.
 	 * @param player user's connection.
-	 * @param kills user's kills amount.
-	 * @param deaths user's deaths amount.
+	 * @param request ranking type and page requested by the user.
 	 */
-	public void sendRankingData(final Connection player,final int kills,final int deaths) {
+	public void sendRankingData(final Connection player,final CltShowRanking request) {
+		final RankingType rankingType = RankingType.getRankingType(request.rankingType);
+		if(rankingType == null) {
+			return;
+		}
 		managerThread.execute(new Runnable() {
 			@Override
 			public void run() {
+				Leaderboard leaderboard = serverManager.getConnectionManager().getLeaderboard();
+				// Users missing from the leaderboard still get the page, without their own score:
+				int[] score = leaderboard.getScore(player.toString());
+				int amount = Math.max(1, Math.min(request.amount, MAX_RANKING_PAGE));
+				
 				SrvRankingData packet = new SrvRankingData();
-				packet.topKills = rankingData[0];
-				packet.topDeaths = rankingData[1];
-				packet.topRatio = rankingData[2];
-				packet.userKills = kills;
-				packet.userDeaths = deaths;
+				packet.rankingType = request.rankingType;
+				packet.from = request.aroundUser ? leaderboard.getPageAround(rankingType,
+					player.toString(), amount) : Math.max(0, request.from);
+				packet.rankedAmount = leaderboard.getRankedAmount(rankingType);
+				
+				// Filling the page, trimming the arrays if there are not enough entries:
+				String[] usernames = new String[amount];
+				int[] kills = new int[amount], deaths = new int[amount];
+				int size = leaderboard.getPage(rankingType, packet.from, usernames, kills, deaths);
+				packet.usernames = Arrays.copyOf(usernames, size);
+				packet.kills = Arrays.copyOf(kills, size);
+				packet.deaths = Arrays.copyOf(deaths, size);
+				
+				if(score != null) {
+					packet.userKills = score[0];
+					packet.userDeaths = score[1];
+				}
+				// Unknown users are unranked (-1) in each ranking:
+				packet.userRanks = new int[RankingType.values().length];
+				for(RankingType type : RankingType.values()) {
+					packet.userRanks[type.ordinal()] = leaderboard.getRank(type, player.toString());
+				}
 				player.sendTCP(packet);
 			}
 		});
 	}
-	
-	public void updateRankingData(final String[] topKills,
-		final String[] topDeaths,final String[]topRatio) {
-		rankingData[0] = topKills;
-		rankingData[1] = topDeaths;
-		rankingData[2] = topRatio;
-		Log.info("SRV: ranking updated");
-	}
 }
@@ -0,0 +1,232 @@
+package mj.konfigurats.server.ranking;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the scores of all users in memory, ordered by each ranking type. Loaded once
+ * when the server starts and updated as soon as the players gain score, so the rankings
+ * are always up to date and don't need any database scans. Finding a user's rank or
+ * a ranking entry takes O(log n). Thread-safe.
+ * @author MJ
+ */
+public class Leaderboard {
+	// <username,score>:
+	private final Map<String,PlayerScore> scores;
+	private final EnumMap<RankingType,RankingTree<PlayerScore>> rankings;
+
+	public Leaderboard() {
+		scores = new HashMap<String,PlayerScore>();
+		rankings = new EnumMap<RankingType,RankingTree<PlayerScore>>(RankingType.class);
+		for(RankingType type : RankingType.values()) {
+			rankings.put(type, new RankingTree<PlayerScore>(type.getComparator()));
+		}
+	}
+
+	/**
+	 * @param username user's nickname.
+	 * @param kills user's current kills.
+	 * @param deaths user's current deaths.
+	 */
+	public synchronized void addUser(String username,int kills,int deaths) {
+		if(!scores.containsKey(username)) {
+			PlayerScore score = new PlayerScore(username, kills, deaths);
+			scores.put(username, score);
+			addToRankings(score);
+		}
+	}
+
+	/**
+	 * @param username user's nickname. Unknown users are added.
+	 * @param kills will be added to the user's kills.
+	 * @param deaths will be added to the user's deaths.
+	 */
+	public synchronized void addScore(String username,int kills,int deaths) {
+		PlayerScore score = scores.get(username);
+		if(score == null) {
+			addUser(username, kills, deaths);
+		}
+		else if(kills != 0 || deaths != 0) {
+			// Order changes - reinserting:
+			removeFromRankings(score);
+			score.kills += kills;
+			score.deaths += deaths;
+			addToRankings(score);
+		}
+	}
+
+	/**
+	 * @param username user's nickname.
+	 * @return 0. kills, 1. deaths of the user or null if the user is unknown.
+	 */
+	public synchronized int[] getScore(String username) {
+		PlayerScore score = scores.get(username);
+		return score == null ? null : new int[] { score.kills, score.deaths };
+	}
+
+	/**
+	 * @param type type of the ranking.
+	 * @param username user's nickname.
+	 * @return 0-based position of the user in the ranking or -1 if the user is not ranked.
+	 */
+	public synchronized int getRank(RankingType type,String username) {
+		PlayerScore score = scores.get(username);
+		return score == null ? -1 : rankings.get(type).getRank(score);
+	}
+
+	/**
+	 * @param type type of the ranking.
+	 * @return amount of users in the ranking.
+	 */
+	public synchronized int getRankedAmount(RankingType type) {
+		return rankings.get(type).size();
+	}
+
+	/**
+	 * @param type type of the ranking.
+	 * @param username user's nickname.
+	 * @param amount amount of entries on the page.
+	 * @return 0-based position of the first entry of a page with the user in its middle.
+	 *	First page if the user is not ranked.
+	 */
+	public synchronized int getPageAround(RankingType type,String username,int amount) {
+		int rank = getRank(type, username);
+		if(rank < 0) {
+			return 0;
+		}
+		// Showing a full page if the user is near the end of the ranking:
+		int from = Math.min(rank-amount/2, getRankedAmount(type)-amount);
+		return Math.max(0, from);
+	}
+
+	/**
+	 * @param type type of the ranking.
+	 * @param from 0-based position of the first entry.
+	 * @param usernames will contain users' nicknames. Its length is the maximum amount
+	 *	of entries.
+	 * @param kills will contain users' kills.
+	 * @param deaths will contain users' deaths.
+	 * @return amount of entries on the page.
+	 */
+	public synchronized int getPage(RankingType type,int from,String[] usernames,
+		int[] kills,int[] deaths) {
+		PlayerScore[] page = new PlayerScore[usernames.length];
+		int amount = rankings.get(type).get(page, from, page.length);
+		for(int index=0; index<amount; index++) {
+			usernames[index] = page[index].username;
+			kills[index] = page[index].kills;
+			deaths[index] = page[index].deaths;
+		}
+		return amount;
+	}
+
+	private void addToRankings(PlayerScore score) {
+		for(RankingType type : RankingType.values()) {
+			if(type.isRanked(score.kills, score.deaths)) {
+				rankings.get(type).add(score);
+			}
+		}
+	}
+
+	private void removeFromRankings(PlayerScore score) {
+		for(RankingType type : RankingType.values()) {
+			if(type.isRanked(score.kills, score.deaths)) {
+				rankings.get(type).remove(score);
+			}
+		}
+	}
+
+	/**
+	 * Score of a single user. Modified only after removing it from the rankings.
+	 * @author MJ
+	 */
+	private static class PlayerScore {
+		private final String username;
+		private int kills,deaths;
+
+		public PlayerScore(String username,int kills,int deaths) {
+			this.username = username;
+			this.kills = kills;
+			this.deaths = deaths;
+		}
+	}
+
+	/**
+	 * Available rankings. Orders match the ones used by the database queries
+	 * before the rankings were kept in memory; ties are resolved by the usernames.
+	 * Ordinals are the ranking types' indexes used by the ranking packets.
+	 * @author MJ
+	 */
+	public static enum RankingType {
+		/** Most kills, then least deaths. */
+		KILLS(new Comparator<PlayerScore>() {
+			@Override
+			public int compare(PlayerScore scoreA,PlayerScore scoreB) {
+				int comparison = Integer.compare(scoreB.kills, scoreA.kills);
+				if(comparison == 0) {
+					comparison = Integer.compare(scoreA.deaths, scoreB.deaths);
+				}
+				return comparison == 0 ? scoreA.username.compareTo(scoreB.username) : comparison;
+			}
+		}),
+		/** Most deaths, then least kills. */
+		DEATHS(new Comparator<PlayerScore>() {
+			@Override
+			public int compare(PlayerScore scoreA,PlayerScore scoreB) {
+				int comparison = Integer.compare(scoreB.deaths, scoreA.deaths);
+				if(comparison == 0) {
+					comparison = Integer.compare(scoreA.kills, scoreB.kills);
+				}
+				return comparison == 0 ? scoreA.username.compareTo(scoreB.username) : comparison;
+			}
+		}),
+		/** Best kills to all fights ratio, only users with at least 100 fights. */
+		RATIO(new Comparator<PlayerScore>() {
+			@Override
+			public int compare(PlayerScore scoreA,PlayerScore scoreB) {
+				int comparison = Long.compare(getRatio(scoreB), getRatio(scoreA));
+				return comparison == 0 ? scoreA.username.compareTo(scoreB.username) : comparison;
+			}
+		});
+
+		// Minimum amount of kills and deaths to be included in the ratio ranking:
+		private final static int MIN_RATIO_FIGHTS=100;
+		private final Comparator<PlayerScore> comparator;
+
+		private RankingType(Comparator<PlayerScore> comparator) {
+			this.comparator = comparator;
+		}
+
+		/**
+		 * @param index index of the ranking type, as sent by the client.
+		 * @return ranking type or null for an invalid index.
+		 */
+		public static RankingType getRankingType(int index) {
+			RankingType[] types = values();
+			return index >= 0 && index < types.length ? types[index] : null;
+		}
+
+		private Comparator<PlayerScore> getComparator() {
+			return comparator;
+		}
+
+		/**
+		 * @param kills user's kills.
+		 * @param deaths user's deaths.
+		 * @return true if the user should be included in the ranking.
+		 */
+		private boolean isRanked(int kills,int deaths) {
+			return this != RATIO || kills+deaths >= MIN_RATIO_FIGHTS;
+		}
+
+		/**
+		 * @param score user's score.
+		 * @return kills to fights ratio multiplied by 10000.
+		 */
+		private static long getRatio(PlayerScore score) {
+			return score.kills*10000L/(score.kills+score.deaths);
+		}
+	}
+}
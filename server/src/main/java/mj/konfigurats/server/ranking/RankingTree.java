@@ -0,0 +1,222 @@
+package mj.konfigurats.server.ranking;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * An order-statistic tree: a treap (randomized binary search tree) that keeps the size
+ * of each subtree, so the position of any value and the value at any position can be
+ * found in expected O(log n). Values are ordered by the comparator, which has to be
+ * consistent with equals - it should never consider two different values equal.
+ * Values must not change their order while they are stored in the tree. Not thread-safe.
+ * @author MJ
+ * @param <Value> type of the stored values.
+ */
+public class RankingTree<Value> {
+	private final Comparator<? super Value> comparator;
+	private final Random random;
+	private Node<Value> root;
+
+	/**
+	 * @param comparator decides about the values' order. First values have the lowest
+	 *	ranks.
+	 */
+	public RankingTree(Comparator<? super Value> comparator) {
+		this.comparator = comparator;
+		random = new Random();
+	}
+
+	/**
+	 * @return amount of stored values.
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * @param value will be added to the tree. Should not be already stored.
+	 */
+	public void add(Value value) {
+		root = add(root, new Node<Value>(value, random.nextInt()));
+	}
+
+	/**
+	 * @param value will be removed from the tree.
+	 * @return true if the value was stored.
+	 */
+	public boolean remove(Value value) {
+		int previousSize = size(root);
+		root = remove(root, value);
+		return size(root) != previousSize;
+	}
+
+	/**
+	 * @param value a stored value.
+	 * @return 0-based position of the value or -1 if it's not stored.
+	 */
+	public int getRank(Value value) {
+		Node<Value> node = root;
+		int rank = 0;
+		while(node != null) {
+			int comparison = comparator.compare(value, node.value);
+			if(comparison < 0) {
+				node = node.left;
+			}
+			else if(comparison > 0) {
+				rank += size(node.left)+1;
+				node = node.right;
+			}
+			else {
+				return rank+size(node.left);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param rank 0-based position of the value.
+	 * @return value at the selected position.
+	 * @throws IndexOutOfBoundsException if rank is negative or not lower than size.
+	 */
+	public Value get(int rank) {
+		if(rank < 0 || rank >= size(root)) {
+			throw new IndexOutOfBoundsException("Invalid rank: "+rank+", size: "+size(root));
+		}
+		Node<Value> node = root;
+		while(true) {
+			int leftSize = size(node.left);
+			if(rank < leftSize) {
+				node = node.left;
+			}
+			else if(rank > leftSize) {
+				rank -= leftSize+1;
+				node = node.right;
+			}
+			else {
+				return node.value;
+			}
+		}
+	}
+
+	/**
+	 * @param result will contain the values.
+	 * @param from 0-based position of the first value.
+	 * @param amount maximum amount of values.
+	 * @return amount of values copied to the array - might be lower than requested if
+	 *	there are not enough values.
+	 */
+	public int get(Value[] result,int from,int amount) {
+		int copied = 0;
+		for(int rank=Math.max(0, from), size=size(root); copied < amount && rank < size; rank++) {
+			result[copied++] = get(rank);
+		}
+		return copied;
+	}
+
+	private Node<Value> add(Node<Value> node,Node<Value> newNode) {
+		if(node == null) {
+			return newNode;
+		}
+		if(newNode.priority > node.priority) {
+			// New node becomes the root of this subtree:
+			split(node, newNode.value, newNode);
+			return newNode.update();
+		}
+		if(comparator.compare(newNode.value, node.value) < 0) {
+			node.left = add(node.left, newNode);
+		}
+		else {
+			node.right = add(node.right, newNode);
+		}
+		return node.update();
+	}
+
+	private Node<Value> remove(Node<Value> node,Value value) {
+		if(node == null) {
+			return null;
+		}
+		int comparison = comparator.compare(value, node.value);
+		if(comparison < 0) {
+			node.left = remove(node.left, value);
+		}
+		else if(comparison > 0) {
+			node.right = remove(node.right, value);
+		}
+		else {
+			return merge(node.left, node.right);
+		}
+		return node.update();
+	}
+
+	/**
+	 * @param node will be split.
+	 * @param value values lower than this one will be stored in the left subtree of the
+	 *	result node, the rest - in the right subtree.
+	 * @param result will contain both parts as its subtrees.
+	 */
+	private void split(Node<Value> node,Value value,Node<Value> result) {
+		if(node == null) {
+			result.left = result.right = null;
+		}
+		else if(comparator.compare(node.value, value) < 0) {
+			split(node.right, value, result);
+			node.right = result.left;
+			result.left = node.update();
+		}
+		else {
+			split(node.left, value, result);
+			node.left = result.right;
+			result.right = node.update();
+		}
+	}
+
+	/**
+	 * @param left all its values are lower than the values of the right tree.
+	 * @param right all its values are higher than the values of the left tree.
+	 * @return root of the merged tree.
+	 */
+	private Node<Value> merge(Node<Value> left,Node<Value> right) {
+		if(left == null) {
+			return right;
+		}
+		if(right == null) {
+			return left;
+		}
+		if(left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			return left.update();
+		}
+		right.left = merge(left, right.left);
+		return right.update();
+	}
+
+	private static int size(Node<?> node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * A single value of the tree.
+	 * @author MJ
+	 * @param <Value> type of the stored value.
+	 */
+	private static class Node<Value> {
+		private final Value value;
+		private final int priority;
+		private int size;
+		private Node<Value> left,right;
+
+		public Node(Value value,int priority) {
+			this.value = value;
+			this.priority = priority;
+			size = 1;
+		}
+
+		/**
+		 * @return this node, after updating its size.
+		 */
+		public Node<Value> update() {
+			size = size(left)+size(right)+1;
+			return this;
+		}
+	}
+}
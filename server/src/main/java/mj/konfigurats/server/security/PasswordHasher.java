@@ -0,0 +1,159 @@
+package mj.konfigurats.server.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes and verifies users' passwords with PBKDF2 (HMAC SHA-512). Hashes are stored as
+ * "pbkdf2$iterations$base64 hash", so the cost can be raised without invalidating existing
+ * passwords. Single-round SHA-512 hashes used by older server versions (128 hex
+ * characters) are still verified, but should be replaced with {@link #hash(String, String)}
+ * after a successful login. Each thread uses its own digest and key factory instances,
+ * so the hasher can be used by multiple threads at once. Thread-safe.
+ * @author MJ
+ */
+public class PasswordHasher {
+	private final static String PREFIX="pbkdf2$",SEPARATOR="$";
+	private final static String ALGORITHM="PBKDF2WithHmacSHA512",LEGACY_ALGORITHM="SHA-512";
+	// Hash length in bits - 64 bytes, encoded with 88 characters:
+	private final static int HASH_LENGTH=512;
+	// Salt length in bytes - encoded with 32 hex characters:
+	private final static int SALT_LENGTH=16;
+	private final static char[] HEX_DIGITS="0123456789abcdef".toCharArray();
+	private final int iterations;
+	private final SecureRandom random;
+	private final ThreadLocal<SecretKeyFactory> keyFactories;
+	private final ThreadLocal<MessageDigest> legacyDigests;
+
+	/**
+	 * @param iterations cost of the new hashes.
+	 * @throws NoSuchAlgorithmException if the JVM does not support the hashing algorithms.
+	 */
+	public PasswordHasher(int iterations) throws NoSuchAlgorithmException {
+		this.iterations = Math.max(1, iterations);
+		random = new SecureRandom();
+		keyFactories = new ThreadLocal<SecretKeyFactory>() {
+			@Override
+			protected SecretKeyFactory initialValue() {
+				try {
+					return SecretKeyFactory.getInstance(ALGORITHM);
+				}
+				catch(NoSuchAlgorithmException exception) {
+					throw new IllegalStateException(exception);
+				}
+			}
+		};
+		legacyDigests = new ThreadLocal<MessageDigest>() {
+			@Override
+			protected MessageDigest initialValue() {
+				try {
+					return MessageDigest.getInstance(LEGACY_ALGORITHM);
+				}
+				catch(NoSuchAlgorithmException exception) {
+					throw new IllegalStateException(exception);
+				}
+			}
+		};
+		// Failing early rather than on the first login:
+		SecretKeyFactory.getInstance(ALGORITHM);
+		MessageDigest.getInstance(LEGACY_ALGORITHM);
+	}
+
+	/**
+	 * @return new secure random salt, 32 hex characters.
+	 */
+	public String getSalt() {
+		byte[] salt = new byte[SALT_LENGTH];
+		random.nextBytes(salt);
+		return toHex(salt);
+	}
+
+	/**
+	 * @param password user's password.
+	 * @param salt password's salt.
+	 * @return encoded hash with the current cost. Up to 106 characters.
+	 */
+	public String hash(String password,String salt) {
+		return PREFIX+iterations+SEPARATOR
+			+ Base64.getEncoder().encodeToString(pbkdf2(password, salt, iterations));
+	}
+
+	/**
+	 * @param password password entered by the user.
+	 * @param salt stored salt.
+	 * @param hash stored hash - either encoded by this hasher or a legacy SHA-512 hash.
+	 * @return true if the password matches the hash.
+	 */
+	public boolean verify(String password,String salt,String hash) {
+		if(hash.startsWith(PREFIX)) {
+			int separatorIndex = hash.indexOf(SEPARATOR, PREFIX.length());
+			if(separatorIndex < 0) {
+				return false;
+			}
+			byte[] expected;
+			int hashIterations;
+			try {
+				hashIterations = Integer.parseInt(hash.substring(PREFIX.length(), separatorIndex));
+				expected = Base64.getDecoder().decode(hash.substring(separatorIndex+1));
+			}
+			catch(IllegalArgumentException exception) {
+				// Corrupted hash:
+				return false;
+			}
+			return hashIterations > 0
+				&& MessageDigest.isEqual(expected, pbkdf2(password, salt, hashIterations));
+		}
+		return MessageDigest.isEqual(hash.getBytes(StandardCharsets.US_ASCII),
+			legacyHash(password, salt).getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * @param hash stored hash.
+	 * @return true if the hash uses a legacy algorithm or a different cost and should
+	 *	be replaced after the next successful login.
+	 */
+	public boolean needsRehash(String hash) {
+		return !hash.startsWith(PREFIX+iterations+SEPARATOR);
+	}
+
+	private byte[] pbkdf2(String password,String salt,int iterations) {
+		PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(),
+			salt.getBytes(StandardCharsets.US_ASCII), iterations, HASH_LENGTH);
+		try {
+			return keyFactories.get().generateSecret(keySpec).getEncoded();
+		}
+		catch(GeneralSecurityException exception) {
+			throw new IllegalStateException("Unable to hash password.",exception);
+		}
+		finally {
+			keySpec.clearPassword();
+		}
+	}
+
+	/**
+	 * @return password hash compatible with the older server versions: SHA-512 of the
+	 *	salt and password, as 128 hex characters.
+	 */
+	private String legacyHash(String password,String salt) {
+		MessageDigest digest = legacyDigests.get();
+		digest.reset();
+		digest.update(salt.getBytes(StandardCharsets.US_ASCII));
+		return toHex(digest.digest(password.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] hex = new char[bytes.length*2];
+		for(int index=0; index<bytes.length; index++) {
+			hex[index*2] = HEX_DIGITS[(bytes[index] >> 4) & 0xF];
+			hex[index*2+1] = HEX_DIGITS[bytes[index] & 0xF];
+		}
+		return new String(hex);
+	}
+}